@@ -0,0 +1,330 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.core.HelpFormatter;
+import com.guanyanqi.core.SuggestionIndex;
+import com.guanyanqi.core.TerminalHelpFormatter;
+import com.guanyanqi.core.parser.ParseLimits;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.exception.UnknownCommandException;
+import com.guanyanqi.index.CommandIndex;
+import com.guanyanqi.metrics.ParseMetrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 多命令分发器：按命令行首个参数路由到对应命令类的 {@link QCmdParser}。
+ * <p>
+ * 构建时把每个命令名及别名登记到一张不可变哈希表，路由只需一次查表。
+ * 通过 {@link CommandIndex} 登记的命令类直到首次被调用时才加载，解析器同样在首次调用时编译，
+ * 之后复用；未被调用的命令既不加载类也不构建描述符。
+ * </p>
+ *
+ * <pre>
+ *     CommandRegistry registry = CommandRegistry.builder()
+ *         .index(CommandIndex.load())
+ *         .register(VersionCmd.class)
+ *         .build();
+ *     ParsedCommand&lt;?&gt; parsed = registry.dispatch(args);
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class CommandRegistry {
+
+    private final Map<String, Route> routes;
+    /** 全部命令名与别名的候选索引，用于未知命令的提示。 */
+    private final SuggestionIndex suggestions;
+    private final TokenHandlerChain chain;
+    private final HelpFormatter formatter;
+    private final ParseLimits limits;
+    private final ParseMetrics metrics;
+
+    private CommandRegistry(Map<String, Route> routes, TokenHandlerChain chain, HelpFormatter formatter,
+                            ParseLimits limits, ParseMetrics metrics) {
+        this.routes = Map.copyOf(routes);
+        this.suggestions = SuggestionIndex.of(this.routes.keySet());
+        this.chain = chain;
+        this.formatter = formatter;
+        this.limits = limits;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 创建注册表构建器。
+     *
+     * @return 构建器实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 以命令索引中的全部命令构建注册表。
+     *
+     * @param index 命令索引
+     * @return 注册表
+     */
+    public static CommandRegistry fromIndex(CommandIndex index) {
+        return builder().index(index).build();
+    }
+
+    /**
+     * 按首个参数路由并解析命令行。
+     *
+     * @param args 命令行入参数组，首个元素为命令名
+     * @return 目标命令的解析结果
+     * @throws UnknownCommandException 首个参数未登记任何命令时抛出
+     */
+    public ParsedCommand<?> dispatch(String[] args) {
+        if (args == null || args.length == 0) {
+            throw new QCmdException("命令行内容为空");
+        }
+        return parser(args[0]).parse(args);
+    }
+
+    /**
+     * 获取命令名对应的解析器，首次获取时加载命令类并编译。
+     *
+     * @param commandName 命令名或别名
+     * @return 编译好的解析器
+     * @throws UnknownCommandException 命令名未登记时抛出
+     */
+    public QCmdParser<?> parser(String commandName) {
+        Route route = routes.get(commandName);
+        if (route == null) {
+            throw new UnknownCommandException(commandName, suggestions.suggest(commandName));
+        }
+        return route.parser(chain, formatter, limits, metrics);
+    }
+
+    /**
+     * 立即加载并编译全部已登记命令，适用于常驻进程启动时预热。
+     *
+     * @return 编译的命令类个数
+     */
+    public int compileAll() {
+        Set<Route> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(routes.values());
+        for (Route route : distinct) {
+            route.parser(chain, formatter, limits, metrics);
+        }
+        return distinct.size();
+    }
+
+    /**
+     * 判断命令名是否已登记。
+     *
+     * @param commandName 命令名或别名
+     * @return 已登记返回 true
+     */
+    public boolean contains(String commandName) {
+        return routes.containsKey(commandName);
+    }
+
+    /**
+     * 判断命令名对应的解析器是否已编译。
+     *
+     * @param commandName 命令名或别名
+     * @return 已编译返回 true；未登记或尚未调用返回 false
+     */
+    public boolean isCompiled(String commandName) {
+        Route route = routes.get(commandName);
+        return route != null && route.compiled != null;
+    }
+
+    /**
+     * 获取全部已登记的命令名（含别名）。
+     *
+     * @return 不可变命令名集合
+     */
+    public Set<String> commandNames() {
+        return routes.keySet();
+    }
+
+    /**
+     * 单个命令类的路由目标；同一命令类的所有别名共享一个实例，解析器只编译一次。
+     */
+    private static final class Route {
+        private final String className;
+        private final Supplier<Class<?>> classLoader;
+        private volatile QCmdParser<?> compiled;
+
+        private Route(String className, Supplier<Class<?>> classLoader) {
+            this.className = className;
+            this.classLoader = classLoader;
+        }
+
+        private QCmdParser<?> parser(TokenHandlerChain chain, HelpFormatter formatter, ParseLimits limits,
+                                     ParseMetrics metrics) {
+            QCmdParser<?> parser = compiled;
+            if (parser == null) {
+                synchronized (this) {
+                    parser = compiled;
+                    if (parser == null) {
+                        parser = QCmdParser.compile(classLoader.get(), chain, formatter, metrics).withLimits(limits);
+                        compiled = parser;
+                    }
+                }
+            }
+            return parser;
+        }
+    }
+
+    /**
+     * {@link CommandRegistry} 的构建器。
+     */
+    public static final class Builder {
+        private final Map<String, Route> routes = new HashMap<>();
+        private final Map<String, Route> routesByClass = new HashMap<>();
+        private TokenHandlerChain chain;
+        private HelpFormatter formatter;
+        private ParseLimits limits = ParseLimits.NONE;
+        private ParseMetrics metrics = ParseMetrics.NONE;
+
+        private Builder() {
+        }
+
+        /**
+         * 登记一个已加载的命令类，命令名取自其 {@code @Cmd.names()}。
+         *
+         * @param commandClass 命令类
+         * @return 构建器实例
+         * @throws QCmdException 类未标注 {@code @Cmd} 或命令名与其他类冲突时抛出
+         */
+        public Builder register(Class<?> commandClass) {
+            Objects.requireNonNull(commandClass, "Target class must not be null");
+            Cmd cmd = commandClass.getAnnotation(Cmd.class);
+            if (cmd == null) {
+                throw new QCmdException("命令类 " + commandClass.getName() + " 未标注 @Cmd 注解");
+            }
+            for (String name : cmd.names()) {
+                route(name, commandClass.getName(), () -> commandClass);
+            }
+            return this;
+        }
+
+        /**
+         * 登记密封接口或密封抽象类的全部许可命令子类型（递归展开密封子类型）。
+         *
+         * @param sealedType 密封类型
+         * @return 构建器实例
+         * @throws QCmdException 类型未密封、子类型无法穷举或命令名冲突时抛出
+         */
+        public Builder registerSealed(Class<?> sealedType) {
+            Objects.requireNonNull(sealedType, "Target class must not be null");
+            for (Map.Entry<String, Class<?>> entry : SealedCommandRoutes.routes(sealedType).entrySet()) {
+                Class<?> commandClass = entry.getValue();
+                route(entry.getKey(), commandClass.getName(), () -> commandClass);
+            }
+            return this;
+        }
+
+        /**
+         * 登记命令索引中的全部命令；命令类在首次调用时才通过索引加载。
+         *
+         * @param index 命令索引
+         * @return 构建器实例
+         * @throws QCmdException 命令名与已登记的其他类冲突时抛出
+         */
+        public Builder index(CommandIndex index) {
+            Objects.requireNonNull(index, "Command index must not be null");
+            for (Map.Entry<String, String> entry : index.entries().entrySet()) {
+                String name = entry.getKey();
+                route(name, entry.getValue(), () -> index.resolve(name));
+            }
+            return this;
+        }
+
+        /**
+         * 自定义全部命令共用的 Token 处理器链。
+         *
+         * @param customizer 以默认链 Builder 为输入的自定义函数
+         * @return 构建器实例
+         */
+        public Builder withTokenHandlers(UnaryOperator<TokenHandlerChain.Builder> customizer) {
+            if (customizer == null) {
+                throw new QCmdException("Token handler customizer must not be null");
+            }
+            TokenHandlerChain.Builder customized = customizer.apply(TokenHandlerChain.builder().defaults());
+            if (customized == null) {
+                throw new QCmdException("Token handler customizer must not return null");
+            }
+            this.chain = customized.build();
+            return this;
+        }
+
+        /**
+         * 自定义全部命令共用的帮助文档格式化器。
+         *
+         * @param formatter 帮助文本格式化器
+         * @return 构建器实例
+         */
+        public Builder withHelpFormatter(HelpFormatter formatter) {
+            if (formatter == null) {
+                throw new QCmdException("Help formatter must not be null");
+            }
+            this.formatter = formatter;
+            return this;
+        }
+
+        /**
+         * 限制全部命令的解析资源，适用于分发来自聊天消息、表单或网络的不可信命令行。
+         *
+         * @param limits 解析上限
+         * @return 构建器实例
+         */
+        public Builder withLimits(ParseLimits limits) {
+            if (limits == null) {
+                throw new QCmdException("Parse limits must not be null");
+            }
+            this.limits = limits;
+            return this;
+        }
+
+        /**
+         * 为全部命令采集描述符获取、帮助渲染与每次解析的阶段耗时。
+         *
+         * @param metrics 指标采集，如 {@link com.guanyanqi.metrics.PhaseMetrics}
+         * @return 构建器实例
+         */
+        public Builder withMetrics(ParseMetrics metrics) {
+            if (metrics == null) {
+                throw new QCmdException("Parse metrics must not be null");
+            }
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * 构建不可变注册表。
+         *
+         * @return 注册表
+         */
+        public CommandRegistry build() {
+            return new CommandRegistry(routes,
+                    chain != null ? chain : TokenHandlerChain.defaults(),
+                    formatter != null ? formatter : new TerminalHelpFormatter(),
+                    limits, metrics);
+        }
+
+        private void route(String name, String className, Supplier<Class<?>> classLoader) {
+            Route existing = routes.get(name);
+            if (existing != null) {
+                if (!existing.className.equals(className)) {
+                    throw new QCmdException("命令名 [" + name + "] 同时指向 " + existing.className + " 与 " + className);
+                }
+                return;
+            }
+            routes.put(name, routesByClass.computeIfAbsent(className, key -> new Route(key, classLoader)));
+        }
+    }
+}
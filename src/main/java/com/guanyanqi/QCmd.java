@@ -1,8 +1,11 @@
 package com.guanyanqi;
 
+import com.guanyanqi.annotation.Cmd;
 import com.guanyanqi.core.*;
+import com.guanyanqi.core.parser.ParseLimits;
 import com.guanyanqi.core.parser.TokenHandlerChain;
 import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.metrics.ParseMetrics;
 
 import java.util.function.UnaryOperator;
 
@@ -26,6 +29,13 @@ import java.util.function.UnaryOperator;
  *     // 自定义帮助文档格式
  *     QCmd.of(args).withHelpFormatter(new MarkdownHelpFormatter())
  *         .parse(DeployCmd.class);
+ *
+ *     // 限制不可信输入的解析资源
+ *     QCmd.of(args).withLimits(ParseLimits.builder().maxTokens(256).build())
+ *         .parse(DeployCmd.class);
+ *
+ *     // 采集各解析阶段耗时
+ *     QCmd.of(args).withMetrics(metrics).parse(DeployCmd.class);
  * </pre>
  *
  * @author guanyanqi
@@ -35,6 +45,8 @@ public class QCmd {
     private final String[] args;
     private TokenHandlerChain tokenHandlerChain;
     private HelpFormatter helpFormatter;
+    private ParseLimits limits = ParseLimits.NONE;
+    private ParseMetrics metrics = ParseMetrics.NONE;
 
     private QCmd(String[] args) {
         this.args = args == null ? null : args.clone();
@@ -88,6 +100,35 @@ public class QCmd {
         return this;
     }
 
+    /**
+     * 限制本次解析的资源：token 数、字符总数、值长度、位置参数个数与集合元素个数。
+     *
+     * @param limits 解析上限
+     * @return 当前 QCmd 实例
+     * @see ParseLimits
+     */
+    public QCmd withLimits(ParseLimits limits) {
+        if (limits == null) {
+            throw new QCmdException("Parse limits must not be null");
+        }
+        this.limits = limits;
+        return this;
+    }
+
+    /**
+     * 采集本次解析各阶段的耗时：描述符获取、帮助渲染、Token 处理、校验与绑定。
+     *
+     * @param metrics 指标采集，如 {@link com.guanyanqi.metrics.PhaseMetrics}
+     * @return 当前 QCmd 实例
+     */
+    public QCmd withMetrics(ParseMetrics metrics) {
+        if (metrics == null) {
+            throw new QCmdException("Parse metrics must not be null");
+        }
+        this.metrics = metrics;
+        return this;
+    }
+
     /**
      * 不解析任何参数，直接为指定命令类生成默认终端帮助文本。
      *
@@ -109,38 +150,30 @@ public class QCmd {
         if (formatter == null) {
             throw new QCmdException("Help formatter must not be null");
         }
-        return formatter.format(new CommandDescriptor(clazz));
+        return formatter.format(CommandDescriptor.forClass(clazz));
     }
 
     /**
      * 解析命令行参数，并将解析结果装配映射到指定类的实例上（支持 POJO 与 Java Record）。
+     * <p>
+     * 目标类为密封接口或密封抽象类时，按首个参数在其许可子类型的 {@code @Cmd.names()} 中路由，
+     * 返回命中的具体子类型实例。
+     * </p>
      *
      * @param <T>   目标类的类型
      * @param clazz 目标类
      * @return 包含映射实例和帮助文本的解析结果
      */
+    @SuppressWarnings("unchecked")
     public <T> ParsedCommand<T> parse(Class<T> clazz) {
-        CommandDescriptor descriptor = new CommandDescriptor(clazz);
-
         HelpFormatter formatter = helpFormatter != null ? helpFormatter : new TerminalHelpFormatter();
-        String helpText = formatter.format(descriptor);
-
         TokenHandlerChain chain = tokenHandlerChain != null ? tokenHandlerChain : TokenHandlerChain.defaults();
-        CommandLineParser.ParseResult parseResult = chain.execute(args, descriptor);
-        // 内置动作跳过 required 校验，handler 已直接产出强类型 ParseAction。
-        if (parseResult.action() == ParseAction.SHOW_HELP) {
-            return ParsedCommand.help(helpText);
+        if (clazz != null && clazz.isSealed() && !clazz.isAnnotationPresent(Cmd.class)) {
+            // 子类型均实现 T，结果实例可安全视为 T
+            Class<?> target = SealedCommandRoutes.route(clazz, args);
+            return (ParsedCommand<T>) QCmdParser.compile(target, chain, formatter, metrics).withLimits(limits).parse(args);
         }
-        if (parseResult.action() == ParseAction.SHOW_VERSION) {
-            String version = descriptor.getCmdAnnotation().version();
-            String primaryName = descriptor.getCmdAnnotation().names()[0];
-            return ParsedCommand.version(helpText, primaryName + " " + version);
-        }
-
-        CommandValidator.validate(parseResult, descriptor);
-
-        T result = InstanceBinder.bind(parseResult, descriptor);
-        return new ParsedCommand<>(result, helpText);
+        return QCmdParser.compile(clazz, chain, formatter, metrics).withLimits(limits).parse(args);
     }
 
 }
@@ -0,0 +1,532 @@
+package com.guanyanqi;
+
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.CommandLineParser;
+import com.guanyanqi.core.CommandValidator;
+import com.guanyanqi.core.HelpFormatter;
+import com.guanyanqi.core.InstanceBinder;
+import com.guanyanqi.core.TerminalHelpFormatter;
+import com.guanyanqi.core.parser.ParseLimits;
+import com.guanyanqi.core.parser.ParseListener;
+import com.guanyanqi.core.parser.ParseState;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.exception.BatchParseException;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.jfr.QCmdEvents;
+import com.guanyanqi.metrics.CostAttribution;
+import com.guanyanqi.metrics.ParseMetrics;
+import com.guanyanqi.metrics.ParsePhase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * 针对单个命令类预编译的不可变解析器。
+ * <p>
+ * 构造时一次性完成描述符获取、处理器链选择与帮助文本渲染，之后每次 {@link #parse(String[])}
+ * 只执行 Token 处理、校验与绑定。实例不持有可变状态，可在线程间共享并反复使用；
+ * 大批量命令行可通过 {@link #parseAll(List)} 在 ForkJoinPool 上并行解析。
+ * </p>
+ *
+ * <pre>
+ *     QCmdParser&lt;DeployCmd&gt; parser = QCmdParser.compile(DeployCmd.class);
+ *     ParsedCommand&lt;DeployCmd&gt; first = parser.parse(args1);
+ *     ParsedCommand&lt;DeployCmd&gt; second = parser.parse(args2);
+ * </pre>
+ *
+ * @param <T> 目标命令类类型
+ * @author guanyanqi
+ */
+public final class QCmdParser<T> {
+
+    /**
+     * 批量解析时每个工作线程平均分到的叶子任务数，用于平衡负载不均的输入。
+     */
+    private static final int BATCH_SPLITS_PER_WORKER = 8;
+
+    private final Class<T> commandClass;
+    private final CommandDescriptor descriptor;
+    private final TokenHandlerChain chain;
+    private final HelpFormatter formatter;
+    private final String helpText;
+    private final ParseLimits limits;
+    private final ParseMetrics metrics;
+    /** 是否配置了指标采集；为 false 时各阶段不读取时钟。 */
+    private final boolean timed;
+    /** 处理器与转换器的耗时归因；未配置时为 null。 */
+    private final CostAttribution attribution;
+    private final ParseListener listener;
+
+    private QCmdParser(Class<T> commandClass, TokenHandlerChain chain, HelpFormatter formatter, ParseMetrics metrics) {
+        this.commandClass = commandClass;
+        this.metrics = metrics;
+        this.timed = metrics != ParseMetrics.NONE;
+        this.descriptor = timed ? measured(ParsePhase.DESCRIPTOR, () -> CommandDescriptor.forClass(commandClass))
+                : CommandDescriptor.forClass(commandClass);
+        // 每个描述符特化一次，逐 token 路径只读取处理器预计算的结果
+        this.chain = chain.specialize(descriptor);
+        this.formatter = formatter;
+        this.helpText = timed ? measured(ParsePhase.HELP, () -> formatter.format(descriptor))
+                : formatter.format(descriptor);
+        this.limits = ParseLimits.NONE;
+        this.attribution = null;
+        this.listener = ParseListener.NONE;
+    }
+
+    private QCmdParser(QCmdParser<T> source, TokenHandlerChain chain, ParseLimits limits, ParseMetrics metrics,
+                       CostAttribution attribution, ParseListener listener) {
+        this.commandClass = source.commandClass;
+        this.descriptor = source.descriptor;
+        this.chain = chain;
+        this.formatter = source.formatter;
+        this.helpText = source.helpText;
+        this.limits = limits;
+        this.metrics = metrics;
+        this.timed = metrics != ParseMetrics.NONE;
+        this.attribution = attribution;
+        this.listener = listener;
+    }
+
+    /**
+     * 使用默认处理器链与终端帮助格式化器编译解析器。
+     *
+     * @param <T>          目标命令类类型
+     * @param commandClass 目标命令类
+     * @return 编译好的解析器
+     */
+    public static <T> QCmdParser<T> compile(Class<T> commandClass) {
+        return compile(commandClass, TokenHandlerChain.defaults(), new TerminalHelpFormatter());
+    }
+
+    /**
+     * 使用指定处理器链与帮助格式化器编译解析器。
+     *
+     * @param <T>          目标命令类类型
+     * @param commandClass 目标命令类
+     * @param chain        Token 处理器链
+     * @param formatter    帮助文本格式化器
+     * @return 编译好的解析器
+     */
+    public static <T> QCmdParser<T> compile(Class<T> commandClass, TokenHandlerChain chain, HelpFormatter formatter) {
+        return compile(commandClass, chain, formatter, ParseMetrics.NONE);
+    }
+
+    /**
+     * 使用指定处理器链与帮助格式化器编译解析器，并把描述符获取、帮助渲染及之后每次解析的阶段耗时交给指标采集。
+     *
+     * @param <T>          目标命令类类型
+     * @param commandClass 目标命令类
+     * @param chain        Token 处理器链
+     * @param formatter    帮助文本格式化器
+     * @param metrics      指标采集，{@link ParseMetrics#NONE} 表示不采集
+     * @return 编译好的解析器
+     */
+    public static <T> QCmdParser<T> compile(Class<T> commandClass, TokenHandlerChain chain, HelpFormatter formatter,
+                                            ParseMetrics metrics) {
+        Objects.requireNonNull(commandClass, "Target class must not be null");
+        if (chain == null) {
+            throw new QCmdException("Token handler chain must not be null");
+        }
+        if (formatter == null) {
+            throw new QCmdException("Help formatter must not be null");
+        }
+        if (metrics == null) {
+            throw new QCmdException("Parse metrics must not be null");
+        }
+        return new QCmdParser<>(commandClass, chain, formatter, metrics);
+    }
+
+    /**
+     * 返回共享本解析器描述符、处理器链与帮助文本，但受给定解析上限约束的新解析器。
+     *
+     * @param limits 解析上限，{@link ParseLimits#NONE} 表示不限制
+     * @return 新的解析器实例
+     */
+    public QCmdParser<T> withLimits(ParseLimits limits) {
+        if (limits == null) {
+            throw new QCmdException("Parse limits must not be null");
+        }
+        return new QCmdParser<>(this, chain, limits, metrics, attribution, listener);
+    }
+
+    /**
+     * 返回共享本解析器描述符、处理器链与帮助文本，但把每次解析的阶段耗时交给给定指标采集的新解析器。
+     * 描述符获取与帮助渲染已在编译时完成，不会补记；需要这两个阶段时使用
+     * {@link #compile(Class, TokenHandlerChain, HelpFormatter, ParseMetrics)}。
+     *
+     * @param metrics 指标采集，{@link ParseMetrics#NONE} 表示不采集
+     * @return 新的解析器实例
+     */
+    public QCmdParser<T> withMetrics(ParseMetrics metrics) {
+        if (metrics == null) {
+            throw new QCmdException("Parse metrics must not be null");
+        }
+        return new QCmdParser<>(this, chain, limits, metrics, attribution, listener);
+    }
+
+    /**
+     * 返回把每个处理器与每个转换器的调用次数、接受/放弃次数和累计耗时计入给定归因统计的新解析器，
+     * 用于在自定义处理器链与转换器中定位开销最大的一环。
+     * <p>
+     * 处理器链按 {@link TokenHandlerChain#attributed} 包装，因此 {@link #parseParallel} 不再推测式并行切分。
+     * 归因统计随绑定调用显式传给转换路径，不影响其他解析器；异步转换器不计入。
+     * </p>
+     *
+     * @param attribution 归因统计
+     * @return 新的解析器实例
+     */
+    public QCmdParser<T> withAttribution(CostAttribution attribution) {
+        if (attribution == null) {
+            throw new QCmdException("Cost attribution must not be null");
+        }
+        return new QCmdParser<>(this, chain.attributed(attribution), limits, metrics, attribution, listener);
+    }
+
+    /**
+     * 返回把每个 token 的处理决策交给给定监听器的新解析器。
+     * 安装监听器后 {@link #parseParallel} 按顺序解析，以保证回调按 token 顺序发生。
+     *
+     * @param listener 解析监听器，{@link ParseListener#NONE} 表示不监听
+     * @return 新的解析器实例
+     */
+    public QCmdParser<T> withListener(ParseListener listener) {
+        if (listener == null) {
+            throw new QCmdException("Parse listener must not be null");
+        }
+        return new QCmdParser<>(this, chain, limits, metrics, attribution, listener);
+    }
+
+    /**
+     * 解析命令行参数并绑定到命令类实例。
+     *
+     * @param args 命令行入参数组，首个元素为命令名
+     * @return 包含命令实例和帮助文本的解析结果
+     * @throws com.guanyanqi.exception.ParseLimitExceededException 超出 {@link #limits()} 时抛出
+     */
+    public ParsedCommand<T> parse(String[] args) {
+        Object event = QCmdEvents.beginParse();
+        return event == null ? parseUnrecorded(args) : recorded(event, args, () -> parseUnrecorded(args));
+    }
+
+    private ParsedCommand<T> parseUnrecorded(String[] args) {
+        if (!timed) {
+            return bind(tokenize(args));
+        }
+        return bind(measured(ParsePhase.TOKENIZE, () -> tokenize(args)));
+    }
+
+    /**
+     * 解析命令行参数，并只在本次解析中把每个 token 的处理决策交给给定监听器。
+     *
+     * @param args     命令行入参数组，首个元素为命令名
+     * @param listener 本次解析的监听器
+     * @return 与 {@link #parse(String[])} 一致的解析结果
+     * @see #withListener(ParseListener)
+     */
+    public ParsedCommand<T> parse(String[] args, ParseListener listener) {
+        return withListener(listener).parse(args);
+    }
+
+    private CommandLineParser.ParseResult tokenize(String[] args) {
+        if (limits == ParseLimits.NONE && listener == ParseListener.NONE) {
+            return chain.execute(args, descriptor);
+        }
+        if (args == null || args.length == 0) {
+            throw new QCmdException("命令行内容为空");
+        }
+        // Arrays.asList 只是数组视图：超限的输入在复制或分配任何解析状态之前失败
+        return chain.execute(Arrays.asList(args), descriptor, new ParseState(limits, listener));
+    }
+
+    /**
+     * 在 {@link ForkJoinPool#commonPool()} 上推测式并行切分单条超长命令行（如数百万 token 的 argfile）。
+     *
+     * @param args 命令行入参数组，首个元素为命令名
+     * @return 与 {@link #parse(String[])} 完全一致的解析结果
+     * @see TokenHandlerChain#execute(List, CommandDescriptor, ForkJoinPool)
+     */
+    public ParsedCommand<T> parseParallel(String[] args) {
+        return parseParallel(args, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 上推测式并行切分单条超长命令行。
+     * token 数低于 {@link TokenHandlerChain#PARALLEL_THRESHOLD} 或链中含自定义处理器时按顺序解析。
+     *
+     * @param args 命令行入参数组，首个元素为命令名
+     * @param pool 执行切分的线程池
+     * @return 与 {@link #parse(String[])} 完全一致的解析结果
+     */
+    public ParsedCommand<T> parseParallel(String[] args, ForkJoinPool pool) {
+        Object event = QCmdEvents.beginParse();
+        return event == null ? parseParallelUnrecorded(args, pool)
+                : recorded(event, args, () -> parseParallelUnrecorded(args, pool));
+    }
+
+    private ParsedCommand<T> parseParallelUnrecorded(String[] args, ForkJoinPool pool) {
+        if (args == null || args.length == 0) {
+            throw new QCmdException("命令行内容为空");
+        }
+        // Arrays.asList 只是数组视图，避免复制数百万个 token
+        List<String> tokens = Arrays.asList(args);
+        if (!timed) {
+            return bind(chain.execute(tokens, descriptor, new ParseState(limits, listener), pool));
+        }
+        return bind(measured(ParsePhase.TOKENIZE,
+                () -> chain.execute(tokens, descriptor, new ParseState(limits, listener), pool)));
+    }
+
+    /**
+     * 在 {@link ForkJoinPool#commonPool()} 上批量解析，结果顺序与输入一致。
+     *
+     * @param argvs 命令行参数数组列表
+     * @return 与输入一一对应的解析结果
+     * @throws BatchParseException 任一命令行解析失败时抛出，携带输入中最靠前的失败下标
+     */
+    public List<ParsedCommand<T>> parseAll(List<String[]> argvs) {
+        return parseAll(argvs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 在指定的 ForkJoinPool 上批量解析，结果顺序与输入一致。
+     * <p>
+     * 输入按下标区间递归拆分，叶子任务在一个工作线程内用同一个 {@link ParseState} 依次解析连续区间，
+     * 描述符、处理器链与转换器在各线程间只读共享。出现失败后，位于失败位置之后的区间不再解析。
+     * </p>
+     *
+     * @param argvs 命令行参数数组列表
+     * @param pool  执行批量解析的线程池
+     * @return 与输入一一对应的解析结果
+     * @throws BatchParseException 任一命令行解析失败时抛出，携带输入中最靠前的失败下标
+     */
+    @SuppressWarnings("unchecked")
+    public List<ParsedCommand<T>> parseAll(List<String[]> argvs, ForkJoinPool pool) {
+        Objects.requireNonNull(argvs, "Argument list must not be null");
+        Objects.requireNonNull(pool, "Fork-join pool must not be null");
+        String[][] inputs = argvs.toArray(new String[0][]);
+        ParsedCommand<?>[] results = new ParsedCommand<?>[inputs.length];
+        BatchFailure failure = new BatchFailure();
+        if (inputs.length > 0) {
+            int leafSize = Math.max(1, inputs.length / (pool.getParallelism() * BATCH_SPLITS_PER_WORKER));
+            pool.invoke(new BatchTask(inputs, results, 0, inputs.length, leafSize, failure));
+        }
+        if (failure.error != null) {
+            throw new BatchParseException(failure.index, failure.error);
+        }
+        return Collections.unmodifiableList(Arrays.asList((ParsedCommand<T>[]) results));
+    }
+
+    private ParsedCommand<T> bind(CommandLineParser.ParseResult parseResult) {
+        // 内置动作跳过 required 校验，handler 已直接产出强类型 ParseAction。
+        if (parseResult.action() == ParseAction.SHOW_HELP) {
+            return ParsedCommand.help(helpText);
+        }
+        if (parseResult.action() == ParseAction.SHOW_VERSION) {
+            String version = descriptor.getCmdAnnotation().version();
+            String primaryName = descriptor.getCmdAnnotation().names()[0];
+            return ParsedCommand.version(helpText, primaryName + " " + version);
+        }
+
+        if (!timed) {
+            CommandValidator.validate(parseResult, descriptor);
+            return new ParsedCommand<>(bindInstance(parseResult), helpText);
+        }
+        measured(ParsePhase.VALIDATE, () -> {
+            CommandValidator.validate(parseResult, descriptor);
+            return null;
+        });
+        return new ParsedCommand<>(measured(ParsePhase.BIND, () -> bindInstance(parseResult)), helpText);
+    }
+
+    private T bindInstance(CommandLineParser.ParseResult parseResult) {
+        return InstanceBinder.bind(parseResult, descriptor, attribution);
+    }
+
+    /**
+     * 执行一个解析阶段并记录其耗时与是否以异常结束；只在配置了指标时调用，
+     * 未配置时各调用处直接执行阶段本身，不分配 lambda、不读取时钟。
+     */
+    private <R> R measured(ParsePhase phase, Supplier<R> body) {
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = body.get();
+        } catch (RuntimeException e) {
+            metrics.record(commandClass, phase, System.nanoTime() - start, true);
+            throw e;
+        }
+        metrics.record(commandClass, phase, System.nanoTime() - start, false);
+        return result;
+    }
+
+    /**
+     * 执行一次解析并提交 JFR 解析事件，只在事件已启用时调用。
+     */
+    private ParsedCommand<T> recorded(Object event, String[] args, Supplier<ParsedCommand<T>> parse) {
+        int tokenCount = args == null ? 0 : args.length;
+        ParsedCommand<T> result;
+        try {
+            result = parse.get();
+        } catch (RuntimeException e) {
+            QCmdEvents.endParse(event, commandClass, tokenCount, "FAILED", e);
+            throw e;
+        }
+        QCmdEvents.endParse(event, commandClass, tokenCount, result.action().name(), null);
+        return result;
+    }
+
+    private CommandLineParser.ParseResult tokenize(String[] args, ParseState state) {
+        // Arrays.asList 只是数组视图，批量路径不再为每条命令行复制 token 列表
+        List<String> tokens = Arrays.asList(args);
+        if (!timed) {
+            return chain.execute(tokens, descriptor, state);
+        }
+        return measured(ParsePhase.TOKENIZE, () -> chain.execute(tokens, descriptor, state));
+    }
+
+    /**
+     * 批量解析中输入最靠前的失败；多个叶子任务并发上报，只保留下标最小的一个。
+     */
+    private static final class BatchFailure {
+        private int index = Integer.MAX_VALUE;
+        private QCmdException error;
+
+        private synchronized void report(int failedIndex, QCmdException failedError) {
+            if (failedIndex < index) {
+                index = failedIndex;
+                error = failedError;
+            }
+        }
+
+        private synchronized boolean before(int position) {
+            return index < position;
+        }
+    }
+
+    /**
+     * 按下标区间拆分的批量解析任务。
+     */
+    private final class BatchTask extends RecursiveAction {
+        private final String[][] inputs;
+        private final ParsedCommand<?>[] results;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final BatchFailure failure;
+
+        private BatchTask(String[][] inputs, ParsedCommand<?>[] results, int from, int to, int leafSize,
+                          BatchFailure failure) {
+            this.inputs = inputs;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > leafSize) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(inputs, results, from, middle, leafSize, failure),
+                        new BatchTask(inputs, results, middle, to, leafSize, failure));
+                return;
+            }
+            if (failure.before(from)) {
+                return;
+            }
+            ParseState state = new ParseState(limits, listener);
+            for (int i = from; i < to; i++) {
+                try {
+                    String[] args = inputs[i];
+                    if (args == null || args.length == 0) {
+                        throw new QCmdException("命令行内容为空");
+                    }
+                    Object event = QCmdEvents.beginParse();
+                    results[i] = event == null ? bind(tokenize(args, state))
+                            : recorded(event, args, () -> bind(tokenize(args, state)));
+                } catch (QCmdException e) {
+                    failure.report(i, e);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取目标命令类。
+     *
+     * @return 命令类
+     */
+    public Class<T> commandClass() {
+        return commandClass;
+    }
+
+    /**
+     * 获取解析器的解析上限。
+     *
+     * @return 解析上限；未配置时为 {@link ParseLimits#NONE}
+     */
+    public ParseLimits limits() {
+        return limits;
+    }
+
+    /**
+     * 获取解析器的指标采集。
+     *
+     * @return 指标采集；未配置时为 {@link ParseMetrics#NONE}
+     */
+    public ParseMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * 获取解析器的解析监听器。
+     *
+     * @return 解析监听器；未安装时为 {@link ParseListener#NONE}
+     */
+    public ParseListener listener() {
+        return listener;
+    }
+
+    /**
+     * 获取命令描述符。
+     *
+     * @return 已冻结的命令描述符
+     */
+    public CommandDescriptor descriptor() {
+        return descriptor;
+    }
+
+    /**
+     * 获取解析器使用的 Token 处理器链，已按本解析器的描述符特化。
+     *
+     * @return 特化后的处理器链
+     */
+    public TokenHandlerChain chain() {
+        return chain;
+    }
+
+    /**
+     * 获取解析器使用的帮助文本格式化器。
+     *
+     * @return 帮助文本格式化器
+     */
+    public HelpFormatter formatter() {
+        return formatter;
+    }
+
+    /**
+     * 获取预渲染的帮助文本。
+     *
+     * @return 帮助文本
+     */
+    public String helpText() {
+        return helpText;
+    }
+}
@@ -0,0 +1,98 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.core.SuggestionIndex;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.exception.UnknownCommandException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 密封命令类型的路由表：命令名（含别名）→ 被许可的具体命令类。
+ * <p>
+ * 每个密封类型只读取一次 {@link Class#getPermittedSubclasses()}（递归展开密封子类型），
+ * 构建后的不可变路由表按类缓存，此后每次解析只需一次查表。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+final class SealedCommandRoutes {
+
+    private static final ClassValue<Table> ROUTES = new ClassValue<>() {
+        @Override
+        protected Table computeValue(Class<?> type) {
+            Map<String, Class<?>> routes = new HashMap<>();
+            collect(type, type, routes);
+            return new Table(Map.copyOf(routes), SuggestionIndex.of(routes.keySet()));
+        }
+    };
+
+    /**
+     * 密封类型的路由表与命令名候选索引。
+     */
+    private record Table(Map<String, Class<?>> routes, SuggestionIndex suggestions) {
+    }
+
+    private SealedCommandRoutes() {
+    }
+
+    /**
+     * 获取密封类型的路由表。
+     *
+     * @param sealedType 密封接口或密封抽象类
+     * @return 不可变路由表
+     * @throws QCmdException 类型未密封、子类型无法穷举或命令名冲突时抛出
+     */
+    static Map<String, Class<?>> routes(Class<?> sealedType) {
+        return table(sealedType).routes();
+    }
+
+    private static Table table(Class<?> sealedType) {
+        if (!sealedType.isSealed()) {
+            throw new QCmdException("类型 " + sealedType.getName() + " 不是密封类型");
+        }
+        return ROUTES.get(sealedType);
+    }
+
+    /**
+     * 按命令行首个参数选出具体命令类。
+     *
+     * @param sealedType 密封类型
+     * @param args       命令行入参数组
+     * @return 命中的具体命令类
+     * @throws UnknownCommandException 首个参数不是任何子类型的命令名时抛出
+     */
+    static Class<?> route(Class<?> sealedType, String[] args) {
+        Table table = table(sealedType);
+        if (args == null || args.length == 0) {
+            throw new QCmdException("命令行内容为空");
+        }
+        Class<?> target = table.routes().get(args[0]);
+        if (target == null) {
+            throw new UnknownCommandException(args[0], table.suggestions().suggest(args[0]));
+        }
+        return target;
+    }
+
+    private static void collect(Class<?> root, Class<?> type, Map<String, Class<?>> routes) {
+        for (Class<?> permitted : type.getPermittedSubclasses()) {
+            Cmd cmd = permitted.getAnnotation(Cmd.class);
+            if (cmd == null) {
+                if (!permitted.isSealed()) {
+                    throw new QCmdException("密封类型 " + root.getName() + " 的子类型 "
+                            + permitted.getName() + " 未标注 @Cmd 注解且无法继续展开");
+                }
+                collect(root, permitted, routes);
+                continue;
+            }
+            for (String name : cmd.names()) {
+                Class<?> previous = routes.putIfAbsent(name, permitted);
+                if (previous != null && previous != permitted) {
+                    throw new QCmdException("密封类型 " + root.getName() + " 的命令名 [" + name + "] 同时声明在 "
+                            + previous.getName() + " 与 " + permitted.getName() + " 上");
+                }
+            }
+        }
+    }
+}
@@ -46,4 +46,30 @@ public @interface Cmd {
      * @return 命令版本号；空字符串表示不启用版本选项
      */
     String version() default "";
+
+    /**
+     * 是否允许 GNU 风格的长选项缩写：以 {@code --} 开头的 token 可以是某个已声明长选项的唯一前缀，
+     * 如 {@code --verb} 匹配 {@code --verbose}。前缀对应多个选项时抛出
+     * {@link com.guanyanqi.exception.AmbiguousOptionException}；精确匹配始终优先。
+     *
+     * @return 允许缩写返回 true，默认 false
+     */
+    boolean abbreviations() default false;
+
+    /**
+     * {@code valueValidRegex} 回退到 {@link java.util.regex} 时单次校验的步数预算（读取输入字符的次数）。
+     * 常用子集内的表达式以线性时间的 NFA 匹配，不受此预算影响；预算耗尽的值视为不匹配。
+     *
+     * @return 步数预算，必须大于 0，默认 1000000
+     * @see com.guanyanqi.core.regex.ValueMatcher
+     */
+    long regexStepBudget() default 1_000_000L;
+
+    /**
+     * 跨选项约束，如互斥、必须且只能提供一个、某选项依赖其他选项等。
+     * 选项组在构建描述符时编译为位图掩码，违反时抛出 {@link com.guanyanqi.exception.OptionGroupViolationException}。
+     *
+     * @return 选项组数组，默认为空
+     */
+    OptionGroup[] groups() default {};
 }
@@ -0,0 +1,62 @@
+package com.guanyanqi.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * 声明在 {@link Cmd#groups()} 中的跨选项约束，如"--file、--url、--stdin 必须且只能提供一个"、
+ * "--user 需要同时提供 --password"。
+ * <p>
+ * 选项组在构建描述符时编译为选项出现位图上的掩码，每次解析只需少量按位运算即可完成校验；
+ * 违反约束时抛出 {@link com.guanyanqi.exception.OptionGroupViolationException}。
+ * </p>
+ *
+ * 示例用法：
+ * {@code @Cmd(names = "fetch", groups = @OptionGroup(kind = OptionGroup.Kind.EXACTLY_ONE, options = {"--file", "--url"}))}
+ *
+ * @author guanyanqi
+ */
+@Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+@Target({})
+public @interface OptionGroup {
+
+    /**
+     * 组内选项之间的约束关系。
+     *
+     * @return 约束类型
+     */
+    Kind kind();
+
+    /**
+     * 组内选项，每项可以是该选项声明的任一名称或别名；至少两项，且不能重复引用同一选项。
+     *
+     * @return 选项名称数组
+     */
+    String[] options();
+
+    /**
+     * 选项组约束类型。
+     */
+    enum Kind {
+        /**
+         * 最多提供其中一个。
+         */
+        MUTUALLY_EXCLUSIVE,
+        /**
+         * 必须且只能提供其中一个。
+         */
+        EXACTLY_ONE,
+        /**
+         * 至少提供其中一个。
+         */
+        AT_LEAST_ONE,
+        /**
+         * 全部提供或全部省略。
+         */
+        ALL_OR_NONE,
+        /**
+         * 提供第一个选项时，其余选项也必须全部提供。
+         */
+        REQUIRES
+    }
+}
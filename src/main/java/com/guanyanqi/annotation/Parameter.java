@@ -56,6 +56,42 @@ public @interface Parameter {
      */
     String valueValidDesc() default "";
 
+    /**
+     * 数值参数允许的最小值（含），在转换后的值上比较。
+     * <p>适用于整数、浮点数、{@link java.math.BigInteger} 与 {@link java.math.BigDecimal} 类型（含基本类型）。</p>
+     *
+     * @return 最小值，默认不限
+     */
+    long min() default Long.MIN_VALUE;
+
+    /**
+     * 数值参数允许的最大值（含），在转换后的值上比较。
+     *
+     * @return 最大值，默认不限
+     */
+    long max() default Long.MAX_VALUE;
+
+    /**
+     * 允许的最小长度（含）：字符串按字符数，集合与映射按元素数，数组按长度。
+     *
+     * @return 最小长度，默认不限
+     */
+    int minLength() default 0;
+
+    /**
+     * 允许的最大长度（含），计量方式同 {@link #minLength()}。
+     *
+     * @return 最大长度，默认不限
+     */
+    int maxLength() default Integer.MAX_VALUE;
+
+    /**
+     * 字符串参数允许的取值集合，区分大小写。
+     *
+     * @return 允许的取值，默认不限
+     */
+    String[] allowed() default {};
+
     /**
      * 参数值的自定义转换器。
      *
@@ -0,0 +1,254 @@
+package com.guanyanqi.cds;
+
+import com.guanyanqi.ParseAction;
+import com.guanyanqi.QCmd;
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.converter.QStringConverter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.HelpFormatter;
+import com.guanyanqi.core.MarkdownHelpFormatter;
+import com.guanyanqi.core.TerminalHelpFormatter;
+import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.index.CommandIndex;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * AppCDS（Class Data Sharing）训练入口。
+ * <p>
+ * 在 {@code -XX:ArchiveClassesAtExit} 下运行本类，可让 JVM 把 qcmd 解析路径上会加载的类写入动态 CDS 归档，
+ * 之后以 {@code -XX:SharedArchiveFile} 启动的 CLI 即可跳过这些类的解析与校验，缩短首次解析耗时。
+ * </p>
+ *
+ * <p>训练覆盖范围：</p>
+ * <ul>
+ *   <li>内置样例命令（Record 与 POJO 各一），触达默认链中的全部 7 个 handler 与全部内置转换器</li>
+ *   <li>调用方传入的每个 {@code @Cmd} 命令类：两种帮助格式化器、help/version 动作、空参数解析</li>
+ *   <li>常见校验失败路径，使异常类同样进入归档</li>
+ * </ul>
+ *
+ * <pre>
+ *     java -XX:ArchiveClassesAtExit=app.jsa -cp app.jar com.guanyanqi.cds.CdsTraining com.acme.DeployCmd
+ *     java -XX:ArchiveClassesAtExit=app.jsa -cp app.jar com.guanyanqi.cds.CdsTraining   # 训练命令索引中的全部命令
+ *     java -XX:SharedArchiveFile=app.jsa -cp app.jar com.acme.Main deploy -e prod
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class CdsTraining {
+
+    /**
+     * 样例 Record 命令 argv：依次触达终止符、内置动作、等号语法、布尔开关、负数、标准选项、位置变量，
+     * 以及未知选项、缺少值、正则失败、必填缺失等失败路径。
+     */
+    private static final List<String[]> SAMPLE_RECORD_ARGS = List.of(
+            new String[]{"cds-record",
+                    "--str", "text", "--int", "1", "--boxed-int", "2", "--double", "3.5", "--boxed-double", "4.5",
+                    "--float", "1.5", "--boxed-float", "2.5", "--long", "5", "--boxed-long", "6",
+                    "--bool", "--boxed-bool", "false", "--byte", "7", "--boxed-byte", "8",
+                    "--short", "9", "--boxed-short", "10", "--decimal", "-1.25", "--date=2026-01-02",
+                    "--date-time", "2026-01-02 03:04:05", "--time", "03:04:05", "--legacy-date", "2026-01-02 03:04:05",
+                    "--mode", "FAST", "--ids", "1,2,3", "--labels", "a=1,b=2", "--custom", "x",
+                    "--wrapped", "w", "-5", "file", "--", "--not-an-option"},
+            new String[]{"cds-record", "--help"},
+            new String[]{"cds-record", "-V"},
+            new String[]{"cds-record", "--str"},
+            new String[]{"cds-record", "--unknown"},
+            new String[]{"cds-record", "--str", "text", "--mode", "fast"},
+            new String[]{"cds-record", "--int", "1"}
+    );
+
+    private static final List<String[]> SAMPLE_POJO_ARGS = List.of(
+            new String[]{"cds-pojo", "--name", "n", "--count=3", "--verbose", "true", "--tags", "a,b", "p1", "p2"},
+            new String[]{"cds-pojo", "-h"},
+            new String[]{"cds-pojo", "--name", "bad name"}
+    );
+
+    /**
+     * 工具类私有构造函数。
+     */
+    private CdsTraining() {
+    }
+
+    /**
+     * 命令行训练入口，参数为需要训练的 {@code @Cmd} 命令类全限定名；
+     * 未传参数时训练 {@link CommandIndex} 中收录的全部命令类。
+     *
+     * @param args 命令类全限定名列表
+     */
+    public static void main(String[] args) {
+        Collection<String> classNames = args.length > 0
+                ? Arrays.asList(args)
+                : new LinkedHashSet<>(CommandIndex.load().entries().values());
+        List<Class<?>> commandClasses = new ArrayList<>();
+        for (String className : classNames) {
+            commandClasses.add(loadCommandClass(className));
+        }
+        int parses = train(commandClasses);
+        System.out.println("qcmd CDS training finished: " + commandClasses.size()
+                + " command class(es), " + parses + " successful parse(s)");
+    }
+
+    /**
+     * 依次训练内置样例命令与给定命令类。
+     *
+     * @param commandClasses 需要训练的 {@code @Cmd} 命令类
+     * @return 成功完成的解析次数（预期失败的解析不计入）
+     */
+    public static int train(List<Class<?>> commandClasses) {
+        int parses = 0;
+        for (String[] args : SAMPLE_RECORD_ARGS) {
+            parses += exercise(args, SampleRecordCmd.class);
+        }
+        for (String[] args : SAMPLE_POJO_ARGS) {
+            parses += exercise(args, SamplePojoCmd.class);
+        }
+        for (Class<?> clazz : commandClasses) {
+            parses += trainCommand(clazz);
+        }
+        return parses;
+    }
+
+    /**
+     * 训练单个命令类：两种帮助格式化器、内置动作，以及只包含命令名和布尔开关的解析。
+     */
+    private static int trainCommand(Class<?> clazz) {
+        CommandDescriptor descriptor = CommandDescriptor.forClass(clazz);
+        for (HelpFormatter formatter : List.of(new TerminalHelpFormatter(), new MarkdownHelpFormatter())) {
+            QCmd.help(clazz, formatter);
+        }
+        String name = descriptor.getCommandNames().iterator().next();
+        int parses = 0;
+        for (ParseAction action : ParseAction.values()) {
+            for (String optionName : action.optionNames()) {
+                parses += exercise(new String[]{name, optionName}, clazz);
+            }
+        }
+        List<String> flags = new ArrayList<>();
+        flags.add(name);
+        for (OptionDescriptor option : descriptor.getOptions()) {
+            if (descriptor.getBoolOptionNames().contains(option.names()[0])) {
+                flags.add(option.names()[0]);
+            }
+        }
+        parses += exercise(flags.toArray(new String[0]), clazz);
+        return parses;
+    }
+
+    /**
+     * 分别用两种帮助格式化器执行一次解析；训练只关心类加载，命令自身的校验失败属于预期路径。
+     */
+    private static int exercise(String[] args, Class<?> clazz) {
+        int succeeded = 0;
+        for (HelpFormatter formatter : List.of(new TerminalHelpFormatter(), new MarkdownHelpFormatter())) {
+            try {
+                QCmd.of(args).withHelpFormatter(formatter).parse(clazz);
+                succeeded++;
+            } catch (QCmdException ignored) {
+                // 预期内的校验失败同样会加载对应的异常类
+            }
+        }
+        return succeeded;
+    }
+
+    private static Class<?> loadCommandClass(String className) {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new QCmdException("训练命令类 [" + className + "] 不存在", e);
+        }
+        if (!clazz.isAnnotationPresent(Cmd.class)) {
+            throw new QCmdException("训练命令类 " + className + " 未标注 @Cmd 注解");
+        }
+        return clazz;
+    }
+
+    /** 训练用枚举类型。 */
+    enum SampleMode { FAST, SLOW }
+
+    /** 训练用 String 构造方法兜底类型。 */
+    public static final class SampleWrapped {
+        private final String value;
+
+        /**
+         * 通过原始字符串构造。
+         *
+         * @param value 原始值
+         */
+        public SampleWrapped(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
+    /** 训练用自定义转换器。 */
+    static final class SampleConverter implements QStringConverter<String> {
+        @Override
+        public String convert(String value) {
+            return value.toUpperCase();
+        }
+    }
+
+    @Cmd(names = "cds-record", desc = "CDS training sample", version = "0")
+    record SampleRecordCmd(
+            @Parameter(names = "--str", required = true) String str,
+            @Parameter(names = "--int") int intValue,
+            @Parameter(names = "--boxed-int") Integer boxedInt,
+            @Parameter(names = "--double") double doubleValue,
+            @Parameter(names = "--boxed-double") Double boxedDouble,
+            @Parameter(names = "--float") float floatValue,
+            @Parameter(names = "--boxed-float") Float boxedFloat,
+            @Parameter(names = "--long") long longValue,
+            @Parameter(names = "--boxed-long") Long boxedLong,
+            @Parameter(names = "--bool") boolean bool,
+            @Parameter(names = "--boxed-bool") Boolean boxedBool,
+            @Parameter(names = "--byte") byte byteValue,
+            @Parameter(names = "--boxed-byte") Byte boxedByte,
+            @Parameter(names = "--short") short shortValue,
+            @Parameter(names = "--boxed-short") Short boxedShort,
+            @Parameter(names = "--decimal") BigDecimal decimal,
+            @Parameter(names = "--date") LocalDate date,
+            @Parameter(names = "--date-time") LocalDateTime dateTime,
+            @Parameter(names = "--time") LocalTime time,
+            @Parameter(names = "--legacy-date") Date legacyDate,
+            @Parameter(names = "--mode", valueValidRegex = "[A-Z]+", valueValidDesc = "upper case") SampleMode mode,
+            @Parameter(names = "--ids") List<Integer> ids,
+            @Parameter(names = "--labels") Map<String, Integer> labels,
+            @Parameter(names = "--custom", converter = SampleConverter.class) String custom,
+            @Parameter(names = "--wrapped") SampleWrapped wrapped,
+            @Vars List<String> vars
+    ) {}
+
+    @Cmd(names = "cds-pojo")
+    static class SamplePojoCmd {
+        @Parameter(names = "--name", valueValidRegex = "\\w+")
+        String name;
+        @Parameter(names = "--count")
+        int count;
+        @Parameter(names = "--verbose")
+        boolean verbose;
+        @Parameter(names = "--tags")
+        Set<String> tags;
+        @Vars
+        List<String> positional;
+    }
+}
@@ -1,5 +1,7 @@
 package com.guanyanqi.converter;
 
+import com.guanyanqi.utils.QCmdExecutors;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -9,6 +11,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 /**
  * 全局转换器注册器类，负责维护类型到其相应QStringConverter转换器的映射。
@@ -29,6 +32,12 @@ public class ConverterRegistry {
     // 存储类型与转换器映射的线程安全HashMap
     private static final Map<Class<?>, QStringConverter<?>> converters = new ConcurrentHashMap<>();
 
+    // 内置的默认转换器，用于判断某类型是否仍使用默认转换（可走快速路径）
+    private static final Map<Class<?>, QStringConverter<?>> defaults;
+
+    // 异步转换器使用的执行器；为 null 时使用按需创建的默认执行器
+    private static volatile Executor asyncExecutor;
+
     // 定义全局默认的日期时间格式化器
     private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
@@ -61,6 +70,7 @@ public class ConverterRegistry {
         register(LocalTime.class, LocalTime::parse); // LocalTime类型
         register(Date.class, s -> Date.from(LocalDateTime.parse(s, formatter)
                 .atZone(ZoneId.systemDefault()).toInstant())); // Date类型，转换为使用系统默认时区的日期时间
+        defaults = Map.copyOf(converters);
     }
 
     /**
@@ -75,6 +85,17 @@ public class ConverterRegistry {
         return (QStringConverter<T>) converters.get(type);
     }
 
+    /**
+     * 判断类型当前是否仍使用内置的默认转换器，即未被 {@link #register} 覆盖。
+     *
+     * @param type 目标类型
+     * @return 使用内置默认转换器返回 true
+     */
+    public static boolean hasDefaultConverter(Class<?> type) {
+        QStringConverter<?> builtIn = defaults.get(type);
+        return builtIn != null && builtIn == converters.get(type);
+    }
+
     /**
      * 注册新的类型转换器。
      *
@@ -85,4 +106,34 @@ public class ConverterRegistry {
     public static <T> void register(Class<T> type, QStringConverter<T> converter) {
         converters.put(type, converter);
     }
+
+    /**
+     * 获取异步转换器（{@link QAsyncConverter}）使用的执行器。
+     * <p>
+     * 未设置时使用首次调用时创建的默认执行器：JDK 21+ 为每个转换一个虚拟线程，JDK 17 为平台守护线程池。
+     * </p>
+     *
+     * @return 异步转换执行器
+     */
+    public static Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        return executor != null ? executor : DefaultAsyncExecutor.INSTANCE;
+    }
+
+    /**
+     * 设置异步转换器使用的执行器，传入 null 时恢复默认执行器。
+     *
+     * @param executor 执行器，由调用方负责关闭
+     */
+    public static void setAsyncExecutor(Executor executor) {
+        asyncExecutor = executor;
+    }
+
+    /**
+     * 默认异步执行器的延迟初始化持有者，未使用异步转换器时不创建线程。
+     */
+    private static final class DefaultAsyncExecutor {
+        private static final Executor INSTANCE = QCmdExecutors.newPerTaskExecutor("qcmd-convert",
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    }
 }
@@ -0,0 +1,60 @@
+package com.guanyanqi.converter;
+
+import com.guanyanqi.exception.QCmdException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * 异步字符串转换器，适用于读取文件、解析域名或调用本地服务等以 I/O 等待为主的转换。
+ * <p>
+ * 绑定时，同一命令中使用异步转换器的选项会在 {@link ConverterRegistry#getAsyncExecutor()} 上并发启动，
+ * 同步转换在调用线程上同时进行，全部完成后才构造命令实例；任一转换失败时，其余尚未完成的转换会被取消。
+ * 实现类可以直接在 {@code @Parameter(converter = ...)} 与 {@code @Vars(elementConverter = ...)} 中声明。
+ * </p>
+ *
+ * <pre>
+ *     public class HostConverter implements QAsyncConverter&lt;InetAddress&gt; {
+ *         public CompletionStage&lt;InetAddress&gt; convertAsync(String value, Executor executor) {
+ *             return CompletableFuture.supplyAsync(() -&gt; resolve(value), executor);
+ *         }
+ *     }
+ * </pre>
+ *
+ * @param <T> 转换后的目标类型
+ * @author guanyanqi
+ */
+public interface QAsyncConverter<T> extends QStringConverter<T> {
+
+    /**
+     * 异步转换字符串值。
+     *
+     * @param value    待转换的字符串
+     * @param executor 建议用于执行阻塞操作的执行器
+     * @return 转换结果；被取消时实现类应尽快停止工作
+     */
+    CompletionStage<T> convertAsync(String value, Executor executor);
+
+    /**
+     * 同步转换：在异步执行器上转换并等待结果，供不需要并发的场景使用。
+     *
+     * @param value 待转换的字符串
+     * @return 转换后的目标类型实例
+     */
+    @Override
+    default T convert(String value) {
+        try {
+            return convertAsync(value, ConverterRegistry.getAsyncExecutor()).toCompletableFuture().join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new QCmdException("异步转换 [" + value + "] 失败: " + cause, cause);
+        } catch (CancellationException e) {
+            throw new QCmdException("异步转换 [" + value + "] 已取消", e);
+        }
+    }
+}
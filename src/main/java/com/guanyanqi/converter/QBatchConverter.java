@@ -0,0 +1,36 @@
+package com.guanyanqi.converter;
+
+import java.util.List;
+
+/**
+ * 批量字符串转换器，一次调用转换 {@code @Vars} 的全部位置变量。
+ * <p>
+ * 适用于能够摊薄单次开销的转换：例如一次目录扫描完成大量路径的 stat、批量解析主机名，
+ * 或用批量算法解析大量数字。在 {@code @Vars(elementConverter = ...)} 中声明后，
+ * 集合类型的位置变量自动走批量路径；单变量与选项值仍逐个调用 {@link #convert(String)}。
+ * </p>
+ *
+ * @param <T> 集合元素的目标类型
+ * @author guanyanqi
+ */
+public interface QBatchConverter<T> extends QStringConverter<T> {
+
+    /**
+     * 批量转换字符串值。
+     *
+     * @param values 待转换的字符串，只读视图，不应被保留到调用之外
+     * @return 与输入一一对应、顺序一致的转换结果
+     */
+    List<T> convertAll(List<String> values);
+
+    /**
+     * 转换单个字符串值，默认委托给 {@link #convertAll(List)}。
+     *
+     * @param value 待转换的字符串
+     * @return 转换后的目标类型实例
+     */
+    @Override
+    default T convert(String value) {
+        return convertAll(List.of(value)).get(0);
+    }
+}
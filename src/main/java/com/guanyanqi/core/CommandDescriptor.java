@@ -1,20 +1,34 @@
 package com.guanyanqi.core;
 
+import com.guanyanqi.ParseAction;
 import com.guanyanqi.annotation.Cmd;
 import com.guanyanqi.converter.ConverterRegistry;
 import com.guanyanqi.converter.DefaultCollectionStringConverter;
 import com.guanyanqi.converter.DefaultMapStringConverter;
+import com.guanyanqi.converter.DelimitedNumbers;
 import com.guanyanqi.converter.NoConverter;
+import com.guanyanqi.converter.QAsyncConverter;
+import com.guanyanqi.converter.QBatchConverter;
 import com.guanyanqi.converter.QStringConverter;
 import com.guanyanqi.core.model.OptionDescriptor;
 import com.guanyanqi.core.model.VarsDescriptor;
-import com.guanyanqi.core.strategy.CommandBindingStrategy;
+import com.guanyanqi.core.regex.ValueMatcher;
+import com.guanyanqi.core.snapshot.DescriptorSnapshot;
 import com.guanyanqi.core.strategy.CommandBindingStrategyFactory;
+import com.guanyanqi.exception.InvalidParameterValueException;
 import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.jfr.QCmdEvents;
+import com.guanyanqi.metrics.internal.CostRecorder;
+import com.guanyanqi.metrics.internal.CostSink;
 import com.guanyanqi.utils.QCmdUtils;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 
 /**
  * 提取并持有命令类的统一领域模型描述符（包含 OptionDescriptor 列表与 VarsDescriptor）。
@@ -24,10 +38,15 @@ import java.util.*;
  * 1. <b>自定义转换器 (Custom Converter)</b>：若注解中配置了 {@code converter = MyConverter.class}，优先使用。
  * 2. <b>全局注册转换器 (Global Registry)</b>：查找内置的 20+ 种数据类型转换器（如 Integer, LocalDate 等）。
  * 3. <b>枚举类型 (Enum)</b>：基于 {@code Enum.valueOf} 自动解析枚举名称。
- * 4. <b>集合类型 (Collection)</b>：提取元素泛型，使用 {@code DefaultCollectionStringConverter} 切分字符串并递归转换每个元素。
+ * 4. <b>集合类型 (Collection)</b>：提取元素泛型，使用 {@code DefaultCollectionStringConverter} 切分字符串并递归转换每个元素；
+ *    元素为 Integer/Long 且使用默认转换器时，先尝试 {@link DelimitedNumbers} 快速路径。
  * 5. <b>键值映射 (Map)</b>：提取 Key/Value 泛型，使用 {@code DefaultMapStringConverter} 解析键值对并递归转换。
  * 6. <b>String 参数构造方法兜底</b>：若目标类提供了接收单个 String 的构造方法，自动调用实例化。
  *
+ * <p>自定义转换器实现 {@link QAsyncConverter} 时，{@link #convertOptionValues} 与 {@link #convertVars}
+ * 会并发启动这些转换并在返回前等待全部完成；位置变量的元素转换器实现 {@link QBatchConverter} 时，
+ * {@link #convertVars} 一次调用转换全部元素。</p>
+ *
  * @author guanyanqi
  */
 public class CommandDescriptor {
@@ -41,14 +60,51 @@ public class CommandDescriptor {
     private final Set<String> boolOptionNames = new HashSet<>();
     private final List<List<String>> requiredOptionGroups = new ArrayList<>();
     private VarsDescriptor varsDescriptor;
+    private OptionNameIndex optionNameIndex;
+    private SuggestionIndex optionSuggestions;
+    private SuggestionIndex commandSuggestions;
+    /** 声明了 valueValidRegex 的选项到其预编译匹配器的映射。 */
+    private Map<OptionDescriptor, ValueMatcher> valueMatchers;
+    /** 声明了取值约束的选项到其编译后校验的映射。 */
+    private Map<OptionDescriptor, ValueConstraintCheck> constraintChecks;
+    /** 必填选项与 {@code @Cmd.groups} 编译成的出现位图校验。 */
+    private OptionGroupRules optionGroupRules;
     private boolean frozen;
 
     /**
-     * 构造命令描述符模型。
+     * 按命令类缓存的描述符；描述符构建完成后即冻结，可在解析请求与线程间共享。
+     */
+    private static final ClassValue<CommandDescriptor> DESCRIPTOR_CACHE = new ClassValue<>() {
+        @Override
+        protected CommandDescriptor computeValue(Class<?> type) {
+            Object event = QCmdEvents.beginDescriptor();
+            CommandDescriptor snapshot = DescriptorSnapshot.lookup(type);
+            CommandDescriptor descriptor = snapshot != null ? snapshot : new CommandDescriptor(type);
+            QCmdEvents.endDescriptor(event, type, descriptor.getOptions().size(), snapshot != null);
+            return descriptor;
+        }
+    };
+
+    /**
+     * 构造命令描述符模型，通过反射提取元数据。
      *
      * @param targetClass 目标命令类 Class
      */
     public CommandDescriptor(Class<?> targetClass) {
+        this(targetClass, (clazz, descriptor) ->
+                CommandBindingStrategyFactory.getStrategy(clazz).extractMetadata(clazz, descriptor));
+    }
+
+    /**
+     * 使用指定的元数据来源构造命令描述符模型。
+     * <p>
+     * 元数据来源通过 {@link #registerOption} / {@link #registerVars} 填充描述符，返回后描述符即被冻结。
+     * </p>
+     *
+     * @param targetClass       目标命令类 Class
+     * @param metadataExtractor 元数据来源，如绑定策略的反射提取或 {@link DescriptorSnapshot} 快照
+     */
+    public CommandDescriptor(Class<?> targetClass, BiConsumer<Class<?>, CommandDescriptor> metadataExtractor) {
         this.targetClass = Objects.requireNonNull(targetClass, "Target class must not be null");
         this.cmdAnnotation = targetClass.getAnnotation(Cmd.class);
         if (this.cmdAnnotation == null) {
@@ -67,12 +123,103 @@ public class CommandDescriptor {
             }
         }
 
-        // 使用策略模式自动判定目标类类型（POJO 还是 Java Record），提取描述符元数据
-        CommandBindingStrategy strategy = CommandBindingStrategyFactory.getStrategy(targetClass);
-        strategy.extractMetadata(targetClass, this);
+        // 默认使用策略模式自动判定目标类类型（POJO 还是 Java Record），提取描述符元数据
+        metadataExtractor.accept(targetClass, this);
+        this.optionNameIndex = OptionNameIndex.of(nameToOptionMap);
+        this.optionSuggestions = SuggestionIndex.of(nameToOptionMap.keySet());
+        this.commandSuggestions = SuggestionIndex.of(commandNames);
+        this.valueMatchers = compileValueMatchers();
+        this.constraintChecks = compileConstraintChecks();
+        try {
+            this.optionGroupRules = OptionGroupRules.compile(options, nameToOptionMap, cmdAnnotation.groups());
+        } catch (QCmdException e) {
+            throw new QCmdException("命令类 " + targetClass.getName() + " " + e.getMessage(), e);
+        }
         this.frozen = true;
     }
 
+    private Map<OptionDescriptor, ValueMatcher> compileValueMatchers() {
+        Map<OptionDescriptor, ValueMatcher> matchers = new IdentityHashMap<>();
+        for (OptionDescriptor option : options) {
+            if (!option.valueValidRegex().isEmpty()) {
+                try {
+                    matchers.put(option, ValueMatcher.compile(option.valueValidRegex(), cmdAnnotation.regexStepBudget()));
+                } catch (QCmdException e) {
+                    throw new QCmdException("命令类 " + targetClass.getName() + " 参数 [" + option.targetName() + "] "
+                            + e.getMessage(), e);
+                }
+            }
+        }
+        return matchers;
+    }
+
+    private Map<OptionDescriptor, ValueConstraintCheck> compileConstraintChecks() {
+        Map<OptionDescriptor, ValueConstraintCheck> checks = new IdentityHashMap<>();
+        for (OptionDescriptor option : options) {
+            try {
+                ValueConstraintCheck check = ValueConstraintCheck.compile(option);
+                if (check != null) {
+                    checks.put(option, check);
+                }
+            } catch (QCmdException e) {
+                throw new QCmdException("命令类 " + targetClass.getName() + " 参数 [" + option.targetName() + "] "
+                        + e.getMessage(), e);
+            }
+        }
+        return checks;
+    }
+
+    /**
+     * 获取命令类的共享描述符。
+     * <p>
+     * 每个命令类只构建一次：优先从类路径上与该类字节码指纹一致的 {@link DescriptorSnapshot#RESOURCE}
+     * 快照加载，缺失或失配时回退到反射提取。
+     * </p>
+     *
+     * @param targetClass 目标命令类 Class
+     * @return 已冻结的命令描述符
+     */
+    public static CommandDescriptor forClass(Class<?> targetClass) {
+        Objects.requireNonNull(targetClass, "Target class must not be null");
+        return DESCRIPTOR_CACHE.get(targetClass);
+    }
+
+    /** 调用转换器，传入了归因入口时按转换器类计数。 */
+    private static Object convert(QStringConverter<?> converter, String rawValue, CostSink costs) {
+        if (costs == null) {
+            return converter.convert(rawValue);
+        }
+        CostRecorder counter = costs.converterCounter(converter.getClass());
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = converter.convert(rawValue);
+        } catch (RuntimeException | Error e) {
+            counter.failed(System.nanoTime() - start);
+            throw e;
+        }
+        counter.accepted(System.nanoTime() - start);
+        return value;
+    }
+
+    /** 调用批量转换器，整批计为一次调用。 */
+    private static List<?> convertAll(QBatchConverter<?> converter, List<String> rawValues, CostSink costs) {
+        if (costs == null) {
+            return converter.convertAll(rawValues);
+        }
+        CostRecorder counter = costs.converterCounter(converter.getClass());
+        long start = System.nanoTime();
+        List<?> values;
+        try {
+            values = converter.convertAll(rawValues);
+        } catch (RuntimeException | Error e) {
+            counter.failed(System.nanoTime() - start);
+            throw e;
+        }
+        counter.accepted(System.nanoTime() - start);
+        return values;
+    }
+
     /**
      * 注册选项描述符，建立选项名称与目标属性名的多重索引映射。
      *
@@ -148,18 +295,34 @@ public class CommandDescriptor {
      * @return 转换后的强类型对象
      * @throws Exception 当转换失败或没有适用的转换策略时抛出
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
     public Object convertValue(Class<?> type, Type genericType, Class<? extends QStringConverter<?>> customConverterClass, String rawValue) throws Exception {
+        return convertValue(type, genericType, customConverterClass, rawValue, null);
+    }
+
+    /**
+     * 通用类型转换核心管线方法，并把转换器调用计入给定归因入口。
+     *
+     * @param type                 目标字段/组件Class
+     * @param genericType          目标字段/组件完整 Generic Type（用于提取集合/Map 泛型）
+     * @param customConverterClass 自定义转换器 Class（无自定义时传入 NoConverter.class）
+     * @param rawValue             命令行输入的原始字符串
+     * @param costs                转换器归因入口，为 null 时不计数
+     * @return 转换后的强类型对象
+     * @throws Exception 当转换失败或没有适用的转换策略时抛出
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public Object convertValue(Class<?> type, Type genericType, Class<? extends QStringConverter<?>> customConverterClass,
+                               String rawValue, CostSink costs) throws Exception {
         // 1. 优先使用自定义转换器
         QStringConverter<?> customConverter = getConverterInstance(customConverterClass);
         if (customConverter != null) {
-            return customConverter.convert(rawValue);
+            return convert(customConverter, rawValue, costs);
         }
 
         // 2. 尝试全局转换器注册表
         QStringConverter<?> registeredConverter = ConverterRegistry.getConverter(type);
         if (registeredConverter != null) {
-            return registeredConverter.convert(rawValue);
+            return convert(registeredConverter, rawValue, costs);
         }
 
         // 3. 处理 Enum 枚举
@@ -175,8 +338,11 @@ public class CommandDescriptor {
             }
             Class<?> elementType = rawClassOf(elementGenericType);
             Collection collection = QCmdUtils.createCollectionByType(type);
+            if (addDelimitedNumbers(collection, elementType, rawValue)) {
+                return collection;
+            }
             for (String elemStr : DefaultCollectionStringConverter.getInstance().convert(rawValue)) {
-                collection.add(convertValue(elementType, elementGenericType, NoConverter.class, elemStr));
+                collection.add(convertValue(elementType, elementGenericType, NoConverter.class, elemStr, costs));
             }
             return collection;
         }
@@ -193,8 +359,8 @@ public class CommandDescriptor {
             Class<?> valueType = rawClassOf(valueGenericType);
             Map map = QCmdUtils.createMapByType(type);
             for (Map.Entry<String, String> e : DefaultMapStringConverter.getInstance().convert(rawValue).entrySet()) {
-                Object k = convertValue(keyType, keyGenericType, NoConverter.class, e.getKey());
-                Object v = convertValue(valueType, valueGenericType, NoConverter.class, e.getValue());
+                Object k = convertValue(keyType, keyGenericType, NoConverter.class, e.getKey(), costs);
+                Object v = convertValue(valueType, valueGenericType, NoConverter.class, e.getValue(), costs);
                 map.put(k, v);
             }
             return map;
@@ -209,6 +375,90 @@ public class CommandDescriptor {
         }
     }
 
+    /**
+     * 转换命令行中提供的全部选项值。
+     * <p>
+     * 使用 {@link QAsyncConverter} 的选项先在异步执行器上并发启动，其余选项随后在当前线程上依次转换，
+     * 最后等待全部异步转换完成；任一转换失败时取消其余异步转换并抛出最先出现的失败。
+     * 同一选项以多个别名出现时，以最后一次出现的值为准。
+     * 全部转换完成后，再按 {@code @Parameter} 声明的 min/max、minLength/maxLength 与 allowed 校验转换结果。
+     * </p>
+     *
+     * @param optionValues 选项名（含别名）到原始值的映射
+     * @return 选项描述符到转换结果的映射，按选项首次出现的顺序排列
+     * @throws InvalidParameterValueException 转换结果不满足声明的取值约束时抛出
+     * @throws Exception 当转换失败或没有适用的转换策略时抛出
+     */
+    public Map<OptionDescriptor, Object> convertOptionValues(Map<String, String> optionValues) throws Exception {
+        return convertOptionValues(optionValues, null);
+    }
+
+    /**
+     * 转换命令行中提供的全部选项值，并把转换器调用计入给定归因入口；语义同 {@link #convertOptionValues(Map)}。
+     *
+     * @param optionValues 选项名（含别名）到原始值的映射
+     * @param costs        转换器归因入口，为 null 时不计数
+     * @return 选项描述符到转换结果的映射，按选项首次出现的顺序排列
+     * @throws Exception 当转换失败、没有适用的转换策略或不满足取值约束时抛出
+     */
+    public Map<OptionDescriptor, Object> convertOptionValues(Map<String, String> optionValues, CostSink costs)
+            throws Exception {
+        Map<OptionDescriptor, String> rawValues = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : optionValues.entrySet()) {
+            OptionDescriptor option = nameToOptionMap.get(entry.getKey());
+            if (option != null && entry.getValue() != null) {
+                rawValues.put(option, entry.getValue());
+            }
+        }
+        Map<OptionDescriptor, Object> converted = new LinkedHashMap<>();
+        Map<OptionDescriptor, CompletableFuture<?>> pending = new LinkedHashMap<>();
+        for (Map.Entry<OptionDescriptor, String> entry : rawValues.entrySet()) {
+            OptionDescriptor option = entry.getKey();
+            if (QAsyncConverter.class.isAssignableFrom(option.converterClass())) {
+                QAsyncConverter<?> converter = (QAsyncConverter<?>) getConverterInstance(option.converterClass());
+                pending.put(option, startAsync(converter, entry.getValue()));
+                // 先占位，保持结果顺序与输入一致
+                converted.put(option, null);
+            }
+        }
+        try {
+            for (Map.Entry<OptionDescriptor, String> entry : rawValues.entrySet()) {
+                OptionDescriptor option = entry.getKey();
+                if (!pending.containsKey(option)) {
+                    Object event = QCmdEvents.beginConversion();
+                    try {
+                        converted.put(option, convertValue(option.type(), option.genericType(), option.converterClass(),
+                                entry.getValue(), costs));
+                    } finally {
+                        QCmdEvents.endConversion(event, option.converterClass(), option.type(), entry.getValue().length());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            pending.values().forEach(future -> future.cancel(true));
+            throw e;
+        }
+        joinAll(pending.values());
+        for (Map.Entry<OptionDescriptor, CompletableFuture<?>> entry : pending.entrySet()) {
+            converted.put(entry.getKey(), entry.getValue().join());
+        }
+        if (!constraintChecks.isEmpty()) {
+            checkConstraints(rawValues, converted);
+        }
+        return converted;
+    }
+
+    private void checkConstraints(Map<OptionDescriptor, String> rawValues, Map<OptionDescriptor, Object> converted) {
+        for (Map.Entry<OptionDescriptor, Object> entry : converted.entrySet()) {
+            ValueConstraintCheck check = constraintChecks.get(entry.getKey());
+            if (check != null && !check.test(entry.getValue())) {
+                OptionDescriptor option = entry.getKey();
+                throw new InvalidParameterValueException(getCommandNames().iterator().next(), option.names()[0],
+                        rawValues.get(option), check.rule());
+            }
+        }
+    }
+
     /**
      * 将解析出的位置变量（Positional Vars）转换为目标变量属性要求的类型（单个对象或集合）。
      *
@@ -219,8 +469,41 @@ public class CommandDescriptor {
      * @return 转换后的强类型变量对象
      * @throws Exception 当转换失败时抛出
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
     public Object convertVars(Class<?> type, Type genericType, VarsDescriptor varsDesc, List<String> positionalVars) throws Exception {
+        return convertVars(type, genericType, varsDesc, positionalVars, null);
+    }
+
+    /**
+     * 转换位置变量，并把转换器调用计入给定归因入口；语义同 {@link #convertVars(Class, Type, VarsDescriptor, List)}。
+     *
+     * @param type           目标属性 Class
+     * @param genericType    目标属性泛型 Type
+     * @param varsDesc       位置变量描述符
+     * @param positionalVars 原始位置变量字符串列表
+     * @param costs          转换器归因入口，为 null 时不计数
+     * @return 转换后的强类型变量对象
+     * @throws Exception 当转换失败时抛出
+     */
+    public Object convertVars(Class<?> type, Type genericType, VarsDescriptor varsDesc, List<String> positionalVars,
+                              CostSink costs) throws Exception {
+        Object event = QCmdEvents.beginConversion();
+        if (event == null) {
+            return doConvertVars(type, genericType, varsDesc, positionalVars, costs);
+        }
+        try {
+            return doConvertVars(type, genericType, varsDesc, positionalVars, costs);
+        } finally {
+            int length = 0;
+            for (String var : positionalVars) {
+                length += var.length();
+            }
+            QCmdEvents.endConversion(event, varsDesc.elementConverterClass(), type, length);
+        }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Object doConvertVars(Class<?> type, Type genericType, VarsDescriptor varsDesc, List<String> positionalVars,
+                                 CostSink costs) throws Exception {
         QStringConverter<?> customConverter = getConverterInstance(varsDesc.elementConverterClass());
         String primaryCmd = getCommandNames().iterator().next();
 
@@ -231,9 +514,9 @@ public class CommandDescriptor {
             }
             String rawVal = positionalVars.get(0);
             if (customConverter != null) {
-                return customConverter.convert(rawVal);
+                return convert(customConverter, rawVal, costs);
             }
-            return convertValue(type, genericType, NoConverter.class, rawVal);
+            return convertValue(type, genericType, NoConverter.class, rawVal, costs);
         } else {
             // 集合变量场景：将所有位置变量依次转换并添加入目标集合中
             Collection collection = QCmdUtils.createCollectionByType(type);
@@ -242,11 +525,31 @@ public class CommandDescriptor {
                 elementGenericType = pType.getActualTypeArguments()[0];
             }
             Class<?> elementType = rawClassOf(elementGenericType);
+            if (customConverter instanceof QBatchConverter<?> batchConverter) {
+                List<?> converted = convertAll(batchConverter, Collections.unmodifiableList(positionalVars), costs);
+                if (converted == null || converted.size() != positionalVars.size()) {
+                    throw new QCmdException("批量转换器 [" + batchConverter.getClass().getName() + "] 返回 "
+                            + (converted == null ? 0 : converted.size()) + " 个结果，期望 " + positionalVars.size() + " 个");
+                }
+                collection.addAll(converted);
+                return collection;
+            }
+            if (customConverter instanceof QAsyncConverter<?> asyncConverter) {
+                List<CompletableFuture<?>> futures = new ArrayList<>(positionalVars.size());
+                for (String varStr : positionalVars) {
+                    futures.add(startAsync(asyncConverter, varStr));
+                }
+                joinAll(futures);
+                for (CompletableFuture<?> future : futures) {
+                    collection.add(future.join());
+                }
+                return collection;
+            }
             for (String varStr : positionalVars) {
                 if (customConverter != null) {
-                    collection.add(customConverter.convert(varStr));
+                    collection.add(convert(customConverter, varStr, costs));
                 } else {
-                    collection.add(convertValue(elementType, elementGenericType, NoConverter.class, varStr));
+                    collection.add(convertValue(elementType, elementGenericType, NoConverter.class, varStr, costs));
                 }
             }
             return collection;
@@ -265,6 +568,75 @@ public class CommandDescriptor {
         }
     }
 
+    /**
+     * 大型整数列表的快速路径：不切分子串，直接从原始字符串解析数值。
+     * 元素类型被重新注册过转换器，或输入超出快速路径范围时返回 false，由通用路径处理。
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static boolean addDelimitedNumbers(Collection collection, Class<?> elementType, String rawValue) {
+        boolean isLong = elementType == Long.class;
+        if ((!isLong && elementType != Integer.class) || !ConverterRegistry.hasDefaultConverter(elementType)) {
+            return false;
+        }
+        long[] numbers = DelimitedNumbers.parseLongs(rawValue);
+        if (numbers == null) {
+            return false;
+        }
+        if (isLong) {
+            for (long number : numbers) {
+                collection.add(number);
+            }
+            return true;
+        }
+        for (long number : numbers) {
+            if (number != (int) number) {
+                // 超出 int 范围，交给通用路径抛出与 Integer.valueOf 一致的错误
+                collection.clear();
+                return false;
+            }
+            collection.add((int) number);
+        }
+        return true;
+    }
+
+    /** 启动一次异步转换；转换器同步抛出的异常也转为失败的 future。 */
+    private static CompletableFuture<?> startAsync(QAsyncConverter<?> converter, String rawValue) {
+        try {
+            return converter.convertAsync(rawValue, ConverterRegistry.getAsyncExecutor()).toCompletableFuture();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /** 等待全部异步转换完成；最先出现失败时立即取消其余转换并抛出该失败。 */
+    private static void joinAll(Collection<CompletableFuture<?>> futures) throws Exception {
+        if (futures.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null) {
+                    firstFailure.completeExceptionally(error);
+                }
+            });
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        try {
+            CompletableFuture.anyOf(all, firstFailure).join();
+        } catch (CompletionException | CancellationException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e;
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            throw new QCmdException("异步转换失败: " + cause, cause);
+        }
+    }
+
     /** 将完整泛型 Type 解析为可实例化或查找转换器的原始 Class。 */
     private static Class<?> rawClassOf(Type type) {
         if (type instanceof Class<?> clazz) {
@@ -327,6 +699,82 @@ public class CommandDescriptor {
      */
     public Set<String> getBoolOptionNames() { return Collections.unmodifiableSet(boolOptionNames); }
 
+    /**
+     * 获取冻结时构建的选项名前缀树索引。
+     *
+     * @return 选项名索引
+     */
+    public OptionNameIndex getOptionNameIndex() { return optionNameIndex; }
+
+    /**
+     * 获取冻结时构建的选项名候选索引，用于未知选项的"是否想输入"提示。
+     *
+     * @return 选项名候选索引
+     */
+    public SuggestionIndex getOptionSuggestions() { return optionSuggestions; }
+
+    /**
+     * 获取冻结时构建的命令名候选索引，用于命令名不匹配时的提示。
+     *
+     * @return 命令名候选索引
+     */
+    public SuggestionIndex getCommandSuggestions() { return commandSuggestions; }
+
+    /**
+     * 获取冻结时为选项的 {@code valueValidRegex} 选定的匹配器。
+     *
+     * @param option 选项描述符
+     * @return 匹配器；选项未声明 valueValidRegex 时返回 null
+     */
+    public ValueMatcher getValueMatcher(OptionDescriptor option) { return valueMatchers.get(option); }
+
+    /**
+     * 获取冻结时编译的必填选项与选项组校验。
+     *
+     * @return 选项出现位图校验
+     */
+    OptionGroupRules getOptionGroupRules() { return optionGroupRules; }
+
+    /**
+     * 获取冻结时为选项取值约束生成的规则说明。
+     *
+     * @param option 选项描述符
+     * @return 规则说明，如 {@code 取值范围 [1, 65535]}；选项未声明约束时返回 null
+     */
+    public String getConstraintRule(OptionDescriptor option) {
+        ValueConstraintCheck check = constraintChecks.get(option);
+        return check != null ? check.rule() : null;
+    }
+
+    /**
+     * 判断命令是否允许 GNU 风格的长选项缩写，见 {@link Cmd#abbreviations()}。
+     *
+     * @return 允许缩写返回 true
+     */
+    public boolean allowsAbbreviations() { return cmdAnnotation.abbreviations(); }
+
+    /**
+     * 判断内置动作选项是否对本命令生效：命令自身声明了同名选项时让位于命令选项，
+     * {@link ParseAction#SHOW_VERSION} 还要求 {@code @Cmd} 配置了版本号。
+     *
+     * @param action 内置动作
+     * @return 生效时返回 true；{@link ParseAction#EXECUTE} 始终返回 false
+     */
+    public boolean hasBuiltInAction(ParseAction action) {
+        if (action == ParseAction.EXECUTE) {
+            return false;
+        }
+        if (action == ParseAction.SHOW_VERSION && cmdAnnotation.version().isBlank()) {
+            return false;
+        }
+        for (String name : action.optionNames()) {
+            if (nameToOptionMap.containsKey(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * 获取必填选项组列表。
      *
@@ -1,14 +1,12 @@
 package com.guanyanqi.core;
 
 import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.core.regex.ValueMatcher;
 import com.guanyanqi.exception.InvalidParameterValueException;
-import com.guanyanqi.exception.MissingParameterException;
 import com.guanyanqi.exception.QCmdException;
 import com.guanyanqi.exception.UnknownOptionException;
 
-import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 /**
  * 纯粹的参数规则校验器（彻底类型无关 Type-Agnostic）。
@@ -34,30 +32,30 @@ public class CommandValidator {
         Map<String, String> optionValues = parseResult.optionValues();
         String primaryCmd = descriptor.getCommandNames().iterator().next();
 
-        // 1. 校验未知参数与正则匹配规则
+        OptionGroupRules rules = descriptor.getOptionGroupRules();
+        long[] presence = rules.newPresence();
+
+        // 1. 校验未知参数与正则匹配规则，同时记录出现的选项
         for (Map.Entry<String, String> entry : optionValues.entrySet()) {
             String optionName = entry.getKey();
             String value = entry.getValue();
 
             OptionDescriptor option = descriptor.getNameToOptionMap().get(optionName);
             if (option == null) {
-                throw new UnknownOptionException(primaryCmd, optionName);
+                throw new UnknownOptionException(primaryCmd, optionName,
+                        descriptor.getOptionSuggestions().suggest(optionName));
             }
 
-            if (option.valueValidRegex() != null && !option.valueValidRegex().isEmpty()) {
-                if (!Pattern.matches(option.valueValidRegex(), value)) {
-                    throw new InvalidParameterValueException(primaryCmd, optionName, value, option.valueValidDesc());
-                }
+            // 匹配器在描述符冻结时预编译：常用子集走线性时间的 NFA，其余回退到带步数预算的 java.util.regex
+            ValueMatcher matcher = descriptor.getValueMatcher(option);
+            if (matcher != null && !matcher.matches(value)) {
+                throw new InvalidParameterValueException(primaryCmd, optionName, value, option.valueValidDesc());
             }
+            rules.mark(presence, option);
         }
 
-        // 2. 校验必填参数组
-        for (List<String> group : descriptor.getRequiredOptionGroups()) {
-            boolean present = group.stream().anyMatch(optionValues::containsKey);
-            if (!present) {
-                throw new MissingParameterException(primaryCmd, group);
-            }
-        }
+        // 2. 校验必填参数与 @Cmd.groups 选项组：在出现位图上逐个掩码比较
+        rules.check(presence, primaryCmd);
 
         // 3. 校验位置变量
         if (!parseResult.positionalVars().isEmpty() && descriptor.getVarsDescriptor() == null) {
@@ -3,6 +3,7 @@ package com.guanyanqi.core;
 import com.guanyanqi.core.strategy.CommandBindingStrategy;
 import com.guanyanqi.core.strategy.CommandBindingStrategyFactory;
 import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.metrics.internal.CostSink;
 
 /**
  * 属性转换与实体/Record 构造绑定器（使用策略模式多态绑定）。
@@ -25,12 +26,25 @@ public class InstanceBinder {
      * @param descriptor  命令描述符
      * @return 构建好的强类型命令实例
      */
-    @SuppressWarnings("unchecked")
     public static <T> T bind(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor) {
+        return bind(parseResult, descriptor, null);
+    }
+
+    /**
+     * 将解析结果多态绑定构建为目标 Class 实例，并把转换器调用计入给定归因入口。
+     *
+     * @param <T>         目标类型泛型
+     * @param parseResult 解析中间结果
+     * @param descriptor  命令描述符
+     * @param costs       转换器归因入口，为 null 时不计数
+     * @return 构建好的强类型命令实例
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T bind(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor, CostSink costs) {
         Class<T> clazz = (Class<T>) descriptor.getTargetClass();
         try {
             CommandBindingStrategy strategy = CommandBindingStrategyFactory.getStrategy(clazz);
-            return strategy.bindInstance(parseResult, descriptor, clazz);
+            return strategy.bindInstance(parseResult, descriptor, clazz, costs);
         } catch (QCmdException e) {
             throw e;
         } catch (Exception e) {
@@ -1,5 +1,6 @@
 package com.guanyanqi.core;
 
+import com.guanyanqi.ParseAction;
 import com.guanyanqi.annotation.Cmd;
 import com.guanyanqi.core.model.OptionDescriptor;
 import com.guanyanqi.core.model.VarsDescriptor;
@@ -52,15 +53,19 @@ public class MarkdownHelpFormatter implements HelpFormatter {
             if (option.valueValidDesc() != null && !option.valueValidDesc().trim().isEmpty()) {
                 desc += "（" + option.valueValidDesc() + "）";
             }
+            String constraintRule = descriptor.getConstraintRule(option);
+            if (constraintRule != null) {
+                desc += "（" + constraintRule + "）";
+            }
             md.append("| `").append(names).append("` | ")
               .append(option.type().getSimpleName()).append(" | ")
               .append(required).append(" | ")
               .append(desc).append(" |\n");
         }
-        if (!declaresAnyOption(descriptor, "-h", "--help")) {
+        if (descriptor.hasBuiltInAction(ParseAction.SHOW_HELP)) {
             md.append("| `-h, --help` | flag | 否 | 显示帮助信息 |\n");
         }
-        if (!cmdAnno.version().isBlank() && !declaresAnyOption(descriptor, "-V", "--version")) {
+        if (descriptor.hasBuiltInAction(ParseAction.SHOW_VERSION)) {
             md.append("| `-V, --version` | flag | 否 | 显示版本信息 |\n");
         }
 
@@ -73,13 +78,4 @@ public class MarkdownHelpFormatter implements HelpFormatter {
 
         return md.toString();
     }
-
-    private static boolean declaresAnyOption(CommandDescriptor descriptor, String... names) {
-        for (String name : names) {
-            if (descriptor.getNameToOptionMap().containsKey(name)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
@@ -0,0 +1,164 @@
+package com.guanyanqi.core;
+
+import com.guanyanqi.annotation.OptionGroup;
+import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.exception.MissingParameterException;
+import com.guanyanqi.exception.OptionGroupViolationException;
+import com.guanyanqi.exception.QCmdException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 必填选项与 {@link OptionGroup} 选项组编译成的出现位图校验。
+ * <p>
+ * 每个选项按注册顺序占用一位；必填选项与每个选项组各编译为一个掩码。解析时先把出现过的选项置位，
+ * 再逐个掩码做与运算和计数，选项数不超过 64 时每条规则只涉及一个 long。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+final class OptionGroupRules {
+
+    private final List<OptionDescriptor> options;
+    private final Map<OptionDescriptor, Integer> bits;
+    private final int words;
+    private final long[] required;
+    private final Group[] groups;
+
+    private OptionGroupRules(List<OptionDescriptor> options, Map<OptionDescriptor, Integer> bits, long[] required,
+                             Group[] groups) {
+        this.options = options;
+        this.bits = bits;
+        this.words = required.length;
+        this.required = required;
+        this.groups = groups;
+    }
+
+    /**
+     * 编译必填选项与选项组。
+     *
+     * @param options         按注册顺序排列的选项
+     * @param nameToOptionMap 选项名（含别名）到选项的映射
+     * @param declared        {@code @Cmd} 声明的选项组
+     * @return 编译结果
+     * @throws QCmdException 选项组引用未声明的选项、重复引用同一选项或少于两项时抛出
+     */
+    static OptionGroupRules compile(List<OptionDescriptor> options, Map<String, OptionDescriptor> nameToOptionMap,
+                                    OptionGroup[] declared) {
+        Map<OptionDescriptor, Integer> bits = new IdentityHashMap<>();
+        long[] required = new long[Math.max(1, (options.size() + 63) >>> 6)];
+        for (int i = 0; i < options.size(); i++) {
+            bits.put(options.get(i), i);
+            if (options.get(i).required()) {
+                required[i >>> 6] |= 1L << i;
+            }
+        }
+        Group[] groups = new Group[declared.length];
+        for (int g = 0; g < declared.length; g++) {
+            String[] names = declared[g].options();
+            if (names.length < 2) {
+                throw new QCmdException("选项组 " + Arrays.toString(names) + " 至少需要包含两个参数");
+            }
+            long[] mask = new long[required.length];
+            int[] members = new int[names.length];
+            for (int n = 0; n < names.length; n++) {
+                OptionDescriptor option = nameToOptionMap.get(names[n]);
+                if (option == null) {
+                    throw new QCmdException("选项组 " + Arrays.toString(names) + " 引用了未声明的参数 [" + names[n] + "]");
+                }
+                int bit = bits.get(option);
+                if ((mask[bit >>> 6] & (1L << bit)) != 0) {
+                    throw new QCmdException("选项组 " + Arrays.toString(names) + " 重复引用了参数 [" + names[n] + "]");
+                }
+                mask[bit >>> 6] |= 1L << bit;
+                members[n] = bit;
+            }
+            groups[g] = new Group(declared[g].kind(), List.of(names), members, mask);
+        }
+        return new OptionGroupRules(options, bits, required, groups);
+    }
+
+    /**
+     * 创建空的出现位图。
+     *
+     * @return 位图
+     */
+    long[] newPresence() {
+        return new long[words];
+    }
+
+    /**
+     * 在位图中标记选项已出现。
+     *
+     * @param presence 出现位图
+     * @param option   出现的选项
+     */
+    void mark(long[] presence, OptionDescriptor option) {
+        int bit = bits.get(option);
+        presence[bit >>> 6] |= 1L << bit;
+    }
+
+    /**
+     * 按出现位图校验必填选项与选项组。
+     *
+     * @param presence    出现位图
+     * @param commandName 主命令名称，用于异常信息
+     * @throws MissingParameterException     缺少必填选项时抛出，报告声明顺序中的第一个
+     * @throws OptionGroupViolationException 违反选项组约束时抛出，报告声明顺序中的第一个
+     */
+    void check(long[] presence, String commandName) {
+        for (int w = 0; w < words; w++) {
+            long missing = required[w] & ~presence[w];
+            if (missing != 0) {
+                OptionDescriptor option = options.get((w << 6) + Long.numberOfTrailingZeros(missing));
+                throw new MissingParameterException(commandName, Arrays.asList(option.names()));
+            }
+        }
+        for (Group group : groups) {
+            int count = 0;
+            for (int w = 0; w < words; w++) {
+                count += Long.bitCount(presence[w] & group.mask()[w]);
+            }
+            boolean violated = switch (group.kind()) {
+                case MUTUALLY_EXCLUSIVE -> count > 1;
+                case EXACTLY_ONE -> count != 1;
+                case AT_LEAST_ONE -> count == 0;
+                case ALL_OR_NONE -> count != 0 && count != group.names().size();
+                case REQUIRES -> isSet(presence, group.members()[0]) && count != group.names().size();
+            };
+            if (violated) {
+                throw new OptionGroupViolationException(commandName, group.kind(), group.names(),
+                        group.present(presence));
+            }
+        }
+    }
+
+    private static boolean isSet(long[] presence, int bit) {
+        return (presence[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * 编译后的选项组。
+     *
+     * @param kind    约束类型
+     * @param names   声明的选项名称
+     * @param members 每个名称对应的位
+     * @param mask    组内选项的掩码
+     */
+    private record Group(OptionGroup.Kind kind, List<String> names, int[] members, long[] mask) {
+
+        List<String> present(long[] presence) {
+            List<String> present = new ArrayList<>();
+            for (int i = 0; i < members.length; i++) {
+                if (isSet(presence, members[i])) {
+                    present.add(names.get(i));
+                }
+            }
+            return present;
+        }
+    }
+}
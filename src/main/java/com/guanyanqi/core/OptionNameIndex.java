@@ -0,0 +1,174 @@
+package com.guanyanqi.core;
+
+import com.guanyanqi.core.model.OptionDescriptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 选项名的压缩前缀树（radix tree）索引，在描述符冻结时构建。
+ * <p>
+ * 直接在 token 的指定区间 {@code [start, end)} 上匹配选项名，无需先截取子串，
+ * 例如 {@code --key=value} 可以只匹配 {@code =} 之前的部分。
+ * 每个节点预先记录其子树中各个选项的代表名，因此前缀补全（GNU 风格缩写 {@code --verb} → {@code --verbose}）
+ * 只需沿 token 走一遍，耗时与名称长度成正比，并能直接判断是否有歧义。
+ * </p>
+ *
+ * <p>索引不可变，可在线程间共享。</p>
+ *
+ * @author guanyanqi
+ */
+public final class OptionNameIndex {
+
+    private static final char[] EMPTY_LABEL = new char[0];
+
+    private final Node root;
+
+    private OptionNameIndex(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * 根据选项名到选项描述符的映射构建索引。
+     *
+     * @param options 选项名到描述符的映射
+     * @return 选项名索引
+     */
+    public static OptionNameIndex of(Map<String, OptionDescriptor> options) {
+        Objects.requireNonNull(options, "Options must not be null");
+        String[] names = options.keySet().toArray(new String[0]);
+        if (names.length == 0) {
+            return new OptionNameIndex(new Node(EMPTY_LABEL));
+        }
+        Arrays.sort(names);
+        return new OptionNameIndex(build(names, 0, names.length, 0, options));
+    }
+
+    /**
+     * 精确匹配区间内的选项名。
+     *
+     * @param text  待匹配文本
+     * @param start 区间起点（含）
+     * @param end   区间终点（不含）
+     * @return 已声明的选项名实例；未声明时返回 null
+     */
+    public String find(CharSequence text, int start, int end) {
+        Node node = descend(text, start, end, false);
+        return node != null ? node.name : null;
+    }
+
+    /**
+     * 返回以区间内文本为前缀的选项，每个选项一个代表名（该选项在前缀下字典序最小的名称）。
+     * <p>结果恰好一个元素时即为无歧义的缩写；多于一个表示有歧义。</p>
+     *
+     * @param text  待匹配文本
+     * @param start 区间起点（含）
+     * @param end   区间终点（不含）
+     * @return 按字典序排列的不可变列表；没有匹配时为空列表
+     */
+    public List<String> complete(CharSequence text, int start, int end) {
+        Node node = descend(text, start, end, true);
+        return node != null ? node.completions : List.of();
+    }
+
+    /**
+     * 沿前缀树匹配区间。prefix 为 true 时区间可以停在边标签中间，否则必须恰好停在节点上。
+     */
+    private Node descend(CharSequence text, int start, int end, boolean prefix) {
+        Node node = root;
+        int i = start;
+        while (true) {
+            char[] label = node.label;
+            int remaining = end - i;
+            int length = Math.min(label.length, remaining);
+            for (int k = 0; k < length; k++) {
+                if (text.charAt(i + k) != label[k]) {
+                    return null;
+                }
+            }
+            if (remaining <= label.length) {
+                return prefix || remaining == label.length ? node : null;
+            }
+            i += label.length;
+            node = node.child(text.charAt(i));
+            if (node == null) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 由有序名称 names[from, to) 构建子树，这些名称共享前缀 [0, depth)。
+     */
+    private static Node build(String[] names, int from, int to, int depth, Map<String, OptionDescriptor> options) {
+        // 有序数组中首尾两个名称在某位置相同，则中间所有名称在该位置也相同
+        String first = names[from];
+        String last = names[to - 1];
+        int end = depth;
+        while (first.length() > end && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+        Node node = new Node(first.substring(depth, end).toCharArray());
+        int i = from;
+        if (first.length() == end) {
+            node.name = first;
+            i++;
+        }
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char c = names[i].charAt(end);
+            int j = i + 1;
+            while (j < to && names[j].charAt(end) == c) {
+                j++;
+            }
+            children.add(build(names, i, j, end, options));
+            i = j;
+        }
+        node.firsts = new char[children.size()];
+        node.children = children.toArray(new Node[0]);
+        for (int k = 0; k < node.children.length; k++) {
+            node.firsts[k] = node.children[k].label[0];
+        }
+        node.completions = completions(names, from, to, options);
+        return node;
+    }
+
+    /**
+     * 子树中每个选项取字典序最小的名称，同一选项的多个名称只保留一个。
+     */
+    private static List<String> completions(String[] names, int from, int to, Map<String, OptionDescriptor> options) {
+        List<String> result = new ArrayList<>();
+        List<OptionDescriptor> seen = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            OptionDescriptor option = options.get(names[i]);
+            if (!seen.contains(option)) {
+                seen.add(option);
+                result.add(names[i]);
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * 前缀树节点：到达本节点的边标签、按首字符排序的子节点，以及在本节点结束的选项名。
+     */
+    private static final class Node {
+        private final char[] label;
+        private char[] firsts = EMPTY_LABEL;
+        private Node[] children = new Node[0];
+        private String name;
+        private List<String> completions = List.of();
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private Node child(char c) {
+            int index = Arrays.binarySearch(firsts, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.guanyanqi.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * "你是不是想输入"候选索引：编辑距离候选的二元组（bigram）倒排索引，在编译描述符或注册表时构建。
+ * <p>
+ * 每个名称首尾各补一个哨兵字符后切成 {@code 长度 + 1} 个二元组。一次插入、删除或替换最多破坏两个二元组，
+ * 因此编辑距离不超过 k 的两个名称至少共享 {@code max(la, lb) + 1 - 2k} 个二元组。
+ * 查询时按输入的二元组累加倒排表命中数，只对长度差与命中数都满足条件的少数名称计算带状（band）编辑距离，
+ * 带宽即容忍度，超过容忍度立即停止。
+ * </p>
+ *
+ * <p>容忍的编辑距离随输入长度增加：不超过 3 个字符时为 1，不超过 8 个字符时为 2，更长时为 3。
+ * 索引不可变，可在线程间共享。</p>
+ *
+ * @author guanyanqi
+ */
+public final class SuggestionIndex {
+
+    /**
+     * 单次查询返回的最多候选数。
+     */
+    public static final int MAX_SUGGESTIONS = 3;
+
+    /**
+     * 二元组首尾的哨兵字符。
+     */
+    private static final char SENTINEL = '\0';
+
+    private final String[] names;
+    private final int maxLength;
+    /** 开放寻址表：二元组键与对应的名称下标列表，空槽的 postings 为 null。 */
+    private final int[] gramKeys;
+    private final int[][] postings;
+
+    private SuggestionIndex(String[] names, Map<Integer, List<Integer>> grams) {
+        this.names = names;
+        this.maxLength = Arrays.stream(names).mapToInt(String::length).max().orElse(0);
+        int capacity = Integer.highestOneBit(Math.max(4, grams.size() * 2) - 1) << 1;
+        this.gramKeys = new int[capacity];
+        this.postings = new int[capacity][];
+        for (Map.Entry<Integer, List<Integer>> entry : grams.entrySet()) {
+            int slot = slot(entry.getKey());
+            gramKeys[slot] = entry.getKey();
+            postings[slot] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * 以给定名称构建索引。
+     *
+     * @param names 候选名称
+     * @return 候选索引
+     */
+    public static SuggestionIndex of(Collection<String> names) {
+        Objects.requireNonNull(names, "Names must not be null");
+        // 有序存放使结果与集合的迭代顺序无关
+        String[] sorted = names.stream().distinct().sorted().toArray(String[]::new);
+        Map<Integer, List<Integer>> grams = new HashMap<>();
+        for (int id = 0; id < sorted.length; id++) {
+            String name = sorted[id];
+            for (int i = 0; i <= name.length(); i++) {
+                List<Integer> ids = grams.computeIfAbsent(gram(name, i), key -> new ArrayList<>());
+                // 同一名称内重复的二元组只记一次，命中数因此是共享二元组数的上界，过滤不会漏掉候选
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+                    ids.add(id);
+                }
+            }
+        }
+        return new SuggestionIndex(sorted, grams);
+    }
+
+    /**
+     * 查找与输入最接近的名称。
+     *
+     * @param input 用户输入
+     * @return 按编辑距离、再按字典序排列的候选，最多 {@link #MAX_SUGGESTIONS} 个；没有足够接近的名称时为空列表
+     */
+    public List<String> suggest(String input) {
+        if (names.length == 0 || input == null || input.isEmpty()) {
+            return List.of();
+        }
+        int length = input.length();
+        int tolerance = tolerance(length);
+        int[] hits = new int[names.length];
+        int[] touched = new int[names.length];
+        int touchedCount = 0;
+        for (int i = 0; i <= length; i++) {
+            int[] ids = postings(gram(input, i));
+            if (ids != null) {
+                for (int id : ids) {
+                    if (hits[id]++ == 0) {
+                        touched[touchedCount++] = id;
+                    }
+                }
+            }
+        }
+        // 只有单字符输入可能与不共享任何二元组的名称（另一个单字符名称）足够接近，此时逐个检查全部名称
+        int candidates = length == 1 ? names.length : touchedCount;
+        int[] previous = new int[maxLength + 1];
+        int[] current = new int[maxLength + 1];
+        int[] found = new int[MAX_SUGGESTIONS];
+        int[] distances = new int[MAX_SUGGESTIONS];
+        int count = 0;
+        for (int k = 0; k < candidates; k++) {
+            int id = length == 1 ? k : touched[k];
+            // 候选已满时只关心不比当前最差者更远的名称，容忍度随之收紧
+            int cap = count == MAX_SUGGESTIONS ? distances[count - 1] : tolerance;
+            String name = names[id];
+            if (Math.abs(name.length() - length) > cap
+                    || hits[id] < Math.max(name.length(), length) + 1 - 2 * cap) {
+                continue;
+            }
+            int distance = distance(input, name, cap, previous, current);
+            if (distance > cap) {
+                continue;
+            }
+            // 插入排序维护前 MAX_SUGGESTIONS 个；距离相同时按名称下标（即字典序）排列
+            int position = Math.min(count, MAX_SUGGESTIONS - 1);
+            if (count == MAX_SUGGESTIONS && !closer(distance, id, distances[position], found[position])) {
+                continue;
+            }
+            while (position > 0 && closer(distance, id, distances[position - 1], found[position - 1])) {
+                found[position] = found[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            found[position] = id;
+            distances[position] = distance;
+            count = Math.min(count + 1, MAX_SUGGESTIONS);
+        }
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = names[found[i]];
+        }
+        return List.of(result);
+    }
+
+    private static boolean closer(int distance, int id, int otherDistance, int otherId) {
+        return distance < otherDistance || (distance == otherDistance && id < otherId);
+    }
+
+    private static int tolerance(int length) {
+        if (length <= 3) {
+            return 1;
+        }
+        return length <= 8 ? 2 : 3;
+    }
+
+    /**
+     * 补齐哨兵后的第 i 个二元组。
+     */
+    private static int gram(String value, int i) {
+        char first = i == 0 ? SENTINEL : value.charAt(i - 1);
+        char second = i == value.length() ? SENTINEL : value.charAt(i);
+        return first << 16 | second;
+    }
+
+    private int slot(int key) {
+        int mask = gramKeys.length - 1;
+        int slot = (key * 0x9E3779B9) >>> 16 & mask;
+        while (postings[slot] != null && gramKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int[] postings(int key) {
+        return postings[slot(key)];
+    }
+
+    /**
+     * 带状 Levenshtein 距离：只计算 {@code |i - j| <= cap} 的单元格，超过 cap 时立即返回 cap + 1。
+     */
+    static int distance(String a, String b, int cap, int[] previous, int[] current) {
+        int n = a.length();
+        int m = b.length();
+        int limit = cap + 1;
+        if (Math.abs(n - m) > cap) {
+            return limit;
+        }
+        for (int j = 0; j <= m; j++) {
+            previous[j] = Math.min(j, limit);
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - cap);
+            int to = Math.min(m, i + cap);
+            current[from - 1] = from == 1 ? Math.min(i, limit) : limit;
+            int rowMin = current[from - 1];
+            char c = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = b.charAt(j - 1) == c ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+                current[j] = Math.min(value, limit);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = limit;
+            }
+            if (rowMin > cap) {
+                return limit;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
+    }
+}
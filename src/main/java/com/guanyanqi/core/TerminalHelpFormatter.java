@@ -1,5 +1,6 @@
 package com.guanyanqi.core;
 
+import com.guanyanqi.ParseAction;
 import com.guanyanqi.annotation.Cmd;
 import com.guanyanqi.core.model.OptionDescriptor;
 import com.guanyanqi.core.model.VarsDescriptor;
@@ -45,7 +46,7 @@ public class TerminalHelpFormatter implements HelpFormatter {
 
         List<String> paramsList = new ArrayList<>();
         for (OptionDescriptor option : descriptor.getOptions()) {
-            paramsList.add(formatParamHelp(option));
+            paramsList.add(formatParamHelp(option, descriptor.getConstraintRule(option)));
         }
 
         if (!paramsList.isEmpty()) {
@@ -55,9 +56,8 @@ public class TerminalHelpFormatter implements HelpFormatter {
             }
         }
 
-        boolean hasBuiltInHelp = !declaresAnyOption(descriptor, "-h", "--help");
-        boolean hasBuiltInVersion = !cmdAnno.version().isBlank()
-                && !declaresAnyOption(descriptor, "-V", "--version");
+        boolean hasBuiltInHelp = descriptor.hasBuiltInAction(ParseAction.SHOW_HELP);
+        boolean hasBuiltInVersion = descriptor.hasBuiltInAction(ParseAction.SHOW_VERSION);
         if (hasBuiltInHelp || hasBuiltInVersion) {
             usage.append("内置选项：\n");
             if (hasBuiltInHelp) {
@@ -79,10 +79,11 @@ public class TerminalHelpFormatter implements HelpFormatter {
     /**
      * 单个选项的格式化 helper。
      *
-     * @param option 选项描述符
+     * @param option         选项描述符
+     * @param constraintRule 取值约束说明，可为 null
      * @return 格式化后的字符串
      */
-    private static String formatParamHelp(OptionDescriptor option) {
+    private static String formatParamHelp(OptionDescriptor option, String constraintRule) {
         String paramName = String.join("|", option.names());
         StringBuilder paramUsage = new StringBuilder("参数：");
         paramUsage.append(paramName);
@@ -97,15 +98,9 @@ public class TerminalHelpFormatter implements HelpFormatter {
         if (option.valueValidDesc() != null && !option.valueValidDesc().trim().isEmpty()) {
             paramUsage.append("，输入规则：").append(option.valueValidDesc());
         }
-        return paramUsage.toString();
-    }
-
-    private static boolean declaresAnyOption(CommandDescriptor descriptor, String... names) {
-        for (String name : names) {
-            if (descriptor.getNameToOptionMap().containsKey(name)) {
-                return true;
-            }
+        if (constraintRule != null) {
+            paramUsage.append("，取值约束：").append(constraintRule);
         }
-        return false;
+        return paramUsage.toString();
     }
 }
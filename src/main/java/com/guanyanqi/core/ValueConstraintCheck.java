@@ -0,0 +1,215 @@
+package com.guanyanqi.core;
+
+import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.core.model.ValueConstraints;
+import com.guanyanqi.exception.QCmdException;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 由 {@link ValueConstraints} 编译出的单个选项的取值校验，在描述符冻结时按选项类型构建一次。
+ * <p>
+ * 编译时确定比较方式，并把边界预先换算成该方式下的 long、double 或大数；校验时只在转换后的值上做一次
+ * 类型判断和基本类型比较，不解析字符串，也不分配对象。约束与选项类型不匹配时（如在 String 上声明 min）
+ * 编译即失败。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+final class ValueConstraintCheck {
+
+    private static final int NO_RANGE = 0;
+    private static final int INTEGRAL = 1;
+    private static final int FLOATING = 2;
+    private static final int BIG_INTEGER = 3;
+    private static final int BIG_DECIMAL = 4;
+
+    private final int rangeKind;
+    private final long min;
+    private final long max;
+    private final double minDouble;
+    private final double maxDouble;
+    /** 大数边界，null 表示该侧不限。 */
+    private final BigDecimal minDecimal;
+    private final BigDecimal maxDecimal;
+    private final BigInteger minInteger;
+    private final BigInteger maxInteger;
+
+    private final boolean checkLength;
+    private final int minLength;
+    private final int maxLength;
+
+    private final Set<String> allowed;
+
+    private final String rule;
+
+    private ValueConstraintCheck(ValueConstraints constraints, int rangeKind, String rule) {
+        this.rangeKind = rangeKind;
+        this.min = constraints.min();
+        this.max = constraints.max();
+        boolean lowerBounded = min != Long.MIN_VALUE;
+        boolean upperBounded = max != Long.MAX_VALUE;
+        this.minDouble = lowerBounded ? min : Double.NEGATIVE_INFINITY;
+        this.maxDouble = upperBounded ? max : Double.POSITIVE_INFINITY;
+        this.minDecimal = lowerBounded ? BigDecimal.valueOf(min) : null;
+        this.maxDecimal = upperBounded ? BigDecimal.valueOf(max) : null;
+        this.minInteger = lowerBounded ? BigInteger.valueOf(min) : null;
+        this.maxInteger = upperBounded ? BigInteger.valueOf(max) : null;
+        this.checkLength = constraints.hasLength();
+        this.minLength = constraints.minLength();
+        this.maxLength = constraints.maxLength();
+        this.allowed = constraints.allowed().isEmpty() ? null : Set.copyOf(constraints.allowed());
+        this.rule = rule;
+    }
+
+    /**
+     * 为选项编译取值校验。
+     *
+     * @param option 选项描述符
+     * @return 校验；选项未声明约束时返回 null
+     * @throws QCmdException 约束自相矛盾或不适用于选项类型时抛出
+     */
+    static ValueConstraintCheck compile(OptionDescriptor option) {
+        ValueConstraints constraints = option.constraints();
+        if (constraints.isNone()) {
+            return null;
+        }
+        Class<?> type = option.type();
+        StringBuilder rule = new StringBuilder();
+        int rangeKind = NO_RANGE;
+        if (constraints.hasRange()) {
+            rangeKind = rangeKind(type);
+            if (rangeKind == NO_RANGE) {
+                throw new QCmdException("min/max 只适用于数值类型，实际类型为 " + type.getName());
+            }
+            if (constraints.min() > constraints.max()) {
+                throw new QCmdException("min [" + constraints.min() + "] 不能大于 max [" + constraints.max() + "]");
+            }
+            appendBounds(rule, "取值", constraints.min() != Long.MIN_VALUE, constraints.min(),
+                    constraints.max() != Long.MAX_VALUE, constraints.max());
+        }
+        if (constraints.hasLength()) {
+            if (!CharSequence.class.isAssignableFrom(type) && !Collection.class.isAssignableFrom(type)
+                    && !Map.class.isAssignableFrom(type) && !type.isArray()) {
+                throw new QCmdException("minLength/maxLength 只适用于字符串、集合、映射与数组类型，实际类型为 " + type.getName());
+            }
+            if (constraints.minLength() < 0 || constraints.minLength() > constraints.maxLength()) {
+                throw new QCmdException("minLength [" + constraints.minLength() + "] 必须在 0 与 maxLength ["
+                        + constraints.maxLength() + "] 之间");
+            }
+            separate(rule);
+            appendBounds(rule, "长度", constraints.minLength() != 0, constraints.minLength(),
+                    constraints.maxLength() != Integer.MAX_VALUE, constraints.maxLength());
+        }
+        if (!constraints.allowed().isEmpty()) {
+            if (type != String.class) {
+                throw new QCmdException("allowed 只适用于 String 类型，实际类型为 " + type.getName());
+            }
+            separate(rule);
+            rule.append("可选值 ").append(constraints.allowed());
+        }
+        return new ValueConstraintCheck(constraints, rangeKind, rule.toString());
+    }
+
+    private static int rangeKind(Class<?> type) {
+        if (type == int.class || type == Integer.class || type == long.class || type == Long.class
+                || type == short.class || type == Short.class || type == byte.class || type == Byte.class) {
+            return INTEGRAL;
+        }
+        if (type == double.class || type == Double.class || type == float.class || type == Float.class) {
+            return FLOATING;
+        }
+        if (type == BigInteger.class) {
+            return BIG_INTEGER;
+        }
+        return type == BigDecimal.class ? BIG_DECIMAL : NO_RANGE;
+    }
+
+    private static void appendBounds(StringBuilder rule, String subject, boolean lowerBounded, long lower,
+                                     boolean upperBounded, long upper) {
+        if (lowerBounded && upperBounded) {
+            rule.append(subject).append("范围 [").append(lower).append(", ").append(upper).append(']');
+        } else if (lowerBounded) {
+            rule.append(subject).append("不小于 ").append(lower);
+        } else {
+            rule.append(subject).append("不大于 ").append(upper);
+        }
+    }
+
+    private static void separate(StringBuilder rule) {
+        if (!rule.isEmpty()) {
+            rule.append("，");
+        }
+    }
+
+    /**
+     * 校验转换后的值；null 值不做校验。
+     *
+     * @param value 转换后的值
+     * @return 满足全部约束时返回 true
+     */
+    boolean test(Object value) {
+        if (value == null) {
+            return true;
+        }
+        return inRange(value) && lengthInBounds(value) && (allowed == null || allowed.contains(value));
+    }
+
+    private boolean inRange(Object value) {
+        switch (rangeKind) {
+            case INTEGRAL -> {
+                long v = ((Number) value).longValue();
+                return v >= min && v <= max;
+            }
+            case FLOATING -> {
+                // NaN 与任何边界比较都为 false，因此被拒绝
+                double v = ((Number) value).doubleValue();
+                return v >= minDouble && v <= maxDouble;
+            }
+            case BIG_INTEGER -> {
+                BigInteger v = (BigInteger) value;
+                return (minInteger == null || v.compareTo(minInteger) >= 0)
+                        && (maxInteger == null || v.compareTo(maxInteger) <= 0);
+            }
+            case BIG_DECIMAL -> {
+                BigDecimal v = (BigDecimal) value;
+                return (minDecimal == null || v.compareTo(minDecimal) >= 0)
+                        && (maxDecimal == null || v.compareTo(maxDecimal) <= 0);
+            }
+            default -> {
+                return true;
+            }
+        }
+    }
+
+    private boolean lengthInBounds(Object value) {
+        if (!checkLength) {
+            return true;
+        }
+        int length;
+        if (value instanceof CharSequence chars) {
+            length = chars.length();
+        } else if (value instanceof Collection<?> collection) {
+            length = collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            length = map.size();
+        } else {
+            length = Array.getLength(value);
+        }
+        return length >= minLength && length <= maxLength;
+    }
+
+    /**
+     * 获取约束的说明文本，用作校验失败时的规则说明。
+     *
+     * @return 规则说明，如 {@code 取值范围 [1, 65535]}
+     */
+    String rule() {
+        return rule;
+    }
+}
@@ -29,6 +29,7 @@ public class OptionDescriptor {
     private final Type genericType;
     private final String targetName;
     private final AnnotatedElement rawElement;
+    private final ValueConstraints constraints;
 
     /**
      * 构造函数。
@@ -54,6 +55,36 @@ public class OptionDescriptor {
                             Type genericType,
                             String targetName,
                             AnnotatedElement rawElement) {
+        this(names, desc, required, valueValidRegex, valueValidDesc, converterClass, type, genericType, targetName,
+                rawElement, ValueConstraints.NONE);
+    }
+
+    /**
+     * 构造带取值约束的描述符。
+     *
+     * @param names             参数选项名称数组，如 {"-e", "--env"}
+     * @param desc              参数功能说明描述
+     * @param required          是否为必填参数
+     * @param valueValidRegex   参数值正则表达式校验规则
+     * @param valueValidDesc    参数值规则提示说明
+     * @param converterClass    自定义类型转换器 Class
+     * @param type              参数目标 Java 类型
+     * @param genericType       参数泛型类型
+     * @param targetName        字段名或组件名
+     * @param rawElement        底层反射元素（Field 或 RecordComponent）
+     * @param constraints       取值约束，null 视为无约束
+     */
+    public OptionDescriptor(String[] names,
+                            String desc,
+                            boolean required,
+                            String valueValidRegex,
+                            String valueValidDesc,
+                            Class<? extends QStringConverter<?>> converterClass,
+                            Class<?> type,
+                            Type genericType,
+                            String targetName,
+                            AnnotatedElement rawElement,
+                            ValueConstraints constraints) {
         this.names = Objects.requireNonNull(names, "Option names must not be null").clone();
         this.desc = desc != null ? desc : Constants.EMPTY_STRING;
         this.required = required;
@@ -64,6 +95,7 @@ public class OptionDescriptor {
         this.genericType = genericType != null ? genericType : type;
         this.targetName = Objects.requireNonNull(targetName, "Option targetName must not be null");
         this.rawElement = Objects.requireNonNull(rawElement, "Option rawElement must not be null");
+        this.constraints = constraints != null ? constraints : ValueConstraints.NONE;
     }
 
     /**
@@ -135,4 +167,11 @@ public class OptionDescriptor {
      * @return 反射 AnnotatedElement
      */
     public AnnotatedElement rawElement() { return rawElement; }
+
+    /**
+     * 获取声明的取值约束。
+     *
+     * @return 取值约束，未声明时为 {@link ValueConstraints#NONE}
+     */
+    public ValueConstraints constraints() { return constraints; }
 }
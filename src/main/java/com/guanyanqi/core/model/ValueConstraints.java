@@ -0,0 +1,75 @@
+package com.guanyanqi.core.model;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 选项在 {@code @Parameter} 上声明的取值约束：数值范围、长度范围与允许的字符串取值。
+ * <p>
+ * 约束只是声明；描述符冻结时按选项类型编译为具体的比较逻辑，并在转换后的值上校验。
+ * </p>
+ *
+ * @param min       数值最小值（含）
+ * @param max       数值最大值（含）
+ * @param minLength 最小长度（含）
+ * @param maxLength 最大长度（含）
+ * @param allowed   允许的字符串取值，为空表示不限
+ * @author guanyanqi
+ */
+public record ValueConstraints(long min, long max, int minLength, int maxLength, List<String> allowed) {
+
+    /**
+     * 不带任何约束。
+     */
+    public static final ValueConstraints NONE =
+            new ValueConstraints(Long.MIN_VALUE, Long.MAX_VALUE, 0, Integer.MAX_VALUE, List.of());
+
+    /**
+     * 规范化构造，复制允许取值列表。
+     *
+     * @param min       数值最小值（含）
+     * @param max       数值最大值（含）
+     * @param minLength 最小长度（含）
+     * @param maxLength 最大长度（含）
+     * @param allowed   允许的字符串取值
+     */
+    public ValueConstraints {
+        allowed = List.copyOf(Objects.requireNonNull(allowed, "Allowed values must not be null"));
+    }
+
+    /**
+     * 由注解属性构造约束，未声明任何约束时返回 {@link #NONE}。
+     *
+     * @param min       数值最小值（含）
+     * @param max       数值最大值（含）
+     * @param minLength 最小长度（含）
+     * @param maxLength 最大长度（含）
+     * @param allowed   允许的字符串取值
+     * @return 约束
+     */
+    public static ValueConstraints of(long min, long max, int minLength, int maxLength, String... allowed) {
+        ValueConstraints constraints = new ValueConstraints(min, max, minLength, maxLength, List.of(allowed));
+        return NONE.equals(constraints) ? NONE : constraints;
+    }
+
+    /**
+     * 是否声明了数值范围。
+     *
+     * @return 声明了 min 或 max 时返回 true
+     */
+    public boolean hasRange() { return min != Long.MIN_VALUE || max != Long.MAX_VALUE; }
+
+    /**
+     * 是否声明了长度范围。
+     *
+     * @return 声明了 minLength 或 maxLength 时返回 true
+     */
+    public boolean hasLength() { return minLength != 0 || maxLength != Integer.MAX_VALUE; }
+
+    /**
+     * 是否未声明任何约束。
+     *
+     * @return 无约束时返回 true
+     */
+    public boolean isNone() { return !hasRange() && !hasLength() && allowed.isEmpty(); }
+}
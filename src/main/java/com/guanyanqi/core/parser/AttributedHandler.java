@@ -0,0 +1,49 @@
+package com.guanyanqi.core.parser;
+
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.metrics.internal.CostRecorder;
+
+/**
+ * 为被包装处理器记录调用次数、接受/放弃与耗时的处理器，由 {@link TokenHandlerChain#attributed} 创建。
+ *
+ * @author guanyanqi
+ */
+final class AttributedHandler implements TokenHandler {
+
+    /** 被包装的处理器；链重新归因时据此取回原始处理器。 */
+    final TokenHandler delegate;
+    private final CostRecorder counter;
+
+    AttributedHandler(TokenHandler delegate, CostRecorder counter) {
+        this.delegate = delegate;
+        this.counter = counter;
+    }
+
+    @Override
+    public TokenResult handle(TokenContext context, ParseState parseState) {
+        long start = System.nanoTime();
+        TokenResult result;
+        try {
+            result = delegate.handle(context, parseState);
+        } catch (RuntimeException | Error e) {
+            counter.failed(System.nanoTime() - start);
+            throw e;
+        }
+        if (result != null) {
+            counter.accepted(System.nanoTime() - start);
+        } else {
+            counter.declined(System.nanoTime() - start);
+        }
+        return result;
+    }
+
+    @Override
+    public TokenHandler specialize(CommandDescriptor descriptor) {
+        TokenHandler bound = delegate.specialize(descriptor);
+        if (bound == null) {
+            throw new QCmdException("处理器 " + delegate.getClass().getName() + " 特化结果不能为空");
+        }
+        return bound == delegate ? this : new AttributedHandler(bound, counter);
+    }
+}
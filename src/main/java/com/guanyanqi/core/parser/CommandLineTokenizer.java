@@ -0,0 +1,104 @@
+package com.guanyanqi.core.parser;
+
+import com.guanyanqi.exception.QCmdException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把单行命令文本切分为 argv，规则与 POSIX shell 的常见子集一致。
+ * <ul>
+ *   <li>空白字符分隔参数，连续空白视为一个分隔</li>
+ *   <li>单引号内的内容原样保留</li>
+ *   <li>双引号内只转义 {@code \"} 与 {@code \\}，其余反斜杠原样保留</li>
+ *   <li>引号外的反斜杠转义下一个字符</li>
+ *   <li>{@code ''} 与 {@code ""} 产生空字符串参数</li>
+ * </ul>
+ * 不支持变量展开、通配符与命令替换。
+ *
+ * @author guanyanqi
+ */
+public final class CommandLineTokenizer {
+
+    /**
+     * 私有构造函数以防止静态工具类被误实例化。
+     */
+    private CommandLineTokenizer() {
+    }
+
+    /**
+     * 切分命令文本。
+     *
+     * @param line 单行命令文本
+     * @return 参数数组
+     * @throws QCmdException 引号未闭合或以单个反斜杠结尾时抛出
+     */
+    public static String[] tokenize(String line) {
+        if (line == null) {
+            throw new QCmdException("命令行内容为空");
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inToken = false;
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+                i++;
+            } else if (c == '\'') {
+                int end = line.indexOf('\'', i + 1);
+                if (end < 0) {
+                    throw new QCmdException("命令行第 " + i + " 个字符处的单引号未闭合: " + line);
+                }
+                current.append(line, i + 1, end);
+                inToken = true;
+                i = end + 1;
+            } else if (c == '"') {
+                i = appendDoubleQuoted(line, i, current);
+                inToken = true;
+            } else if (c == '\\') {
+                if (i + 1 >= length) {
+                    throw new QCmdException("命令行以未转义的反斜杠结尾: " + line);
+                }
+                current.append(line.charAt(i + 1));
+                inToken = true;
+                i += 2;
+            } else {
+                current.append(c);
+                inToken = true;
+                i++;
+            }
+        }
+        if (inToken) {
+            tokens.add(current.toString());
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * 追加双引号内的内容，返回闭合引号之后的位置。
+     */
+    private static int appendDoubleQuoted(String line, int open, StringBuilder current) {
+        int i = open + 1;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c == '\\' && i + 1 < line.length() && (line.charAt(i + 1) == '"' || line.charAt(i + 1) == '\\')) {
+                current.append(line.charAt(i + 1));
+                i += 2;
+            } else {
+                current.append(c);
+                i++;
+            }
+        }
+        throw new QCmdException("命令行第 " + open + " 个字符处的双引号未闭合: " + line);
+    }
+}
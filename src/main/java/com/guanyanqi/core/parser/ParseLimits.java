@@ -0,0 +1,259 @@
+package com.guanyanqi.core.parser;
+
+import com.guanyanqi.converter.NoConverter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.exception.ParseLimitExceededException;
+import com.guanyanqi.exception.QCmdException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单条命令行的解析资源上限，用于解析不可信输入（聊天机器人、Web 表单、网络守护进程）。
+ * <p>
+ * 上限在 token 循环与转换之前逐步检查，一旦超出立即抛出 {@link ParseLimitExceededException}，
+ * 不会先为超大输入分配选项值映射、位置变量列表或集合元素：
+ * </p>
+ * <ul>
+ *   <li>token 数与全部 token 的字符总数在进入处理器链前检查，遇到第一个越界的 token 即停止；</li>
+ *   <li>单个选项值或位置参数的长度、位置参数个数在每个 token 处理结果写入状态时检查；</li>
+ *   <li>集合/Map 类型选项的元素个数在写入状态时按分隔符计数，不等到转换阶段 split。</li>
+ * </ul>
+ *
+ * <pre>
+ *     ParseLimits limits = ParseLimits.builder()
+ *             .maxTokens(256)
+ *             .maxValueLength(4096)
+ *             .maxElements(64)
+ *             .build();
+ *     QCmd.of(args).withLimits(limits).parse(DeployCmd.class);
+ * </pre>
+ *
+ * <p>未设置的上限不做检查；{@link #NONE} 不限制任何资源，是默认值。实例不可变，可在线程间共享。</p>
+ *
+ * @author guanyanqi
+ */
+public final class ParseLimits {
+
+    /**
+     * 不限制任何资源。
+     */
+    public static final ParseLimits NONE = builder().build();
+
+    private final int maxTokens;
+    private final long maxTotalChars;
+    private final int maxValueLength;
+    private final int maxPositionals;
+    private final int maxElements;
+
+    private ParseLimits(Builder builder) {
+        this.maxTokens = builder.maxTokens;
+        this.maxTotalChars = builder.maxTotalChars;
+        this.maxValueLength = builder.maxValueLength;
+        this.maxPositionals = builder.maxPositionals;
+        this.maxElements = builder.maxElements;
+    }
+
+    /**
+     * 创建构建器，初始不限制任何资源。
+     *
+     * @return 构建器实例
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 获取 token 数上限（含命令名）。
+     *
+     * @return token 数上限；不限制时为 {@link Integer#MAX_VALUE}
+     */
+    public int maxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * 获取全部 token 的字符总数上限。
+     *
+     * @return 字符总数上限；不限制时为 {@link Long#MAX_VALUE}
+     */
+    public long maxTotalChars() {
+        return maxTotalChars;
+    }
+
+    /**
+     * 获取单个选项值或位置参数的长度上限。
+     *
+     * @return 长度上限；不限制时为 {@link Integer#MAX_VALUE}
+     */
+    public int maxValueLength() {
+        return maxValueLength;
+    }
+
+    /**
+     * 获取位置参数个数上限。
+     *
+     * @return 位置参数个数上限；不限制时为 {@link Integer#MAX_VALUE}
+     */
+    public int maxPositionals() {
+        return maxPositionals;
+    }
+
+    /**
+     * 获取单个集合/Map 类型选项的元素个数上限。
+     *
+     * @return 元素个数上限；不限制时为 {@link Integer#MAX_VALUE}
+     */
+    public int maxElements() {
+        return maxElements;
+    }
+
+    /**
+     * 进入处理器链前检查 token 数与字符总数。
+     */
+    void checkTokens(List<String> tokens) {
+        if (tokens.size() > maxTokens) {
+            throw new ParseLimitExceededException("maxTokens", maxTokens, tokens.size());
+        }
+        if (maxTotalChars == Long.MAX_VALUE) {
+            return;
+        }
+        long total = 0;
+        for (String token : tokens) {
+            total += token.length();
+            if (total > maxTotalChars) {
+                throw new ParseLimitExceededException("maxTotalChars", maxTotalChars, total);
+            }
+        }
+    }
+
+    /**
+     * 处理结果写入状态前检查值长度、位置参数个数与集合元素个数。
+     */
+    void checkResult(TokenResult result, int positionals, CommandDescriptor descriptor) {
+        String value = result.optionValue();
+        if (value != null && value.length() > maxValueLength) {
+            throw new ParseLimitExceededException("maxValueLength", maxValueLength, value.length());
+        }
+        switch (result.kind()) {
+            case POSITIONAL:
+                if (positionals >= maxPositionals) {
+                    throw new ParseLimitExceededException("maxPositionals", maxPositionals, positionals + 1L);
+                }
+                break;
+            case OPTION:
+                if (value != null && maxElements != Integer.MAX_VALUE) {
+                    checkElements(descriptor.getNameToOptionMap().get(result.optionName()), value);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 默认转换按逗号切分集合与 Map 的值，这里只数逗号，超出上限时不再继续扫描。
+     */
+    private void checkElements(OptionDescriptor option, String value) {
+        if (option == null || option.converterClass() != NoConverter.class
+                || !(Collection.class.isAssignableFrom(option.type()) || Map.class.isAssignableFrom(option.type()))) {
+            return;
+        }
+        int elements = 1;
+        for (int i = value.indexOf(','); i >= 0; i = value.indexOf(',', i + 1)) {
+            if (++elements > maxElements) {
+                throw new ParseLimitExceededException("maxElements", maxElements, elements);
+            }
+        }
+    }
+
+    /**
+     * {@link ParseLimits} 的构建器。
+     */
+    public static final class Builder {
+        private int maxTokens = Integer.MAX_VALUE;
+        private long maxTotalChars = Long.MAX_VALUE;
+        private int maxValueLength = Integer.MAX_VALUE;
+        private int maxPositionals = Integer.MAX_VALUE;
+        private int maxElements = Integer.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        /**
+         * 限制 token 数（含命令名）。
+         *
+         * @param maxTokens token 数上限，必须大于 0
+         * @return 构建器实例
+         */
+        public Builder maxTokens(int maxTokens) {
+            this.maxTokens = positive("token 数", maxTokens);
+            return this;
+        }
+
+        /**
+         * 限制全部 token 的字符总数（String 长度，即 UTF-16 代码单元数）。
+         *
+         * @param maxTotalChars 字符总数上限，必须大于 0
+         * @return 构建器实例
+         */
+        public Builder maxTotalChars(long maxTotalChars) {
+            if (maxTotalChars <= 0) {
+                throw new QCmdException("字符总数上限必须大于 0: " + maxTotalChars);
+            }
+            this.maxTotalChars = maxTotalChars;
+            return this;
+        }
+
+        /**
+         * 限制单个选项值或位置参数的长度。
+         *
+         * @param maxValueLength 长度上限，必须大于 0
+         * @return 构建器实例
+         */
+        public Builder maxValueLength(int maxValueLength) {
+            this.maxValueLength = positive("值长度", maxValueLength);
+            return this;
+        }
+
+        /**
+         * 限制位置参数个数。
+         *
+         * @param maxPositionals 位置参数个数上限，必须大于 0
+         * @return 构建器实例
+         */
+        public Builder maxPositionals(int maxPositionals) {
+            this.maxPositionals = positive("位置参数个数", maxPositionals);
+            return this;
+        }
+
+        /**
+         * 限制单个集合/Map 类型选项（未指定自定义转换器时）的元素个数。
+         *
+         * @param maxElements 元素个数上限，必须大于 0
+         * @return 构建器实例
+         */
+        public Builder maxElements(int maxElements) {
+            this.maxElements = positive("元素个数", maxElements);
+            return this;
+        }
+
+        /**
+         * 构建不可变的解析上限。
+         *
+         * @return 解析上限
+         */
+        public ParseLimits build() {
+            return new ParseLimits(this);
+        }
+
+        private static int positive(String name, int value) {
+            if (value <= 0) {
+                throw new QCmdException(name + "上限必须大于 0: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.guanyanqi.core.parser;
+
+/**
+ * 逐 token 的解析决策监听器，用于排查误解析（如 {@code -5} 为何成为位置变量、
+ * {@code --flag false} 为何消费了下一个 token）。
+ * <p>
+ * 处理器链在每个 token 被某个处理器接受后、结果写入 {@link ParseState} 之前回调一次。
+ * 通过 {@link ParseState#ParseState(ParseLimits, ParseListener)} 按次安装，
+ * 或通过 {@link com.guanyanqi.QCmdParser#withListener} 按解析器安装。
+ * 未安装时状态持有 {@link #NONE}，链在每次执行开始时据此选定不含监听的循环，逐 token 路径没有任何监听判断。
+ * 批量解析会在多个工作线程上回调同一个监听器，实现需自行保证线程安全。
+ * </p>
+ *
+ * <pre>
+ *     QCmdParser.compile(DeployCmd.class).parse(args, (context, handler, result) ->
+ *             System.err.println(context.currentToken() + " -&gt; " + handler.getClass().getSimpleName() + " " + result));
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+@FunctionalInterface
+public interface ParseListener {
+
+    /**
+     * 不做任何事的监听器，表示未安装。
+     */
+    ParseListener NONE = (context, handler, result) -> {
+    };
+
+    /**
+     * 某个 token 被处理器接受时回调。
+     *
+     * @param context 被处理 token 的上下文
+     * @param handler 接受该 token 的处理器；经 {@link TokenHandlerChain#attributed} 包装时为被包装的处理器
+     * @param result  处理器返回的结果
+     */
+    void onToken(TokenContext context, TokenHandler handler, TokenResult result);
+}
@@ -1,17 +1,21 @@
 package com.guanyanqi.core.parser;
 
 import com.guanyanqi.ParseAction;
+import com.guanyanqi.core.CommandDescriptor;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * 解析过程中的可变累积状态（仅在 parse 方法内部使用，不对外暴露）。
  * <p>
  * 持有选项值映射、位置变量列表和终止符标志。
  * TokenHandler 通过修改 ParseState 来影响后续 handler 的行为（如终止符标志）。
+ * 状态同时携带本次解析的 {@link ParseLimits}，由处理器链在写入结果前检查；
+ * 以及本次解析的 {@link ParseListener}，由处理器链在每个 token 被接受后回调。
  * </p>
  *
  * @author guanyanqi
@@ -25,6 +29,35 @@ public class ParseState {
     String actionOption;
     /** 检测到的强类型内置动作，未触发时为 EXECUTE */
     ParseAction action = ParseAction.EXECUTE;
+    final ParseLimits limits;
+    final ParseListener listener;
+
+    /**
+     * 创建不限制解析资源的状态。
+     */
+    public ParseState() {
+        this(ParseLimits.NONE);
+    }
+
+    /**
+     * 创建受给定上限约束的状态。
+     *
+     * @param limits 解析上限
+     */
+    public ParseState(ParseLimits limits) {
+        this(limits, ParseListener.NONE);
+    }
+
+    /**
+     * 创建受给定上限约束、并把每个 token 的处理决策交给监听器的状态。
+     *
+     * @param limits   解析上限
+     * @param listener 解析监听器，{@link ParseListener#NONE} 表示不监听
+     */
+    public ParseState(ParseLimits limits, ParseListener listener) {
+        this.limits = Objects.requireNonNull(limits, "Parse limits must not be null");
+        this.listener = Objects.requireNonNull(listener, "Parse listener must not be null");
+    }
 
     public boolean isTerminatorSeen() {
         return terminatorSeen;
@@ -43,11 +76,26 @@ public class ParseState {
     }
 
     /**
-     * 将 TokenResult 应用到当前状态。
+     * 清空累积状态，供同一线程解析下一条命令行时复用。
+     */
+    void reset() {
+        optionValues.clear();
+        positionalVars.clear();
+        terminatorSeen = false;
+        actionOption = null;
+        action = ParseAction.EXECUTE;
+    }
+
+    /**
+     * 检查解析上限后将 TokenResult 应用到当前状态。
      *
-     * @param result Token 处理结果
+     * @param result     Token 处理结果
+     * @param descriptor 命令描述符，用于判断选项是否为集合/Map 类型
      */
-    void apply(TokenResult result) {
+    void apply(TokenResult result, CommandDescriptor descriptor) {
+        if (limits != ParseLimits.NONE) {
+            limits.checkResult(result, positionalVars.size(), descriptor);
+        }
         switch (result.kind()) {
             case OPTION:
             case BOOL_FLAG:
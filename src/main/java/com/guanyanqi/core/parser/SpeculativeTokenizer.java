@@ -0,0 +1,133 @@
+package com.guanyanqi.core.parser;
+
+import com.guanyanqi.core.CommandDescriptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * 超长 token 列表的推测式并行切分。
+ * <p>
+ * 内置处理器对某个位置的处理结果只取决于 token 本身、描述符以及"是否已出现终止符"，
+ * 因此可以把 token 列表切成若干块，各块在线程池上假设"块首是一个新 token 且未出现终止符"独立运行处理器链。
+ * 随后顺序修复：从头遍历，某位置的真实起点与终止符状态和推测一致时直接采用该块此后的推测结果；
+ * 否则（上一块的选项消费了本块首个 token）在该位置顺序执行一步，直到重新对齐。
+ * 修复过程中第一次出现 {@code --} 后，从当前块起按"已出现终止符"重新并行推测一次。
+ * 推测中抛出的异常只表示推测在此停止，真正的错误由顺序步骤重新抛出，
+ * 因此结果与异常都与顺序执行完全一致。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+final class SpeculativeTokenizer {
+
+    private SpeculativeTokenizer() {
+    }
+
+    /**
+     * 推测并修复，把结果累积到 state。
+     */
+    static void execute(List<TokenHandler> handlers, List<String> tokens, CommandDescriptor descriptor,
+                        ParseState state, ForkJoinPool pool, int chunkSize) {
+        int size = tokens.size();
+        Speculation[] speculations = new Speculation[(size - 2) / chunkSize + 1];
+        speculate(speculations, 0, false, handlers, tokens, descriptor, pool, chunkSize);
+        boolean respeculated = false;
+        int i = 1;
+        while (i < size) {
+            int chunk = (i - 1) / chunkSize;
+            if (state.terminatorSeen && !respeculated) {
+                // 终止符之后每个 token 恰好占一个位置，按"已出现终止符"重新推测的块在每个下标上都有结果，
+                // 因此从当前块起重新推测一次即可：终止符在采用上一块时才出现、当前位置已是本块块首时，本块同样不必顺序执行
+                speculate(speculations, chunk, true, handlers, tokens, descriptor, pool, chunkSize);
+                respeculated = true;
+            }
+            Speculation speculation = speculations[chunk];
+            int position = speculation.positionOf(i);
+            if (position >= 0 && speculation.terminatorBefore[position] == state.terminatorSeen) {
+                for (int k = position; k < speculation.count; k++) {
+                    state.apply(speculation.results[k], descriptor);
+                    state.terminatorSeen = speculation.terminatorAfter[k];
+                }
+                i = speculation.results[speculation.count - 1].nextIndex();
+                if (i != speculation.failedAt) {
+                    continue;
+                }
+            }
+            i = TokenHandlerChain.step(handlers, tokens, i, descriptor, state);
+        }
+    }
+
+    private static void speculate(Speculation[] speculations, int fromChunk, boolean terminatorSeen,
+                                  List<TokenHandler> handlers, List<String> tokens, CommandDescriptor descriptor,
+                                  ForkJoinPool pool, int chunkSize) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(speculations.length - fromChunk);
+        for (int chunk = fromChunk; chunk < speculations.length; chunk++) {
+            int start = 1 + chunk * chunkSize;
+            Speculation speculation = new Speculation(start, Math.min(tokens.size(), start + chunkSize));
+            speculations[chunk] = speculation;
+            tasks.add(ForkJoinTask.adapt(() -> speculation.run(handlers, tokens, descriptor, terminatorSeen)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * 单个块的推测结果：按起点递增排列的处理结果，以及每个结果前后的终止符状态。
+     */
+    private static final class Speculation {
+        private final int start;
+        private final int end;
+        private int[] starts = new int[16];
+        private boolean[] terminatorBefore = new boolean[16];
+        private boolean[] terminatorAfter = new boolean[16];
+        private TokenResult[] results = new TokenResult[16];
+        private int count;
+        /** 推测因异常停止的位置；未停止为 -1。 */
+        private int failedAt = -1;
+
+        private Speculation(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        private void run(List<TokenHandler> handlers, List<String> tokens, CommandDescriptor descriptor,
+                         boolean terminatorSeen) {
+            // 推测只需要终止符状态，不累积选项值与位置变量
+            ParseState state = new ParseState();
+            state.terminatorSeen = terminatorSeen;
+            int i = start;
+            try {
+                while (i < end) {
+                    boolean before = state.terminatorSeen;
+                    TokenResult result = TokenHandlerChain.handle(handlers, tokens, i, descriptor, state);
+                    add(i, before, state.terminatorSeen, result);
+                    i = result.nextIndex();
+                }
+            } catch (RuntimeException e) {
+                failedAt = i;
+            }
+        }
+
+        private void add(int index, boolean before, boolean after, TokenResult result) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                terminatorBefore = Arrays.copyOf(terminatorBefore, count * 2);
+                terminatorAfter = Arrays.copyOf(terminatorAfter, count * 2);
+                results = Arrays.copyOf(results, count * 2);
+            }
+            starts[count] = index;
+            terminatorBefore[count] = before;
+            terminatorAfter[count] = after;
+            results[count] = result;
+            count++;
+        }
+
+        private int positionOf(int index) {
+            int position = Arrays.binarySearch(starts, 0, count, index);
+            return position >= 0 ? position : -1;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.guanyanqi.core.parser;
 
+import com.guanyanqi.core.CommandDescriptor;
+
 /**
  * 单个 token 的处理器接口（Chain of Responsibility 模式）。
  * <p>
@@ -24,4 +26,19 @@ public interface TokenHandler {
      * @return 处理成功返回 TokenResult；不处理返回 null
      */
     TokenResult handle(TokenContext context, ParseState parseState);
+
+    /**
+     * 按命令描述符特化处理器，在解析器编译时对每个描述符调用一次。
+     * <p>
+     * 实现类可在此预先计算只依赖描述符的信息（已声明的选项名、布尔选项集合、生效的内置动作等），
+     * 返回的处理器在逐 token 处理时直接读取预计算结果。返回的处理器只会用于该描述符，
+     * 其 {@link TokenContext#descriptor()} 始终是传入的描述符。默认返回自身，即不做特化。
+     * </p>
+     *
+     * @param descriptor 命令描述符
+     * @return 绑定到该描述符的处理器，可以是自身
+     */
+    default TokenHandler specialize(CommandDescriptor descriptor) {
+        return this;
+    }
 }
@@ -4,8 +4,11 @@ import com.guanyanqi.core.CommandDescriptor;
 import com.guanyanqi.core.CommandLineParser;
 import com.guanyanqi.core.parser.impl.*;
 import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.exception.UnknownCommandException;
+import com.guanyanqi.metrics.CostAttribution;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Token 处理器链——Chain of Responsibility 模式的编排器。
@@ -29,10 +32,42 @@ import java.util.*;
  */
 public final class TokenHandlerChain {
 
+    /**
+     * 推测式并行切分的最小 token 数，低于该值时并行调度的开销大于收益。
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /**
+     * 推测式并行切分中每块的最小 token 数。
+     */
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    /**
+     * 内置处理器的结果只依赖 token、描述符与终止符状态，可安全地推测执行。
+     */
+    private static final Set<Class<?>> SPECULATION_SAFE_HANDLERS = Set.of(
+            TerminatorHandler.class, BuiltInActionHandler.class, EqualsSignOptionHandler.class,
+            BooleanFlagHandler.class, NegativeNumberHandler.class, StandardOptionHandler.class,
+            PositionalHandler.class);
+
     private final List<TokenHandler> handlers;
+    /** 特化前的处理器；未特化的链与 handlers 相同。 */
+    private final List<TokenHandler> sourceHandlers;
+    /** 特化所绑定的描述符；未特化为 null。 */
+    private final CommandDescriptor boundDescriptor;
+    private final boolean speculationSafe;
 
     private TokenHandlerChain(List<TokenHandler> handlers) {
+        this(handlers, handlers, null);
+    }
+
+    private TokenHandlerChain(List<TokenHandler> handlers, List<TokenHandler> sourceHandlers,
+                              CommandDescriptor boundDescriptor) {
         this.handlers = List.copyOf(handlers);
+        this.sourceHandlers = List.copyOf(sourceHandlers);
+        this.boundDescriptor = boundDescriptor;
+        this.speculationSafe = this.handlers.stream()
+                .allMatch(handler -> SPECULATION_SAFE_HANDLERS.contains(handler.getClass()));
     }
 
     /**
@@ -77,45 +112,247 @@ public final class TokenHandlerChain {
      * @param args       原始命令行参数
      * @param descriptor 命令描述符
      * @return 解析结果
-     * @throws QCmdException 当命令名为空、不匹配、或某个 token 无法被任何 handler 处理时抛出
+     * @throws QCmdException 当命令名为空、不匹配（{@link UnknownCommandException}）、或某个 token 无法被任何 handler 处理时抛出
      */
     public CommandLineParser.ParseResult execute(String[] args, CommandDescriptor descriptor) {
         if (args == null || args.length == 0) {
             throw new QCmdException("命令行内容为空");
         }
+        return execute(List.of(args), descriptor);
+    }
 
-        List<String> tokens = List.of(args);
-        String cmd = tokens.get(0);
+    /**
+     * 对给定 token 列表执行整个处理器链，返回 ParseResult。
+     * <p>
+     * 批量场景可复用同一个列表承载每条记录的 token，避免逐条创建参数数组；
+     * 返回的 ParseResult 不引用该列表，调用返回后即可清空复用。
+     * </p>
+     *
+     * @param tokens     命令行 token 列表，首个元素为命令名
+     * @param descriptor 命令描述符
+     * @return 解析结果
+     * @throws QCmdException 当命令名为空、不匹配（{@link UnknownCommandException}）、或某个 token 无法被任何 handler 处理时抛出
+     */
+    public CommandLineParser.ParseResult execute(List<String> tokens, CommandDescriptor descriptor) {
+        return execute(tokens, descriptor, new ParseState());
+    }
 
-        if (!descriptor.getCommandNames().contains(cmd)) {
-            throw new QCmdException("输入的命令 [" + cmd + "] 与目标类声明的命令 " + descriptor.getCommandNames() + " 不匹配");
+    /**
+     * 使用调用方提供的 ParseState 执行整个处理器链。
+     * <p>
+     * 状态在开始前被清空；ParseResult 会复制其中的集合，因此同一线程可用一个 ParseState 连续解析多条命令行。
+     * ParseState 不是线程安全的，不能在线程间共享。
+     * </p>
+     *
+     * @param tokens     命令行 token 列表，首个元素为命令名
+     * @param descriptor 命令描述符
+     * @param state      可复用的解析状态
+     * @return 解析结果
+     * @throws QCmdException 当命令名为空、不匹配（{@link UnknownCommandException}）、或某个 token 无法被任何 handler 处理时抛出
+     */
+    public CommandLineParser.ParseResult execute(List<String> tokens, CommandDescriptor descriptor, ParseState state) {
+        checkBound(descriptor);
+        if (tokens == null || tokens.isEmpty()) {
+            throw new QCmdException("命令行内容为空");
         }
 
-        ParseState state = new ParseState();
+        // 先于命令名匹配与状态分配检查 token 数与字符总数
+        state.limits.checkTokens(tokens);
+
+        String cmd = tokens.get(0);
+
+        checkCommand(cmd, descriptor);
+
+        state.reset();
 
-        // 从第 1 个 Token 开始（第 0 个是命令名）
+        // 从第 1 个 Token 开始（第 0 个是命令名）；监听器在此选定一次，未安装时的循环不再做任何监听判断
         int i = 1;
-        while (i < tokens.size()) {
-            String currentToken = tokens.get(i);
-            TokenContext context = new TokenContext(currentToken, tokens, i, descriptor);
-
-            boolean handled = false;
-            for (TokenHandler handler : handlers) {
-                TokenResult result = handler.handle(context, state);
-                if (result != null) {
-                    state.apply(result);
-                    i = result.nextIndex();
-                    handled = true;
-                    break;
-                }
+        ParseListener listener = state.listener;
+        if (listener == ParseListener.NONE) {
+            while (i < tokens.size()) {
+                i = step(handlers, tokens, i, descriptor, state);
+            }
+        } else {
+            while (i < tokens.size()) {
+                i = stepListening(handlers, tokens, i, descriptor, state, listener);
+            }
+        }
+        return result(cmd, state);
+    }
+
+    /**
+     * 在线程池上推测式并行切分超长 token 列表，结果与顺序执行完全一致。
+     * <p>
+     * token 列表被切成若干块并发运行处理器链，再由一次顺序修复处理块边界上被选项消费的 token
+     * 与 {@code --} 终止符，详见 {@link SpeculativeTokenizer}。
+     * 只有链中全部为内置处理器且 token 数不少于 {@link #PARALLEL_THRESHOLD} 时才并行，
+     * 含自定义处理器（可能依赖任意累积状态）的链始终顺序执行；状态安装了 {@link ParseListener} 时同样顺序执行，
+     * 保证监听器按 token 顺序收到回调；
+     * 线程池只有一个工作线程时推测没有收益，同样顺序执行。
+     * </p>
+     *
+     * @param tokens     命令行 token 列表，首个元素为命令名
+     * @param descriptor 命令描述符
+     * @param pool       执行推测的线程池
+     * @return 解析结果
+     * @throws QCmdException 当命令名为空、不匹配（{@link UnknownCommandException}）、或某个 token 无法被任何 handler 处理时抛出
+     */
+    public CommandLineParser.ParseResult execute(List<String> tokens, CommandDescriptor descriptor, ForkJoinPool pool) {
+        return execute(tokens, descriptor, new ParseState(), pool);
+    }
+
+    /**
+     * 使用调用方提供的 ParseState 推测式并行切分超长 token 列表，状态携带的 {@link ParseLimits} 在推测开始前检查。
+     *
+     * @param tokens     命令行 token 列表，首个元素为命令名
+     * @param descriptor 命令描述符
+     * @param state      可复用的解析状态
+     * @param pool       执行推测的线程池
+     * @return 解析结果
+     * @throws QCmdException 当命令名为空、不匹配（{@link UnknownCommandException}）、或某个 token 无法被任何 handler 处理时抛出
+     * @see #execute(List, CommandDescriptor, ForkJoinPool)
+     */
+    public CommandLineParser.ParseResult execute(List<String> tokens, CommandDescriptor descriptor, ParseState state,
+                                                 ForkJoinPool pool) {
+        Objects.requireNonNull(pool, "Fork-join pool must not be null");
+        checkBound(descriptor);
+        if (!speculationSafe || state.listener != ParseListener.NONE || tokens == null
+                || tokens.size() < PARALLEL_THRESHOLD || pool.getParallelism() <= 1) {
+            return execute(tokens, descriptor, state);
+        }
+        state.limits.checkTokens(tokens);
+        String cmd = tokens.get(0);
+        checkCommand(cmd, descriptor);
+        state.reset();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, tokens.size() / (pool.getParallelism() * 4));
+        SpeculativeTokenizer.execute(handlers, tokens, descriptor, state, pool, chunkSize);
+        return result(cmd, state);
+    }
+
+    /**
+     * 返回按命令描述符特化的处理器链：对每个处理器调用一次 {@link TokenHandler#specialize}，
+     * 使逐 token 路径只读取预计算的结果。{@link com.guanyanqi.QCmdParser} 在编译时自动完成特化。
+     * <p>
+     * 特化后的链只能用于该描述符，传入其他描述符时抛出异常；对已特化的链再次特化会从原始处理器重新开始。
+     * </p>
+     *
+     * @param descriptor 命令描述符
+     * @return 特化后的新链；已绑定到同一描述符时返回自身
+     */
+    public TokenHandlerChain specialize(CommandDescriptor descriptor) {
+        Objects.requireNonNull(descriptor, "Command descriptor must not be null");
+        if (boundDescriptor == descriptor) {
+            return this;
+        }
+        List<TokenHandler> specialized = new ArrayList<>(sourceHandlers.size());
+        for (TokenHandler handler : sourceHandlers) {
+            TokenHandler bound = handler.specialize(descriptor);
+            if (bound == null) {
+                throw new QCmdException("处理器 " + handler.getClass().getName() + " 特化结果不能为空");
             }
+            specialized.add(bound);
+        }
+        return new TokenHandlerChain(specialized, sourceHandlers, descriptor);
+    }
 
-            if (!handled) {
-                // 跳过重 throw：StandardOptionHandler 已经 throw 了，但以防万一
-                throw new QCmdException("无法识别的参数: " + currentToken);
+    /**
+     * 返回为每个处理器记录调用次数、接受/放弃次数与累计耗时的新链，计数写入给定的归因统计。
+     * <p>
+     * 已特化的链会按同一描述符重新特化；对已归因的链再次归因时替换原有的归因统计，不会重复计数。
+     * 归因后的链不再推测式并行切分，被丢弃的推测结果会使计数失真。
+     * </p>
+     *
+     * @param attribution 归因统计
+     * @return 归因后的新链
+     */
+    public TokenHandlerChain attributed(CostAttribution attribution) {
+        Objects.requireNonNull(attribution, "Cost attribution must not be null");
+        List<TokenHandler> wrapped = new ArrayList<>(sourceHandlers.size());
+        for (TokenHandler handler : sourceHandlers) {
+            TokenHandler source = handler instanceof AttributedHandler attributed ? attributed.delegate : handler;
+            wrapped.add(new AttributedHandler(source, attribution.handlerCounter(source)));
+        }
+        TokenHandlerChain chain = new TokenHandlerChain(wrapped);
+        return boundDescriptor == null ? chain : chain.specialize(boundDescriptor);
+    }
+
+    /**
+     * 判断链是否已按描述符特化。
+     *
+     * @return 已特化返回 true
+     */
+    public boolean isSpecialized() {
+        return boundDescriptor != null;
+    }
+
+    /**
+     * 判断链是否只由内置处理器组成，可以推测式并行切分。
+     *
+     * @return 可并行切分返回 true
+     */
+    public boolean isSpeculationSafe() {
+        return speculationSafe;
+    }
+
+    /**
+     * 处理下标 index 处的 token，把结果应用到 state，返回下一个待处理下标。
+     */
+    static int step(List<TokenHandler> handlers, List<String> tokens, int index, CommandDescriptor descriptor,
+                    ParseState state) {
+        TokenResult result = handle(handlers, tokens, index, descriptor, state);
+        state.apply(result, descriptor);
+        return result.nextIndex();
+    }
+
+    /**
+     * 与 {@link #step} 相同，但在结果写入 state 之前把接受该 token 的处理器与结果交给监听器。
+     */
+    private static int stepListening(List<TokenHandler> handlers, List<String> tokens, int index,
+                                     CommandDescriptor descriptor, ParseState state, ParseListener listener) {
+        String currentToken = tokens.get(index);
+        TokenContext context = new TokenContext(currentToken, tokens, index, descriptor);
+        for (TokenHandler handler : handlers) {
+            TokenResult result = handler.handle(context, state);
+            if (result != null) {
+                listener.onToken(context,
+                        handler instanceof AttributedHandler attributed ? attributed.delegate : handler, result);
+                state.apply(result, descriptor);
+                return result.nextIndex();
+            }
+        }
+        throw new QCmdException("无法识别的参数: " + currentToken);
+    }
+
+    /**
+     * 依次询问处理器，返回第一个非 null 结果；只有处理器自身会修改 state。
+     */
+    static TokenResult handle(List<TokenHandler> handlers, List<String> tokens, int index, CommandDescriptor descriptor,
+                              ParseState state) {
+        String currentToken = tokens.get(index);
+        TokenContext context = new TokenContext(currentToken, tokens, index, descriptor);
+        for (TokenHandler handler : handlers) {
+            TokenResult result = handler.handle(context, state);
+            if (result != null) {
+                return result;
             }
         }
+        throw new QCmdException("无法识别的参数: " + currentToken);
+    }
+
+    private void checkBound(CommandDescriptor descriptor) {
+        if (boundDescriptor != null && boundDescriptor != descriptor) {
+            throw new QCmdException("处理器链已特化到命令 " + boundDescriptor.getCommandNames() + "，不能用于其他描述符");
+        }
+    }
+
+    private static void checkCommand(String cmd, CommandDescriptor descriptor) {
+        if (!descriptor.getCommandNames().contains(cmd)) {
+            throw new UnknownCommandException("输入的命令 [" + cmd + "] 与目标类声明的命令 " + descriptor.getCommandNames() + " 不匹配",
+                    cmd, descriptor.getCommandSuggestions().suggest(cmd));
+        }
+    }
 
+    private static CommandLineParser.ParseResult result(String cmd, ParseState state) {
         return new CommandLineParser.ParseResult(
                 cmd, state.optionValues, state.positionalVars, state.getActionOption(), state.getAction());
     }
@@ -140,7 +377,7 @@ public final class TokenHandlerChain {
          */
         public Builder defaults() {
             handlers.clear();
-            handlers.addAll(TokenHandlerChain.defaults().handlers);
+            handlers.addAll(TokenHandlerChain.defaults().sourceHandlers);
             return this;
         }
 
@@ -1,8 +1,12 @@
 package com.guanyanqi.core.parser.impl;
 
 import com.guanyanqi.constant.Constants;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.OptionNameIndex;
 import com.guanyanqi.core.parser.*;
 
+import java.util.Set;
+
 /**
  * 处理布尔类型的开关选项（如 {@code -v} → "true"、{@code --verbose false} → "false"）。
  * <p>
@@ -13,10 +17,33 @@ import com.guanyanqi.core.parser.*;
  */
 public class BooleanFlagHandler implements TokenHandler {
 
+    /**
+     * 特化后预先复制的布尔选项名；未特化时为 null，逐 token 查询描述符。
+     */
+    private final Set<String> boolOptionNames;
+    /** 特化后用于缩写匹配的索引；命令不允许缩写时为 null。 */
+    private final OptionNameIndex abbreviations;
+
     /**
      * 创建布尔开关处理器实例。
      */
     public BooleanFlagHandler() {
+        this(null, null);
+    }
+
+    private BooleanFlagHandler(Set<String> boolOptionNames, OptionNameIndex abbreviations) {
+        this.boolOptionNames = boolOptionNames;
+        this.abbreviations = abbreviations;
+    }
+
+    @Override
+    public TokenHandler specialize(CommandDescriptor descriptor) {
+        // 子类可能覆盖 handle，特化为基类实例会丢失其行为
+        if (getClass() != BooleanFlagHandler.class) {
+            return this;
+        }
+        return new BooleanFlagHandler(Set.copyOf(descriptor.getBoolOptionNames()),
+                OptionNames.abbreviationIndex(descriptor));
     }
 
     @Override
@@ -28,13 +55,20 @@ public class BooleanFlagHandler implements TokenHandler {
         if (!token.startsWith(Constants.SINGLE_DASH)) {
             return null;
         }
-        if (context.descriptor().getBoolOptionNames().contains(token)) {
-            if (context.hasNext() && isBooleanLiteral(context.peekNext())) {
-                return TokenResult.boolFlag(token, context.peekNext(), context.currentIndex() + 2);
+        boolean specialized = boolOptionNames != null;
+        Set<String> names = specialized ? boolOptionNames : context.descriptor().getBoolOptionNames();
+        String name = token;
+        if (!names.contains(token)) {
+            name = OptionNames.expand(specialized ? abbreviations : OptionNames.abbreviationIndex(context.descriptor()),
+                    context, token.length());
+            if (name == null || !names.contains(name)) {
+                return null;
             }
-            return TokenResult.boolFlag(token, context.currentIndex() + 1);
         }
-        return null;
+        if (context.hasNext() && isBooleanLiteral(context.peekNext())) {
+            return TokenResult.boolFlag(name, context.peekNext(), context.currentIndex() + 2);
+        }
+        return TokenResult.boolFlag(name, context.currentIndex() + 1);
     }
 
     private static boolean isBooleanLiteral(String value) {
@@ -1,8 +1,12 @@
 package com.guanyanqi.core.parser.impl;
 
 import com.guanyanqi.ParseAction;
+import com.guanyanqi.core.CommandDescriptor;
 import com.guanyanqi.core.parser.*;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * 内置动作选项处理器（{@code --help} 和 {@code --version}）。
  * <p>
@@ -15,6 +19,37 @@ import com.guanyanqi.core.parser.*;
  */
 public class BuiltInActionHandler implements TokenHandler {
 
+    /**
+     * 特化后对本命令生效的内置动作；未特化时为 null，逐 token 查询描述符。
+     */
+    private final Set<ParseAction> enabledActions;
+
+    /**
+     * 创建内置动作处理器实例。
+     */
+    public BuiltInActionHandler() {
+        this(null);
+    }
+
+    private BuiltInActionHandler(Set<ParseAction> enabledActions) {
+        this.enabledActions = enabledActions;
+    }
+
+    @Override
+    public TokenHandler specialize(CommandDescriptor descriptor) {
+        // 子类可能覆盖 handle，特化为基类实例会丢失其行为
+        if (getClass() != BuiltInActionHandler.class) {
+            return this;
+        }
+        Set<ParseAction> enabled = EnumSet.noneOf(ParseAction.class);
+        for (ParseAction action : ParseAction.values()) {
+            if (descriptor.hasBuiltInAction(action)) {
+                enabled.add(action);
+            }
+        }
+        return new BuiltInActionHandler(enabled);
+    }
+
     @Override
     public TokenResult handle(TokenContext context, ParseState state) {
         if (state.isTerminatorSeen()) {
@@ -26,26 +61,13 @@ public class BuiltInActionHandler implements TokenHandler {
             return null;
         }
 
-        if (declaresAnyOption(context, action)) {
+        boolean enabled = enabledActions != null
+                ? enabledActions.contains(action)
+                : context.descriptor().hasBuiltInAction(action);
+        if (!enabled) {
             return null;
         }
 
-        if (action == ParseAction.SHOW_VERSION) {
-            boolean versionConfigured = !context.descriptor().getCmdAnnotation().version().isBlank();
-            if (!versionConfigured) {
-                return null;
-            }
-        }
-
         return TokenResult.action(token, action, context.allTokens().size());
     }
-
-    private static boolean declaresAnyOption(TokenContext context, ParseAction action) {
-        for (String name : action.optionNames()) {
-            if (context.descriptor().getNameToOptionMap().containsKey(name)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
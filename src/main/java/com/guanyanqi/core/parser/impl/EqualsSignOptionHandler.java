@@ -1,22 +1,47 @@
 package com.guanyanqi.core.parser.impl;
 
 import com.guanyanqi.constant.Constants;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.OptionNameIndex;
 import com.guanyanqi.core.parser.*;
 
 /**
  * 处理等号分隔选项（{@code --key=value} 或 {@code -k=value}）。
  * <p>
  * 将等号前后拆分为选项名和选项值，无需消费后续 token。
+ * 选项名直接在 token 的等号之前的区间上匹配 {@link OptionNameIndex}，已声明的选项名不截取子串。
  * </p>
  *
  * @author guanyanqi
  */
 public class EqualsSignOptionHandler implements TokenHandler {
 
+    /**
+     * 特化后绑定的选项名索引；未特化时为 null，逐 token 查询描述符。
+     */
+    private final OptionNameIndex index;
+    /** 特化后用于缩写匹配的索引；命令不允许缩写时为 null。 */
+    private final OptionNameIndex abbreviations;
+
     /**
      * 创建等号分隔选项处理器实例。
      */
     public EqualsSignOptionHandler() {
+        this(null, null);
+    }
+
+    private EqualsSignOptionHandler(OptionNameIndex index, OptionNameIndex abbreviations) {
+        this.index = index;
+        this.abbreviations = abbreviations;
+    }
+
+    @Override
+    public TokenHandler specialize(CommandDescriptor descriptor) {
+        // 子类可能覆盖 handle，特化为基类实例会丢失其行为
+        if (getClass() != EqualsSignOptionHandler.class) {
+            return this;
+        }
+        return new EqualsSignOptionHandler(descriptor.getOptionNameIndex(), OptionNames.abbreviationIndex(descriptor));
     }
 
     @Override
@@ -32,7 +57,16 @@ public class EqualsSignOptionHandler implements TokenHandler {
         if (eqIdx <= 1) {
             return null;
         }
-        String optName = token.substring(0, eqIdx);
+        boolean specialized = index != null;
+        OptionNameIndex names = specialized ? index : context.descriptor().getOptionNameIndex();
+        String optName = names.find(token, 0, eqIdx);
+        if (optName == null) {
+            optName = OptionNames.expand(specialized ? abbreviations : OptionNames.abbreviationIndex(context.descriptor()),
+                    context, eqIdx);
+        }
+        if (optName == null) {
+            optName = token.substring(0, eqIdx);
+        }
         String optValue = token.substring(eqIdx + 1);
         return TokenResult.option(optName, optValue, context.currentIndex() + 1);
     }
@@ -1,9 +1,11 @@
 package com.guanyanqi.core.parser.impl;
 
 import com.guanyanqi.constant.Constants;
+import com.guanyanqi.core.CommandDescriptor;
 import com.guanyanqi.core.parser.*;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 /**
  * 负数位置参数防误判处理器。
@@ -16,10 +18,29 @@ import java.math.BigDecimal;
  */
 public class NegativeNumberHandler implements TokenHandler {
 
+    /**
+     * 特化后预先复制的已声明选项名；未特化时为 null，逐 token 查询描述符。
+     */
+    private final Set<String> optionNames;
+
     /**
      * 创建负数处理器实例。
      */
     public NegativeNumberHandler() {
+        this(null);
+    }
+
+    private NegativeNumberHandler(Set<String> optionNames) {
+        this.optionNames = optionNames;
+    }
+
+    @Override
+    public TokenHandler specialize(CommandDescriptor descriptor) {
+        // 子类可能覆盖 handle，特化为基类实例会丢失其行为
+        if (getClass() != NegativeNumberHandler.class) {
+            return this;
+        }
+        return new NegativeNumberHandler(Set.copyOf(descriptor.getNameToOptionMap().keySet()));
     }
 
     @Override
@@ -32,7 +53,9 @@ public class NegativeNumberHandler implements TokenHandler {
             return null;
         }
         if (isNegativeNumber(token)) {
-            boolean isRegisteredOption = context.descriptor().getNameToOptionMap().containsKey(token);
+            boolean isRegisteredOption = optionNames != null
+                    ? optionNames.contains(token)
+                    : context.descriptor().getNameToOptionMap().containsKey(token);
             if (!isRegisteredOption) {
                 return TokenResult.positional(token, context.currentIndex() + 1);
             }
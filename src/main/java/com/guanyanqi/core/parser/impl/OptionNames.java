@@ -0,0 +1,49 @@
+package com.guanyanqi.core.parser.impl;
+
+import com.guanyanqi.constant.Constants;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.OptionNameIndex;
+import com.guanyanqi.core.parser.TokenContext;
+import com.guanyanqi.exception.AmbiguousOptionException;
+
+import java.util.List;
+
+/**
+ * 内置选项处理器共用的长选项缩写展开。
+ *
+ * @author guanyanqi
+ */
+final class OptionNames {
+
+    private OptionNames() {
+    }
+
+    /**
+     * 返回用于缩写匹配的索引；命令不允许缩写时返回 null。
+     */
+    static OptionNameIndex abbreviationIndex(CommandDescriptor descriptor) {
+        return descriptor.allowsAbbreviations() ? descriptor.getOptionNameIndex() : null;
+    }
+
+    /**
+     * 把当前 token 的 {@code [0, end)} 展开为唯一匹配的长选项名；区间本身是已声明的选项名时原样返回，精确匹配优先。
+     *
+     * @return 完整选项名；不允许缩写、不是长选项或没有匹配时返回 null
+     * @throws AmbiguousOptionException 前缀匹配多个选项时抛出
+     */
+    static String expand(OptionNameIndex index, TokenContext context, int end) {
+        String token = context.currentToken();
+        if (index == null || end <= Constants.DOUBLE_DASH.length() || !token.startsWith(Constants.DOUBLE_DASH)) {
+            return null;
+        }
+        String exact = index.find(token, 0, end);
+        if (exact != null) {
+            return exact;
+        }
+        List<String> matches = index.complete(token, 0, end);
+        if (matches.size() > 1) {
+            throw new AmbiguousOptionException(context.allTokens().get(0), token.substring(0, end), matches);
+        }
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+}
@@ -1,9 +1,13 @@
 package com.guanyanqi.core.parser.impl;
 
 import com.guanyanqi.constant.Constants;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.OptionNameIndex;
 import com.guanyanqi.core.parser.*;
 import com.guanyanqi.exception.MissingOptionValueException;
 
+import java.util.Set;
+
 /**
  * 处理带值的标准选项（如 {@code -p 8080} 或 {@code --port 8080}）。
  * <p>
@@ -16,6 +20,35 @@ import com.guanyanqi.exception.MissingOptionValueException;
  */
 public class StandardOptionHandler implements TokenHandler {
 
+    /**
+     * 特化后预先复制的已声明选项名；未特化时为 null，逐 token 查询描述符。
+     */
+    private final Set<String> optionNames;
+    /** 特化后用于缩写匹配的索引；命令不允许缩写时为 null。 */
+    private final OptionNameIndex abbreviations;
+
+    /**
+     * 创建标准选项处理器实例。
+     */
+    public StandardOptionHandler() {
+        this(null, null);
+    }
+
+    private StandardOptionHandler(Set<String> optionNames, OptionNameIndex abbreviations) {
+        this.optionNames = optionNames;
+        this.abbreviations = abbreviations;
+    }
+
+    @Override
+    public TokenHandler specialize(CommandDescriptor descriptor) {
+        // 子类可能覆盖 handle，特化为基类实例会丢失其行为
+        if (getClass() != StandardOptionHandler.class) {
+            return this;
+        }
+        return new StandardOptionHandler(Set.copyOf(descriptor.getNameToOptionMap().keySet()),
+                OptionNames.abbreviationIndex(descriptor));
+    }
+
     @Override
     public TokenResult handle(TokenContext context, ParseState state) {
         if (state.isTerminatorSeen()) {
@@ -25,21 +58,28 @@ public class StandardOptionHandler implements TokenHandler {
         if (!token.startsWith(Constants.SINGLE_DASH)) {
             return null;
         }
-        if (!context.descriptor().getNameToOptionMap().containsKey(token)) {
-            // 未知选项不消费后续 token，交由 CommandValidator 生成类型化异常。
-            return TokenResult.option(token, Constants.EMPTY_STRING, context.currentIndex() + 1);
+        boolean specialized = optionNames != null;
+        Set<String> names = specialized ? optionNames : context.descriptor().getNameToOptionMap().keySet();
+        String name = token;
+        if (!names.contains(token)) {
+            name = OptionNames.expand(specialized ? abbreviations : OptionNames.abbreviationIndex(context.descriptor()),
+                    context, token.length());
+            if (name == null) {
+                // 未知选项不消费后续 token，交由 CommandValidator 生成类型化异常。
+                return TokenResult.option(token, Constants.EMPTY_STRING, context.currentIndex() + 1);
+            }
         }
         if (!context.hasNext()) {
-            throw missingValue(context, token);
+            throw missingValue(context, name);
         }
         String next = context.peekNext();
-        boolean nextIsRegisteredOption = context.descriptor().getNameToOptionMap().containsKey(next);
+        boolean nextIsRegisteredOption = names.contains(next);
         boolean nextLooksLikeOption = next.startsWith(Constants.SINGLE_DASH)
                 && !NegativeNumberHandler.isNegativeNumber(next);
         if (Constants.DOUBLE_DASH.equals(next) || nextIsRegisteredOption || nextLooksLikeOption) {
-            throw missingValue(context, token);
+            throw missingValue(context, name);
         }
-        return TokenResult.option(token, next, context.currentIndex() + 2);
+        return TokenResult.option(name, next, context.currentIndex() + 2);
     }
 
     private static MissingOptionValueException missingValue(TokenContext context, String optionName) {
@@ -0,0 +1,87 @@
+package com.guanyanqi.core.regex;
+
+import java.util.regex.Pattern;
+
+/**
+ * 子集以外的表达式回退到 {@link java.util.regex}，以读取输入字符的次数作为步数预算。
+ * <p>
+ * 回溯匹配的每一步都要经由 {@link CharSequence#charAt} 读取输入，因此用计数包装输入即可约束耗时，
+ * 无需另起线程或中断；预算耗尽或递归耗尽线程栈时视为不匹配。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+final class BudgetedMatcher implements ValueMatcher {
+
+    private final Pattern pattern;
+    private final long stepBudget;
+
+    BudgetedMatcher(Pattern pattern, long stepBudget) {
+        this.pattern = pattern;
+        this.stepBudget = stepBudget;
+    }
+
+    @Override
+    public boolean matches(CharSequence value) {
+        try {
+            return pattern.matcher(new CountingSequence(value, stepBudget)).matches();
+        } catch (BudgetExhausted e) {
+            return false;
+        } catch (StackOverflowError e) {
+            // 回溯匹配对分组重复逐字符递归，超长输入可能耗尽线程栈；与预算耗尽一样视为不匹配
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isLinear() {
+        return false;
+    }
+
+    /**
+     * 统计 charAt 调用次数的输入视图，每次匹配独占一个实例。
+     */
+    private static final class CountingSequence implements CharSequence {
+        private final CharSequence value;
+        private long remaining;
+
+        private CountingSequence(CharSequence value, long remaining) {
+            this.value = value;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--remaining < 0) {
+                throw BudgetExhausted.INSTANCE;
+            }
+            return value.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return value.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    /**
+     * 步数预算耗尽；共享一个不带栈的实例，回退匹配不会因抛出异常而额外遍历栈。
+     */
+    private static final class BudgetExhausted extends RuntimeException {
+        private static final BudgetExhausted INSTANCE = new BudgetExhausted();
+
+        private BudgetExhausted() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.guanyanqi.core.regex;
+
+import java.util.Arrays;
+
+/**
+ * 码点集合：ASCII 部分用两个 64 位位图，其余部分用有序且不相交的闭区间。
+ *
+ * @author guanyanqi
+ */
+final class CharSet {
+
+    static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+
+    /** [0-9] */
+    static final int[] DIGIT = {'0', '9'};
+    /** [a-zA-Z_0-9] */
+    static final int[] WORD = {'0', '9', 'A', 'Z', '_', '_', 'a', 'z'};
+    /** [ \t\n\x0B\f\r] */
+    static final int[] SPACE = {'\t', '\r', ' ', ' '};
+    /** {@code .} 默认不匹配的行终止符：LF、CR、NEL、LINE SEPARATOR 与 PARAGRAPH SEPARATOR */
+    static final int[] LINE_TERMINATORS = {'\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029};
+
+    private final long low;
+    private final long high;
+    private final int[] ranges;
+
+    private CharSet(int[] normalized) {
+        long lowBits = 0;
+        long highBits = 0;
+        int rest = 0;
+        for (int i = 0; i < normalized.length; i += 2) {
+            for (int c = normalized[i]; c <= Math.min(normalized[i + 1], 127); c++) {
+                if (c < 64) {
+                    lowBits |= 1L << c;
+                } else {
+                    highBits |= 1L << (c - 64);
+                }
+            }
+            if (normalized[i + 1] >= 128) {
+                rest += 2;
+            }
+        }
+        int[] wide = new int[rest];
+        int k = 0;
+        for (int i = 0; i < normalized.length; i += 2) {
+            if (normalized[i + 1] >= 128) {
+                wide[k++] = Math.max(normalized[i], 128);
+                wide[k++] = normalized[i + 1];
+            }
+        }
+        this.low = lowBits;
+        this.high = highBits;
+        this.ranges = wide;
+    }
+
+    /**
+     * 由已规范化的区间构建集合。
+     */
+    static CharSet of(int[] normalized) {
+        return new CharSet(normalized);
+    }
+
+    boolean contains(int c) {
+        if (c < 64) {
+            return (low & 1L << c) != 0;
+        }
+        if (c < 128) {
+            return (high & 1L << (c - 64)) != 0;
+        }
+        int from = 0;
+        int to = ranges.length / 2 - 1;
+        while (from <= to) {
+            int middle = (from + to) >>> 1;
+            if (c < ranges[middle * 2]) {
+                to = middle - 1;
+            } else if (c > ranges[middle * 2 + 1]) {
+                from = middle + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 把任意顺序、可能重叠的区间 pairs[0, length) 排序合并为有序不相交的区间。
+     */
+    static int[] normalize(int[] pairs, int length) {
+        long[] packed = new long[length / 2];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = (long) pairs[i * 2] << 32 | pairs[i * 2 + 1];
+        }
+        Arrays.sort(packed);
+        int[] result = new int[length];
+        int count = 0;
+        for (long range : packed) {
+            int lo = (int) (range >>> 32);
+            int hi = (int) range;
+            if (count > 0 && lo <= result[count - 1] + 1) {
+                result[count - 1] = Math.max(result[count - 1], hi);
+            } else {
+                result[count++] = lo;
+                result[count++] = hi;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * 已规范化区间在 [0, MAX_CODE_POINT] 上的补集。
+     */
+    static int[] complement(int[] normalized) {
+        int[] result = new int[normalized.length + 2];
+        int count = 0;
+        int next = 0;
+        for (int i = 0; i < normalized.length; i += 2) {
+            if (normalized[i] > next) {
+                result[count++] = next;
+                result[count++] = normalized[i] - 1;
+            }
+            next = normalized[i + 1] + 1;
+        }
+        if (next <= MAX_CODE_POINT) {
+            result[count++] = next;
+            result[count++] = MAX_CODE_POINT;
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
@@ -0,0 +1,389 @@
+package com.guanyanqi.core.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 把 {@link ValueMatcher} 支持的正则子集编译为 {@link ThompsonMatcher} 程序。
+ * <p>
+ * 调用方已用 {@link java.util.regex.Pattern#compile} 校验过语法，这里只需识别子集：
+ * 遇到子集以外的构造，或展开计数量词后程序超过 {@link #MAX_PROGRAM} 条指令时放弃编译，由调用方回退。
+ * 对语义存疑的写法（如字符类中间的 {@code -}、单独的 {@code ]}）同样放弃，保证编译结果与
+ * {@link java.util.regex.Pattern#matches} 一致。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+final class RegexCompiler {
+
+    /**
+     * 程序指令数上限。
+     */
+    static final int MAX_PROGRAM = 4096;
+
+    /**
+     * 计数量词 {@code {n,m}} 中 n 与 m 的上限。
+     */
+    private static final int MAX_REPEAT = 1000;
+
+    private static final int UNBOUNDED = -1;
+
+    private final int[] pattern;
+    private int position;
+
+    private int[] ops = new int[16];
+    private int[] xs = new int[16];
+    private int[] ys = new int[16];
+    private final List<CharSet> sets = new ArrayList<>();
+    private int size;
+
+    private RegexCompiler(String regex) {
+        this.pattern = regex.codePoints().toArray();
+    }
+
+    /**
+     * 编译子集内的表达式。
+     *
+     * @param regex 已通过 java.util.regex 语法校验的表达式
+     * @return 匹配器；表达式超出子集时返回 null
+     */
+    static ThompsonMatcher compile(String regex) {
+        RegexCompiler compiler = new RegexCompiler(regex);
+        try {
+            Node root = compiler.alternation(true);
+            if (compiler.position < compiler.pattern.length) {
+                return null;
+            }
+            compiler.emit(root);
+            compiler.add(ThompsonMatcher.MATCH, 0, 0);
+        } catch (Unsupported e) {
+            return null;
+        }
+        int length = compiler.size;
+        return new ThompsonMatcher(Arrays.copyOf(compiler.ops, length), Arrays.copyOf(compiler.xs, length),
+                Arrays.copyOf(compiler.ys, length), compiler.sets.toArray(new CharSet[0]));
+    }
+
+    // ---------------------------------------------------------------- 语法分析
+
+    private Node alternation(boolean topLevel) {
+        List<Node> branches = new ArrayList<>();
+        branches.add(concatenation(topLevel));
+        while (peek() == '|') {
+            position++;
+            branches.add(concatenation(topLevel));
+        }
+        return branches.size() == 1 ? branches.get(0) : new Alt(branches);
+    }
+
+    private Node concatenation(boolean topLevel) {
+        List<Node> items = new ArrayList<>();
+        if (topLevel && peek() == '^') {
+            // 顶层分支开头的 ^ 在整体匹配中恒成立
+            position++;
+            rejectQuantifier();
+        }
+        while (position < pattern.length && peek() != '|' && peek() != ')') {
+            if (peek() == '$') {
+                position++;
+                // 只接受顶层分支结尾的 $，此时它与整体匹配的结尾重合
+                if (!topLevel || (position < pattern.length && peek() != '|')) {
+                    throw Unsupported.INSTANCE;
+                }
+                break;
+            }
+            items.add(quantified(atom()));
+        }
+        return items.size() == 1 ? items.get(0) : new Concat(items);
+    }
+
+    private Node quantified(Node atom) {
+        int min;
+        int max;
+        switch (peek()) {
+            case '*' -> {
+                min = 0;
+                max = UNBOUNDED;
+                position++;
+            }
+            case '+' -> {
+                min = 1;
+                max = UNBOUNDED;
+                position++;
+            }
+            case '?' -> {
+                min = 0;
+                max = 1;
+                position++;
+            }
+            case '{' -> {
+                position++;
+                min = number();
+                max = min;
+                if (peek() == ',') {
+                    position++;
+                    max = peek() == '}' ? UNBOUNDED : number();
+                }
+                expect('}');
+            }
+            default -> {
+                return atom;
+            }
+        }
+        if (peek() == '?') {
+            // 惰性量词只改变匹配优先级，不改变能否整体匹配
+            position++;
+        }
+        rejectQuantifier();
+        return new Repeat(atom, min, max);
+    }
+
+    private Node atom() {
+        int c = pattern[position++];
+        switch (c) {
+            case '(' -> {
+                if (peek() == '?') {
+                    position++;
+                    expect(':');
+                }
+                Node group = alternation(false);
+                expect(')');
+                return group;
+            }
+            case '[' -> {
+                return chars(characterClass());
+            }
+            case '.' -> {
+                return chars(CharSet.complement(CharSet.LINE_TERMINATORS));
+            }
+            case '\\' -> {
+                return chars(escape());
+            }
+            case '*', '+', '?', '{', '}', ']', '^', '$' -> throw Unsupported.INSTANCE;
+            default -> {
+                return chars(new int[]{c, c});
+            }
+        }
+    }
+
+    /**
+     * 字符类 {@code [...]}，左括号已读取。
+     */
+    private int[] characterClass() {
+        boolean negated = false;
+        if (peek() == '^') {
+            negated = true;
+            position++;
+        }
+        int[] pairs = new int[16];
+        int length = 0;
+        boolean first = true;
+        while (peek() != ']') {
+            if (position >= pattern.length) {
+                throw Unsupported.INSTANCE;
+            }
+            int c = pattern[position++];
+            int[] item;
+            if (c == '[' || c == '&') {
+                throw Unsupported.INSTANCE;
+            } else if (c == '\\') {
+                item = escape();
+            } else if (c == '-' && !first && peek() != ']') {
+                // 字符类中间的 - 语义依实现而定，只接受位于首尾的字面 -
+                throw Unsupported.INSTANCE;
+            } else {
+                item = new int[]{c, c};
+            }
+            if (c != '-' && peek() == '-' && position + 1 < pattern.length && pattern[position + 1] != ']') {
+                position++;
+                int[] end = pattern[position] == '\\' ? escapeAt() : literalAt();
+                if (item.length != 2 || item[0] != item[1] || end.length != 2 || end[0] != end[1]) {
+                    throw Unsupported.INSTANCE;
+                }
+                item = new int[]{item[0], end[0]};
+            }
+            if (length + item.length > pairs.length) {
+                pairs = Arrays.copyOf(pairs, Math.max(pairs.length * 2, length + item.length));
+            }
+            System.arraycopy(item, 0, pairs, length, item.length);
+            length += item.length;
+            first = false;
+        }
+        position++;
+        if (length == 0) {
+            throw Unsupported.INSTANCE;
+        }
+        int[] normalized = CharSet.normalize(pairs, length);
+        return negated ? CharSet.complement(normalized) : normalized;
+    }
+
+    private int[] escapeAt() {
+        position++;
+        return escape();
+    }
+
+    private int[] literalAt() {
+        int c = pattern[position++];
+        if (c == '[' || c == '&' || c == '-') {
+            throw Unsupported.INSTANCE;
+        }
+        return new int[]{c, c};
+    }
+
+    /**
+     * 反斜杠之后的转义，返回规范化区间。
+     */
+    private int[] escape() {
+        if (position >= pattern.length) {
+            throw Unsupported.INSTANCE;
+        }
+        int c = pattern[position++];
+        return switch (c) {
+            case 'd' -> CharSet.DIGIT;
+            case 'D' -> CharSet.complement(CharSet.DIGIT);
+            case 'w' -> CharSet.WORD;
+            case 'W' -> CharSet.complement(CharSet.WORD);
+            case 's' -> CharSet.SPACE;
+            case 'S' -> CharSet.complement(CharSet.SPACE);
+            case 't' -> new int[]{'\t', '\t'};
+            case 'n' -> new int[]{'\n', '\n'};
+            case 'r' -> new int[]{'\r', '\r'};
+            case 'f' -> new int[]{'\f', '\f'};
+            case 'e' -> new int[]{0x1B, 0x1B};
+            case 'a' -> new int[]{0x07, 0x07};
+            default -> {
+                // 反斜杠加非字母数字的 ASCII 字符表示该字符本身；其余转义（反向引用、\b、\p 等）不在子集内
+                if (c >= 128 || Character.isLetterOrDigit(c)) {
+                    throw Unsupported.INSTANCE;
+                }
+                yield new int[]{c, c};
+            }
+        };
+    }
+
+    private int number() {
+        int start = position;
+        int value = 0;
+        while (position < pattern.length && pattern[position] >= '0' && pattern[position] <= '9') {
+            value = value * 10 + pattern[position++] - '0';
+            if (value > MAX_REPEAT) {
+                throw Unsupported.INSTANCE;
+            }
+        }
+        if (position == start) {
+            throw Unsupported.INSTANCE;
+        }
+        return value;
+    }
+
+    private void expect(int c) {
+        if (peek() != c) {
+            throw Unsupported.INSTANCE;
+        }
+        position++;
+    }
+
+    private void rejectQuantifier() {
+        int c = peek();
+        if (c == '*' || c == '+' || c == '?' || c == '{') {
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private int peek() {
+        return position < pattern.length ? pattern[position] : -1;
+    }
+
+    private static Node chars(int[] normalized) {
+        return new Chars(CharSet.of(normalized));
+    }
+
+    // ---------------------------------------------------------------- 代码生成
+
+    private void emit(Node node) {
+        if (node instanceof Chars chars) {
+            add(ThompsonMatcher.CHAR, sets.size(), 0);
+            sets.add(chars.set());
+        } else if (node instanceof Concat concat) {
+            for (Node item : concat.items()) {
+                emit(item);
+            }
+        } else if (node instanceof Alt alt) {
+            List<Node> branches = alt.branches();
+            int[] exits = new int[branches.size() - 1];
+            for (int i = 0; i < exits.length; i++) {
+                int split = add(ThompsonMatcher.SPLIT, size + 1, 0);
+                emit(branches.get(i));
+                exits[i] = add(ThompsonMatcher.JMP, 0, 0);
+                ys[split] = size;
+            }
+            emit(branches.get(branches.size() - 1));
+            for (int exit : exits) {
+                xs[exit] = size;
+            }
+        } else {
+            Repeat repeat = (Repeat) node;
+            for (int i = 0; i < repeat.min(); i++) {
+                emit(repeat.body());
+            }
+            if (repeat.max() == UNBOUNDED) {
+                int split = add(ThompsonMatcher.SPLIT, size + 1, 0);
+                emit(repeat.body());
+                add(ThompsonMatcher.JMP, split, 0);
+                ys[split] = size;
+            } else {
+                int optional = repeat.max() - repeat.min();
+                int[] skips = new int[optional];
+                for (int i = 0; i < optional; i++) {
+                    skips[i] = add(ThompsonMatcher.SPLIT, size + 1, 0);
+                    emit(repeat.body());
+                }
+                for (int skip : skips) {
+                    ys[skip] = size;
+                }
+            }
+        }
+    }
+
+    private int add(int op, int x, int y) {
+        if (size == MAX_PROGRAM) {
+            throw Unsupported.INSTANCE;
+        }
+        if (size == ops.length) {
+            ops = Arrays.copyOf(ops, size * 2);
+            xs = Arrays.copyOf(xs, size * 2);
+            ys = Arrays.copyOf(ys, size * 2);
+        }
+        ops[size] = op;
+        xs[size] = x;
+        ys[size] = y;
+        return size++;
+    }
+
+    private sealed interface Node permits Chars, Concat, Alt, Repeat {
+    }
+
+    private record Chars(CharSet set) implements Node {
+    }
+
+    private record Concat(List<Node> items) implements Node {
+    }
+
+    private record Alt(List<Node> branches) implements Node {
+    }
+
+    private record Repeat(Node body, int min, int max) implements Node {
+    }
+
+    /**
+     * 表达式超出子集；不填充栈，放弃编译的开销与表达式长度无关。
+     */
+    private static final class Unsupported extends RuntimeException {
+        private static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+}
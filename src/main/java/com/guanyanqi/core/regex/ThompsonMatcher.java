@@ -0,0 +1,98 @@
+package com.guanyanqi.core.regex;
+
+/**
+ * Thompson NFA 匹配器：同时推进全部活跃状态，每个输入码点只处理一次，每个状态在一步内最多加入一次。
+ * <p>
+ * 程序由四种指令组成：{@link #CHAR} 读取一个属于给定集合的码点，{@link #SPLIT} 同时走向两个分支，
+ * {@link #JMP} 无条件跳转，{@link #MATCH} 接受。校验只关心整体是否匹配，不记录分组位置，
+ * 因此状态集合只需保存指令下标。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+final class ThompsonMatcher implements ValueMatcher {
+
+    static final int CHAR = 0;
+    static final int SPLIT = 1;
+    static final int JMP = 2;
+    static final int MATCH = 3;
+
+    private final int[] ops;
+    private final int[] xs;
+    private final int[] ys;
+    private final CharSet[] sets;
+
+    ThompsonMatcher(int[] ops, int[] xs, int[] ys, CharSet[] sets) {
+        this.ops = ops;
+        this.xs = xs;
+        this.ys = ys;
+        this.sets = sets;
+    }
+
+    @Override
+    public boolean matches(CharSequence value) {
+        int size = ops.length;
+        int[] current = new int[size];
+        int[] next = new int[size];
+        int[] marks = new int[size];
+        int[] stack = new int[size * 2 + 1];
+        int generation = 1;
+        int count = follow(current, 0, 0, generation, marks, stack);
+        int length = value.length();
+        int i = 0;
+        while (i < length && count > 0) {
+            int c = Character.codePointAt(value, i);
+            i += Character.charCount(c);
+            generation++;
+            int nextCount = 0;
+            for (int k = 0; k < count; k++) {
+                int pc = current[k];
+                if (ops[pc] == CHAR && sets[xs[pc]].contains(c)) {
+                    nextCount = follow(next, nextCount, pc + 1, generation, marks, stack);
+                }
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            count = nextCount;
+        }
+        if (i < length) {
+            return false;
+        }
+        for (int k = 0; k < count; k++) {
+            if (ops[current[k]] == MATCH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isLinear() {
+        return true;
+    }
+
+    /**
+     * 沿 SPLIT / JMP 展开 start 的 ε 闭包，把到达的 CHAR 与 MATCH 指令追加到 list；marks 保证同一步内每条指令只访问一次。
+     */
+    private int follow(int[] list, int count, int start, int generation, int[] marks, int[] stack) {
+        int top = 0;
+        stack[top++] = start;
+        while (top > 0) {
+            int pc = stack[--top];
+            if (marks[pc] == generation) {
+                continue;
+            }
+            marks[pc] = generation;
+            switch (ops[pc]) {
+                case SPLIT -> {
+                    stack[top++] = ys[pc];
+                    stack[top++] = xs[pc];
+                }
+                case JMP -> stack[top++] = xs[pc];
+                default -> list[count++] = pc;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,77 @@
+package com.guanyanqi.core.regex;
+
+import com.guanyanqi.exception.QCmdException;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * {@code @Parameter.valueValidRegex} 的预编译匹配器，在描述符冻结时为每个选项选定一次。
+ * <p>
+ * {@link java.util.regex} 采用回溯匹配，{@code (a|aa){1,40}b} 之类的表达式遇到特定输入会耗时指数级增长（ReDoS）。
+ * 表达式落在常用子集内时编译为 Thompson NFA，按输入逐码点推进状态集合，耗时与
+ * {@code 输入长度 × 表达式长度} 成正比，不会回溯：
+ * </p>
+ * <ul>
+ *   <li>字面字符、{@code .}、{@code \d \D \w \W \s \S}、{@code \t \n \r \f \e \a} 与转义的标点；</li>
+ *   <li>字符类 {@code [a-z_]}、{@code [^0-9]}（不含嵌套与 {@code &&} 交集）；</li>
+ *   <li>分组 {@code (...)}、{@code (?:...)}、分支 {@code |}；</li>
+ *   <li>量词 {@code * + ? {n} {n,} {n,m}} 及其惰性形式；</li>
+ *   <li>位于顶层分支开头的 {@code ^} 与结尾的 {@code $}。</li>
+ * </ul>
+ * <p>
+ * 其余构造（反向引用、环视、独占量词、内嵌标志、Unicode 属性等）回退到 {@link java.util.regex}，
+ * 并以读取输入字符的次数作为步数预算；预算耗尽视为不匹配。除此之外，匹配结果与 {@link Pattern#matches} 一致。
+ * </p>
+ *
+ * <p>匹配器不可变，可在线程间共享。</p>
+ *
+ * @author guanyanqi
+ */
+public interface ValueMatcher {
+
+    /**
+     * 回退匹配默认的步数预算。
+     */
+    long DEFAULT_STEP_BUDGET = 1_000_000L;
+
+    /**
+     * 判断整个值是否匹配表达式，语义同 {@link Pattern#matches(String, CharSequence)}。
+     *
+     * @param value 待校验的值
+     * @return 匹配返回 true；回退匹配耗尽步数预算时返回 false
+     */
+    boolean matches(CharSequence value);
+
+    /**
+     * 判断匹配耗时是否保证与输入长度成线性关系。
+     *
+     * @return 使用 Thompson NFA 时返回 true，回退到 {@link java.util.regex} 时返回 false
+     */
+    boolean isLinear();
+
+    /**
+     * 编译表达式，子集内的表达式使用 Thompson NFA，其余回退到带步数预算的 {@link java.util.regex}。
+     *
+     * @param regex      正则表达式
+     * @param stepBudget 回退匹配单次可读取的输入字符数上限，必须大于 0
+     * @return 匹配器
+     * @throws QCmdException 表达式语法错误或预算不合法时抛出
+     */
+    static ValueMatcher compile(String regex, long stepBudget) {
+        Objects.requireNonNull(regex, "Regex must not be null");
+        if (stepBudget <= 0) {
+            throw new QCmdException("正则步数预算必须大于 0: " + stepBudget);
+        }
+        Pattern pattern;
+        try {
+            // 先按 java.util.regex 校验语法，子集编译器因此只需处理合法表达式
+            pattern = Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new QCmdException("正则表达式 [" + regex + "] 语法错误: " + e.getDescription(), e);
+        }
+        ValueMatcher linear = RegexCompiler.compile(regex);
+        return linear != null ? linear : new BudgetedMatcher(pattern, stepBudget);
+    }
+}
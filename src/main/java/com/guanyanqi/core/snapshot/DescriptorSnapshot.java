@@ -0,0 +1,460 @@
+package com.guanyanqi.core.snapshot;
+
+import com.guanyanqi.converter.QStringConverter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.core.model.ValueConstraints;
+import com.guanyanqi.core.model.VarsDescriptor;
+import com.guanyanqi.exception.QCmdException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * 编译期生成的命令描述符二进制快照。
+ * <p>
+ * 反射提取描述符需要解析每个字段/组件上的注解，是进程启动时构建描述符的主要开销。
+ * 快照在构建期把选项名、必填标记、正则、取值约束、转换器类名、类型签名与组件序号写入
+ * {@value #RESOURCE}，运行时按表回放即可得到与反射提取等价的 {@link CommandDescriptor}。
+ * </p>
+ *
+ * <p>格式（大端序，字符串为 int 长度 + UTF-8 字节）：</p>
+ * <pre>
+ * magic "QCMD" | version | entryCount
+ * entryCount × (className | fingerprint | offset)
+ * entryCount × (optionCount | option... | hasVars | [vars])
+ * </pre>
+ *
+ * <p>每个条目都带有命令类（及其父类）字节码的 CRC32 指纹；命令类重新编译、条目缺失、类型签名不一致或格式版本不同时，
+ * 快照被忽略并回退到反射提取，保证快照只会加速、不会改变解析行为。</p>
+ *
+ * @author guanyanqi
+ */
+public final class DescriptorSnapshot {
+
+    /**
+     * 快照在类路径中的资源路径。
+     */
+    public static final String RESOURCE = "META-INF/qcmd/descriptors.bin";
+
+    private static final int MAGIC = 0x51434D44;
+    private static final int FORMAT_VERSION = 2;
+    private static final int NO_ORDINAL = -1;
+
+    /** 每个类加载器上已加载的快照，类加载器被回收时一并释放。 */
+    private static final Map<ClassLoader, List<DescriptorSnapshot>> LOADED =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    /** 已加载类的字节码不会再变化，指纹按类只计算一次，随类卸载释放。 */
+    private static final ClassValue<Long> FINGERPRINTS = new ClassValue<>() {
+        @Override
+        protected Long computeValue(Class<?> type) {
+            return fingerprint(type);
+        }
+    };
+
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries;
+
+    private record Entry(long fingerprint, int offset) {
+    }
+
+    private DescriptorSnapshot(ByteBuffer buffer, Map<String, Entry> entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    /**
+     * 从快照字节中读取条目索引；条目内容在 {@link #descriptorFor} 时才按偏移解码。
+     *
+     * @param buffer 快照内容（可为内存映射缓冲区）
+     * @return 快照实例
+     * @throws QCmdException 魔数、版本不符或内容被截断时抛出
+     */
+    public static DescriptorSnapshot read(ByteBuffer buffer) {
+        ByteBuffer source = buffer.slice();
+        try {
+            if (source.getInt() != MAGIC) {
+                throw new QCmdException("描述符快照魔数不匹配");
+            }
+            int version = source.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new QCmdException("描述符快照版本 [" + version + "] 不受支持，期望 " + FORMAT_VERSION);
+            }
+            int count = source.getInt();
+            Map<String, Entry> entries = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String className = readString(source);
+                entries.put(className, new Entry(source.getLong(), source.getInt()));
+            }
+            return new DescriptorSnapshot(source, Map.copyOf(entries));
+        } catch (BufferUnderflowException e) {
+            throw new QCmdException("描述符快照内容被截断", e);
+        }
+    }
+
+    /**
+     * 将已构建的描述符写为快照。
+     *
+     * @param descriptors 通过反射提取得到的描述符
+     * @param out         输出流
+     * @throws IOException 写入失败时抛出
+     */
+    public static void write(List<CommandDescriptor> descriptors, OutputStream out) throws IOException {
+        List<byte[]> bodies = new ArrayList<>();
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream headerOut = new DataOutputStream(header);
+        headerOut.writeInt(MAGIC);
+        headerOut.writeInt(FORMAT_VERSION);
+        headerOut.writeInt(descriptors.size());
+        int headerSize = 12;
+        for (CommandDescriptor descriptor : descriptors) {
+            headerSize += 4 + utf8(descriptor.getTargetClass().getName()).length + 8 + 4;
+        }
+        int offset = headerSize;
+        for (CommandDescriptor descriptor : descriptors) {
+            Class<?> targetClass = descriptor.getTargetClass();
+            long fingerprint = fingerprint(targetClass);
+            if (fingerprint == 0L) {
+                throw new QCmdException("无法读取命令类 " + targetClass.getName() + " 的字节码，不能生成快照");
+            }
+            byte[] body = encodeBody(descriptor);
+            writeString(headerOut, targetClass.getName());
+            headerOut.writeLong(fingerprint);
+            headerOut.writeInt(offset);
+            bodies.add(body);
+            offset += body.length;
+        }
+        headerOut.flush();
+        out.write(header.toByteArray());
+        for (byte[] body : bodies) {
+            out.write(body);
+        }
+        out.flush();
+    }
+
+    /**
+     * 从快照回放命令类的描述符。
+     *
+     * @param targetClass 目标命令类
+     * @return 回放得到的描述符；快照中不存在该类、指纹不一致或元素签名失配时返回 null
+     */
+    public CommandDescriptor descriptorFor(Class<?> targetClass) {
+        Entry entry = entries.get(targetClass.getName());
+        if (entry == null || entry.fingerprint() != FINGERPRINTS.get(targetClass)) {
+            return null;
+        }
+        try {
+            ByteBuffer body = buffer.duplicate().position(entry.offset());
+            return new CommandDescriptor(targetClass, (clazz, descriptor) -> replay(body, clazz, descriptor));
+        } catch (SnapshotMismatch | BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取快照收录的命令类名。
+     *
+     * @return 不可变类名集合
+     */
+    public Set<String> classNames() {
+        return entries.keySet();
+    }
+
+    /**
+     * 在命令类所属类加载器的快照中查找描述符，供描述符缓存使用。
+     *
+     * @param targetClass 目标命令类
+     * @return 回放得到的描述符；没有可用快照时返回 null
+     */
+    public static CommandDescriptor lookup(Class<?> targetClass) {
+        ClassLoader loader = targetClass.getClassLoader();
+        if (loader == null) {
+            return null;
+        }
+        for (DescriptorSnapshot snapshot : LOADED.computeIfAbsent(loader, DescriptorSnapshot::loadAll)) {
+            CommandDescriptor descriptor = snapshot.descriptorFor(targetClass);
+            if (descriptor != null) {
+                return descriptor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 加载类加载器可见的全部快照资源；{@code file:} 资源使用内存映射，其余资源整体读入。
+     * 无法读取或格式不符的资源被跳过。
+     *
+     * @param loader 类加载器
+     * @return 快照列表，按类路径顺序排列
+     */
+    public static List<DescriptorSnapshot> loadAll(ClassLoader loader) {
+        List<DescriptorSnapshot> snapshots = new ArrayList<>();
+        try {
+            Enumeration<URL> resources = loader.getResources(RESOURCE);
+            while (resources.hasMoreElements()) {
+                try {
+                    snapshots.add(read(map(resources.nextElement())));
+                } catch (IOException | QCmdException e) {
+                    // 损坏或过期格式的快照只会让对应命令回退到反射提取
+                }
+            }
+        } catch (IOException e) {
+            return List.of();
+        }
+        return List.copyOf(snapshots);
+    }
+
+    /**
+     * 计算命令类及其父类字节码的 CRC32 指纹（不含 JDK 类）。每次调用都重新读取字节码，
+     * {@link #descriptorFor} 内部按类缓存校验结果。
+     *
+     * @param targetClass 命令类
+     * @return 指纹；任一字节码资源不可读时返回 0
+     */
+    public static long fingerprint(Class<?> targetClass) {
+        CRC32 crc = new CRC32();
+        for (Class<?> current = targetClass; current != null && current.getClassLoader() != null;
+             current = current.getSuperclass()) {
+            String resource = current.getName().replace('.', '/') + ".class";
+            try (InputStream in = current.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    return 0L;
+                }
+                crc.update(in.readAllBytes());
+            } catch (IOException e) {
+                return 0L;
+            }
+        }
+        long value = crc.getValue();
+        return value == 0L ? 1L : value;
+    }
+
+    private static ByteBuffer map(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Path.of(url.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException e) {
+                throw new IOException(e);
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
+
+    private static byte[] encodeBody(CommandDescriptor descriptor) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        Class<?> targetClass = descriptor.getTargetClass();
+        out.writeInt(descriptor.getOptions().size());
+        for (OptionDescriptor option : descriptor.getOptions()) {
+            writeElement(out, targetClass, option.rawElement(), option.targetName());
+            String[] names = option.names();
+            out.writeInt(names.length);
+            for (String name : names) {
+                writeString(out, name);
+            }
+            writeString(out, option.desc());
+            out.writeBoolean(option.required());
+            writeString(out, option.valueValidRegex());
+            writeString(out, option.valueValidDesc());
+            writeString(out, option.converterClass().getName());
+            writeString(out, option.genericType().getTypeName());
+            ValueConstraints constraints = option.constraints();
+            out.writeLong(constraints.min());
+            out.writeLong(constraints.max());
+            out.writeInt(constraints.minLength());
+            out.writeInt(constraints.maxLength());
+            out.writeInt(constraints.allowed().size());
+            for (String value : constraints.allowed()) {
+                writeString(out, value);
+            }
+        }
+        VarsDescriptor vars = descriptor.getVarsDescriptor();
+        out.writeBoolean(vars != null);
+        if (vars != null) {
+            writeElement(out, targetClass, vars.rawElement(), vars.targetName());
+            writeString(out, vars.desc());
+            writeString(out, vars.elementConverterClass().getName());
+            writeString(out, vars.genericType().getTypeName());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeElement(DataOutputStream out, Class<?> targetClass, AnnotatedElement element,
+                                     String targetName) throws IOException {
+        if (element instanceof Field field) {
+            writeString(out, field.getDeclaringClass().getName());
+            out.writeInt(NO_ORDINAL);
+        } else {
+            writeString(out, targetClass.getName());
+            out.writeInt(componentOrdinal(targetClass, targetName));
+        }
+        writeString(out, targetName);
+    }
+
+    private static int componentOrdinal(Class<?> recordClass, String name) {
+        RecordComponent[] components = recordClass.getRecordComponents();
+        for (int i = 0; i < components.length; i++) {
+            if (components[i].getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new QCmdException("Record " + recordClass.getName() + " 不存在组件 [" + name + "]");
+    }
+
+    private static void replay(ByteBuffer body, Class<?> targetClass, CommandDescriptor descriptor) {
+        ClassLoader loader = targetClass.getClassLoader();
+        RecordComponent[] components = targetClass.isRecord() ? targetClass.getRecordComponents() : null;
+        int optionCount = body.getInt();
+        for (int i = 0; i < optionCount; i++) {
+            String declaringClass = readString(body);
+            int ordinal = body.getInt();
+            String targetName = readString(body);
+            AnnotatedElement element = resolveElement(declaringClass, ordinal, targetName, targetClass, components);
+            String[] names = new String[body.getInt()];
+            for (int n = 0; n < names.length; n++) {
+                names[n] = readString(body);
+            }
+            String desc = readString(body);
+            boolean required = body.get() != 0;
+            String regex = readString(body);
+            String validDesc = readString(body);
+            Class<? extends QStringConverter<?>> converter = converterClass(readString(body), loader);
+            ElementType type = elementType(element, targetName, readString(body));
+            long min = body.getLong();
+            long max = body.getLong();
+            int minLength = body.getInt();
+            int maxLength = body.getInt();
+            String[] allowed = new String[body.getInt()];
+            for (int n = 0; n < allowed.length; n++) {
+                allowed[n] = readString(body);
+            }
+            descriptor.registerOption(new OptionDescriptor(names, desc, required, regex, validDesc, converter,
+                    type.rawType(), type.genericType(), targetName, element,
+                    ValueConstraints.of(min, max, minLength, maxLength, allowed)));
+        }
+        if (body.get() != 0) {
+            String declaringClass = readString(body);
+            int ordinal = body.getInt();
+            String targetName = readString(body);
+            AnnotatedElement element = resolveElement(declaringClass, ordinal, targetName, targetClass, components);
+            String desc = readString(body);
+            Class<? extends QStringConverter<?>> converter = converterClass(readString(body), loader);
+            ElementType type = elementType(element, targetName, readString(body));
+            descriptor.registerVars(new VarsDescriptor(desc, converter, type.rawType(), type.genericType(),
+                    targetName, element));
+        }
+    }
+
+    private record ElementType(Class<?> rawType, Type genericType) {
+    }
+
+    private static AnnotatedElement resolveElement(String declaringClass, int ordinal, String targetName,
+                                                   Class<?> targetClass, RecordComponent[] components) {
+        if (ordinal != NO_ORDINAL) {
+            if (components == null || ordinal >= components.length) {
+                throw new SnapshotMismatch();
+            }
+            return components[ordinal];
+        }
+        for (Class<?> current = targetClass; current != null; current = current.getSuperclass()) {
+            if (current.getName().equals(declaringClass)) {
+                try {
+                    return current.getDeclaredField(targetName);
+                } catch (NoSuchFieldException e) {
+                    throw new SnapshotMismatch();
+                }
+            }
+        }
+        throw new SnapshotMismatch();
+    }
+
+    private static ElementType elementType(AnnotatedElement element, String targetName, String typeName) {
+        Class<?> rawType;
+        Type genericType;
+        String elementName;
+        if (element instanceof Field field) {
+            rawType = field.getType();
+            genericType = field.getGenericType();
+            elementName = field.getName();
+        } else {
+            RecordComponent component = (RecordComponent) element;
+            rawType = component.getType();
+            genericType = component.getGenericType();
+            elementName = component.getName();
+        }
+        if (!elementName.equals(targetName) || !genericType.getTypeName().equals(typeName)) {
+            throw new SnapshotMismatch();
+        }
+        return new ElementType(rawType, genericType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends QStringConverter<?>> converterClass(String className, ClassLoader loader) {
+        try {
+            Class<?> clazz = Class.forName(className, false, loader);
+            if (!QStringConverter.class.isAssignableFrom(clazz)) {
+                throw new SnapshotMismatch();
+            }
+            return (Class<? extends QStringConverter<?>>) clazz;
+        } catch (ClassNotFoundException e) {
+            throw new SnapshotMismatch();
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = utf8(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** 快照与当前命令类不一致，调用方应回退到反射提取。 */
+    private static final class SnapshotMismatch extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SnapshotMismatch() {
+            super(null, null, false, false);
+        }
+    }
+}
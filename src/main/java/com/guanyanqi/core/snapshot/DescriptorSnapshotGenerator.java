@@ -0,0 +1,74 @@
+package com.guanyanqi.core.snapshot;
+
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.exception.QCmdException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 构建期描述符快照生成工具。
+ * <p>
+ * 对给定命令类执行一次反射提取，并把结果写入 {@code <输出目录>/META-INF/qcmd/descriptors.bin}，
+ * 通常在 Maven {@code process-classes} 阶段通过 exec 插件调用，输出目录指向 {@code target/classes}：
+ * </p>
+ * <pre>
+ *     java -cp target/classes com.guanyanqi.core.snapshot.DescriptorSnapshotGenerator \
+ *          target/classes com.acme.DeployCmd com.acme.RollbackCmd
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class DescriptorSnapshotGenerator {
+
+    /**
+     * 工具类私有构造函数。
+     */
+    private DescriptorSnapshotGenerator() {
+    }
+
+    /**
+     * 生成快照。
+     *
+     * @param args 第一个参数为输出根目录，其余为命令类全限定名
+     * @throws IOException 写入快照失败时抛出
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new QCmdException("用法：DescriptorSnapshotGenerator <输出目录> <命令类全限定名>...");
+        }
+        Path written = generate(Path.of(args[0]), Arrays.asList(args).subList(1, args.length));
+        System.out.println("qcmd descriptor snapshot written: " + written);
+    }
+
+    /**
+     * 为命令类生成快照文件。
+     *
+     * @param outputRoot 输出根目录（类路径根）
+     * @param classNames 命令类全限定名
+     * @return 写入的快照文件路径
+     * @throws IOException 写入快照失败时抛出
+     */
+    public static Path generate(Path outputRoot, List<String> classNames) throws IOException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        List<CommandDescriptor> descriptors = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                descriptors.add(new CommandDescriptor(Class.forName(className, false, loader)));
+            } catch (ClassNotFoundException e) {
+                throw new QCmdException("快照命令类 [" + className + "] 不存在", e);
+            }
+        }
+        Path target = outputRoot.resolve(DescriptorSnapshot.RESOURCE);
+        Files.createDirectories(target.getParent());
+        try (OutputStream out = Files.newOutputStream(target)) {
+            DescriptorSnapshot.write(descriptors, out);
+        }
+        return target;
+    }
+}
@@ -2,6 +2,7 @@ package com.guanyanqi.core.strategy;
 
 import com.guanyanqi.core.CommandDescriptor;
 import com.guanyanqi.core.CommandLineParser;
+import com.guanyanqi.metrics.internal.CostSink;
 
 /**
  * 命令绑定策略接口（抽象 POJO 与 Record 的元数据提取和实例绑定逻辑）。
@@ -29,4 +30,21 @@ public interface CommandBindingStrategy {
      * @throws Exception 当反射或类型转换失败时抛出
      */
     <T> T bindInstance(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor, Class<T> targetClass) throws Exception;
+
+    /**
+     * 绑定并构造目标类实例，同时把转换器调用计入给定归因入口。
+     * 默认实现忽略归因入口，内置策略会把它传给描述符的转换方法。
+     *
+     * @param <T>         目标命令类泛型
+     * @param parseResult 命令行解析中间结果
+     * @param descriptor  命令描述符
+     * @param targetClass 目标命令类 Class
+     * @param costs       转换器归因入口，为 null 时不计数
+     * @return 构造并绑定属性后的目标类实例
+     * @throws Exception 当反射或类型转换失败时抛出
+     */
+    default <T> T bindInstance(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor, Class<T> targetClass,
+                               CostSink costs) throws Exception {
+        return bindInstance(parseResult, descriptor, targetClass);
+    }
 }
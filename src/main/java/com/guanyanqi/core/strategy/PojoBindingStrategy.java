@@ -5,8 +5,10 @@ import com.guanyanqi.annotation.Vars;
 import com.guanyanqi.core.CommandDescriptor;
 import com.guanyanqi.core.CommandLineParser;
 import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.core.model.ValueConstraints;
 import com.guanyanqi.core.model.VarsDescriptor;
 import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.metrics.internal.CostSink;
 import com.guanyanqi.utils.QCmdUtils;
 
 import java.lang.reflect.Constructor;
@@ -48,7 +50,9 @@ public class PojoBindingStrategy implements CommandBindingStrategy {
                         field.getType(),
                         field.getGenericType(),
                         field.getName(),
-                        field
+                        field,
+                        ValueConstraints.of(param.min(), param.max(), param.minLength(), param.maxLength(),
+                                param.allowed())
                 );
                 descriptor.registerOption(option);
             } else if (varsAnnotation != null) {
@@ -67,20 +71,21 @@ public class PojoBindingStrategy implements CommandBindingStrategy {
 
     @Override
     public <T> T bindInstance(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor, Class<T> targetClass) throws Exception {
+        return bindInstance(parseResult, descriptor, targetClass, null);
+    }
+
+    @Override
+    public <T> T bindInstance(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor, Class<T> targetClass,
+                              CostSink costs) throws Exception {
         Constructor<T> constructor = targetClass.getDeclaredConstructor();
         constructor.setAccessible(true);
         T instance = constructor.newInstance();
 
-        // 1. 绑定 Option 参数
-        for (Map.Entry<String, String> entry : parseResult.optionValues().entrySet()) {
-            String optionName = entry.getKey();
-            String rawVal = entry.getValue();
-
-            OptionDescriptor option = descriptor.getNameToOptionMap().get(optionName);
-            if (option != null && option.rawElement() instanceof Field field) {
+        // 1. 绑定 Option 参数（异步转换器并发执行，全部完成后再写入字段）
+        for (Map.Entry<OptionDescriptor, Object> entry : descriptor.convertOptionValues(parseResult.optionValues(), costs).entrySet()) {
+            if (entry.getKey().rawElement() instanceof Field field) {
                 field.setAccessible(true);
-                Object val = descriptor.convertValue(option.type(), option.genericType(), option.converterClass(), rawVal);
-                field.set(instance, val);
+                field.set(instance, entry.getValue());
             }
         }
 
@@ -88,7 +93,7 @@ public class PojoBindingStrategy implements CommandBindingStrategy {
         VarsDescriptor varsDesc = descriptor.getVarsDescriptor();
         if (varsDesc != null && varsDesc.rawElement() instanceof Field field && !parseResult.positionalVars().isEmpty()) {
             field.setAccessible(true);
-            Object varsVal = descriptor.convertVars(varsDesc.type(), varsDesc.genericType(), varsDesc, parseResult.positionalVars());
+            Object varsVal = descriptor.convertVars(varsDesc.type(), varsDesc.genericType(), varsDesc, parseResult.positionalVars(), costs);
             field.set(instance, varsVal);
         }
 
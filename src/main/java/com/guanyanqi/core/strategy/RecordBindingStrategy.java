@@ -5,8 +5,10 @@ import com.guanyanqi.annotation.Vars;
 import com.guanyanqi.core.CommandDescriptor;
 import com.guanyanqi.core.CommandLineParser;
 import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.core.model.ValueConstraints;
 import com.guanyanqi.core.model.VarsDescriptor;
 import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.metrics.internal.CostSink;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -59,7 +61,9 @@ public class RecordBindingStrategy implements CommandBindingStrategy {
                         comp.getType(),
                         comp.getGenericType(),
                         comp.getName(),
-                        comp
+                        comp,
+                        ValueConstraints.of(param.min(), param.max(), param.minLength(), param.maxLength(),
+                                param.allowed())
                 );
                 descriptor.registerOption(option);
             } else if (varsAnnotation != null) {
@@ -78,18 +82,20 @@ public class RecordBindingStrategy implements CommandBindingStrategy {
 
     @Override
     public <T> T bindInstance(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor, Class<T> targetClass) throws Exception {
+        return bindInstance(parseResult, descriptor, targetClass, null);
+    }
+
+    @Override
+    public <T> T bindInstance(CommandLineParser.ParseResult parseResult, CommandDescriptor descriptor, Class<T> targetClass,
+                              CostSink costs) throws Exception {
         RecordComponent[] components = targetClass.getRecordComponents();
         Class<?>[] paramTypes = new Class<?>[components.length];
         Object[] paramValues = new Object[components.length];
 
-        // 1. 将命令行解析出的 选项名 -> 原始值，转换为 目标属性名(targetName) -> 原始值 的映射
-        Map<String, String> optionValueByTargetName = new HashMap<>();
-        for (Map.Entry<String, String> entry : parseResult.optionValues().entrySet()) {
-            String optionName = entry.getKey();
-            OptionDescriptor option = descriptor.getNameToOptionMap().get(optionName);
-            if (option != null) {
-                optionValueByTargetName.put(option.targetName(), entry.getValue());
-            }
+        // 1. 转换全部已提供的选项值（异步转换器并发执行），再映射为 目标属性名(targetName) -> 转换结果
+        Map<String, Object> optionValueByTargetName = new HashMap<>();
+        for (Map.Entry<OptionDescriptor, Object> entry : descriptor.convertOptionValues(parseResult.optionValues(), costs).entrySet()) {
+            optionValueByTargetName.put(entry.getKey().targetName(), entry.getValue());
         }
 
         VarsDescriptor varsDesc = descriptor.getVarsDescriptor();
@@ -104,9 +110,8 @@ public class RecordBindingStrategy implements CommandBindingStrategy {
 
             if (option != null) {
                 // 场景 A：该组件映射为一个 CLI 选项参数
-                String rawVal = optionValueByTargetName.get(compName);
-                if (rawVal != null) {
-                    paramValues[i] = descriptor.convertValue(option.type(), option.genericType(), option.converterClass(), rawVal);
+                if (optionValueByTargetName.containsKey(compName)) {
+                    paramValues[i] = optionValueByTargetName.get(compName);
                 } else {
                     // 选项未提供时，填充基本类型默认值或 null
                     paramValues[i] = getDefaultPrimitiveValue(comp.getType());
@@ -114,7 +119,7 @@ public class RecordBindingStrategy implements CommandBindingStrategy {
             } else if (varsDesc != null && compName.equals(varsDesc.targetName())) {
                 // 场景 B：该组件通过 targetName 显式匹配为位置变量组件
                 if (!parseResult.positionalVars().isEmpty()) {
-                    paramValues[i] = descriptor.convertVars(varsDesc.type(), varsDesc.genericType(), varsDesc, parseResult.positionalVars());
+                    paramValues[i] = descriptor.convertVars(varsDesc.type(), varsDesc.genericType(), varsDesc, parseResult.positionalVars(), costs);
                 } else {
                     paramValues[i] = getDefaultPrimitiveValue(comp.getType());
                 }
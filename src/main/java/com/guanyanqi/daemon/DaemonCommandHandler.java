@@ -0,0 +1,29 @@
+package com.guanyanqi.daemon;
+
+import com.guanyanqi.ParsedCommand;
+
+import java.io.PrintStream;
+
+/**
+ * 守护进程中执行已绑定命令的业务回调。
+ * <p>
+ * help/version 请求由守护进程直接输出，不会进入回调。回调只能写入传入的输出流，
+ * 不能使用 {@code System.out}，因为同一 JVM 内会并发执行多个请求。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+@FunctionalInterface
+public interface DaemonCommandHandler {
+
+    /**
+     * 执行一次已解析的命令。
+     *
+     * @param parsed 解析结果，{@code value()} 为命令实例
+     * @param out    回传给客户端的标准输出
+     * @param err    回传给客户端的标准错误
+     * @return 进程退出码
+     * @throws Exception 执行失败时抛出，客户端收到错误信息与退出码 {@link DaemonProtocol#EXIT_FAILURE}
+     */
+    int execute(ParsedCommand<?> parsed, PrintStream out, PrintStream err) throws Exception;
+}
@@ -0,0 +1,189 @@
+package com.guanyanqi.daemon;
+
+import com.guanyanqi.exception.QCmdException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 常驻守护进程的线路协议。
+ * <p>所有整数均为大端 32 位。</p>
+ * <ul>
+ *   <li>请求：{@code argc}，随后每个参数为 {@code 字节长度 + UTF-8 字节}</li>
+ *   <li>响应：若干帧，每帧为 {@code 1 字节类型 + 长度 + 负载}；
+ *       {@link #FRAME_STDOUT} / {@link #FRAME_STDERR} 携带输出字节，
+ *       {@link #FRAME_EXIT} 的负载为 4 字节退出码且总是最后一帧</li>
+ * </ul>
+ *
+ * @author guanyanqi
+ */
+public final class DaemonProtocol {
+
+    /**
+     * 标准输出帧类型。
+     */
+    public static final byte FRAME_STDOUT = 'O';
+
+    /**
+     * 标准错误帧类型。
+     */
+    public static final byte FRAME_STDERR = 'E';
+
+    /**
+     * 退出码帧类型。
+     */
+    public static final byte FRAME_EXIT = 'X';
+
+    /**
+     * 命令执行失败的退出码。
+     */
+    public static final int EXIT_FAILURE = 1;
+
+    /**
+     * 命令行解析或校验失败的退出码。
+     */
+    public static final int EXIT_USAGE = 2;
+
+    /**
+     * 单个请求允许的最大参数个数。
+     */
+    static final int MAX_ARGS = 65_536;
+
+    /**
+     * 单个参数或输出帧允许的最大字节数。
+     */
+    static final int MAX_FRAME_BYTES = 1 << 20;
+
+    /**
+     * 私有构造函数以防止静态工具类被误实例化。
+     */
+    private DaemonProtocol() {
+    }
+
+    /**
+     * 写出一个请求。
+     *
+     * @param out  输出流
+     * @param args 命令行参数
+     * @throws IOException 写出失败时抛出
+     */
+    public static void writeRequest(OutputStream out, String[] args) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(args.length);
+        for (String arg : args) {
+            byte[] bytes = arg.getBytes(StandardCharsets.UTF_8);
+            data.writeInt(bytes.length);
+            data.write(bytes);
+        }
+        data.flush();
+    }
+
+    /**
+     * 读取一个请求。
+     *
+     * @param in 输入流
+     * @return 命令行参数
+     * @throws IOException 读取失败时抛出
+     * @throws QCmdException 请求不完整或超出长度限制时抛出
+     */
+    public static String[] readRequest(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        try {
+            int argc = checkLength(data.readInt(), MAX_ARGS, "参数个数");
+            String[] args = new String[argc];
+            for (int i = 0; i < argc; i++) {
+                byte[] bytes = new byte[checkLength(data.readInt(), MAX_FRAME_BYTES, "参数长度")];
+                data.readFully(bytes);
+                args[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return args;
+        } catch (EOFException e) {
+            throw new QCmdException("守护进程请求不完整", e);
+        }
+    }
+
+    /**
+     * 写出一帧。
+     *
+     * @param out     输出流
+     * @param type    帧类型
+     * @param payload 负载
+     * @param offset  负载起始位置
+     * @param length  负载长度
+     * @throws IOException 写出失败时抛出
+     */
+    static void writeFrame(DataOutputStream out, byte type, byte[] payload, int offset, int length)
+            throws IOException {
+        out.writeByte(type);
+        out.writeInt(length);
+        out.write(payload, offset, length);
+    }
+
+    /**
+     * 写出退出码帧。
+     *
+     * @param out      输出流
+     * @param exitCode 退出码
+     * @throws IOException 写出失败时抛出
+     */
+    static void writeExit(DataOutputStream out, int exitCode) throws IOException {
+        out.writeByte(FRAME_EXIT);
+        out.writeInt(Integer.BYTES);
+        out.writeInt(exitCode);
+        out.flush();
+    }
+
+    /**
+     * 读取完整响应，把输出帧转发到对应输出流。
+     *
+     * @param in  响应输入流
+     * @param out 标准输出帧的目标
+     * @param err 标准错误帧的目标
+     * @return 退出码
+     * @throws IOException 读取失败时抛出
+     * @throws QCmdException 响应不完整或帧类型未知时抛出
+     */
+    public static int readResponse(InputStream in, OutputStream out, OutputStream err) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] buffer = new byte[8192];
+        try {
+            while (true) {
+                byte type = data.readByte();
+                int length = checkLength(data.readInt(), MAX_FRAME_BYTES, "帧长度");
+                if (type == FRAME_EXIT) {
+                    if (length != Integer.BYTES) {
+                        throw new QCmdException("守护进程退出码帧长度错误: " + length);
+                    }
+                    return data.readInt();
+                }
+                if (type != FRAME_STDOUT && type != FRAME_STDERR) {
+                    throw new QCmdException("未知的守护进程响应帧类型: " + type);
+                }
+                OutputStream target = type == FRAME_STDOUT ? out : err;
+                while (length > 0) {
+                    int read = data.read(buffer, 0, Math.min(buffer.length, length));
+                    if (read < 0) {
+                        throw new EOFException();
+                    }
+                    target.write(buffer, 0, read);
+                    length -= read;
+                }
+                target.flush();
+            }
+        } catch (EOFException e) {
+            throw new QCmdException("守护进程响应在退出码之前中断", e);
+        }
+    }
+
+    private static int checkLength(int value, int max, String what) {
+        if (value < 0 || value > max) {
+            throw new QCmdException("守护进程" + what + "非法: " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,427 @@
+package com.guanyanqi.daemon;
+
+import com.guanyanqi.CommandRegistry;
+import com.guanyanqi.ParsedCommand;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.utils.QCmdExecutors;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 常驻命令守护进程：在 Unix 域套接字上接收命令行请求，复用已预热的解析器执行命令。
+ * <p>
+ * 启动时通过 {@link CommandRegistry#compileAll()} 一次性构建全部描述符、处理器链与帮助文本，
+ * 此后每个连接承载一次请求（协议见 {@link DaemonProtocol}）：读取 argv，解析并执行，
+ * 以输出帧流式回传标准输出/标准错误，最后回传退出码。
+ * 每个连接在独立任务中处理：JDK 21+ 使用虚拟线程，JDK 17 使用平台线程池。
+ * </p>
+ *
+ * <p>守护进程以调用者的身份执行命令，套接字文件在绑定后立即收紧为仅属主可读写（{@code rw-------}），
+ * 其他本地用户无法连接。绑定与收紧权限之间存在极短的窗口，对安全敏感的部署应把套接字放在
+ * 仅属主可访问（{@code 0700}）的目录下；不支持 POSIX 权限的文件系统上权限保持默认。</p>
+ *
+ * <p>每个连接必须在读取期限（默认 {@link #DEFAULT_REQUEST_TIMEOUT}）内发送完整请求，否则连接被关闭，
+ * 只连接不发送或发送过慢的客户端不会长期占用处理线程。期限只约束读取请求，不约束命令执行。</p>
+ *
+ * <p>接收连接连续失败（如文件描述符耗尽、套接字文件被删除）时按指数退避重试，
+ * 连续失败 {@value #MAX_ACCEPT_FAILURES} 次后守护进程自行关闭，{@link #awaitTermination()} 抛出最后一次的失败原因。</p>
+ *
+ * <pre>
+ *     try (QCmdDaemon daemon = QCmdDaemon.start(Path.of("/tmp/admin.sock"), registry,
+ *             (parsed, out, err) -&gt; ((AdminCommand) parsed.value()).run(out))) {
+ *         daemon.awaitTermination();
+ *     }
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class QCmdDaemon implements Closeable {
+
+    /**
+     * JDK 17 上平台线程池的默认线程数。
+     */
+    private static final int DEFAULT_PLATFORM_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * 默认的请求读取期限。
+     */
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * 接收连接连续失败的次数上限，超过后守护进程停止。
+     */
+    static final int MAX_ACCEPT_FAILURES = 10;
+
+    /**
+     * 接收失败后的首次退避毫秒数，之后逐次翻倍，不超过 {@link #MAX_ACCEPT_BACKOFF_MILLIS}。
+     */
+    private static final long INITIAL_ACCEPT_BACKOFF_MILLIS = 10;
+
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    /**
+     * 仅属主可读写的套接字文件权限。
+     */
+    private static final Set<PosixFilePermission> OWNER_ONLY =
+            EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+
+    private final Path socketPath;
+    private final ServerSocketChannel server;
+    private final CommandRegistry registry;
+    private final DaemonCommandHandler handler;
+    private final ExecutorService executor;
+    private final Thread acceptor;
+    /** 到期关闭尚未发送完整请求的连接。 */
+    private final ScheduledThreadPoolExecutor deadlines;
+    private final long requestTimeoutNanos;
+    /** 导致接收循环停止的失败；正常关闭时为 null。 */
+    private volatile IOException acceptFailure;
+
+    private QCmdDaemon(Path socketPath, ServerSocketChannel server, CommandRegistry registry,
+                       DaemonCommandHandler handler, ExecutorService executor, Duration requestTimeout) {
+        this.socketPath = socketPath;
+        this.server = server;
+        this.registry = registry;
+        this.handler = handler;
+        this.executor = executor;
+        this.requestTimeoutNanos = requestTimeout.toNanos();
+        this.deadlines = new ScheduledThreadPoolExecutor(1, QCmdExecutors.daemonThreadFactory("qcmd-daemon-deadline"));
+        this.deadlines.setRemoveOnCancelPolicy(true);
+        this.acceptor = QCmdExecutors.daemonThreadFactory("qcmd-daemon-acceptor").newThread(this::acceptLoop);
+    }
+
+    /**
+     * 使用默认执行器启动守护进程。
+     *
+     * @param socketPath 套接字文件路径；已存在的文件会被替换
+     * @param registry   命令注册表
+     * @param handler    命令执行回调
+     * @return 已开始接收请求的守护进程
+     * @throws IOException 绑定套接字失败时抛出
+     */
+    public static QCmdDaemon start(Path socketPath, CommandRegistry registry, DaemonCommandHandler handler)
+            throws IOException {
+        return start(socketPath, registry, handler,
+                QCmdExecutors.newPerTaskExecutor("qcmd-daemon", DEFAULT_PLATFORM_THREADS));
+    }
+
+    /**
+     * 使用指定执行器启动守护进程；执行器在 {@link #close()} 时关闭。
+     *
+     * @param socketPath 套接字文件路径；已存在的文件会被替换
+     * @param registry   命令注册表
+     * @param handler    命令执行回调
+     * @param executor   处理连接的执行器
+     * @return 已开始接收请求的守护进程
+     * @throws IOException 绑定套接字失败时抛出
+     */
+    public static QCmdDaemon start(Path socketPath, CommandRegistry registry, DaemonCommandHandler handler,
+                                   ExecutorService executor) throws IOException {
+        return start(socketPath, registry, handler, executor, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * 使用指定执行器与请求读取期限启动守护进程；执行器在 {@link #close()} 时关闭。
+     *
+     * @param socketPath     套接字文件路径；已存在的文件会被替换
+     * @param registry       命令注册表
+     * @param handler        命令执行回调
+     * @param executor       处理连接的执行器
+     * @param requestTimeout 连接建立后读取完整请求的期限，必须为正
+     * @return 已开始接收请求的守护进程
+     * @throws IOException 绑定套接字失败时抛出
+     */
+    public static QCmdDaemon start(Path socketPath, CommandRegistry registry, DaemonCommandHandler handler,
+                                   ExecutorService executor, Duration requestTimeout) throws IOException {
+        Objects.requireNonNull(socketPath, "Socket path must not be null");
+        Objects.requireNonNull(registry, "Command registry must not be null");
+        Objects.requireNonNull(handler, "Daemon command handler must not be null");
+        Objects.requireNonNull(executor, "Executor must not be null");
+        Objects.requireNonNull(requestTimeout, "Request timeout must not be null");
+        if (requestTimeout.isNegative() || requestTimeout.isZero()) {
+            throw new QCmdException("请求读取期限必须为正: " + requestTimeout);
+        }
+        registry.compileAll();
+        Files.deleteIfExists(socketPath);
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            restrictToOwner(socketPath);
+        } catch (IOException e) {
+            server.close();
+            Files.deleteIfExists(socketPath);
+            throw e;
+        }
+        QCmdDaemon daemon = new QCmdDaemon(socketPath, server, registry, handler, executor, requestTimeout);
+        daemon.acceptor.start();
+        return daemon;
+    }
+
+    /**
+     * 获取套接字文件路径。
+     *
+     * @return 套接字文件路径
+     */
+    public Path socketPath() {
+        return socketPath;
+    }
+
+    /**
+     * 阻塞直到守护进程被关闭。
+     *
+     * @throws InterruptedException 等待被中断时抛出
+     * @throws QCmdException        守护进程因接收连接连续失败而停止时抛出，cause 为最后一次失败
+     */
+    public void awaitTermination() throws InterruptedException {
+        acceptor.join();
+        IOException failure = acceptFailure;
+        if (failure != null) {
+            throw new QCmdException("守护进程接收连接连续失败 " + MAX_ACCEPT_FAILURES + " 次，已停止: "
+                    + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * 停止接收新请求，关闭执行器并删除套接字文件；已在处理中的请求继续完成。
+     *
+     * @throws IOException 关闭套接字失败时抛出
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            server.close();
+        } finally {
+            executor.shutdown();
+            // 已排定的期限在关闭后仍会执行，处理中的连接照常受期限约束
+            deadlines.shutdown();
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    private void acceptLoop() {
+        int failures = 0;
+        long backoff = INITIAL_ACCEPT_BACKOFF_MILLIS;
+        while (server.isOpen()) {
+            SocketChannel channel;
+            try {
+                channel = server.accept();
+                failures = 0;
+                backoff = INITIAL_ACCEPT_BACKOFF_MILLIS;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (++failures >= MAX_ACCEPT_FAILURES || !sleep(backoff)) {
+                    stop(e);
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_ACCEPT_BACKOFF_MILLIS);
+                continue;
+            }
+            try {
+                executor.execute(() -> serve(channel));
+            } catch (RuntimeException e) {
+                // 执行器已关闭，拒绝新连接
+                closeQuietly(channel);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 退避等待；被中断时返回 false。
+     */
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 记录失败原因并关闭守护进程。
+     */
+    private void stop(IOException failure) {
+        acceptFailure = failure;
+        try {
+            close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private static void restrictToOwner(Path socketPath) throws IOException {
+        if (Files.getFileAttributeView(socketPath, PosixFileAttributeView.class) != null) {
+            Files.setPosixFilePermissions(socketPath, OWNER_ONLY);
+        }
+    }
+
+    /**
+     * 处理单个连接上的一次请求。
+     */
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            ScheduledFuture<?> deadline = scheduleDeadline(channel);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            DataOutputStream frames = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            int exitCode;
+            try (PrintStream out = framePrintStream(frames, DaemonProtocol.FRAME_STDOUT);
+                 PrintStream err = framePrintStream(frames, DaemonProtocol.FRAME_STDERR)) {
+                exitCode = execute(in, out, err, deadline);
+            }
+            DaemonProtocol.writeExit(frames, exitCode);
+        } catch (IOException e) {
+            // 客户端提前断开，没有可回传的对象
+        }
+    }
+
+    /**
+     * 排定到期关闭连接；读取被关闭中断时抛出的 IOException 与客户端断开同样处理。
+     */
+    private ScheduledFuture<?> scheduleDeadline(SocketChannel channel) {
+        try {
+            return deadlines.schedule(() -> closeQuietly(channel), requestTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (RuntimeException e) {
+            // 守护进程已关闭，不再等待客户端
+            closeQuietly(channel);
+            return null;
+        }
+    }
+
+    private int execute(InputStream in, PrintStream out, PrintStream err, ScheduledFuture<?> deadline)
+            throws IOException {
+        String[] args;
+        try {
+            args = DaemonProtocol.readRequest(in);
+        } catch (QCmdException e) {
+            err.println(e.getMessage());
+            return DaemonProtocol.EXIT_USAGE;
+        } finally {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+        }
+        try {
+            ParsedCommand<?> parsed = registry.dispatch(args);
+            if (parsed.shouldExit()) {
+                out.println(parsed.outputText());
+                return 0;
+            }
+            return handler.execute(parsed, out, err);
+        } catch (QCmdException e) {
+            err.println(e.getMessage());
+            return DaemonProtocol.EXIT_USAGE;
+        } catch (Exception e) {
+            err.println("命令执行失败: " + e);
+            return DaemonProtocol.EXIT_FAILURE;
+        }
+    }
+
+    private static PrintStream framePrintStream(DataOutputStream frames, byte type) {
+        return new PrintStream(new FrameOutputStream(frames, type), true, StandardCharsets.UTF_8);
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 关闭失败不影响守护进程
+        }
+    }
+
+    /**
+     * 把写入内容按帧回传的输出流；stdout 与 stderr 共享底层连接，写帧时以连接为锁。
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream frames;
+        private final byte type;
+        private final byte[] buffer = new byte[8192];
+        private int count;
+
+        private FrameOutputStream(DataOutputStream frames, byte type) {
+            this.frames = frames;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length >= buffer.length) {
+                flushBuffer();
+                writeFrame(bytes, offset, length);
+                return;
+            }
+            if (length > buffer.length - count) {
+                flushBuffer();
+            }
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+        }
+
+        /**
+         * {@link PrintStream#close()} 不保证先刷新底层流，关闭时显式回传缓冲中尚未成帧的输出。
+         */
+        @Override
+        public void close() throws IOException {
+            flushBuffer();
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                writeFrame(buffer, 0, count);
+                count = 0;
+            }
+        }
+
+        private void writeFrame(byte[] bytes, int offset, int length) throws IOException {
+            synchronized (frames) {
+                // 超长输出拆成多帧，保证客户端单帧长度上限
+                for (int written = 0; written < length; written += DaemonProtocol.MAX_FRAME_BYTES) {
+                    int chunk = Math.min(DaemonProtocol.MAX_FRAME_BYTES, length - written);
+                    DaemonProtocol.writeFrame(frames, type, bytes, offset + written, chunk);
+                }
+                frames.flush();
+            }
+        }
+    }
+}
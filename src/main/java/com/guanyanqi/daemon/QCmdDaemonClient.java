@@ -0,0 +1,82 @@
+package com.guanyanqi.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * {@link QCmdDaemon} 的参考客户端。
+ * <p>
+ * 协议足够简单，shell 包装脚本或原生小程序都可以直接实现；本类供 JVM 内调用与测试使用。
+ * </p>
+ *
+ * <pre>
+ *     java -cp app.jar com.guanyanqi.daemon.QCmdDaemonClient /tmp/admin.sock deploy -e prod
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class QCmdDaemonClient {
+
+    /**
+     * 私有构造函数以防止静态工具类被误实例化。
+     */
+    private QCmdDaemonClient() {
+    }
+
+    /**
+     * 命令行入口：首个参数为套接字路径，其余参数原样转发，进程以守护进程回传的退出码退出。
+     *
+     * @param args 套接字路径与命令行参数
+     * @throws IOException 连接守护进程失败时抛出
+     */
+    public static void main(String[] args) throws IOException {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * 执行命令行入口逻辑。
+     *
+     * @param args 套接字路径与命令行参数
+     * @param out  标准输出
+     * @param err  标准错误
+     * @return 退出码
+     * @throws IOException 连接守护进程失败时抛出
+     */
+    static int run(String[] args, PrintStream out, PrintStream err) throws IOException {
+        if (args.length < 2) {
+            err.println("用法: QCmdDaemonClient <socket> <command> [args...]");
+            return DaemonProtocol.EXIT_USAGE;
+        }
+        return call(Path.of(args[0]), Arrays.copyOfRange(args, 1, args.length), out, err);
+    }
+
+    /**
+     * 向守护进程发送一次请求并转发其输出。
+     *
+     * @param socketPath 守护进程套接字路径
+     * @param args       命令行参数，首个元素为命令名
+     * @param out        标准输出帧的目标
+     * @param err        标准错误帧的目标
+     * @return 守护进程回传的退出码
+     * @throws IOException 连接或通信失败时抛出
+     */
+    public static int call(Path socketPath, String[] args, OutputStream out, OutputStream err) throws IOException {
+        Objects.requireNonNull(socketPath, "Socket path must not be null");
+        Objects.requireNonNull(args, "Arguments must not be null");
+        try (SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(socketPath));
+            DaemonProtocol.writeRequest(new BufferedOutputStream(Channels.newOutputStream(channel)), args);
+            return DaemonProtocol.readResponse(new BufferedInputStream(Channels.newInputStream(channel)), out, err);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.guanyanqi.exception;
+
+import java.util.List;
+
+/**
+ * 长选项缩写有歧义异常。
+ * 当命令允许缩写，而输入的前缀同时匹配多个已声明选项时抛出。
+ *
+ * @author guanyanqi
+ */
+public class AmbiguousOptionException extends QCmdException {
+
+    private final String optionName;
+    private final List<String> candidates;
+
+    /**
+     * 构造 AmbiguousOptionException。
+     *
+     * @param commandName 命令名称
+     * @param optionName  输入的选项前缀
+     * @param candidates  匹配该前缀的选项名
+     */
+    public AmbiguousOptionException(String commandName, String optionName, List<String> candidates) {
+        super("命令 [" + commandName + "] 参数选项 [" + optionName + "] 有歧义，可能是: " + candidates);
+        this.optionName = optionName;
+        this.candidates = List.copyOf(candidates);
+    }
+
+    /**
+     * 获取输入的选项前缀。
+     *
+     * @return 选项前缀
+     */
+    public String getOptionName() {
+        return optionName;
+    }
+
+    /**
+     * 获取匹配该前缀的选项名。
+     *
+     * @return 不可变的候选选项名列表
+     */
+    public List<String> getCandidates() {
+        return candidates;
+    }
+}
@@ -0,0 +1,33 @@
+package com.guanyanqi.exception;
+
+/**
+ * 批量解析异常。
+ * 当批量解析中某条命令行解析失败时抛出，原始异常作为 cause 保留。
+ *
+ * @author guanyanqi
+ */
+public class BatchParseException extends QCmdException {
+
+    /**
+     * 失败命令行在输入中的下标
+     */
+    private final int index;
+
+    /**
+     * 构造 BatchParseException。
+     *
+     * @param index 失败命令行在输入中的下标
+     * @param cause 原始解析异常
+     */
+    public BatchParseException(int index, QCmdException cause) {
+        super("第 " + index + " 条命令行解析失败: " + cause.getMessage(), cause);
+        this.index = index;
+    }
+
+    /**
+     * 获取失败命令行在输入中的下标。
+     *
+     * @return 从 0 开始的下标
+     */
+    public int getIndex() { return index; }
+}
@@ -0,0 +1,85 @@
+package com.guanyanqi.exception;
+
+import com.guanyanqi.annotation.OptionGroup;
+
+import java.util.List;
+
+/**
+ * 选项组约束违反异常。
+ * 当命令行中提供的选项不满足 {@link com.guanyanqi.annotation.Cmd#groups()} 声明的跨选项约束时抛出。
+ *
+ * @author guanyanqi
+ */
+public class OptionGroupViolationException extends QCmdException {
+
+    /**
+     * 违反的约束类型
+     */
+    private final OptionGroup.Kind kind;
+
+    /**
+     * 选项组中声明的选项名称
+     */
+    private final List<String> options;
+
+    /**
+     * 组内实际提供的选项名称
+     */
+    private final List<String> presentOptions;
+
+    /**
+     * 构造 OptionGroupViolationException。
+     *
+     * @param commandName    主命令名称
+     * @param kind           违反的约束类型
+     * @param options        选项组中声明的选项名称
+     * @param presentOptions 组内实际提供的选项名称
+     */
+    public OptionGroupViolationException(String commandName, OptionGroup.Kind kind, List<String> options,
+                                         List<String> presentOptions) {
+        super("命令 [" + commandName + "] " + describe(kind, options, presentOptions));
+        this.kind = kind;
+        this.options = List.copyOf(options);
+        this.presentOptions = List.copyOf(presentOptions);
+    }
+
+    private static String describe(OptionGroup.Kind kind, List<String> options, List<String> present) {
+        String group = String.join(" | ", options);
+        return switch (kind) {
+            case MUTUALLY_EXCLUSIVE -> "参数 " + group + " 互斥，实际同时提供了: " + String.join(", ", present);
+            case EXACTLY_ONE -> "参数 " + group + " 必须且只能提供一个，实际提供了 " + present.size() + " 个"
+                    + (present.isEmpty() ? "" : ": " + String.join(", ", present));
+            case AT_LEAST_ONE -> "参数 " + group + " 至少需要提供一个";
+            case ALL_OR_NONE -> "参数 " + group + " 必须同时提供或同时省略，实际只提供了: " + String.join(", ", present);
+            case REQUIRES -> "参数 [" + options.get(0) + "] 需要同时提供: " + String.join(", ",
+                    options.subList(1, options.size()).stream().filter(name -> !present.contains(name)).toList());
+        };
+    }
+
+    /**
+     * 获取违反的约束类型。
+     *
+     * @return 约束类型
+     */
+    public OptionGroup.Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * 获取选项组中声明的选项名称。
+     *
+     * @return 选项名称列表
+     */
+    public List<String> getOptions() {
+        return options;
+    }
+
+    /**
+     * 获取组内实际提供的选项名称。
+     *
+     * @return 选项名称列表
+     */
+    public List<String> getPresentOptions() {
+        return presentOptions;
+    }
+}
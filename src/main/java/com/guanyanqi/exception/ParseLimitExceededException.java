@@ -0,0 +1,55 @@
+package com.guanyanqi.exception;
+
+/**
+ * 解析资源超限异常。
+ * 当命令行超出配置的解析上限（token 数、字符总数、值长度、位置参数个数或集合元素个数）时抛出。
+ *
+ * @author guanyanqi
+ */
+public class ParseLimitExceededException extends QCmdException {
+
+    private final String limitName;
+    private final long limit;
+    private final long actual;
+
+    /**
+     * 构造 ParseLimitExceededException。
+     *
+     * @param limitName 超出的上限名称，如 {@code maxTokens}
+     * @param limit     配置的上限
+     * @param actual    检测到超限时的实际值；检查在越界处即停止，因此可能小于输入的真实总量
+     */
+    public ParseLimitExceededException(String limitName, long limit, long actual) {
+        super("命令行超出解析上限 [" + limitName + "]: 上限 " + limit + "，实际至少 " + actual);
+        this.limitName = limitName;
+        this.limit = limit;
+        this.actual = actual;
+    }
+
+    /**
+     * 获取超出的上限名称。
+     *
+     * @return 上限名称
+     */
+    public String getLimitName() {
+        return limitName;
+    }
+
+    /**
+     * 获取配置的上限。
+     *
+     * @return 上限
+     */
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * 获取检测到超限时的实际值。
+     *
+     * @return 实际值
+     */
+    public long getActual() {
+        return actual;
+    }
+}
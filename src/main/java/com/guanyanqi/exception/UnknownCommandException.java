@@ -0,0 +1,68 @@
+package com.guanyanqi.exception;
+
+import java.util.List;
+
+/**
+ * 未知命令异常。
+ * 当命令行首个参数未在命令注册表中登记任何命令时抛出。
+ *
+ * @author guanyanqi
+ */
+public class UnknownCommandException extends QCmdException {
+
+    /**
+     * 未知的命令名称
+     */
+    private final String commandName;
+
+    /**
+     * 与未知命令最接近的已登记命令名
+     */
+    private final List<String> suggestions;
+
+    /**
+     * 构造 UnknownCommandException。
+     *
+     * @param commandName 未知命令名称
+     */
+    public UnknownCommandException(String commandName) {
+        this(commandName, List.of());
+    }
+
+    /**
+     * 构造带候选建议的 UnknownCommandException。
+     *
+     * @param commandName 未知命令名称
+     * @param suggestions 最接近的已登记命令名，可为空列表
+     */
+    public UnknownCommandException(String commandName, List<String> suggestions) {
+        this("未知命令 [" + commandName + "]", commandName, suggestions);
+    }
+
+    /**
+     * 以自定义描述构造带候选建议的 UnknownCommandException，候选提示追加在描述之后。
+     *
+     * @param message     异常描述
+     * @param commandName 未知命令名称
+     * @param suggestions 最接近的已登记命令名，可为空列表
+     */
+    public UnknownCommandException(String message, String commandName, List<String> suggestions) {
+        super(message + UnknownOptionException.hint(suggestions));
+        this.commandName = commandName;
+        this.suggestions = List.copyOf(suggestions);
+    }
+
+    /**
+     * 获取未知的命令名称。
+     *
+     * @return 命令名称
+     */
+    public String getCommandName() { return commandName; }
+
+    /**
+     * 获取与未知命令最接近的已登记命令名。
+     *
+     * @return 不可变的候选列表；没有足够接近的命令时为空
+     */
+    public List<String> getSuggestions() { return suggestions; }
+}
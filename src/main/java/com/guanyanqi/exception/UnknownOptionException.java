@@ -1,5 +1,7 @@
 package com.guanyanqi.exception;
 
+import java.util.List;
+
 /**
  * 不支持的未知命令行参数选项异常。
  * 当命令行输入的参数选项未在目标接收类中声明时抛出。
@@ -13,6 +15,11 @@ public class UnknownOptionException extends QCmdException {
      */
     private final String optionName;
 
+    /**
+     * 与未知选项最接近的已声明选项名
+     */
+    private final List<String> suggestions;
+
     /**
      * 构造 UnknownOptionException。
      *
@@ -20,8 +27,20 @@ public class UnknownOptionException extends QCmdException {
      * @param optionName  未知参数选项名称
      */
     public UnknownOptionException(String commandName, String optionName) {
-        super("命令 [" + commandName + "] 不支持参数选项 [" + optionName + "]");
+        this(commandName, optionName, List.of());
+    }
+
+    /**
+     * 构造带候选建议的 UnknownOptionException。
+     *
+     * @param commandName 命令名称
+     * @param optionName  未知参数选项名称
+     * @param suggestions 最接近的已声明选项名，可为空列表
+     */
+    public UnknownOptionException(String commandName, String optionName, List<String> suggestions) {
+        super("命令 [" + commandName + "] 不支持参数选项 [" + optionName + "]" + hint(suggestions));
         this.optionName = optionName;
+        this.suggestions = List.copyOf(suggestions);
     }
 
     /**
@@ -30,4 +49,15 @@ public class UnknownOptionException extends QCmdException {
      * @return 参数选项名称
      */
     public String getOptionName() { return optionName; }
+
+    /**
+     * 获取与未知选项最接近的已声明选项名。
+     *
+     * @return 不可变的候选列表；没有足够接近的选项时为空
+     */
+    public List<String> getSuggestions() { return suggestions; }
+
+    static String hint(List<String> suggestions) {
+        return suggestions.isEmpty() ? "" : "，是否想输入: " + String.join(" / ", suggestions);
+    }
 }
@@ -0,0 +1,375 @@
+package com.guanyanqi.exec;
+
+import com.guanyanqi.CommandRegistry;
+import com.guanyanqi.ParsedCommand;
+import com.guanyanqi.QCmdParser;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.utils.QCmdExecutors;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 命令执行引擎：解析命令行并直接执行实现了 {@link Runnable} 或 {@link Callable Callable&lt;Integer&gt;} 的命令。
+ * <p>
+ * 每次提交在执行器上作为一个独立任务运行：默认执行器在 JDK 21+ 上为每个命令一个虚拟线程，
+ * JDK 17 上为有界的平台守护线程池。解析复用注册表中已编译的解析器。
+ * </p>
+ *
+ * <p>可按命令类设置并发上限。达到上限的执行不会占住线程等待，而是进入该命令的等待队列，
+ * 由先结束的执行在完成时重新提交，因此平台线程池也不会因排队而被耗尽。
+ * 别名与主命令名共用同一个上限与统计。</p>
+ *
+ * <pre>
+ *     try (CommandExecutor executor = CommandExecutor.builder(registry)
+ *             .concurrencyLimit("deploy", 4)
+ *             .build()) {
+ *         ExecutionResult result = executor.execute("deploy", "-e", "prod");
+ *         System.exit(result.exitCode());
+ *     }
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class CommandExecutor implements Closeable {
+
+    /**
+     * JDK 17 上平台线程池的默认线程数。
+     */
+    private static final int DEFAULT_PLATFORM_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final CommandRegistry registry;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int defaultLimit;
+    /** 按解析器（即命令类）区分的并发控制与统计；解析器在注册表中按命令类唯一。 */
+    private final Map<QCmdParser<?>, CommandSlot> slots = new ConcurrentHashMap<>();
+
+    private CommandExecutor(Builder builder) {
+        this.registry = builder.registry;
+        this.defaultLimit = builder.defaultLimit;
+        for (Map.Entry<String, Integer> limit : builder.limits.entrySet()) {
+            QCmdParser<?> parser = registry.parser(limit.getKey());
+            CommandSlot previous = slots.put(parser, new CommandSlot(limit.getValue()));
+            if (previous != null && previous.limit != limit.getValue()) {
+                throw new QCmdException("命令 [" + limit.getKey() + "] 与其别名设置了不同的并发上限");
+            }
+        }
+        // 配置校验通过后再创建执行器，避免构建失败时泄漏线程
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor
+                ? QCmdExecutors.newPerTaskExecutor("qcmd-exec", builder.platformThreads)
+                : builder.executor;
+    }
+
+    /**
+     * 创建执行引擎构建器。
+     *
+     * @param registry 命令注册表
+     * @return 构建器
+     */
+    public static Builder builder(CommandRegistry registry) {
+        return new Builder(Objects.requireNonNull(registry, "Command registry must not be null"));
+    }
+
+    /**
+     * 提交一次命令执行。解析失败与命令异常都体现在结果的退出码中，返回的 future 不会因此异常完成。
+     *
+     * @param args 命令行参数，首个元素为命令名
+     * @return 执行结果的 future；执行器已关闭时以 {@link QCmdException} 异常完成
+     */
+    public CompletableFuture<ExecutionResult> submit(String... args) {
+        Objects.requireNonNull(args, "Arguments must not be null");
+        CompletableFuture<ExecutionResult> future = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+        dispatch(future, () -> start(args, submittedAt, future));
+        return future;
+    }
+
+    /**
+     * 执行命令并等待结束。
+     *
+     * @param args 命令行参数，首个元素为命令名
+     * @return 执行结果
+     */
+    public ExecutionResult execute(String... args) {
+        return submit(args).join();
+    }
+
+    /**
+     * 获取命令的执行统计。
+     *
+     * @param commandName 命令名或别名
+     * @return 统计快照；尚未执行过时各计数为 0
+     */
+    public CommandStats stats(String commandName) {
+        CommandSlot slot = slots.get(registry.parser(commandName));
+        return slot != null ? slot.snapshot() : new CommandStats(0, 0, 0, 0, 0, 0, defaultLimit);
+    }
+
+    /**
+     * 关闭引擎；只关闭内部创建的执行器，外部传入的执行器由调用方管理。
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private void start(String[] args, long submittedAt, CompletableFuture<ExecutionResult> future) {
+        String commandName = args.length > 0 ? args[0] : "";
+        QCmdParser<?> parser;
+        ParsedCommand<?> parsed;
+        try {
+            parser = registry.parser(commandName);
+            parsed = parser.parse(args);
+        } catch (RuntimeException e) {
+            int exitCode = e instanceof QCmdException ? ExecutionResult.EXIT_USAGE : ExecutionResult.EXIT_FAILURE;
+            future.complete(new ExecutionResult(commandName, null, exitCode, e, System.nanoTime() - submittedAt, 0));
+            return;
+        } catch (Error e) {
+            // Error 不转成退出码，但必须完成 future，否则 execute() 的调用方永远等待
+            future.completeExceptionally(e);
+            throw e;
+        }
+        if (parsed.shouldExit()) {
+            future.complete(new ExecutionResult(commandName, parsed, ExecutionResult.EXIT_OK, null,
+                    System.nanoTime() - submittedAt, 0));
+            return;
+        }
+        CommandSlot slot = slots.computeIfAbsent(parser, key -> new CommandSlot(defaultLimit));
+        Invocation invocation = new Invocation(commandName, parsed, submittedAt, future, slot);
+        if (slot.tryStart(invocation)) {
+            invocation.run();
+        }
+    }
+
+    private boolean dispatch(CompletableFuture<ExecutionResult> future, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new QCmdException("命令执行器已关闭", e));
+            return false;
+        }
+    }
+
+    private static int invoke(Object command) throws Exception {
+        if (command instanceof Callable<?> callable) {
+            Object code = callable.call();
+            if (code instanceof Integer exitCode) {
+                return exitCode;
+            }
+            // 返回 null 或非 Integer 说明命令没有给出退出码，不能当作成功
+            throw new QCmdException("命令类 [" + command.getClass().getName() + "] 的 call() 应返回 Integer 退出码，实际返回 "
+                    + (code == null ? "null" : code.getClass().getName()));
+        }
+        if (command instanceof Runnable runnable) {
+            runnable.run();
+            return ExecutionResult.EXIT_OK;
+        }
+        throw new QCmdException("命令类 [" + command.getClass().getName() + "] 未实现 Runnable 或 Callable");
+    }
+
+    /**
+     * 一次已解析、等待或正在执行的命令。
+     */
+    private final class Invocation implements Runnable {
+        private final String commandName;
+        private final ParsedCommand<?> parsed;
+        private final long submittedAt;
+        private final CompletableFuture<ExecutionResult> future;
+        private final CommandSlot slot;
+
+        private Invocation(String commandName, ParsedCommand<?> parsed, long submittedAt,
+                           CompletableFuture<ExecutionResult> future, CommandSlot slot) {
+            this.commandName = commandName;
+            this.parsed = parsed;
+            this.submittedAt = submittedAt;
+            this.future = future;
+            this.slot = slot;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            int exitCode;
+            Throwable failure = null;
+            try {
+                exitCode = invoke(parsed.value());
+            } catch (Exception e) {
+                exitCode = ExecutionResult.EXIT_FAILURE;
+                failure = e;
+            } catch (Error e) {
+                // 命令抛出 Error 时同样释放名额并完成 future，再交给工作线程的未捕获异常处理
+                release(System.nanoTime() - startedAt, true);
+                future.completeExceptionally(e);
+                throw e;
+            }
+            long runNanos = System.nanoTime() - startedAt;
+            release(runNanos, exitCode != ExecutionResult.EXIT_OK);
+            future.complete(new ExecutionResult(commandName, parsed, exitCode, failure,
+                    startedAt - submittedAt, runNanos));
+        }
+
+        /**
+         * 记录耗时并释放名额；名额转交的等待者提交失败时继续释放，避免名额泄漏。
+         */
+        private void release(long runNanos, boolean failed) {
+            slot.record(runNanos, failed);
+            Invocation next = slot.finish();
+            while (next != null && !dispatch(next.future, next)) {
+                next = slot.finish();
+            }
+        }
+    }
+
+    /**
+     * 单个命令类的并发上限、等待队列与耗时统计。
+     */
+    private static final class CommandSlot {
+        private final int limit;
+        private final ArrayDeque<Invocation> waiting = new ArrayDeque<>();
+        private int running;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private CommandSlot(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * 尝试占用一个并发名额；名额已满时放入等待队列并返回 false。
+         */
+        private synchronized boolean tryStart(Invocation invocation) {
+            if (running < limit) {
+                running++;
+                return true;
+            }
+            waiting.add(invocation);
+            return false;
+        }
+
+        /**
+         * 释放名额；有等待者时名额直接转交给队首并返回它。
+         */
+        private synchronized Invocation finish() {
+            Invocation next = waiting.poll();
+            if (next == null) {
+                running--;
+            }
+            return next;
+        }
+
+        private void record(long nanos, boolean failed) {
+            executions.increment();
+            if (failed) {
+                failures.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private CommandStats snapshot() {
+            int currentRunning;
+            int currentWaiting;
+            synchronized (this) {
+                currentRunning = running;
+                currentWaiting = waiting.size();
+            }
+            return new CommandStats(executions.sum(), failures.sum(), totalNanos.sum(), maxNanos.get(),
+                    currentRunning, currentWaiting, limit);
+        }
+    }
+
+    /**
+     * {@link CommandExecutor} 构建器。
+     */
+    public static final class Builder {
+        private final CommandRegistry registry;
+        private final Map<String, Integer> limits = new HashMap<>();
+        private ExecutorService executor;
+        private int platformThreads = DEFAULT_PLATFORM_THREADS;
+        private int defaultLimit = Integer.MAX_VALUE;
+
+        private Builder(CommandRegistry registry) {
+            this.registry = registry;
+        }
+
+        /**
+         * 使用外部执行器；引擎关闭时不会关闭它。
+         *
+         * @param executor 执行器
+         * @return 当前构建器
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = Objects.requireNonNull(executor, "Executor must not be null");
+            return this;
+        }
+
+        /**
+         * 设置 JDK 17 上默认平台线程池的线程数；在 JDK 21+ 上使用虚拟线程时不生效。
+         *
+         * @param threads 线程数，至少为 1
+         * @return 当前构建器
+         */
+        public Builder platformThreads(int threads) {
+            this.platformThreads = positive(threads, "平台线程数");
+            return this;
+        }
+
+        /**
+         * 设置命令的并发上限，别名共享同一上限。
+         *
+         * @param commandName 命令名或别名
+         * @param limit       同时执行的最大个数，至少为 1
+         * @return 当前构建器
+         */
+        public Builder concurrencyLimit(String commandName, int limit) {
+            Objects.requireNonNull(commandName, "Command name must not be null");
+            limits.put(commandName, positive(limit, "并发上限"));
+            return this;
+        }
+
+        /**
+         * 设置未单独配置的命令的并发上限，默认不限制。
+         *
+         * @param limit 同时执行的最大个数，至少为 1
+         * @return 当前构建器
+         */
+        public Builder defaultConcurrencyLimit(int limit) {
+            this.defaultLimit = positive(limit, "并发上限");
+            return this;
+        }
+
+        /**
+         * 构建执行引擎；设置了并发上限的命令会在此时编译。
+         *
+         * @return 执行引擎
+         * @throws com.guanyanqi.exception.UnknownCommandException 并发上限引用了未登记的命令时抛出
+         */
+        public CommandExecutor build() {
+            return new CommandExecutor(this);
+        }
+
+        private static int positive(int value, String label) {
+            if (value < 1) {
+                throw new QCmdException(label + "必须大于 0: " + value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.guanyanqi.exec;
+
+/**
+ * 单个命令类的执行统计快照。
+ *
+ * @param executions  已结束的执行次数
+ * @param failures    其中退出码非 0 的次数
+ * @param totalNanos  命令执行总耗时
+ * @param maxNanos    单次执行最大耗时
+ * @param running     当前正在执行的个数
+ * @param waiting     当前因并发限制排队的个数
+ * @param limit       并发上限；不限制时为 {@link Integer#MAX_VALUE}
+ * @author guanyanqi
+ */
+public record CommandStats(long executions, long failures, long totalNanos, long maxNanos,
+                           int running, int waiting, int limit) {
+
+    /**
+     * 平均单次执行耗时。
+     *
+     * @return 平均纳秒数；尚无执行时为 0
+     */
+    public long averageNanos() {
+        return executions == 0 ? 0 : totalNanos / executions;
+    }
+}
@@ -0,0 +1,42 @@
+package com.guanyanqi.exec;
+
+import com.guanyanqi.ParsedCommand;
+
+/**
+ * 一次命令执行的结果。
+ *
+ * @param commandName 调用时使用的命令名（argv 首个元素），argv 为空时为空字符串
+ * @param parsed      解析结果；解析失败时为 null
+ * @param exitCode    退出码：0 成功，{@link #EXIT_FAILURE} 命令执行失败，{@link #EXIT_USAGE} 解析失败
+ * @param failure     失败原因；成功时为 null
+ * @param queuedNanos 从提交到命令开始执行的耗时（含解析与并发限制下的排队）
+ * @param runNanos    命令本身的执行耗时；未执行时为 0
+ * @author guanyanqi
+ */
+public record ExecutionResult(String commandName, ParsedCommand<?> parsed, int exitCode, Throwable failure,
+                              long queuedNanos, long runNanos) {
+
+    /**
+     * 命令执行成功的退出码。
+     */
+    public static final int EXIT_OK = 0;
+
+    /**
+     * 命令业务抛出异常时的退出码。
+     */
+    public static final int EXIT_FAILURE = 1;
+
+    /**
+     * 命令行解析或校验失败时的退出码。
+     */
+    public static final int EXIT_USAGE = 2;
+
+    /**
+     * 命令是否成功结束。
+     *
+     * @return 退出码为 0 返回 true
+     */
+    public boolean isSuccess() {
+        return exitCode == EXIT_OK;
+    }
+}
@@ -0,0 +1,365 @@
+package com.guanyanqi.flow;
+
+import com.guanyanqi.ParsedCommand;
+import com.guanyanqi.QCmdParser;
+import com.guanyanqi.core.parser.CommandLineTokenizer;
+import com.guanyanqi.exception.QCmdException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 把命令行解析接入 {@link java.util.concurrent.Flow} 管道的处理器。
+ * <p>
+ * 所有输入共用一个预编译的 {@link QCmdParser}。处理器只向上游请求下游已经请求、且未超出并行度的元素个数，
+ * 因此在途元素（已请求未发出）不超过 {@code min(下游需求, 并行度)}，没有无界队列。
+ * 默认并行度为 1，解析直接在上游调用 {@code onNext} 的线程上完成，不切换线程；
+ * 通过 {@link #withParallelism(int, Executor)} 可在执行器上并发解析，结果仍按输入顺序发出。
+ * </p>
+ *
+ * <p>解析失败默认以 {@code onError} 终止下游并取消上游；
+ * 设置 {@link #withErrorHandler(BiConsumer)} 后，失败元素交给回调处理并被跳过，流继续。
+ * 自定义切分函数、处理器或错误回调抛出的其他异常不属于解析失败，总是按序以 {@code onError} 终止下游。</p>
+ *
+ * <pre>
+ *     ParseProcessor&lt;String, DeployCmd&gt; processor = ParseProcessor.ofLines(QCmdParser.compile(DeployCmd.class))
+ *         .withParallelism(4, executor);
+ *     publisher.subscribe(processor);
+ *     processor.subscribe(subscriber);
+ * </pre>
+ *
+ * <p>每个实例只能订阅一个上游与一个下游，{@code withX} 方法返回新的未订阅实例。</p>
+ *
+ * @param <I> 输入元素类型
+ * @param <T> 目标命令类类型
+ * @author guanyanqi
+ */
+public final class ParseProcessor<I, T> implements Flow.Processor<I, ParsedCommand<T>> {
+
+    private final QCmdParser<T> parser;
+    private final Function<? super I, String[]> tokenizer;
+    private final int parallelism;
+    private final Executor executor;
+    private final BiConsumer<? super I, ? super QCmdException> errorHandler;
+
+    private final Object lock = new Object();
+    /** 已完成解析、等待按序发出的结果，键为输入序号；大小不超过并行度。 */
+    private final Map<Long, Outcome<T>> completed = new HashMap<>();
+    private Flow.Subscription upstream;
+    private Flow.Subscriber<? super ParsedCommand<T>> downstream;
+    /** 下游已请求但尚未发出的元素数。 */
+    private long demand;
+    /** 已向上游请求但尚未发出（或跳过）的元素数。 */
+    private long pending;
+    private long received;
+    private long nextEmit;
+    private boolean upstreamDone;
+    private Throwable upstreamError;
+    private boolean cancelled;
+    private boolean terminated;
+    private boolean draining;
+    private boolean missed;
+
+    private ParseProcessor(QCmdParser<T> parser, Function<? super I, String[]> tokenizer, int parallelism,
+                           Executor executor, BiConsumer<? super I, ? super QCmdException> errorHandler) {
+        this.parser = parser;
+        this.tokenizer = tokenizer;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * 创建以 argv 数组为输入的处理器。
+     *
+     * @param <T>    目标命令类类型
+     * @param parser 预编译解析器
+     * @return 处理器
+     */
+    public static <T> ParseProcessor<String[], T> of(QCmdParser<T> parser) {
+        Objects.requireNonNull(parser, "Parser must not be null");
+        return new ParseProcessor<>(parser, Function.identity(), 1, Runnable::run, null);
+    }
+
+    /**
+     * 创建以单行命令文本为输入的处理器，文本按 {@link CommandLineTokenizer} 规则切分。
+     *
+     * @param <T>    目标命令类类型
+     * @param parser 预编译解析器
+     * @return 处理器
+     */
+    public static <T> ParseProcessor<String, T> ofLines(QCmdParser<T> parser) {
+        Objects.requireNonNull(parser, "Parser must not be null");
+        return new ParseProcessor<>(parser, CommandLineTokenizer::tokenize, 1, Runnable::run, null);
+    }
+
+    /**
+     * 返回在执行器上并发解析的新处理器。
+     *
+     * @param parallelism 最大在途元素数，至少为 1
+     * @param executor    执行解析的执行器
+     * @return 新的处理器
+     */
+    public ParseProcessor<I, T> withParallelism(int parallelism, Executor executor) {
+        if (parallelism < 1) {
+            throw new QCmdException("并行度必须大于 0: " + parallelism);
+        }
+        Objects.requireNonNull(executor, "Executor must not be null");
+        return new ParseProcessor<>(parser, tokenizer, parallelism, executor, errorHandler);
+    }
+
+    /**
+     * 返回跳过失败元素的新处理器；回调在执行解析的线程上调用。
+     *
+     * @param errorHandler 失败元素回调
+     * @return 新的处理器
+     */
+    public ParseProcessor<I, T> withErrorHandler(BiConsumer<? super I, ? super QCmdException> errorHandler) {
+        Objects.requireNonNull(errorHandler, "Error handler must not be null");
+        return new ParseProcessor<>(parser, tokenizer, parallelism, executor, errorHandler);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ParsedCommand<T>> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber must not be null");
+        boolean accepted;
+        synchronized (lock) {
+            accepted = downstream == null;
+            if (accepted) {
+                downstream = subscriber;
+            }
+        }
+        if (!accepted) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("ParseProcessor 只支持一个下游订阅者"));
+            return;
+        }
+        subscriber.onSubscribe(new DownstreamSubscription());
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "Subscription must not be null");
+        boolean accepted;
+        synchronized (lock) {
+            accepted = upstream == null && !cancelled;
+            if (accepted) {
+                upstream = subscription;
+            }
+        }
+        if (!accepted) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(I item) {
+        Objects.requireNonNull(item, "Item must not be null");
+        long sequence;
+        synchronized (lock) {
+            if (cancelled || terminated) {
+                return;
+            }
+            sequence = received++;
+        }
+        try {
+            executor.execute(() -> process(sequence, item));
+        } catch (RuntimeException e) {
+            complete(sequence, Outcome.failed(new QCmdException("解析任务提交失败", e)));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "Throwable must not be null");
+        synchronized (lock) {
+            upstreamDone = true;
+            upstreamError = throwable;
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (lock) {
+            upstreamDone = true;
+        }
+        drain();
+    }
+
+    /**
+     * 解析一个元素并登记结果；任何异常都必须登记，否则该序号之后的结果永远无法按序发出。
+     */
+    private void process(long sequence, I item) {
+        Outcome<T> outcome;
+        try {
+            outcome = parse(item);
+        } catch (RuntimeException e) {
+            outcome = Outcome.failed(e);
+        } catch (Error e) {
+            complete(sequence, Outcome.failed(e));
+            throw e;
+        }
+        complete(sequence, outcome);
+    }
+
+    private Outcome<T> parse(I item) {
+        try {
+            return Outcome.parsed(parser.parse(tokenizer.apply(item)));
+        } catch (QCmdException e) {
+            if (errorHandler == null) {
+                return Outcome.failed(e);
+            }
+            errorHandler.accept(item, e);
+            return Outcome.skipped();
+        }
+    }
+
+    private void complete(long sequence, Outcome<T> outcome) {
+        synchronized (lock) {
+            completed.put(sequence, outcome);
+        }
+        drain();
+    }
+
+    /**
+     * 串行化全部下游信号与上游请求：同一时刻只有一个线程执行循环，其余线程只标记 missed，
+     * 因而同步发布者在 request 内回调 onNext 时不会递归。
+     */
+    private void drain() {
+        synchronized (lock) {
+            if (draining) {
+                missed = true;
+                return;
+            }
+            draining = true;
+        }
+        while (true) {
+            Runnable signal = null;
+            synchronized (lock) {
+                if (cancelled || terminated || downstream == null) {
+                    draining = false;
+                    return;
+                }
+                Flow.Subscriber<? super ParsedCommand<T>> subscriber = downstream;
+                Outcome<T> next = completed.get(nextEmit);
+                if (next != null && (next.parsed == null || demand > 0)) {
+                    completed.remove(nextEmit);
+                    nextEmit++;
+                    pending--;
+                    if (next.error != null) {
+                        terminated = true;
+                        Flow.Subscription source = upstream;
+                        signal = () -> {
+                            source.cancel();
+                            subscriber.onError(next.error);
+                        };
+                    } else if (next.parsed != null) {
+                        demand--;
+                        signal = () -> subscriber.onNext(next.parsed);
+                    }
+                } else if (upstreamDone && nextEmit == received) {
+                    terminated = true;
+                    Throwable error = upstreamError;
+                    signal = error != null ? () -> subscriber.onError(error) : subscriber::onComplete;
+                } else if (upstream != null && !upstreamDone) {
+                    long toRequest = Math.min(demand, parallelism) - pending;
+                    if (toRequest > 0) {
+                        pending += toRequest;
+                        Flow.Subscription source = upstream;
+                        signal = () -> source.request(toRequest);
+                    }
+                }
+                if (signal == null) {
+                    if (!missed) {
+                        draining = false;
+                        return;
+                    }
+                    missed = false;
+                    continue;
+                }
+            }
+            signal.run();
+        }
+    }
+
+    /**
+     * 单个输入元素的解析结果：成功、失败或被错误回调跳过。
+     */
+    private record Outcome<T>(ParsedCommand<T> parsed, Throwable error) {
+        static <T> Outcome<T> parsed(ParsedCommand<T> parsed) {
+            return new Outcome<>(parsed, null);
+        }
+
+        static <T> Outcome<T> failed(Throwable error) {
+            return new Outcome<>(null, error);
+        }
+
+        static <T> Outcome<T> skipped() {
+            return new Outcome<>(null, null);
+        }
+    }
+
+    /**
+     * 交给下游的订阅。
+     */
+    private final class DownstreamSubscription implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                Flow.Subscriber<? super ParsedCommand<T>> subscriber;
+                Flow.Subscription source;
+                synchronized (lock) {
+                    if (terminated || cancelled) {
+                        return;
+                    }
+                    terminated = true;
+                    subscriber = downstream;
+                    source = upstream;
+                }
+                if (source != null) {
+                    source.cancel();
+                }
+                subscriber.onError(new IllegalArgumentException("请求数量必须大于 0: " + n));
+                return;
+            }
+            synchronized (lock) {
+                long sum = demand + n;
+                demand = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription source;
+            synchronized (lock) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                completed.clear();
+                source = upstream;
+            }
+            if (source != null) {
+                source.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.guanyanqi.index;
+
+import com.guanyanqi.exception.QCmdException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 运行期命令索引：命令名（含别名）→ 命令类。
+ * <p>
+ * 读取 {@link CommandIndexProcessor} 在编译期生成的 {@value #RESOURCE}（类路径上可有多份，按出现顺序合并），
+ * 构建不可变哈希表。按命令名查找是一次哈希查询，只会加载被命中的命令类，其余命令类保持未加载状态。
+ * </p>
+ *
+ * <pre>
+ *     CommandIndex index = CommandIndex.load();
+ *     Class&lt;?&gt; commandClass = index.resolve(args[0]);
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class CommandIndex {
+
+    /**
+     * 命令索引在类路径中的资源路径。
+     */
+    public static final String RESOURCE = "META-INF/qcmd/commands.idx";
+
+    /**
+     * 索引文件首行注释。
+     */
+    static final String HEADER = "# qcmd command index: <command name>\\t<binary class name>";
+
+    private final Map<String, String> classNames;
+    private final ClassLoader loader;
+
+    private CommandIndex(Map<String, String> classNames, ClassLoader loader) {
+        this.classNames = Map.copyOf(classNames);
+        this.loader = loader;
+    }
+
+    /**
+     * 使用当前线程上下文类加载器加载命令索引。
+     *
+     * @return 命令索引
+     */
+    public static CommandIndex load() {
+        return load(Thread.currentThread().getContextClassLoader());
+    }
+
+    /**
+     * 加载类加载器可见的全部命令索引资源并合并。
+     *
+     * @param loader 类加载器，同时用于加载命中的命令类
+     * @return 命令索引；类路径上没有索引资源时为空索引
+     * @throws QCmdException 读取失败、格式错误或同一命令名指向不同类时抛出
+     */
+    public static CommandIndex load(ClassLoader loader) {
+        Objects.requireNonNull(loader, "Class loader must not be null");
+        Map<String, String> merged = new HashMap<>();
+        try {
+            Enumeration<URL> resources = loader.getResources(RESOURCE);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                try (Reader reader = new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)) {
+                    parse(reader, url.toString(), merged);
+                }
+            }
+        } catch (IOException e) {
+            throw new QCmdException("读取命令索引 " + RESOURCE + " 失败", e);
+        }
+        return new CommandIndex(merged, loader);
+    }
+
+    /**
+     * 解析索引内容并合并到目标映射。
+     *
+     * @param reader 索引内容
+     * @param source 来源描述，用于错误信息
+     * @param target 合并目标
+     * @throws IOException 读取失败时抛出
+     */
+    static void parse(Reader reader, String source, Map<String, String> target) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int tab = line.indexOf('\t');
+            if (tab <= 0 || tab == line.length() - 1) {
+                throw new QCmdException("命令索引 " + source + " 第 " + lineNumber + " 行格式错误: " + line);
+            }
+            String name = line.substring(0, tab);
+            String className = line.substring(tab + 1);
+            String previous = target.putIfAbsent(name, className);
+            if (previous != null && !previous.equals(className)) {
+                throw new QCmdException("命令名 [" + name + "] 同时指向 " + previous + " 与 " + className);
+            }
+        }
+    }
+
+    /**
+     * 获取命令名对应的命令类名，不加载类。
+     *
+     * @param commandName 命令名或别名
+     * @return 二进制类名；未收录时返回 null
+     */
+    public String className(String commandName) {
+        return classNames.get(commandName);
+    }
+
+    /**
+     * 解析命令名对应的命令类；只加载命中的类，不触发类初始化。
+     *
+     * @param commandName 命令名或别名
+     * @return 命令类；未收录时返回 null
+     * @throws QCmdException 索引记录的类无法加载时抛出
+     */
+    public Class<?> resolve(String commandName) {
+        String className = classNames.get(commandName);
+        if (className == null) {
+            return null;
+        }
+        try {
+            return Class.forName(className, false, loader);
+        } catch (ClassNotFoundException e) {
+            throw new QCmdException("命令 [" + commandName + "] 的索引类 " + className + " 不存在", e);
+        }
+    }
+
+    /**
+     * 获取索引中的全部命令名（含别名）。
+     *
+     * @return 不可变命令名集合
+     */
+    public Set<String> commandNames() {
+        return classNames.keySet();
+    }
+
+    /**
+     * 获取命令名 → 类名的完整映射。
+     *
+     * @return 不可变映射
+     */
+    public Map<String, String> entries() {
+        return classNames;
+    }
+}
@@ -0,0 +1,110 @@
+package com.guanyanqi.index;
+
+import com.guanyanqi.annotation.Cmd;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 编译期命令索引生成器（注解处理器）。
+ * <p>
+ * 收集本次编译中所有标注 {@link Cmd} 的具体命令类，把每个命令名及别名映射到命令类的二进制类名，
+ * 写入 {@value CommandIndex#RESOURCE}，运行时由 {@link CommandIndex} 直接查表，无需扫描类路径。
+ * 不同命令类声明同一命令名会在编译期报错。
+ * </p>
+ *
+ * <p>处理器需要显式启用，例如 Maven：</p>
+ * <pre>
+ * &lt;annotationProcessors&gt;
+ *     &lt;annotationProcessor&gt;com.guanyanqi.index.CommandIndexProcessor&lt;/annotationProcessor&gt;
+ * &lt;/annotationProcessors&gt;
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+@SupportedAnnotationTypes("com.guanyanqi.annotation.Cmd")
+public class CommandIndexProcessor extends AbstractProcessor {
+
+    /** 命令名 → 二进制类名，按命令名排序以保证输出稳定。 */
+    private final Map<String, String> index = new TreeMap<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    /**
+     * 创建命令索引处理器实例。
+     */
+    public CommandIndexProcessor() {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Cmd.class)) {
+            if (isCommandClass(element)) {
+                register((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !index.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /** 只收录可实例化的类与 Record；接口、枚举与抽象基类不作为命令入口。 */
+    private static boolean isCommandClass(Element element) {
+        ElementKind kind = element.getKind();
+        return (kind == ElementKind.CLASS || kind == ElementKind.RECORD)
+                && !element.getModifiers().contains(Modifier.ABSTRACT);
+    }
+
+    private void register(TypeElement type) {
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        for (String name : type.getAnnotation(Cmd.class).names()) {
+            String previous = index.putIfAbsent(name, className);
+            if (previous != null && !previous.equals(className)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "命令名 [" + name + "] 同时声明在 " + previous + " 与 " + className + " 上", type);
+            }
+        }
+        originatingElements.add(type);
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    CommandIndex.RESOURCE, originatingElements.toArray(new Element[0]));
+            try (Writer writer = resource.openWriter()) {
+                writer.write(CommandIndex.HEADER);
+                writer.write('\n');
+                for (Map.Entry<String, String> entry : index.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write('\t');
+                    writer.write(entry.getValue());
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "写入命令索引 " + CommandIndex.RESOURCE + " 失败: " + e.getMessage());
+        }
+    }
+}
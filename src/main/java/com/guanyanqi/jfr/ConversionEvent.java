@@ -0,0 +1,34 @@
+package com.guanyanqi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * 一个选项或一组位置变量的值转换；默认只记录耗时超过 1 毫秒的转换。
+ *
+ * @author guanyanqi
+ */
+@Name("com.guanyanqi.qcmd.Conversion")
+@Label("QCmd Slow Conversion")
+@Category("QCmd")
+@Description("Conversion of an option value or positional variables that exceeded the threshold")
+@Threshold("1 ms")
+@StackTrace(false)
+final class ConversionEvent extends Event {
+
+    @Label("Converter Class")
+    @Description("Declared converter; NoConverter means the built-in conversion rules")
+    Class<?> converterClass;
+
+    @Label("Target Type")
+    Class<?> targetType;
+
+    @Label("Value Length")
+    @Description("Characters in the raw value, summed over positional variables")
+    int valueLength;
+}
@@ -0,0 +1,31 @@
+package com.guanyanqi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 构建并缓存命令类的共享描述符，每个命令类一次。
+ *
+ * @author guanyanqi
+ */
+@Name("com.guanyanqi.qcmd.DescriptorCompilation")
+@Label("QCmd Descriptor Compilation")
+@Category("QCmd")
+@Description("Building of the shared descriptor of a command class")
+@StackTrace(false)
+final class DescriptorEvent extends Event {
+
+    @Label("Command Class")
+    Class<?> commandClass;
+
+    @Label("Option Count")
+    int optionCount;
+
+    @Label("From Snapshot")
+    @Description("Whether the descriptor was replayed from META-INF/qcmd/descriptors.bin")
+    boolean fromSnapshot;
+}
@@ -0,0 +1,34 @@
+package com.guanyanqi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 一次命令行解析，持续时间覆盖 Token 处理、校验与绑定。
+ *
+ * @author guanyanqi
+ */
+@Name("com.guanyanqi.qcmd.Parse")
+@Label("QCmd Parse")
+@Category("QCmd")
+@Description("Parsing of one command line")
+@StackTrace(false)
+final class ParseEvent extends Event {
+
+    @Label("Command Class")
+    Class<?> commandClass;
+
+    @Label("Token Count")
+    int tokenCount;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Failure")
+    @Description("Exception class when the outcome is FAILED")
+    String failure;
+}
@@ -0,0 +1,204 @@
+package com.guanyanqi.jfr;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * qcmd 的 Java Flight Recorder 事件入口：解析、慢转换与描述符构建。
+ * <p>
+ * 事件类只在运行时镜像包含 {@code jdk.jfr} 模块时才会被加载；裁剪掉该模块的 jlink 镜像中，
+ * 各 {@code begin*} 方法恒返回 null，调用方不会触及任何 JFR 类型。平台录制器尚未初始化（进程内从未创建过录制）时，
+ * {@code begin*} 只读取一个静态标志并返回 null，不加载事件类，首次解析不承担 JFR 的类加载与事件注册开销。
+ * 录制器初始化后，没有录制启用对应事件时 {@code begin*} 同样返回 null，调用方据此跳过结束时的字段填充。
+ * </p>
+ *
+ * <pre>
+ *     java -XX:StartFlightRecording=filename=app.jfr ...
+ *     jfr print --categories QCmd app.jfr
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class QCmdEvents {
+
+    /**
+     * 运行时是否包含 {@code jdk.jfr} 模块；为 false 时全部方法都不触及事件类。
+     */
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private QCmdEvents() {
+    }
+
+    /**
+     * 判断运行时是否支持 JFR 事件。
+     *
+     * @return 包含 {@code jdk.jfr} 模块时返回 true
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * 是否可能有录制在进行：模块存在且平台录制器已初始化。录制器在首次创建录制
+     * （包括 {@code -XX:StartFlightRecording}）时初始化，之后保持初始化状态。
+     */
+    private static boolean recorderInitialized() {
+        return AVAILABLE && Recorder.isInitialized();
+    }
+
+    /**
+     * 开始一次解析事件。
+     *
+     * @return 已开始计时的事件；运行时不支持或事件未启用时返回 null
+     */
+    public static Object beginParse() {
+        return recorderInitialized() ? Events.beginParse() : null;
+    }
+
+    /**
+     * 结束并提交解析事件。
+     *
+     * @param event        {@link #beginParse()} 的返回值，为 null 时不做任何事
+     * @param commandClass 命令类
+     * @param tokenCount   命令行 token 数（含命令名）
+     * @param outcome      结果：{@link com.guanyanqi.ParseAction} 的名称，失败时为 FAILED
+     * @param failure      失败时的异常，否则为 null
+     */
+    public static void endParse(Object event, Class<?> commandClass, int tokenCount, String outcome,
+                                Throwable failure) {
+        if (event != null) {
+            Events.endParse(event, commandClass, tokenCount, outcome, failure);
+        }
+    }
+
+    /**
+     * 开始一次值转换事件。
+     *
+     * @return 已开始计时的事件；运行时不支持或事件未启用时返回 null
+     */
+    public static Object beginConversion() {
+        return recorderInitialized() ? Events.beginConversion() : null;
+    }
+
+    /**
+     * 结束值转换事件；耗时未超过事件阈值时不会写入录制。
+     *
+     * @param event          {@link #beginConversion()} 的返回值，为 null 时不做任何事
+     * @param converterClass 声明的转换器类
+     * @param targetType     目标类型
+     * @param valueLength    原始值的字符数
+     */
+    public static void endConversion(Object event, Class<?> converterClass, Class<?> targetType, int valueLength) {
+        if (event != null) {
+            Events.endConversion(event, converterClass, targetType, valueLength);
+        }
+    }
+
+    /**
+     * 开始一次描述符构建事件。
+     *
+     * @return 已开始计时的事件；运行时不支持或事件未启用时返回 null
+     */
+    public static Object beginDescriptor() {
+        return recorderInitialized() ? Events.beginDescriptor() : null;
+    }
+
+    /**
+     * 结束并提交描述符构建事件。
+     *
+     * @param event        {@link #beginDescriptor()} 的返回值，为 null 时不做任何事
+     * @param commandClass 命令类
+     * @param optionCount  选项个数
+     * @param fromSnapshot 是否由描述符快照回放
+     */
+    public static void endDescriptor(Object event, Class<?> commandClass, int optionCount, boolean fromSnapshot) {
+        if (event != null) {
+            Events.endDescriptor(event, commandClass, optionCount, fromSnapshot);
+        }
+    }
+
+    /**
+     * 只引用 {@link FlightRecorder} 的部分，与事件类分开，查询初始化状态时不会加载事件类。
+     */
+    private static final class Recorder {
+
+        private Recorder() {
+        }
+
+        private static boolean isInitialized() {
+            return FlightRecorder.isInitialized();
+        }
+    }
+
+    /**
+     * 直接引用事件类的部分；只有确认平台录制器已初始化后才会加载。
+     */
+    private static final class Events {
+
+        private Events() {
+        }
+
+        private static Object beginParse() {
+            ParseEvent event = new ParseEvent();
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        private static void endParse(Object started, Class<?> commandClass, int tokenCount, String outcome,
+                                     Throwable failure) {
+            ParseEvent event = (ParseEvent) started;
+            event.end();
+            if (event.shouldCommit()) {
+                event.commandClass = commandClass;
+                event.tokenCount = tokenCount;
+                event.outcome = outcome;
+                event.failure = failure != null ? failure.getClass().getName() : null;
+                event.commit();
+            }
+        }
+
+        private static Object beginConversion() {
+            ConversionEvent event = new ConversionEvent();
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        private static void endConversion(Object started, Class<?> converterClass, Class<?> targetType,
+                                          int valueLength) {
+            ConversionEvent event = (ConversionEvent) started;
+            event.end();
+            if (event.shouldCommit()) {
+                event.converterClass = converterClass;
+                event.targetType = targetType;
+                event.valueLength = valueLength;
+                event.commit();
+            }
+        }
+
+        private static Object beginDescriptor() {
+            DescriptorEvent event = new DescriptorEvent();
+            if (!event.isEnabled()) {
+                return null;
+            }
+            event.begin();
+            return event;
+        }
+
+        private static void endDescriptor(Object started, Class<?> commandClass, int optionCount,
+                                          boolean fromSnapshot) {
+            DescriptorEvent event = (DescriptorEvent) started;
+            event.end();
+            if (event.shouldCommit()) {
+                event.commandClass = commandClass;
+                event.optionCount = optionCount;
+                event.fromSnapshot = fromSnapshot;
+                event.commit();
+            }
+        }
+    }
+}
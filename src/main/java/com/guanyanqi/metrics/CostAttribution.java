@@ -0,0 +1,148 @@
+package com.guanyanqi.metrics;
+
+import com.guanyanqi.metrics.internal.CostRecorder;
+import com.guanyanqi.metrics.internal.CostSink;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按处理器与转换器归因的调用计数与耗时，用于在自定义链中找出开销最大的一环。
+ * <p>
+ * 处理器按链中注册的实例计数：同一类型在链中出现两次时分别统计，同一实例被多个解析器共用时合并统计。
+ * 转换器按类计数，覆盖 {@code @Parameter(converter)}、{@code @Vars(elementConverter)} 与
+ * {@link com.guanyanqi.converter.ConverterRegistry} 中的转换器；异步转换器只在调用线程上提交，不计入。
+ * 计数使用 {@link LongAdder}，记录路径不加锁。
+ * 记录端只通过内部接口 {@link CostSink} 交给解析器，调用方只能读取统计快照。
+ * </p>
+ *
+ * <pre>
+ *     CostAttribution attribution = new CostAttribution();
+ *     QCmdParser&lt;DeployCmd&gt; parser = QCmdParser.compile(DeployCmd.class, chain, formatter)
+ *             .withAttribution(attribution);
+ *     attribution.handlerStats().forEach(System.out::println);
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class CostAttribution implements CostSink {
+
+    /** 处理器计数按注册顺序保存；只在解析器编译时写入。 */
+    private final Map<Object, Counter> handlers = new IdentityHashMap<>();
+    private final List<Counter> handlerOrder = new ArrayList<>();
+    private final Map<Class<?>, Counter> converters = new ConcurrentHashMap<>();
+
+    /**
+     * 创建空的归因统计。
+     */
+    public CostAttribution() {
+    }
+
+    @Override
+    public CostRecorder handlerCounter(Object handler) {
+        synchronized (handlers) {
+            return handlers.computeIfAbsent(handler, key -> {
+                Counter counter = new Counter(key.getClass());
+                handlerOrder.add(counter);
+                return counter;
+            });
+        }
+    }
+
+    @Override
+    public CostRecorder converterCounter(Class<?> converterClass) {
+        Counter counter = converters.get(converterClass);
+        return counter != null ? counter : converters.computeIfAbsent(converterClass, Counter::new);
+    }
+
+    /**
+     * 获取各处理器的统计快照。
+     *
+     * @return 按注册顺序排列的快照
+     */
+    public List<CostStats> handlerStats() {
+        List<CostStats> stats = new ArrayList<>();
+        synchronized (handlers) {
+            for (Counter counter : handlerOrder) {
+                stats.add(counter.snapshot());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 获取各转换器的统计快照。
+     *
+     * @return 按累计耗时从高到低排列的快照
+     */
+    public List<CostStats> converterStats() {
+        List<CostStats> stats = new ArrayList<>();
+        for (Counter counter : converters.values()) {
+            stats.add(counter.snapshot());
+        }
+        stats.sort((a, b) -> Long.compare(b.totalNanos(), a.totalNanos()));
+        return stats;
+    }
+
+    /**
+     * 原地清零全部计数；已登记的处理器与转换器保持登记，解析器已持有的计数器在清零后继续有效。
+     * 与解析并发执行时，清零期间发生的调用可能只有部分字段被保留。
+     */
+    public void reset() {
+        synchronized (handlers) {
+            handlerOrder.forEach(Counter::reset);
+        }
+        converters.values().forEach(Counter::reset);
+    }
+
+    /**
+     * 单个处理器实例或转换器类的累计值。
+     */
+    private static final class Counter implements CostRecorder {
+        private final Class<?> type;
+        private final LongAdder accepts = new LongAdder();
+        private final LongAdder declines = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private Counter(Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        public void accepted(long nanos) {
+            accepts.increment();
+            totalNanos.add(nanos);
+        }
+
+        @Override
+        public void declined(long nanos) {
+            declines.increment();
+            totalNanos.add(nanos);
+        }
+
+        @Override
+        public void failed(long nanos) {
+            failures.increment();
+            totalNanos.add(nanos);
+        }
+
+        private CostStats snapshot() {
+            long accepted = accepts.sum();
+            long declined = declines.sum();
+            long failed = failures.sum();
+            return new CostStats(type, accepted + declined + failed, accepted, declined, failed, totalNanos.sum());
+        }
+
+        private void reset() {
+            accepts.reset();
+            declines.reset();
+            failures.reset();
+            totalNanos.reset();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.guanyanqi.metrics;
+
+/**
+ * 单个处理器或转换器的耗时归因快照。
+ * <p>处理器的 accepts 为返回非 null 结果的次数，declines 为返回 null、交给下一个处理器的次数；
+ * 转换器的 accepts 为转换成功的次数，declines 恒为 0。</p>
+ *
+ * @param type        处理器或转换器的类
+ * @param invocations 调用次数
+ * @param accepts     接受（成功）次数
+ * @param declines    放弃次数
+ * @param failures    抛出异常的次数
+ * @param totalNanos  累计耗时
+ * @author guanyanqi
+ */
+public record CostStats(Class<?> type, long invocations, long accepts, long declines, long failures,
+                        long totalNanos) {
+
+    /**
+     * 平均单次耗时。
+     *
+     * @return 平均纳秒数；尚无调用时为 0
+     */
+    public long averageNanos() {
+        return invocations == 0 ? 0 : totalNanos / invocations;
+    }
+}
@@ -0,0 +1,31 @@
+package com.guanyanqi.metrics;
+
+/**
+ * 解析阶段耗时的采集接口，由 {@link com.guanyanqi.QCmdParser} 在阶段边界调用。
+ * <p>
+ * 解析器构造时记住是否配置了 {@link #NONE}：未配置采集时热路径只多一次对 final 字段的判断，
+ * 不读取时钟、也不调用本接口。实现会被多个解析线程并发调用，必须线程安全且不应阻塞。
+ * </p>
+ *
+ * @author guanyanqi
+ * @see PhaseMetrics
+ */
+@FunctionalInterface
+public interface ParseMetrics {
+
+    /**
+     * 不采集任何指标，解析器的默认值。
+     */
+    ParseMetrics NONE = (commandClass, phase, nanos, failed) -> {
+    };
+
+    /**
+     * 记录一个阶段的耗时。
+     *
+     * @param commandClass 命令类
+     * @param phase        阶段
+     * @param nanos        阶段耗时纳秒数
+     * @param failed       阶段是否以异常结束
+     */
+    void record(Class<?> commandClass, ParsePhase phase, long nanos, boolean failed);
+}
@@ -0,0 +1,29 @@
+package com.guanyanqi.metrics;
+
+/**
+ * 一次解析中可单独计时的阶段。
+ *
+ * @author guanyanqi
+ */
+public enum ParsePhase {
+    /**
+     * 获取命令描述符（缓存命中、快照回放或反射提取），每个解析器只发生一次；不含处理器链的特化。
+     */
+    DESCRIPTOR,
+    /**
+     * 渲染帮助文本，每个解析器只发生一次。
+     */
+    HELP,
+    /**
+     * 执行 Token 处理器链，切分命令行。
+     */
+    TOKENIZE,
+    /**
+     * 执行 {@link com.guanyanqi.core.CommandValidator#validate} 校验。
+     */
+    VALIDATE,
+    /**
+     * 执行 {@link com.guanyanqi.core.InstanceBinder#bind}，包含值转换与实例化。
+     */
+    BIND
+}
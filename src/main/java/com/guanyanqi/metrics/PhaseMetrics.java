@@ -0,0 +1,203 @@
+package com.guanyanqi.metrics;
+
+import com.guanyanqi.exception.QCmdException;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 内置的 {@link ParseMetrics} 实现：按命令类与阶段累计次数、失败数、耗时与直方图。
+ * <p>
+ * 记录路径不加锁：计数与总耗时使用 {@link LongAdder}，最大值使用 CAS，直方图按耗时的二进制位数分桶，
+ * 每次记录只对一个桶做原子自增。命令类首次出现时才创建其统计槽。
+ * </p>
+ *
+ * <pre>
+ *     PhaseMetrics metrics = new PhaseMetrics();
+ *     metrics.registerMBean("deploy");
+ *     QCmdParser&lt;DeployCmd&gt; parser = QCmdParser.compile(DeployCmd.class).withMetrics(metrics);
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public final class PhaseMetrics implements ParseMetrics, PhaseMetricsMXBean {
+
+    /**
+     * 注册 MBean 时使用的 JMX 域。
+     */
+    public static final String JMX_DOMAIN = "com.guanyanqi.qcmd";
+
+    private static final ParsePhase[] PHASES = ParsePhase.values();
+
+    private final Map<Class<?>, Slot[]> slots = new ConcurrentHashMap<>();
+
+    /**
+     * 创建空的统计。
+     */
+    public PhaseMetrics() {
+    }
+
+    @Override
+    public void record(Class<?> commandClass, ParsePhase phase, long nanos, boolean failed) {
+        Slot[] phases = slots.get(commandClass);
+        if (phases == null) {
+            phases = slots.computeIfAbsent(commandClass, key -> newSlots());
+        }
+        phases[phase.ordinal()].record(nanos, failed);
+    }
+
+    private static Slot[] newSlots() {
+        Slot[] phases = new Slot[PHASES.length];
+        for (int i = 0; i < phases.length; i++) {
+            phases[i] = new Slot();
+        }
+        return phases;
+    }
+
+    /**
+     * 获取命令类在某一阶段的统计快照。
+     *
+     * @param commandClass 命令类
+     * @param phase        阶段
+     * @return 统计快照；尚无记录时为 {@link PhaseStats#EMPTY}
+     */
+    public PhaseStats stats(Class<?> commandClass, ParsePhase phase) {
+        Slot[] phases = slots.get(commandClass);
+        return phases != null ? phases[phase.ordinal()].snapshot() : PhaseStats.EMPTY;
+    }
+
+    /**
+     * 获取已有记录的命令类。
+     *
+     * @return 命令类集合的只读副本
+     */
+    public Set<Class<?>> commandClasses() {
+        return Set.copyOf(slots.keySet());
+    }
+
+    /**
+     * 以 {@code com.guanyanqi.qcmd:type=ParseMetrics,name=<name>} 注册到平台 MBeanServer。
+     *
+     * @param name MBean 名称中的 name 属性
+     * @return 注册使用的 ObjectName，可用于注销
+     * @throws QCmdException 名称不合法或已被注册时抛出
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=ParseMetrics,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new QCmdException("解析指标 MBean 注册失败: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        return view(PhaseStats::count);
+    }
+
+    @Override
+    public Map<String, Long> getFailures() {
+        return view(PhaseStats::failures);
+    }
+
+    @Override
+    public Map<String, Long> getTotalNanos() {
+        return view(PhaseStats::totalNanos);
+    }
+
+    @Override
+    public Map<String, Long> getMaxNanos() {
+        return view(PhaseStats::maxNanos);
+    }
+
+    @Override
+    public Map<String, Long> getP50Nanos() {
+        return view(PhaseStats::p50Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getP99Nanos() {
+        return view(PhaseStats::p99Nanos);
+    }
+
+    private Map<String, Long> view(ToLongFunction<PhaseStats> attribute) {
+        Map<String, Long> view = new TreeMap<>();
+        slots.forEach((commandClass, phases) -> {
+            for (ParsePhase phase : PHASES) {
+                PhaseStats stats = phases[phase.ordinal()].snapshot();
+                if (stats.count() > 0) {
+                    view.put(commandClass.getName() + "#" + phase, attribute.applyAsLong(stats));
+                }
+            }
+        });
+        return view;
+    }
+
+    @Override
+    public void reset() {
+        slots.clear();
+    }
+
+    /**
+     * 单个命令类单个阶段的累计值。直方图第 i 个桶统计二进制位数为 i 的耗时，即 [2^(i-1), 2^i)。
+     */
+    private static final class Slot {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+        private void record(long nanos, boolean failed) {
+            long value = Math.max(0L, nanos);
+            count.increment();
+            if (failed) {
+                failures.increment();
+            }
+            totalNanos.add(value);
+            long max = maxNanos.get();
+            while (value > max && !maxNanos.compareAndSet(max, value)) {
+                max = maxNanos.get();
+            }
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+        }
+
+        private PhaseStats snapshot() {
+            long[] counts = new long[Long.SIZE];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            long max = maxNanos.get();
+            return new PhaseStats(count.sum(), failures.sum(), totalNanos.sum(), max,
+                    percentile(counts, total, 0.50, max), percentile(counts, total, 0.99, max));
+        }
+
+        private static long percentile(long[] counts, long total, double quantile, long max) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, i == 0 ? 0 : (1L << i) - 1);
+                }
+            }
+            return max;
+        }
+    }
+}
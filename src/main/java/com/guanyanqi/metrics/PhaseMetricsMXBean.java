@@ -0,0 +1,59 @@
+package com.guanyanqi.metrics;
+
+import java.util.Map;
+
+/**
+ * {@link PhaseMetrics} 的平台 MBean 视图，可在 JConsole、JMC 等工具中查看。
+ * <p>各属性以 {@code 命令类名#阶段}（如 {@code com.example.DeployCmd#BIND}）为键。</p>
+ *
+ * @author guanyanqi
+ */
+public interface PhaseMetricsMXBean {
+
+    /**
+     * 各阶段执行次数。
+     *
+     * @return 键到次数的映射
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * 各阶段以异常结束的次数。
+     *
+     * @return 键到次数的映射
+     */
+    Map<String, Long> getFailures();
+
+    /**
+     * 各阶段总耗时纳秒数。
+     *
+     * @return 键到纳秒数的映射
+     */
+    Map<String, Long> getTotalNanos();
+
+    /**
+     * 各阶段单次最大耗时纳秒数。
+     *
+     * @return 键到纳秒数的映射
+     */
+    Map<String, Long> getMaxNanos();
+
+    /**
+     * 各阶段耗时中位数的近似值。
+     *
+     * @return 键到纳秒数的映射
+     */
+    Map<String, Long> getP50Nanos();
+
+    /**
+     * 各阶段耗时 99 分位的近似值。
+     *
+     * @return 键到纳秒数的映射
+     */
+    Map<String, Long> getP99Nanos();
+
+    /**
+     * 清空全部统计。
+     */
+    void reset();
+}
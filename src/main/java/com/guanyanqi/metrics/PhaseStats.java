@@ -0,0 +1,30 @@
+package com.guanyanqi.metrics;
+
+/**
+ * 单个命令类在某一解析阶段的统计快照。
+ * <p>分位数取自以 2 的幂划分的直方图，报告所在区间的上界（不超过最大值），误差在 2 倍以内。</p>
+ *
+ * @param count      阶段执行次数
+ * @param failures   其中以异常结束的次数
+ * @param totalNanos 总耗时
+ * @param maxNanos   单次最大耗时
+ * @param p50Nanos   耗时中位数的近似值
+ * @param p99Nanos   耗时 99 分位的近似值
+ * @author guanyanqi
+ */
+public record PhaseStats(long count, long failures, long totalNanos, long maxNanos, long p50Nanos, long p99Nanos) {
+
+    /**
+     * 没有任何记录的快照。
+     */
+    public static final PhaseStats EMPTY = new PhaseStats(0, 0, 0, 0, 0, 0);
+
+    /**
+     * 平均单次耗时。
+     *
+     * @return 平均纳秒数；尚无记录时为 0
+     */
+    public long averageNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+}
@@ -0,0 +1,31 @@
+package com.guanyanqi.metrics.internal;
+
+/**
+ * 单个处理器实例或转换器类的耗时记录端。
+ * <p>内部接口，只供解析器内部写入 {@link com.guanyanqi.metrics.CostAttribution} 的统计，不属于公开 API。</p>
+ *
+ * @author guanyanqi
+ */
+public interface CostRecorder {
+
+    /**
+     * 记录一次接受（处理器返回结果或转换成功）。
+     *
+     * @param nanos 本次耗时
+     */
+    void accepted(long nanos);
+
+    /**
+     * 记录一次放弃（处理器返回 null）。
+     *
+     * @param nanos 本次耗时
+     */
+    void declined(long nanos);
+
+    /**
+     * 记录一次以异常结束的调用。
+     *
+     * @param nanos 本次耗时
+     */
+    void failed(long nanos);
+}
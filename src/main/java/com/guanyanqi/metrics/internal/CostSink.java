@@ -0,0 +1,26 @@
+package com.guanyanqi.metrics.internal;
+
+/**
+ * 按处理器实例与转换器类分配 {@link CostRecorder} 的归因入口，由解析器显式传入处理器链与绑定过程。
+ * <p>内部接口，由 {@link com.guanyanqi.metrics.CostAttribution} 实现，不属于公开 API。</p>
+ *
+ * @author guanyanqi
+ */
+public interface CostSink {
+
+    /**
+     * 获取处理器实例的记录端，首次获取时按注册顺序登记。
+     *
+     * @param handler 链中注册的处理器实例
+     * @return 该实例的记录端
+     */
+    CostRecorder handlerCounter(Object handler);
+
+    /**
+     * 获取转换器类的记录端。
+     *
+     * @param converterClass 转换器类
+     * @return 该类的记录端
+     */
+    CostRecorder converterCounter(Class<?> converterClass);
+}
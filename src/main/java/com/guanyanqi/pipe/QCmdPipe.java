@@ -0,0 +1,326 @@
+package com.guanyanqi.pipe;
+
+import com.guanyanqi.ParseAction;
+import com.guanyanqi.QCmdParser;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.CommandLineParser;
+import com.guanyanqi.core.CommandValidator;
+import com.guanyanqi.core.InstanceBinder;
+import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.core.parser.ParseState;
+import com.guanyanqi.exception.QCmdException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 管道模式：从输入流逐条读取命令行记录，用同一个预编译解析器校验并规范化，结果逐行写出。
+ *
+ * <p>输入格式：参数之间以 NUL（{@code \0}）分隔，记录之间以换行分隔；
+ * 记录末尾多余的 NUL 与 Windows 换行的 {@code \r} 会被忽略，空行跳过。</p>
+ * <pre>
+ *     printf 'deploy\0-e\0prod\0app.jar\n' | java -cp app.jar com.guanyanqi.pipe.QCmdPipe com.acme.DeployCmd
+ * </pre>
+ *
+ * <p>输出格式（每条记录一行，字段以 TAB 分隔，{@code n} 为输入行号）：</p>
+ * <ul>
+ *   <li>{@code n OK 规范化命令行}：规范化命令行沿用输入编码（NUL 分隔），可直接再次输入；
+ *       由主命令名、按声明顺序的 {@code 主选项名=值} 以及 {@code --} 之后的位置变量组成</li>
+ *   <li>{@code n ACTION SHOW_HELP|SHOW_VERSION}：记录请求了内置动作</li>
+ *   <li>{@code n ERR 异常类型 错误信息}：错误信息中的反斜杠、TAB 与换行会被转义</li>
+ * </ul>
+ *
+ * <p>读取使用固定大小的可复用缓冲区，单条记录超过上限时整条报错并跳过，内存占用与输入总量无关。
+ * 所有记录复用同一个 token 列表。</p>
+ *
+ * @param <T> 目标命令类类型
+ * @author guanyanqi
+ */
+public final class QCmdPipe<T> {
+
+    /**
+     * 单条记录默认的最大字节数。
+     */
+    public static final int DEFAULT_MAX_RECORD_BYTES = 1 << 20;
+
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final char FIELD_SEPARATOR = '\t';
+    private static final char TOKEN_SEPARATOR = '\0';
+
+    private final QCmdParser<T> parser;
+    private final int maxRecordBytes;
+
+    private QCmdPipe(QCmdParser<T> parser, int maxRecordBytes) {
+        this.parser = parser;
+        this.maxRecordBytes = maxRecordBytes;
+    }
+
+    /**
+     * 基于预编译解析器创建管道。
+     *
+     * @param <T>    目标命令类类型
+     * @param parser 预编译解析器
+     * @return 管道实例
+     */
+    public static <T> QCmdPipe<T> of(QCmdParser<T> parser) {
+        return new QCmdPipe<>(Objects.requireNonNull(parser, "Parser must not be null"), DEFAULT_MAX_RECORD_BYTES);
+    }
+
+    /**
+     * 返回使用指定单条记录上限的新管道。
+     *
+     * @param maxRecordBytes 单条记录的最大字节数（不含分隔符）
+     * @return 新的管道实例
+     */
+    public QCmdPipe<T> withMaxRecordBytes(int maxRecordBytes) {
+        if (maxRecordBytes <= 0) {
+            throw new QCmdException("记录字节上限必须大于 0: " + maxRecordBytes);
+        }
+        return new QCmdPipe<>(parser, maxRecordBytes);
+    }
+
+    /**
+     * 命令行入口：参数为命令类全限定名，从标准输入读取记录并写到标准输出；
+     * 存在失败记录时以退出码 1 结束。
+     *
+     * @param args 命令类全限定名
+     * @throws IOException 读写失败时抛出
+     */
+    public static void main(String[] args) throws IOException {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * 执行命令行入口逻辑。
+     *
+     * @param args 命令类全限定名
+     * @param in   记录输入
+     * @param out  结果输出
+     * @param err  用法错误输出
+     * @return 退出码
+     * @throws IOException 读写失败时抛出
+     */
+    static int run(String[] args, InputStream in, PrintStream out, PrintStream err) throws IOException {
+        if (args.length != 1) {
+            err.println("用法: QCmdPipe <command class>");
+            return 2;
+        }
+        Class<?> commandClass;
+        try {
+            commandClass = Class.forName(args[0], false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            err.println("命令类 [" + args[0] + "] 不存在");
+            return 2;
+        }
+        Summary summary = of(QCmdParser.compile(commandClass)).run(in, out);
+        return summary.failures() == 0 ? 0 : 1;
+    }
+
+    /**
+     * 处理输入流中的全部记录；输出流只会被刷新，不会被关闭。
+     *
+     * @param in  记录输入
+     * @param out 结果输出
+     * @return 处理统计
+     * @throws IOException 读写失败时抛出
+     */
+    public Summary run(InputStream in, OutputStream out) throws IOException {
+        Objects.requireNonNull(in, "Input must not be null");
+        Objects.requireNonNull(out, "Output must not be null");
+        return new Session(out).run(in);
+    }
+
+    /**
+     * 管道处理统计。
+     *
+     * @param records  处理的记录数（不含空行）
+     * @param failures 失败的记录数
+     */
+    public record Summary(long records, long failures) {
+    }
+
+    /**
+     * 单次运行的可复用状态：读取缓冲、token 字节缓冲与 token 列表。
+     */
+    private final class Session {
+        private final Writer writer;
+        private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+        private final List<String> tokens = new ArrayList<>();
+        /** 逐记录复用的解析状态，携带解析器的 {@link QCmdParser#limits()} 与 {@link QCmdParser#listener()}。 */
+        private final ParseState state = new ParseState(parser.limits(), parser.listener());
+        private byte[] token = new byte[256];
+        private int tokenLength;
+        private int recordBytes;
+        private boolean overflow;
+        private long line;
+        private long records;
+        private long failures;
+
+        private Session(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        private Summary run(InputStream in) throws IOException {
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    if (b == '\n' || b == 0) {
+                        append(start, i - start);
+                        start = i + 1;
+                        if (b == 0) {
+                            endToken(false);
+                        } else {
+                            endToken(true);
+                            endRecord();
+                        }
+                    }
+                }
+                append(start, read - start);
+            }
+            endToken(true);
+            if (!tokens.isEmpty() || overflow) {
+                endRecord();
+            }
+            writer.flush();
+            return new Summary(records, failures);
+        }
+
+        private void append(int offset, int length) {
+            if (length == 0 || overflow) {
+                return;
+            }
+            recordBytes += length;
+            if (recordBytes > maxRecordBytes) {
+                overflow = true;
+                tokens.clear();
+                tokenLength = 0;
+                return;
+            }
+            if (tokenLength + length > token.length) {
+                token = Arrays.copyOf(token, Math.max(token.length * 2, tokenLength + length));
+            }
+            System.arraycopy(buffer, offset, token, tokenLength, length);
+            tokenLength += length;
+        }
+
+        /**
+         * 结束当前 token；记录末尾的空 token（多余的 NUL）与行尾 {@code \r} 被忽略。
+         */
+        private void endToken(boolean recordEnd) {
+            if (overflow) {
+                return;
+            }
+            int length = tokenLength;
+            if (recordEnd && length > 0 && token[length - 1] == '\r') {
+                length--;
+            }
+            if (length > 0 || !recordEnd) {
+                tokens.add(new String(token, 0, length, StandardCharsets.UTF_8));
+            }
+            tokenLength = 0;
+        }
+
+        private void endRecord() throws IOException {
+            line++;
+            if (overflow) {
+                records++;
+                failures++;
+                writeError(QCmdException.class.getSimpleName(), "记录超过 " + maxRecordBytes + " 字节上限");
+            } else if (!tokens.isEmpty()) {
+                records++;
+                process();
+            }
+            tokens.clear();
+            recordBytes = 0;
+            overflow = false;
+        }
+
+        private void process() throws IOException {
+            CommandDescriptor descriptor = parser.descriptor();
+            CommandLineParser.ParseResult result;
+            try {
+                result = parser.chain().execute(tokens, descriptor, state);
+                if (result.action() == ParseAction.EXECUTE) {
+                    CommandValidator.validate(result, descriptor);
+                    InstanceBinder.bind(result, descriptor);
+                }
+            } catch (QCmdException e) {
+                failures++;
+                writeError(e.getClass().getSimpleName(), e.getMessage());
+                return;
+            }
+            writer.write(Long.toString(line));
+            writer.write(FIELD_SEPARATOR);
+            if (result.action() != ParseAction.EXECUTE) {
+                writer.write("ACTION");
+                writer.write(FIELD_SEPARATOR);
+                writer.write(result.action().name());
+            } else {
+                writer.write("OK");
+                writer.write(FIELD_SEPARATOR);
+                writeCanonical(descriptor, result);
+            }
+            writer.write('\n');
+        }
+
+        private void writeCanonical(CommandDescriptor descriptor, CommandLineParser.ParseResult result)
+                throws IOException {
+            writer.write(descriptor.getCmdAnnotation().names()[0]);
+            Map<String, String> values = result.optionValues();
+            for (OptionDescriptor option : descriptor.getOptions()) {
+                for (String name : option.names()) {
+                    String value = values.get(name);
+                    if (value != null) {
+                        writer.write(TOKEN_SEPARATOR);
+                        writer.write(option.names()[0]);
+                        writer.write('=');
+                        writer.write(value);
+                        break;
+                    }
+                }
+            }
+            if (!result.positionalVars().isEmpty()) {
+                writer.write(TOKEN_SEPARATOR);
+                writer.write("--");
+                for (String var : result.positionalVars()) {
+                    writer.write(TOKEN_SEPARATOR);
+                    writer.write(var);
+                }
+            }
+        }
+
+        private void writeError(String type, String message) throws IOException {
+            writer.write(Long.toString(line));
+            writer.write(FIELD_SEPARATOR);
+            writer.write("ERR");
+            writer.write(FIELD_SEPARATOR);
+            writer.write(type);
+            writer.write(FIELD_SEPARATOR);
+            String text = String.valueOf(message);
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                switch (c) {
+                    case '\\' -> writer.write("\\\\");
+                    case '\t' -> writer.write("\\t");
+                    case '\n' -> writer.write("\\n");
+                    case '\r' -> writer.write("\\r");
+                    default -> writer.write(c);
+                }
+            }
+            writer.write('\n');
+        }
+    }
+}
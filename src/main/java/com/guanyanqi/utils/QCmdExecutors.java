@@ -0,0 +1,91 @@
+package com.guanyanqi.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 执行器构造工具类。
+ * <p>
+ * qcmd 以 Java 17 为编译基线：运行在 JDK 21+ 时通过反射使用虚拟线程执行器（每个任务一个虚拟线程），
+ * 否则回退到有界的平台守护线程池。
+ * </p>
+ *
+ * @author guanyanqi
+ */
+public final class QCmdExecutors {
+
+    /**
+     * JDK 21+ 的 {@code Executors.newVirtualThreadPerTaskExecutor}；低版本 JDK 为 null。
+     */
+    private static final Method VIRTUAL_THREAD_FACTORY = findVirtualThreadFactory();
+
+    /**
+     * 私有构造函数以防止静态工具类被误实例化。
+     */
+    private QCmdExecutors() {
+    }
+
+    /**
+     * 当前 JDK 是否支持虚拟线程。
+     *
+     * @return JDK 21+ 返回 true
+     */
+    public static boolean isVirtualThreadAvailable() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * 创建每任务执行器：支持虚拟线程时每个任务一个虚拟线程，否则为固定大小的平台守护线程池。
+     *
+     * @param namePrefix      平台线程名前缀
+     * @param platformThreads 回退到平台线程池时的线程数
+     * @return 执行器，由调用方负责关闭
+     */
+    public static ExecutorService newPerTaskExecutor(String namePrefix, int platformThreads) {
+        if (VIRTUAL_THREAD_FACTORY != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // 反射调用失败时使用平台线程池兜底
+            }
+        }
+        return newPlatformExecutor(namePrefix, platformThreads);
+    }
+
+    /**
+     * 创建固定大小的平台守护线程池。
+     *
+     * @param namePrefix 线程名前缀
+     * @param threads    线程数，至少为 1
+     * @return 执行器，由调用方负责关闭
+     */
+    public static ExecutorService newPlatformExecutor(String namePrefix, int threads) {
+        return Executors.newFixedThreadPool(Math.max(1, threads), daemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * 创建按序号命名的守护线程工厂。
+     *
+     * @param namePrefix 线程名前缀
+     * @return 线程工厂
+     */
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findVirtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
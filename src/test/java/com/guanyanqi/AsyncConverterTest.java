@@ -0,0 +1,202 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.converter.ConverterRegistry;
+import com.guanyanqi.converter.QAsyncConverter;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QAsyncConverter 异步转换器并发绑定测试。
+ *
+ * @author guanyanqi
+ */
+public class AsyncConverterTest {
+
+    /** 四个选项的转换全部开始后才能结束；若按顺序执行则会超时失败。 */
+    private static volatile CountDownLatch rendezvous;
+    private static final List<CompletableFuture<?>> HANGING = new CopyOnWriteArrayList<>();
+
+    private ExecutorService executor;
+
+    /** 等待所有并发转换到齐后返回大写值。 */
+    public static class RendezvousConverter implements QAsyncConverter<String> {
+        @Override
+        public CompletionStage<String> convertAsync(String value, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> {
+                rendezvous.countDown();
+                try {
+                    if (!rendezvous.await(5, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("conversions did not run concurrently");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return value.toUpperCase();
+            }, executor);
+        }
+    }
+
+    /** 永不完成，用于验证失败时被取消。 */
+    public static class HangingConverter implements QAsyncConverter<String> {
+        @Override
+        public CompletionStage<String> convertAsync(String value, Executor executor) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            HANGING.add(future);
+            return future;
+        }
+    }
+
+    /** 异步失败，携带受检异常。 */
+    public static class FailingConverter implements QAsyncConverter<Integer> {
+        @Override
+        public CompletionStage<Integer> convertAsync(String value, Executor executor) {
+            return CompletableFuture.supplyAsync(() -> {
+                throw new IllegalArgumentException("bad " + value);
+            }, executor);
+        }
+    }
+
+    /** 在启动阶段同步抛出。 */
+    public static class ThrowingConverter implements QAsyncConverter<Integer> {
+        @Override
+        public CompletionStage<Integer> convertAsync(String value, Executor executor) {
+            throw new IllegalStateException("cannot start " + value);
+        }
+    }
+
+    /** 以受检异常失败。 */
+    public static class CheckedFailureConverter implements QAsyncConverter<Integer> {
+        @Override
+        public CompletionStage<Integer> convertAsync(String value, Executor executor) {
+            return CompletableFuture.failedFuture(new IOException("unreadable " + value));
+        }
+    }
+
+    /** 异步解析整数。 */
+    public static class LengthConverter implements QAsyncConverter<Integer> {
+        @Override
+        public CompletionStage<Integer> convertAsync(String value, Executor executor) {
+            return CompletableFuture.supplyAsync(value::length, executor);
+        }
+    }
+
+    @Cmd(names = "resolve")
+    public record ResolveCmd(
+            @Parameter(names = "-a", converter = RendezvousConverter.class) String a,
+            @Parameter(names = "-b", converter = RendezvousConverter.class) String b,
+            @Parameter(names = "-c", converter = RendezvousConverter.class) String c,
+            @Parameter(names = "-d", converter = RendezvousConverter.class) String d,
+            @Parameter(names = "-n") int n
+    ) {}
+
+    @Cmd(names = "fail")
+    public record FailCmd(
+            @Parameter(names = "-h", converter = HangingConverter.class) String hanging,
+            @Parameter(names = "-f", converter = FailingConverter.class) Integer failing,
+            @Parameter(names = "-t", converter = ThrowingConverter.class) Integer throwing,
+            @Parameter(names = "-n") int n
+    ) {}
+
+    @Cmd(names = "lengths")
+    public static class LengthsCmd {
+        @Parameter(names = "--size", converter = LengthConverter.class)
+        public Integer size;
+
+        @Parameter(names = "--label")
+        public String label;
+
+        @Vars(elementConverter = LengthConverter.class)
+        public List<Integer> lengths;
+    }
+
+    @Cmd(names = "one")
+    public record OneCmd(@Vars(elementConverter = CheckedFailureConverter.class) Integer value) {}
+
+    @Cmd(names = "single")
+    public record SingleCmd(@Vars(elementConverter = LengthConverter.class) Integer value) {}
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        ConverterRegistry.setAsyncExecutor(executor);
+        HANGING.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ConverterRegistry.setAsyncExecutor(null);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testAsyncOptionsConvertConcurrently() {
+        rendezvous = new CountDownLatch(4);
+        ResolveCmd cmd = QCmd.of(new String[]{"resolve", "-a", "x", "-b", "y", "-c", "z", "-d", "w", "-n", "3"}).parse(ResolveCmd.class).value();
+        assertEquals(new ResolveCmd("X", "Y", "Z", "W", 3), cmd);
+    }
+
+    @Test
+    public void testPojoAndVarsUseAsyncConverters() {
+        LengthsCmd cmd = QCmd.of(new String[]{"lengths", "--size", "abcd", "--label", "L", "a", "bb", "ccc"}).parse(LengthsCmd.class).value();
+        assertEquals(4, cmd.size);
+        assertEquals("L", cmd.label);
+        assertEquals(List.of(1, 2, 3), cmd.lengths);
+
+        assertEquals(5, QCmd.of(new String[]{"single", "hello"}).parse(SingleCmd.class).value().value());
+    }
+
+    @Test
+    public void testFirstFailureCancelsPendingConversions() {
+        QCmdException e = assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"fail", "-h", "x", "-f", "1"}).parse(FailCmd.class));
+        assertTrue(e.getMessage().contains("bad 1"), e.getMessage());
+        assertEquals(1, HANGING.size());
+        assertTrue(HANGING.get(0).isCancelled());
+
+        QCmdException start = assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"fail", "-h", "x", "-t", "2"}).parse(FailCmd.class));
+        assertTrue(start.getMessage().contains("cannot start 2"), start.getMessage());
+        assertTrue(HANGING.get(1).isCancelled());
+
+        // 同步转换失败同样取消已启动的异步转换
+        assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"fail", "-h", "x", "-n", "NaN"}).parse(FailCmd.class));
+        assertTrue(HANGING.get(2).isCancelled());
+    }
+
+    @Test
+    public void testBlockingConvertUnwrapsFailures() {
+        QCmdException e = assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"one", "a"}).parse(OneCmd.class));
+        assertTrue(e.getMessage().contains("unreadable a"), e.getMessage());
+        assertInstanceOf(IOException.class, e.getCause());
+
+        assertThrows(IllegalArgumentException.class, () -> new FailingConverter().convert("7"));
+        CompletableFuture<String> cancelled = new CompletableFuture<>();
+        cancelled.cancel(true);
+        QAsyncConverter<String> cancelling = (value, ignored) -> cancelled;
+        assertThrows(QCmdException.class, () -> cancelling.convert("v"));
+
+        ConverterRegistry.setAsyncExecutor(null);
+        assertNotSame(executor, ConverterRegistry.getAsyncExecutor());
+        assertEquals(3, new LengthConverter().convert("abc"));
+    }
+}
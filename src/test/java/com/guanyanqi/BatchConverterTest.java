@@ -0,0 +1,105 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.converter.QBatchConverter;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QBatchConverter 位置变量批量转换测试。
+ *
+ * @author guanyanqi
+ */
+public class BatchConverterTest {
+
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    /** 一次调用解析全部整数，并记录调用次数。 */
+    public static class IntBatchConverter implements QBatchConverter<Integer> {
+        @Override
+        public List<Integer> convertAll(List<String> values) {
+            CALLS.incrementAndGet();
+            assertThrows(UnsupportedOperationException.class, () -> values.add("x"));
+            List<Integer> result = new ArrayList<>(values.size());
+            for (String value : values) {
+                result.add(Integer.parseInt(value));
+            }
+            return result;
+        }
+    }
+
+    /** 返回数量与输入不一致的错误实现。 */
+    public static class ShortBatchConverter implements QBatchConverter<String> {
+        @Override
+        public List<String> convertAll(List<String> values) {
+            return values.subList(1, values.size());
+        }
+    }
+
+    /** 返回 null 的错误实现。 */
+    public static class NullBatchConverter implements QBatchConverter<String> {
+        @Override
+        public List<String> convertAll(List<String> values) {
+            return null;
+        }
+    }
+
+    @Cmd(names = "sum")
+    public record SumCmd(@Vars(elementConverter = IntBatchConverter.class) List<Integer> numbers) {}
+
+    @Cmd(names = "unique")
+    public static class UniqueCmd {
+        @Vars(elementConverter = IntBatchConverter.class)
+        public Set<Integer> numbers;
+    }
+
+    @Cmd(names = "one")
+    public record OneCmd(@Vars(elementConverter = IntBatchConverter.class) Integer number) {}
+
+    @Cmd(names = "short")
+    public record ShortCmd(@Vars(elementConverter = ShortBatchConverter.class) List<String> values) {}
+
+    @Cmd(names = "nil")
+    public record NullCmd(@Vars(elementConverter = NullBatchConverter.class) List<String> values) {}
+
+    @Test
+    public void testBatchPathConvertsAllElementsInOneCall() {
+        String[] args = new String[1001];
+        args[0] = "sum";
+        for (int i = 1; i < args.length; i++) {
+            args[i] = Integer.toString(i);
+        }
+        CALLS.set(0);
+        List<Integer> numbers = QCmd.of(args).parse(SumCmd.class).value().numbers();
+        assertEquals(1, CALLS.get());
+        assertEquals(1000, numbers.size());
+        assertEquals(1000, numbers.get(999));
+
+        UniqueCmd unique = QCmd.of(new String[]{"unique", "3", "3", "4"}).parse(UniqueCmd.class).value();
+        assertEquals(Set.of(3, 4), unique.numbers);
+        assertEquals(2, CALLS.get());
+    }
+
+    @Test
+    public void testSingleVarUsesDefaultConvert() {
+        assertEquals(42, QCmd.of(new String[]{"one", "42"}).parse(OneCmd.class).value().number());
+    }
+
+    @Test
+    public void testResultSizeMismatchIsRejected() {
+        QCmdException e = assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"short", "a", "b"}).parse(ShortCmd.class));
+        assertTrue(e.getMessage().contains("返回 1 个结果，期望 2 个"), e.getMessage());
+        QCmdException nil = assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"nil", "a"}).parse(NullCmd.class));
+        assertTrue(nil.getMessage().contains("返回 0 个结果"), nil.getMessage());
+    }
+}
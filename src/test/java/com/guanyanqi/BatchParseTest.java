@@ -0,0 +1,87 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.exception.BatchParseException;
+import com.guanyanqi.exception.MissingParameterException;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QCmdParser 批量解析测试。
+ *
+ * @author guanyanqi
+ */
+public class BatchParseTest {
+
+    @Cmd(names = "replay", version = "3")
+    public record ReplayCmd(
+            @Parameter(names = "--id", required = true) int id,
+            @Parameter(names = "--verbose") boolean verbose
+    ) {}
+
+    private static List<String[]> argvs(int count) {
+        List<String[]> argvs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            argvs.add(i % 3 == 0
+                    ? new String[]{"replay", "--id", Integer.toString(i), "--verbose"}
+                    : new String[]{"replay", "--id=" + i});
+        }
+        return argvs;
+    }
+
+    @Test
+    public void testResultsKeepInputOrder() {
+        QCmdParser<ReplayCmd> parser = QCmdParser.compile(ReplayCmd.class);
+        int count = 50_000;
+        List<ParsedCommand<ReplayCmd>> results = parser.parseAll(argvs(count), new ForkJoinPool(4));
+        assertEquals(count, results.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(new ReplayCmd(i, i % 3 == 0), results.get(i).value());
+        }
+        assertThrows(UnsupportedOperationException.class, () -> results.set(0, null));
+    }
+
+    @Test
+    public void testCommonPoolActionsAndEmptyInput() {
+        QCmdParser<ReplayCmd> parser = QCmdParser.compile(ReplayCmd.class);
+        List<ParsedCommand<ReplayCmd>> results = parser.parseAll(new LinkedList<>(List.of(
+                new String[]{"replay", "--help"}, new String[]{"replay", "-V"}, new String[]{"replay", "--id", "1"})));
+        assertEquals(ParseAction.SHOW_HELP, results.get(0).action());
+        assertEquals("replay 3", results.get(1).outputText());
+        assertEquals(new ReplayCmd(1, false), results.get(2).value());
+        assertTrue(parser.parseAll(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testFirstFailureByInputIndexIsReported() {
+        QCmdParser<ReplayCmd> parser = QCmdParser.compile(ReplayCmd.class);
+        List<String[]> argvs = argvs(10_000);
+        argvs.set(7_000, new String[]{"replay", "--verbose"});
+        argvs.set(4_321, new String[]{"replay"});
+        argvs.set(9_000, new String[0]);
+        BatchParseException e = assertThrows(BatchParseException.class,
+                () -> parser.parseAll(argvs, new ForkJoinPool(3)));
+        assertEquals(4_321, e.getIndex());
+        assertInstanceOf(MissingParameterException.class, e.getCause());
+        assertTrue(e.getMessage().startsWith("第 4321 条"));
+
+        List<String[]> empty = new ArrayList<>();
+        empty.add(new String[]{"replay", "--id", "1"});
+        empty.add(null);
+        BatchParseException nullArgs = assertThrows(BatchParseException.class, () -> parser.parseAll(empty));
+        assertEquals(1, nullArgs.getIndex());
+        assertEquals("命令行内容为空", nullArgs.getCause().getMessage());
+
+        assertThrows(NullPointerException.class, () -> parser.parseAll(null));
+        assertThrows(NullPointerException.class, () -> parser.parseAll(List.of(), null));
+        assertThrows(QCmdException.class, () -> parser.parse(new String[]{"other"}));
+    }
+}
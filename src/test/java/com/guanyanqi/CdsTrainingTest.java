@@ -0,0 +1,96 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.cds.CdsTraining;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CdsTraining AppCDS 训练入口测试。
+ *
+ * @author guanyanqi
+ */
+public class CdsTrainingTest {
+
+    /** 内置样例中成功的解析：Record 正常/help/version 与 POJO 正常/help，各两种格式化器。 */
+    private static final int SAMPLE_SUCCESSES = 10;
+
+    @Cmd(names = "train", version = "1.0")
+    public record VersionedCmd(
+            @Parameter(names = {"-v", "--verbose"}) boolean verbose,
+            @Parameter(names = "--name") String name
+    ) {}
+
+    @Cmd(names = "train-required")
+    public static class RequiredCmd {
+        @Parameter(names = "--id", required = true)
+        public String id;
+    }
+
+    public static class NotACommand {
+    }
+
+    /** 内置样例必须全部按预期成功，确保默认链与内置转换器真正被触达。 */
+    @Test
+    public void testSamplesParseSuccessfully() {
+        assertEquals(SAMPLE_SUCCESSES, CdsTraining.train(List.of()));
+    }
+
+    /** 用户命令类：help 两个别名、version 两个别名、布尔开关解析，各两种格式化器。 */
+    @Test
+    public void testTrainUserCommand() {
+        assertEquals(SAMPLE_SUCCESSES + 10, CdsTraining.train(List.of(VersionedCmd.class)));
+    }
+
+    /** 未配置版本且有必填项的命令：只有 help 解析成功，失败路径不会中断训练。 */
+    @Test
+    public void testTrainToleratesExpectedFailures() {
+        assertEquals(SAMPLE_SUCCESSES + 4, CdsTraining.train(List.of(RequiredCmd.class)));
+    }
+
+    @Test
+    public void testMainLoadsClassesByName() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            CdsTraining.main(new String[]{VersionedCmd.class.getName()});
+        } finally {
+            System.setOut(original);
+        }
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("1 command class(es), 20 successful parse(s)"));
+    }
+
+    /** 未传类名时训练命令索引中的命令；测试类路径上没有索引资源。 */
+    @Test
+    public void testMainWithoutArgumentsUsesCommandIndex() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        try {
+            CdsTraining.main(new String[0]);
+        } finally {
+            System.setOut(original);
+        }
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("0 command class(es), 10 successful parse(s)"));
+    }
+
+    @Test
+    public void testMainRejectsUnknownOrUnannotatedClass() {
+        QCmdException missing = assertThrows(QCmdException.class,
+                () -> CdsTraining.main(new String[]{"com.guanyanqi.DoesNotExist"}));
+        assertTrue(missing.getMessage().contains("不存在"));
+
+        QCmdException plain = assertThrows(QCmdException.class,
+                () -> CdsTraining.main(new String[]{NotACommand.class.getName()}));
+        assertTrue(plain.getMessage().contains("@Cmd"));
+    }
+}
@@ -0,0 +1,245 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.exception.UnknownCommandException;
+import com.guanyanqi.exec.CommandExecutor;
+import com.guanyanqi.exec.CommandStats;
+import com.guanyanqi.exec.ExecutionResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CommandExecutor 命令执行引擎测试。
+ *
+ * @author guanyanqi
+ */
+public class CommandExecutorTest {
+
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+    private static final AtomicInteger PEAK = new AtomicInteger();
+
+    @Cmd(names = {"exit", "quit"})
+    public record ExitCmd(@Parameter(names = "--code", required = true) int code) implements Callable<Integer> {
+        @Override
+        public Integer call() {
+            return code;
+        }
+    }
+
+    @Cmd(names = "slow")
+    public record SlowCmd(@Parameter(names = "--millis") long millis) implements Runnable {
+        @Override
+        public void run() {
+            PEAK.accumulateAndGet(RUNNING.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                RUNNING.decrementAndGet();
+            }
+        }
+    }
+
+    @Cmd(names = "boom")
+    public record BoomCmd() implements Runnable {
+        @Override
+        public void run() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    @Cmd(names = "fatal")
+    public record FatalCmd() implements Runnable {
+        @Override
+        public void run() {
+            throw new AssertionError("fatal");
+        }
+    }
+
+    @Cmd(names = "text")
+    public record TextCmd() implements Callable<String> {
+        @Override
+        public String call() {
+            return "ignored";
+        }
+    }
+
+    @Cmd(names = "silent")
+    public record SilentCmd() implements Callable<Integer> {
+        @Override
+        public Integer call() {
+            return null;
+        }
+    }
+
+    @Cmd(names = "inert")
+    public record InertCmd() {}
+
+    private static CommandRegistry registry() {
+        return CommandRegistry.builder()
+                .register(ExitCmd.class)
+                .register(SlowCmd.class)
+                .register(BoomCmd.class)
+                .register(TextCmd.class)
+                .register(SilentCmd.class)
+                .register(FatalCmd.class)
+                .register(InertCmd.class)
+                .build();
+    }
+
+    @Test
+    public void testExecutesCallableAndRunnableCommands() {
+        try (CommandExecutor executor = CommandExecutor.builder(registry()).platformThreads(2).build()) {
+            ExecutionResult exit = executor.execute("quit", "--code", "7");
+            assertEquals(7, exit.exitCode());
+            assertEquals("quit", exit.commandName());
+            assertEquals(new ExitCmd(7), exit.parsed().value());
+            assertFalse(exit.isSuccess());
+            assertNull(exit.failure());
+
+            ExecutionResult slow = executor.execute("slow", "--millis", "1");
+            assertTrue(slow.isSuccess());
+            assertTrue(slow.runNanos() >= 1_000_000L);
+            assertTrue(slow.queuedNanos() >= 0);
+
+            ExecutionResult help = executor.execute("exit", "--help");
+            assertTrue(help.isSuccess());
+            assertTrue(help.parsed().shouldExit());
+            assertEquals(0, help.runNanos());
+
+            CommandStats stats = executor.stats("exit");
+            assertEquals(1, stats.executions());
+            assertEquals(1, stats.failures());
+            assertEquals(Integer.MAX_VALUE, stats.limit());
+            assertEquals(0, executor.stats("boom").executions());
+        }
+    }
+
+    @Test
+    public void testFailuresAreReportedThroughExitCodes() {
+        try (CommandExecutor executor = CommandExecutor.builder(registry()).build()) {
+            ExecutionResult boom = executor.execute("boom");
+            assertEquals(ExecutionResult.EXIT_FAILURE, boom.exitCode());
+            assertEquals("boom", boom.failure().getMessage());
+
+            ExecutionResult inert = executor.execute("inert");
+            assertEquals(ExecutionResult.EXIT_FAILURE, inert.exitCode());
+            assertInstanceOf(QCmdException.class, inert.failure());
+
+            // 没有给出 Integer 退出码的 Callable 按失败上报
+            ExecutionResult text = executor.execute("text");
+            assertEquals(ExecutionResult.EXIT_FAILURE, text.exitCode());
+            assertTrue(text.failure().getMessage().contains(String.class.getName()));
+            ExecutionResult silent = executor.execute("silent");
+            assertEquals(ExecutionResult.EXIT_FAILURE, silent.exitCode());
+            assertTrue(silent.failure().getMessage().contains("null"));
+            assertEquals(1, executor.stats("silent").failures());
+
+            ExecutionResult usage = executor.execute("exit", "--code", "x");
+            assertEquals(ExecutionResult.EXIT_USAGE, usage.exitCode());
+            assertNull(usage.parsed());
+
+            ExecutionResult unknown = executor.execute("missing");
+            assertInstanceOf(UnknownCommandException.class, unknown.failure());
+
+            ExecutionResult empty = executor.execute();
+            assertEquals("", empty.commandName());
+            assertEquals(ExecutionResult.EXIT_USAGE, empty.exitCode());
+
+            assertEquals(2, executor.stats("boom").failures() + executor.stats("inert").failures());
+        }
+    }
+
+    @Test
+    public void testConcurrencyLimitQueuesWithoutBlockingWorkers() {
+        RUNNING.set(0);
+        PEAK.set(0);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try (CommandExecutor executor = CommandExecutor.builder(registry())
+                .executor(pool)
+                .concurrencyLimit("slow", 2)
+                .build()) {
+            List<CompletableFuture<ExecutionResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                futures.add(executor.submit("slow", "--millis", "10"));
+            }
+            // 限流中的 slow 不占用线程，第三个线程仍可执行其他命令
+            assertEquals(3, executor.execute("exit", "--code", "3").exitCode());
+            futures.forEach(future -> assertTrue(future.join().isSuccess()));
+
+            assertTrue(PEAK.get() <= 2, "peak " + PEAK.get());
+            CommandStats stats = executor.stats("slow");
+            assertEquals(12, stats.executions());
+            assertEquals(0, stats.running());
+            assertEquals(0, stats.waiting());
+            assertEquals(2, stats.limit());
+            assertTrue(stats.maxNanos() >= stats.averageNanos());
+            assertEquals(0, new CommandStats(0, 0, 0, 0, 0, 0, 1).averageNanos());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(pool.isShutdown());
+    }
+
+    @Test
+    public void testErrorsReleaseSlotAndCompleteFuture() {
+        // Error 会继续抛给工作线程，测试中静默其未捕获异常输出
+        ExecutorService pool = Executors.newFixedThreadPool(2, task -> {
+            Thread thread = new Thread(task);
+            thread.setUncaughtExceptionHandler((t, e) -> { });
+            return thread;
+        });
+        try (CommandExecutor executor = CommandExecutor.builder(registry())
+                .executor(pool)
+                .concurrencyLimit("fatal", 1)
+                .build()) {
+            List<CompletableFuture<ExecutionResult>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(executor.submit("fatal"));
+            }
+            for (CompletableFuture<ExecutionResult> future : futures) {
+                CompletionException e = assertThrows(CompletionException.class, future::join);
+                assertInstanceOf(AssertionError.class, e.getCause());
+            }
+            CommandStats stats = executor.stats("fatal");
+            assertEquals(3, stats.failures());
+            assertEquals(0, stats.running());
+            assertEquals(0, stats.waiting());
+            assertEquals(1, executor.execute("exit", "--code", "1").exitCode());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBuilderValidationAndShutdown() {
+        CommandRegistry registry = registry();
+        assertThrows(QCmdException.class, () -> CommandExecutor.builder(registry).concurrencyLimit("slow", 0));
+        assertThrows(QCmdException.class, () -> CommandExecutor.builder(registry).defaultConcurrencyLimit(0));
+        assertThrows(QCmdException.class, () -> CommandExecutor.builder(registry).platformThreads(0));
+        assertThrows(UnknownCommandException.class,
+                () -> CommandExecutor.builder(registry).concurrencyLimit("missing", 1).build());
+        assertThrows(QCmdException.class, () -> CommandExecutor.builder(registry)
+                .concurrencyLimit("exit", 1).concurrencyLimit("quit", 2).build());
+        assertThrows(NullPointerException.class, () -> CommandExecutor.builder(null));
+
+        CommandExecutor executor = CommandExecutor.builder(registry).defaultConcurrencyLimit(1).build();
+        assertEquals(1, executor.stats("slow").limit());
+        executor.close();
+        CompletionException e = assertThrows(CompletionException.class, () -> executor.execute("exit", "--code", "0"));
+        assertInstanceOf(QCmdException.class, e.getCause());
+    }
+}
@@ -0,0 +1,167 @@
+package com.guanyanqi;
+
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.index.CommandIndex;
+import com.guanyanqi.index.CommandIndexProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 编译期命令索引生成与运行期 CommandIndex 加载测试。
+ *
+ * @author guanyanqi
+ */
+public class CommandIndexTest {
+
+    private static final String DEPLOY_SOURCE = """
+            package demo;
+            import com.guanyanqi.annotation.Cmd;
+            import com.guanyanqi.annotation.Parameter;
+            @Cmd(names = {"deploy", "dep"})
+            public record Deploy(@Parameter(names = "--env") String env) {
+                @Cmd(names = "status")
+                public static class Status {}
+            }
+            """;
+
+    private static final String IGNORED_SOURCE = """
+            package demo;
+            import com.guanyanqi.annotation.Cmd;
+            @Cmd(names = "base")
+            public abstract class AbstractBase {}
+            """;
+
+    private static final String INTERFACE_SOURCE = """
+            package demo;
+            import com.guanyanqi.annotation.Cmd;
+            @Cmd(names = "iface")
+            public interface Marker {}
+            """;
+
+    private static final String DUPLICATE_SOURCE = """
+            package demo;
+            import com.guanyanqi.annotation.Cmd;
+            @Cmd(names = "dep")
+            public class Duplicate {}
+            """;
+
+    /** 使用 CommandIndexProcessor 编译源码，返回诊断信息。 */
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path dir, Map<String, String> sources)
+            throws IOException {
+        Path src = dir.resolve("src/demo");
+        Files.createDirectories(src);
+        Path out = dir.resolve("classes");
+        Files.createDirectories(out);
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            Files.writeString(src.resolve(source.getKey() + ".java"), source.getValue());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-d", out.toString());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options, null,
+                    files.getJavaFileObjectsFromPaths(Files.list(src).toList()));
+            task.setProcessors(List.of(new CommandIndexProcessor()));
+            task.call();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    @Test
+    public void testProcessorWritesIndexAndLoaderResolvesLazily(@TempDir Path dir) throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, Map.of(
+                "Deploy", DEPLOY_SOURCE, "AbstractBase", IGNORED_SOURCE, "Marker", INTERFACE_SOURCE));
+        assertTrue(diagnostics.stream().noneMatch(d -> d.getKind() == Diagnostic.Kind.ERROR), diagnostics::toString);
+
+        Path classes = dir.resolve("classes");
+        List<String> lines = Files.readAllLines(classes.resolve(CommandIndex.RESOURCE));
+        assertTrue(lines.get(0).startsWith("#"));
+        assertEquals(List.of("dep\tdemo.Deploy", "deploy\tdemo.Deploy", "status\tdemo.Deploy$Status"),
+                lines.subList(1, lines.size()));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()},
+                getClass().getClassLoader())) {
+            CommandIndex index = CommandIndex.load(loader);
+            assertEquals(java.util.Set.of("dep", "deploy", "status"), index.commandNames());
+            assertEquals("demo.Deploy$Status", index.className("status"));
+            assertNull(index.className("base"));
+            assertNull(index.resolve("iface"));
+
+            Class<?> deploy = index.resolve("dep");
+            assertEquals("demo.Deploy", deploy.getName());
+            assertSame(deploy.getClassLoader(), loader);
+            assertEquals(index.entries().get("deploy"), deploy.getName());
+
+            ParsedCommand<?> parsed = QCmd.of(new String[]{"dep", "--env", "prod"}).parse(deploy);
+            assertEquals("Deploy[env=prod]", parsed.value().toString());
+        }
+    }
+
+    @Test
+    public void testProcessorRejectsDuplicateCommandNames(@TempDir Path dir) throws IOException {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(dir, Map.of(
+                "Deploy", DEPLOY_SOURCE, "Duplicate", DUPLICATE_SOURCE));
+        assertTrue(diagnostics.stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR
+                && d.getMessage(null).contains("[dep]")), diagnostics::toString);
+    }
+
+    @Test
+    public void testEmptyIndexWithoutResources() {
+        CommandIndex index = CommandIndex.load();
+        assertTrue(index.commandNames().isEmpty());
+        assertNull(index.resolve("anything"));
+        assertThrows(NullPointerException.class, () -> CommandIndex.load(null));
+    }
+
+    private static URLClassLoader loaderWithIndexes(Path dir, String... contents) throws IOException {
+        URL[] urls = new URL[contents.length];
+        for (int i = 0; i < contents.length; i++) {
+            Path root = dir.resolve("root" + i);
+            Path resource = root.resolve(CommandIndex.RESOURCE);
+            Files.createDirectories(resource.getParent());
+            Files.writeString(resource, contents[i]);
+            urls[i] = root.toUri().toURL();
+        }
+        return new URLClassLoader(urls, CommandIndexTest.class.getClassLoader());
+    }
+
+    @Test
+    public void testMergeAndConflicts(@TempDir Path dir) throws IOException {
+        try (URLClassLoader loader = loaderWithIndexes(dir,
+                "# header\n\nsimple\t" + SimpleTest.class.getName() + "\n",
+                "simple\t" + SimpleTest.class.getName() + "\nmissing\tcom.guanyanqi.NoSuchCmd\n")) {
+            CommandIndex index = CommandIndex.load(loader);
+            assertEquals(SimpleTest.class, index.resolve("simple"));
+            QCmdException e = assertThrows(QCmdException.class, () -> index.resolve("missing"));
+            assertTrue(e.getMessage().contains("不存在"));
+        }
+        try (URLClassLoader loader = loaderWithIndexes(dir.resolve("conflict"),
+                "a\tx.One\n", "a\tx.Two\n")) {
+            QCmdException e = assertThrows(QCmdException.class, () -> CommandIndex.load(loader));
+            assertTrue(e.getMessage().contains("[a]"));
+        }
+        for (String malformed : List.of("noTab\n", "\tx.Cls\n", "name\t\n")) {
+            try (URLClassLoader loader = loaderWithIndexes(dir.resolve("bad" + malformed.length()), malformed)) {
+                QCmdException e = assertThrows(QCmdException.class, () -> CommandIndex.load(loader));
+                assertTrue(e.getMessage().contains("格式错误"));
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.core.MarkdownHelpFormatter;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.core.parser.impl.NegativeNumberHandler;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.exception.UnknownCommandException;
+import com.guanyanqi.index.CommandIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CommandRegistry 多命令分发与 QCmdParser 预编译解析器测试。
+ *
+ * @author guanyanqi
+ */
+public class CommandRegistryTest {
+
+    @Cmd(names = {"create", "add"}, version = "2.0")
+    public record CreateCmd(@Parameter(names = "--name", required = true) String name) {}
+
+    @Cmd(names = "delete")
+    public static class DeleteCmd {
+        @Parameter(names = "--force")
+        public boolean force;
+    }
+
+    @Cmd(names = "create")
+    public record OtherCreateCmd() {}
+
+    public static class NotACommand {
+    }
+
+    @Test
+    public void testDispatchRoutesByNameAndAlias() {
+        CommandRegistry registry = CommandRegistry.builder()
+                .register(CreateCmd.class)
+                .register(DeleteCmd.class)
+                .build();
+        assertEquals(Set.of("create", "add", "delete"), registry.commandNames());
+        assertTrue(registry.contains("add"));
+        assertFalse(registry.contains("list"));
+
+        ParsedCommand<?> created = registry.dispatch(new String[]{"add", "--name", "alice"});
+        assertEquals(new CreateCmd("alice"), created.value());
+        ParsedCommand<?> deleted = registry.dispatch(new String[]{"delete", "--force"});
+        assertTrue(((DeleteCmd) deleted.value()).force);
+
+        ParsedCommand<?> version = registry.dispatch(new String[]{"create", "-V"});
+        assertEquals("create 2.0", version.outputText());
+    }
+
+    @Test
+    public void testParsersAreCompiledLazilyAndSharedAcrossAliases() {
+        CommandRegistry registry = CommandRegistry.builder()
+                .register(CreateCmd.class)
+                .register(CreateCmd.class)
+                .register(DeleteCmd.class)
+                .build();
+        assertFalse(registry.isCompiled("create"));
+        assertFalse(registry.isCompiled("missing"));
+
+        QCmdParser<?> parser = registry.parser("create");
+        assertTrue(registry.isCompiled("add"));
+        assertFalse(registry.isCompiled("delete"));
+        assertSame(parser, registry.parser("add"));
+        assertSame(CreateCmd.class, parser.commandClass());
+    }
+
+    @Test
+    public void testUnknownCommandAndInvalidRegistration() {
+        CommandRegistry registry = CommandRegistry.builder().register(CreateCmd.class).build();
+        UnknownCommandException unknown = assertThrows(UnknownCommandException.class,
+                () -> registry.dispatch(new String[]{"list"}));
+        assertEquals("list", unknown.getCommandName());
+        assertTrue(unknown.getMessage().contains("[list]"));
+        assertThrows(QCmdException.class, () -> registry.dispatch(new String[0]));
+        assertThrows(QCmdException.class, () -> registry.dispatch(null));
+
+        QCmdException conflict = assertThrows(QCmdException.class,
+                () -> CommandRegistry.builder().register(CreateCmd.class).register(OtherCreateCmd.class));
+        assertTrue(conflict.getMessage().contains("[create]"));
+        QCmdException plain = assertThrows(QCmdException.class,
+                () -> CommandRegistry.builder().register(NotACommand.class));
+        assertTrue(plain.getMessage().contains("@Cmd"));
+        assertThrows(NullPointerException.class, () -> CommandRegistry.builder().register(null));
+        assertThrows(NullPointerException.class, () -> CommandRegistry.builder().index(null));
+    }
+
+    @Test
+    public void testIndexRoutesLoadClassesOnFirstUse(@TempDir Path dir) throws IOException {
+        Path resource = dir.resolve(CommandIndex.RESOURCE);
+        Files.createDirectories(resource.getParent());
+        Files.writeString(resource, "create\t" + CreateCmd.class.getName() + "\nadd\t" + CreateCmd.class.getName()
+                + "\nghost\tcom.acme.GhostCmd\n");
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, getClass().getClassLoader())) {
+            CommandRegistry registry = CommandRegistry.fromIndex(CommandIndex.load(loader));
+            // 缺失的类不影响注册表构建与其他命令，只在被调用时报错
+            assertEquals(new CreateCmd("bob"), registry.dispatch(new String[]{"create", "--name", "bob"}).value());
+            assertSame(registry.parser("create"), registry.parser("add"));
+            QCmdException missing = assertThrows(QCmdException.class, () -> registry.dispatch(new String[]{"ghost"}));
+            assertTrue(missing.getMessage().contains("不存在"));
+            assertFalse(registry.isCompiled("ghost"));
+
+            QCmdException conflict = assertThrows(QCmdException.class, () -> CommandRegistry.builder()
+                    .register(OtherCreateCmd.class).index(CommandIndex.load(loader)));
+            assertTrue(conflict.getMessage().contains("[create]"));
+        }
+    }
+
+    @Test
+    public void testSharedChainAndFormatter() {
+        CommandRegistry registry = CommandRegistry.builder()
+                .withTokenHandlers(chain -> chain.remove(NegativeNumberHandler.class))
+                .withHelpFormatter(new MarkdownHelpFormatter())
+                .register(CreateCmd.class)
+                .build();
+        ParsedCommand<?> help = registry.dispatch(new String[]{"create", "--help"});
+        assertTrue(help.shouldExit());
+        assertTrue(help.outputText().contains("|"));
+        assertInstanceOf(MarkdownHelpFormatter.class, registry.parser("create").formatter());
+
+        assertThrows(QCmdException.class, () -> CommandRegistry.builder().withTokenHandlers(null));
+        assertThrows(QCmdException.class, () -> CommandRegistry.builder().withTokenHandlers(chain -> null));
+        assertThrows(QCmdException.class, () -> CommandRegistry.builder().withHelpFormatter(null));
+    }
+
+    @Test
+    public void testCompiledParserIsReusable() {
+        QCmdParser<CreateCmd> parser = QCmdParser.compile(CreateCmd.class);
+        assertEquals(new CreateCmd("a"), parser.parse(new String[]{"create", "--name", "a"}).value());
+        assertEquals(new CreateCmd("b"), parser.parse(new String[]{"add", "--name=b"}).value());
+        assertEquals(parser.helpText(), parser.parse(new String[]{"create", "-h"}).outputText());
+        assertSame(parser.descriptor(), parser.descriptor());
+        assertNotNull(parser.chain());
+
+        assertThrows(NullPointerException.class, () -> QCmdParser.compile(null));
+        assertThrows(QCmdException.class,
+                () -> QCmdParser.compile(CreateCmd.class, null, new MarkdownHelpFormatter()));
+        assertThrows(QCmdException.class,
+                () -> QCmdParser.compile(CreateCmd.class, TokenHandlerChain.defaults(), null));
+    }
+}
@@ -0,0 +1,191 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.converter.QBatchConverter;
+import com.guanyanqi.converter.QStringConverter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.TerminalHelpFormatter;
+import com.guanyanqi.core.parser.ParseState;
+import com.guanyanqi.core.parser.TokenContext;
+import com.guanyanqi.core.parser.TokenHandler;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.core.parser.TokenResult;
+import com.guanyanqi.core.parser.impl.PositionalHandler;
+import com.guanyanqi.core.parser.impl.StandardOptionHandler;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.metrics.CostAttribution;
+import com.guanyanqi.metrics.CostStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 处理器与转换器耗时归因测试：调用次数、接受/放弃/失败计数与快照。
+ *
+ * @author guanyanqi
+ */
+public class CostAttributionTest {
+
+    /** 跳过以 # 开头的注释 token，遇到 #! 时抛出异常。 */
+    static class CommentHandler implements TokenHandler {
+        @Override
+        public TokenResult handle(TokenContext context, ParseState parseState) {
+            if (context.currentToken().startsWith("#!")) {
+                throw new QCmdException("不支持的指令: " + context.currentToken());
+            }
+            return context.currentToken().startsWith("#") ? TokenResult.skip(context.currentIndex() + 1) : null;
+        }
+    }
+
+    public static class SizeConverter implements QStringConverter<Long> {
+        @Override
+        public Long convert(String value) {
+            if (!value.endsWith("k")) {
+                throw new IllegalArgumentException("无效大小: " + value);
+            }
+            return Long.parseLong(value.substring(0, value.length() - 1)) * 1024;
+        }
+    }
+
+    public static class UpperConverter implements QStringConverter<String> {
+        @Override
+        public String convert(String value) {
+            return value.toUpperCase();
+        }
+    }
+
+    public static class UpperBatchConverter implements QBatchConverter<String> {
+        @Override
+        public List<String> convertAll(List<String> values) {
+            return values.stream().map(String::toUpperCase).collect(Collectors.toList());
+        }
+    }
+
+    @Cmd(names = "attr")
+    public record AttrCmd(
+            @Parameter(names = "--size", converter = SizeConverter.class) Long size,
+            @Parameter(names = "--count") int count,
+            @Vars(elementConverter = UpperConverter.class) List<String> names
+    ) {}
+
+    @Cmd(names = "batch")
+    public record BatchCmd(@Vars(elementConverter = UpperBatchConverter.class) List<String> names) {}
+
+    private static TokenHandlerChain chain() {
+        return TokenHandlerChain.builder().defaults().prepend(new CommentHandler()).build();
+    }
+
+    private static CostStats converter(CostAttribution attribution, Class<?> type) {
+        return attribution.converterStats().stream().filter(s -> s.type() == type).findFirst().orElseThrow();
+    }
+
+    @Test
+    public void testHandlerAndConverterCounts() {
+        CostAttribution attribution = new CostAttribution();
+        QCmdParser<AttrCmd> parser = QCmdParser.compile(AttrCmd.class, chain(), new TerminalHelpFormatter())
+                .withAttribution(attribution);
+        AttrCmd cmd = parser.parse(new String[]{"attr", "#c", "--size", "2k", "--count", "3", "a", "b"}).value();
+        assertEquals(2048L, cmd.size());
+        assertEquals(List.of("A", "B"), cmd.names());
+
+        List<CostStats> handlers = attribution.handlerStats();
+        assertEquals(8, handlers.size());
+        CostStats comment = handlers.get(0);
+        assertEquals(CommentHandler.class, comment.type());
+        assertEquals(5, comment.invocations());
+        assertEquals(1, comment.accepts());
+        assertEquals(4, comment.declines());
+        assertEquals(StandardOptionHandler.class, handlers.get(6).type());
+        assertEquals(2, handlers.get(6).accepts());
+        assertEquals(PositionalHandler.class, handlers.get(7).type());
+        assertEquals(2, handlers.get(7).accepts());
+        assertEquals(0, handlers.get(7).declines());
+        // 每个 token 恰好被一个处理器接受
+        assertEquals(5, handlers.stream().mapToLong(CostStats::accepts).sum());
+        assertTrue(comment.totalNanos() >= 0);
+        assertEquals(comment.totalNanos() / 5, comment.averageNanos());
+
+        assertEquals(1, converter(attribution, SizeConverter.class).accepts());
+        assertEquals(2, converter(attribution, UpperConverter.class).invocations());
+        // int 走全局注册表中的转换器
+        assertEquals(4, attribution.converterStats().stream().mapToLong(CostStats::invocations).sum());
+        assertEquals(0, converter(attribution, UpperConverter.class).declines());
+    }
+
+    @Test
+    public void testFailuresAreCounted() {
+        CostAttribution attribution = new CostAttribution();
+        QCmdParser<AttrCmd> parser = QCmdParser.compile(AttrCmd.class, chain(), new TerminalHelpFormatter())
+                .withAttribution(attribution);
+        assertThrows(QCmdException.class, () -> parser.parse(new String[]{"attr", "--size", "2m"}));
+        assertEquals(1, converter(attribution, SizeConverter.class).failures());
+        assertThrows(QCmdException.class, () -> parser.parse(new String[]{"attr", "#!x"}));
+        assertEquals(1, attribution.handlerStats().get(0).failures());
+
+        attribution.reset();
+        assertEquals(0, attribution.handlerStats().get(0).invocations());
+        assertEquals(0, converter(attribution, SizeConverter.class).invocations());
+        // 解析器持有的计数器在清零后继续计数
+        parser.parse(new String[]{"attr", "--size", "1k"});
+        assertEquals(1, converter(attribution, SizeConverter.class).accepts());
+        assertEquals(1, attribution.handlerStats().get(0).declines());
+        assertEquals(new CostStats(String.class, 0, 0, 0, 0, 0).averageNanos(), 0);
+    }
+
+    @Test
+    public void testAttributionIsScopedToParser() {
+        CostAttribution first = new CostAttribution();
+        CostAttribution second = new CostAttribution();
+        QCmdParser<AttrCmd> plain = QCmdParser.compile(AttrCmd.class, chain(), new TerminalHelpFormatter());
+        QCmdParser<AttrCmd> attributed = plain.withAttribution(first);
+        // 再次归因替换原有统计，不会同时计入两处
+        QCmdParser<AttrCmd> reattributed = attributed.withAttribution(second);
+        String[] args = {"attr", "--size", "1k", "x"};
+        attributed.parse(args);
+        reattributed.parse(args);
+        plain.parse(args);
+        assertEquals(1, converter(first, SizeConverter.class).invocations());
+        assertEquals(1, converter(second, SizeConverter.class).invocations());
+        assertEquals(2, first.handlerStats().get(6).accepts() + first.handlerStats().get(7).accepts());
+
+        // 批量转换整批计为一次调用；批量解析的工作线程同样计数
+        CostAttribution batch = new CostAttribution();
+        QCmdParser<BatchCmd> batchParser = QCmdParser.compile(BatchCmd.class).withAttribution(batch);
+        batchParser.parseAll(List.of(new String[]{"batch", "a", "b", "c"}, new String[]{"batch", "d"}));
+        assertEquals(2, converter(batch, UpperBatchConverter.class).invocations());
+    }
+
+    @Test
+    public void testAttributedChain() {
+        CostAttribution attribution = new CostAttribution();
+        TokenHandlerChain chain = TokenHandlerChain.defaults().attributed(attribution);
+        assertFalse(chain.isSpeculationSafe());
+        assertTrue(TokenHandlerChain.defaults().isSpeculationSafe());
+        TokenHandlerChain bound = TokenHandlerChain.defaults()
+                .specialize(CommandDescriptor.forClass(AttrCmd.class)).attributed(attribution);
+        assertTrue(bound.isSpecialized());
+        bound.execute(new String[]{"attr", "--count", "1"}, CommandDescriptor.forClass(AttrCmd.class));
+        assertEquals(14, attribution.handlerStats().size());
+
+        assertThrows(NullPointerException.class, () -> chain.attributed(null));
+        assertThrows(QCmdException.class, () -> QCmdParser.compile(AttrCmd.class).withAttribution(null));
+        TokenHandler nullSpecializing = new TokenHandler() {
+            @Override
+            public TokenResult handle(TokenContext context, ParseState parseState) {
+                return null;
+            }
+
+            @Override
+            public TokenHandler specialize(CommandDescriptor descriptor) {
+                return null;
+            }
+        };
+        TokenHandlerChain broken = TokenHandlerChain.builder().append(nullSpecializing).build().attributed(attribution);
+        assertThrows(QCmdException.class, () -> broken.specialize(CommandDescriptor.forClass(AttrCmd.class)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.converter.ConverterRegistry;
+import com.guanyanqi.converter.DelimitedNumbers;
+import com.guanyanqi.converter.QStringConverter;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DelimitedNumbers 整数列表快速路径测试：结果必须与通用的切分加逐个转换一致。
+ *
+ * @author guanyanqi
+ */
+public class DelimitedNumbersTest {
+
+    @Cmd(names = "ids")
+    public record IdsCmd(
+            @Parameter(names = "--ids") List<Long> ids,
+            @Parameter(names = "--ports") Set<Integer> ports,
+            @Parameter(names = "--codes") List<Short> codes
+    ) {}
+
+    private static long[] generic(String value) {
+        return Arrays.stream(value.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    @Test
+    public void testMatchesGenericParsing() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            StringJoiner joiner = new StringJoiner(",");
+            int size = 1 + random.nextInt(50);
+            for (int i = 0; i < size; i++) {
+                long bound = (long) Math.pow(10, 1 + random.nextInt(18));
+                long number = Math.floorMod(random.nextLong(), bound);
+                joiner.add(Long.toString(random.nextBoolean() ? -number : number));
+            }
+            String value = joiner.toString();
+            assertArrayEquals(generic(value), DelimitedNumbers.parseLongs(value), value);
+        }
+        assertArrayEquals(new long[]{123456789012345678L, -1, 0, 7},
+                DelimitedNumbers.parseLongs("123456789012345678,-1,-0,0007,,,"));
+        assertArrayEquals(new long[0], DelimitedNumbers.parseLongs(",,,"));
+    }
+
+    @Test
+    public void testUnsupportedInputFallsBack() {
+        for (String value : new String[]{"", "1,,2", ",1", "+1", "-", "1,a", "1234567890123456789", "12345678x",
+                "1 ,2", "١٢", "1,2😀", "9:"}) {
+            assertNull(DelimitedNumbers.parseLongs(value), value);
+        }
+    }
+
+    @Test
+    public void testCollectionBindingUsesFastPathTransparently() {
+        IdsCmd cmd = QCmd.of(new String[]{"ids", "--ids=10000000001,2,-3,", "--ports", "80,443,80", "--codes", "1,2"})
+                .parse(IdsCmd.class).value();
+        assertEquals(List.of(10000000001L, 2L, -3L), cmd.ids());
+        assertEquals(Set.of(80, 443), cmd.ports());
+        assertEquals(List.of((short) 1, (short) 2), cmd.codes());
+
+        // 超出快速路径范围的输入由通用路径给出同样的结果或错误
+        assertEquals(List.of(1L, 2L), QCmd.of(new String[]{"ids", "--ids", "+1,2"}).parse(IdsCmd.class).value().ids());
+        assertThrows(QCmdException.class, () -> QCmd.of(new String[]{"ids", "--ports", "1,3000000000"}).parse(IdsCmd.class));
+        assertThrows(QCmdException.class, () -> QCmd.of(new String[]{"ids", "--ids", "1,,2"}).parse(IdsCmd.class));
+    }
+
+    @Test
+    public void testRegisteredConverterDisablesFastPath() {
+        assertTrue(ConverterRegistry.hasDefaultConverter(Long.class));
+        assertFalse(ConverterRegistry.hasDefaultConverter(IdsCmd.class));
+        QStringConverter<Long> builtIn = ConverterRegistry.getConverter(Long.class);
+        try {
+            ConverterRegistry.register(Long.class, value -> Long.parseLong(value) * 10);
+            assertFalse(ConverterRegistry.hasDefaultConverter(Long.class));
+            assertEquals(List.of(10L, 20L), QCmd.of(new String[]{"ids", "--ids", "1,2"}).parse(IdsCmd.class).value().ids());
+        } finally {
+            ConverterRegistry.register(Long.class, builtIn);
+        }
+        assertTrue(ConverterRegistry.hasDefaultConverter(Long.class));
+    }
+}
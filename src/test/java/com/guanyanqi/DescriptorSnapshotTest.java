@@ -0,0 +1,262 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.converter.QStringConverter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.CommandLineParser;
+import com.guanyanqi.core.InstanceBinder;
+import com.guanyanqi.core.model.OptionDescriptor;
+import com.guanyanqi.core.model.VarsDescriptor;
+import com.guanyanqi.core.snapshot.DescriptorSnapshot;
+import com.guanyanqi.core.snapshot.DescriptorSnapshotGenerator;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DescriptorSnapshot 二进制描述符快照测试：回放等价性、指纹失配回退、资源加载。
+ *
+ * @author guanyanqi
+ */
+public class DescriptorSnapshotTest {
+
+    public static class UpperConverter implements QStringConverter<String> {
+        @Override
+        public String convert(String value) {
+            return value.toUpperCase();
+        }
+    }
+
+    @Cmd(names = {"snap", "sn"}, desc = "snapshot record", version = "1.0")
+    public record SnapRecord(
+            @Parameter(names = {"-e", "--env"}, required = true, desc = "环境",
+                    valueValidRegex = "dev|prod", valueValidDesc = "dev 或 prod")
+            String env,
+            @Parameter(names = "--tag", converter = UpperConverter.class, maxLength = 16, allowed = {"X", "Y"})
+            String tag,
+            @Parameter(names = "--limits")
+            Map<String, Integer> limits,
+            @Parameter(names = "-v")
+            boolean verbose,
+            @Vars(desc = "文件", elementConverter = UpperConverter.class)
+            List<String> files
+    ) {}
+
+    public static class BasePojo {
+        @Parameter(names = "--base", min = 1, max = 9)
+        public int base;
+    }
+
+    @Cmd(names = "snap-pojo")
+    public static class SnapPojo extends BasePojo {
+        @Parameter(names = "--name", desc = "名称")
+        public String name;
+        @Vars
+        public String single;
+    }
+
+    @Cmd(names = "snap-other")
+    public record OtherRecord(@Parameter(names = "--x") String x) {}
+
+    private static byte[] snapshotOf(CommandDescriptor... descriptors) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DescriptorSnapshot.write(List.of(descriptors), out);
+        return out.toByteArray();
+    }
+
+    private static void assertSameMetadata(CommandDescriptor expected, CommandDescriptor actual) {
+        assertEquals(expected.getCommandNames(), actual.getCommandNames());
+        assertEquals(expected.getOptions().size(), actual.getOptions().size());
+        for (int i = 0; i < expected.getOptions().size(); i++) {
+            OptionDescriptor e = expected.getOptions().get(i);
+            OptionDescriptor a = actual.getOptions().get(i);
+            assertArrayEquals(e.names(), a.names());
+            assertEquals(e.desc(), a.desc());
+            assertEquals(e.required(), a.required());
+            assertEquals(e.valueValidRegex(), a.valueValidRegex());
+            assertEquals(e.valueValidDesc(), a.valueValidDesc());
+            assertEquals(e.converterClass(), a.converterClass());
+            assertEquals(e.type(), a.type());
+            assertEquals(e.genericType(), a.genericType());
+            assertEquals(e.targetName(), a.targetName());
+            assertSameElement(e.rawElement(), a.rawElement());
+            assertEquals(e.constraints(), a.constraints());
+        }
+        assertEquals(expected.getBoolOptionNames(), actual.getBoolOptionNames());
+        assertEquals(expected.getRequiredOptionGroups(), actual.getRequiredOptionGroups());
+        VarsDescriptor ev = expected.getVarsDescriptor();
+        VarsDescriptor av = actual.getVarsDescriptor();
+        assertEquals(ev.desc(), av.desc());
+        assertEquals(ev.elementConverterClass(), av.elementConverterClass());
+        assertEquals(ev.genericType(), av.genericType());
+        assertSameElement(ev.rawElement(), av.rawElement());
+    }
+
+    /** RecordComponent 未覆写 equals，按声明位置比较。 */
+    private static void assertSameElement(Object expected, Object actual) {
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.toString(), actual.toString());
+        if (expected instanceof RecordComponent component) {
+            assertEquals(component.getDeclaringRecord(), ((RecordComponent) actual).getDeclaringRecord());
+        }
+    }
+
+    @Test
+    public void testRecordRoundTripBindsLikeReflection() throws IOException {
+        CommandDescriptor reflected = new CommandDescriptor(SnapRecord.class);
+        DescriptorSnapshot snapshot = DescriptorSnapshot.read(ByteBuffer.wrap(snapshotOf(reflected)));
+        CommandDescriptor replayed = snapshot.descriptorFor(SnapRecord.class);
+
+        assertNotNull(replayed);
+        assertSameMetadata(reflected, replayed);
+
+        String[] args = {"sn", "-e", "dev", "--tag", "x", "--limits", "a=1", "-v", "f1", "f2"};
+        SnapRecord cmd = InstanceBinder.bind(CommandLineParser.parse(args, replayed), replayed);
+        assertEquals(new SnapRecord("dev", "X", Map.of("a", 1), true, List.of("F1", "F2")), cmd);
+    }
+
+    @Test
+    public void testPojoWithInheritedFieldRoundTrip() throws IOException {
+        CommandDescriptor reflected = new CommandDescriptor(SnapPojo.class);
+        byte[] bytes = snapshotOf(new CommandDescriptor(SnapRecord.class), reflected);
+        // 非零 position 的缓冲区同样按快照起点解码
+        ByteBuffer shifted = ByteBuffer.allocate(bytes.length + 3).position(3).put(bytes).position(3);
+        DescriptorSnapshot snapshot = DescriptorSnapshot.read(shifted);
+        CommandDescriptor replayed = snapshot.descriptorFor(SnapPojo.class);
+
+        assertSameMetadata(reflected, replayed);
+        assertEquals(Set.of(SnapRecord.class.getName(), SnapPojo.class.getName()), snapshot.classNames());
+
+        SnapPojo pojo = InstanceBinder.bind(
+                CommandLineParser.parse(new String[]{"snap-pojo", "--base", "3", "--name", "n", "one"}, replayed),
+                replayed);
+        assertEquals(3, pojo.base);
+        assertEquals("n", pojo.name);
+        assertEquals("one", pojo.single);
+    }
+
+    @Test
+    public void testMissingOrStaleEntryFallsBack() throws IOException {
+        byte[] bytes = snapshotOf(new CommandDescriptor(SnapRecord.class));
+        assertNull(DescriptorSnapshot.read(ByteBuffer.wrap(bytes)).descriptorFor(OtherRecord.class));
+
+        // 篡改条目指纹：magic + version + count + 类名长度与内容之后即为指纹
+        int fingerprintOffset = 12 + 4 + SnapRecord.class.getName().length();
+        bytes[fingerprintOffset + 7] ^= 0x5A;
+        assertNull(DescriptorSnapshot.read(ByteBuffer.wrap(bytes)).descriptorFor(SnapRecord.class));
+    }
+
+    @Test
+    public void testTypeSignatureMismatchFallsBack() throws Exception {
+        Field nameField = SnapPojo.class.getField("name");
+        CommandDescriptor wrongType = new CommandDescriptor(SnapPojo.class, (clazz, descriptor) ->
+                descriptor.registerOption(new OptionDescriptor(new String[]{"--name"}, "", false, "", "",
+                        null, Integer.class, Integer.class, "name", nameField)));
+        DescriptorSnapshot snapshot = DescriptorSnapshot.read(ByteBuffer.wrap(snapshotOf(wrongType)));
+        assertNull(snapshot.descriptorFor(SnapPojo.class));
+
+        Field foreignField = OtherPojoHolder.class.getField("name");
+        CommandDescriptor foreign = new CommandDescriptor(SnapPojo.class, (clazz, descriptor) ->
+                descriptor.registerOption(new OptionDescriptor(new String[]{"--name"}, "", false, "", "",
+                        null, String.class, String.class, "name", foreignField)));
+        assertNull(DescriptorSnapshot.read(ByteBuffer.wrap(snapshotOf(foreign))).descriptorFor(SnapPojo.class));
+    }
+
+    public static class OtherPojoHolder {
+        public String name;
+    }
+
+    @Test
+    public void testMalformedSnapshotRejected() throws IOException {
+        assertThrows(QCmdException.class, () -> DescriptorSnapshot.read(ByteBuffer.wrap(new byte[]{1, 2, 3, 4})));
+        assertThrows(QCmdException.class, () -> DescriptorSnapshot.read(ByteBuffer.wrap(new byte[2])));
+
+        byte[] bytes = snapshotOf(new CommandDescriptor(OtherRecord.class));
+        bytes[7] = 99;
+        QCmdException version = assertThrows(QCmdException.class,
+                () -> DescriptorSnapshot.read(ByteBuffer.wrap(bytes)));
+        assertTrue(version.getMessage().contains("版本"));
+    }
+
+    @Test
+    public void testLoadAllFromDirectoryAndJar(@TempDir Path dir) throws Exception {
+        Path classesDir = dir.resolve("classes");
+        Path written = DescriptorSnapshotGenerator.generate(classesDir, List.of(SnapRecord.class.getName()));
+        assertTrue(Files.exists(written));
+
+        Path jar = dir.resolve("snap.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry(DescriptorSnapshot.RESOURCE));
+            out.write(snapshotOf(new CommandDescriptor(SnapPojo.class)));
+            out.closeEntry();
+        }
+        Path corruptDir = dir.resolve("corrupt");
+        Files.createDirectories(corruptDir.resolve(DescriptorSnapshot.RESOURCE).getParent());
+        Files.write(corruptDir.resolve(DescriptorSnapshot.RESOURCE), new byte[]{0, 1});
+
+        URL[] urls = {classesDir.toUri().toURL(), jar.toUri().toURL(), corruptDir.toUri().toURL()};
+        try (URLClassLoader loader = new URLClassLoader(urls, getClass().getClassLoader())) {
+            List<DescriptorSnapshot> snapshots = DescriptorSnapshot.loadAll(loader);
+            assertEquals(2, snapshots.size());
+            assertNotNull(snapshots.get(0).descriptorFor(SnapRecord.class));
+            assertNotNull(snapshots.get(1).descriptorFor(SnapPojo.class));
+        }
+    }
+
+    @Test
+    public void testLookupWithoutSnapshotResource() {
+        assertNull(DescriptorSnapshot.lookup(String.class));
+        assertNull(DescriptorSnapshot.lookup(SnapRecord.class));
+    }
+
+    @Test
+    public void testForClassCachesDescriptor() {
+        CommandDescriptor first = CommandDescriptor.forClass(SnapRecord.class);
+        assertSame(first, CommandDescriptor.forClass(SnapRecord.class));
+        NullPointerException e = assertThrows(NullPointerException.class, () -> CommandDescriptor.forClass(null));
+        assertTrue(e.getMessage().contains("Target class must not be null"));
+    }
+
+    @Test
+    public void testGeneratorArguments(@TempDir Path dir) {
+        assertThrows(QCmdException.class, () -> DescriptorSnapshotGenerator.main(new String[]{dir.toString()}));
+        QCmdException missing = assertThrows(QCmdException.class,
+                () -> DescriptorSnapshotGenerator.generate(dir, List.of("com.guanyanqi.NoSuchCmd")));
+        assertTrue(missing.getMessage().contains("不存在"));
+    }
+
+    @Test
+    public void testGeneratorMain(@TempDir Path dir) throws IOException {
+        DescriptorSnapshotGenerator.main(new String[]{dir.toString(), SnapPojo.class.getName()});
+        byte[] bytes = Files.readAllBytes(dir.resolve(DescriptorSnapshot.RESOURCE));
+        assertNotNull(DescriptorSnapshot.read(ByteBuffer.wrap(bytes)).descriptorFor(SnapPojo.class));
+    }
+
+    @Test
+    public void testFingerprint() {
+        // 运行期生成的 lambda 隐藏类没有字节码资源，无法计算指纹
+        Runnable hidden = () -> { };
+        assertEquals(0L, DescriptorSnapshot.fingerprint(hidden.getClass()));
+        assertEquals(DescriptorSnapshot.fingerprint(SnapPojo.class), DescriptorSnapshot.fingerprint(SnapPojo.class));
+        assertNotEquals(DescriptorSnapshot.fingerprint(SnapPojo.class), DescriptorSnapshot.fingerprint(BasePojo.class));
+    }
+}
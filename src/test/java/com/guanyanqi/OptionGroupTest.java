@@ -0,0 +1,282 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.OptionGroup;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.exception.MissingParameterException;
+import com.guanyanqi.exception.OptionGroupViolationException;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.guanyanqi.annotation.OptionGroup.Kind.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@code @Cmd.groups} 选项组测试：跨选项约束编译为出现位图掩码，由 CommandValidator 校验。
+ *
+ * @author guanyanqi
+ */
+public class OptionGroupTest {
+
+    @Cmd(names = "fetch", groups = {
+            @OptionGroup(kind = EXACTLY_ONE, options = {"--file", "--url", "--stdin"}),
+            @OptionGroup(kind = REQUIRES, options = {"--user", "--password", "--realm"}),
+            @OptionGroup(kind = MUTUALLY_EXCLUSIVE, options = {"-q", "-v"}),
+            @OptionGroup(kind = ALL_OR_NONE, options = {"--cert", "--key"}),
+            @OptionGroup(kind = AT_LEAST_ONE, options = {"--out", "--print"})
+    })
+    public record FetchCmd(
+            @Parameter(names = {"-f", "--file"}) String file,
+            @Parameter(names = "--url") String url,
+            @Parameter(names = "--stdin") boolean stdin,
+            @Parameter(names = {"-u", "--user"}) String user,
+            @Parameter(names = "--password") String password,
+            @Parameter(names = "--realm") String realm,
+            @Parameter(names = "-q") boolean quiet,
+            @Parameter(names = "-v") boolean verbose,
+            @Parameter(names = "--cert") String cert,
+            @Parameter(names = "--key") String key,
+            @Parameter(names = "--out") String out,
+            @Parameter(names = "--print") boolean print,
+            @Parameter(names = "--timeout", required = true) int timeout
+    ) {}
+
+    @Cmd(names = "unknown", groups = @OptionGroup(kind = MUTUALLY_EXCLUSIVE, options = {"--a", "--b"}))
+    public record UnknownMemberCmd(@Parameter(names = "--a") String a) {}
+
+    @Cmd(names = "single", groups = @OptionGroup(kind = AT_LEAST_ONE, options = "--a"))
+    public record SingleMemberCmd(@Parameter(names = "--a") String a) {}
+
+    @Cmd(names = "dup", groups = @OptionGroup(kind = MUTUALLY_EXCLUSIVE, options = {"-a", "--alpha"}))
+    public record DuplicateMemberCmd(@Parameter(names = {"-a", "--alpha"}) String a) {}
+
+    /** 70 个选项，选项组跨越两个 long。 */
+    @Cmd(names = "wide", groups = {
+            @OptionGroup(kind = MUTUALLY_EXCLUSIVE, options = {"--o0", "--o69"}),
+            @OptionGroup(kind = REQUIRES, options = {"--o65", "--o3"})
+    })
+    public static class WideCmd {
+        @Parameter(names = "--o0")
+        public String o0;
+        @Parameter(names = "--o1")
+        public String o1;
+        @Parameter(names = "--o2")
+        public String o2;
+        @Parameter(names = "--o3")
+        public String o3;
+        @Parameter(names = "--o4")
+        public String o4;
+        @Parameter(names = "--o5")
+        public String o5;
+        @Parameter(names = "--o6")
+        public String o6;
+        @Parameter(names = "--o7")
+        public String o7;
+        @Parameter(names = "--o8")
+        public String o8;
+        @Parameter(names = "--o9")
+        public String o9;
+        @Parameter(names = "--o10")
+        public String o10;
+        @Parameter(names = "--o11")
+        public String o11;
+        @Parameter(names = "--o12")
+        public String o12;
+        @Parameter(names = "--o13")
+        public String o13;
+        @Parameter(names = "--o14")
+        public String o14;
+        @Parameter(names = "--o15")
+        public String o15;
+        @Parameter(names = "--o16")
+        public String o16;
+        @Parameter(names = "--o17")
+        public String o17;
+        @Parameter(names = "--o18")
+        public String o18;
+        @Parameter(names = "--o19")
+        public String o19;
+        @Parameter(names = "--o20")
+        public String o20;
+        @Parameter(names = "--o21")
+        public String o21;
+        @Parameter(names = "--o22")
+        public String o22;
+        @Parameter(names = "--o23")
+        public String o23;
+        @Parameter(names = "--o24")
+        public String o24;
+        @Parameter(names = "--o25")
+        public String o25;
+        @Parameter(names = "--o26")
+        public String o26;
+        @Parameter(names = "--o27")
+        public String o27;
+        @Parameter(names = "--o28")
+        public String o28;
+        @Parameter(names = "--o29")
+        public String o29;
+        @Parameter(names = "--o30")
+        public String o30;
+        @Parameter(names = "--o31")
+        public String o31;
+        @Parameter(names = "--o32")
+        public String o32;
+        @Parameter(names = "--o33")
+        public String o33;
+        @Parameter(names = "--o34")
+        public String o34;
+        @Parameter(names = "--o35")
+        public String o35;
+        @Parameter(names = "--o36")
+        public String o36;
+        @Parameter(names = "--o37")
+        public String o37;
+        @Parameter(names = "--o38")
+        public String o38;
+        @Parameter(names = "--o39")
+        public String o39;
+        @Parameter(names = "--o40")
+        public String o40;
+        @Parameter(names = "--o41")
+        public String o41;
+        @Parameter(names = "--o42")
+        public String o42;
+        @Parameter(names = "--o43")
+        public String o43;
+        @Parameter(names = "--o44")
+        public String o44;
+        @Parameter(names = "--o45")
+        public String o45;
+        @Parameter(names = "--o46")
+        public String o46;
+        @Parameter(names = "--o47")
+        public String o47;
+        @Parameter(names = "--o48")
+        public String o48;
+        @Parameter(names = "--o49")
+        public String o49;
+        @Parameter(names = "--o50")
+        public String o50;
+        @Parameter(names = "--o51")
+        public String o51;
+        @Parameter(names = "--o52")
+        public String o52;
+        @Parameter(names = "--o53")
+        public String o53;
+        @Parameter(names = "--o54")
+        public String o54;
+        @Parameter(names = "--o55")
+        public String o55;
+        @Parameter(names = "--o56")
+        public String o56;
+        @Parameter(names = "--o57")
+        public String o57;
+        @Parameter(names = "--o58")
+        public String o58;
+        @Parameter(names = "--o59")
+        public String o59;
+        @Parameter(names = "--o60")
+        public String o60;
+        @Parameter(names = "--o61")
+        public String o61;
+        @Parameter(names = "--o62")
+        public String o62;
+        @Parameter(names = "--o63")
+        public String o63;
+        @Parameter(names = "--o64")
+        public String o64;
+        @Parameter(names = "--o65")
+        public String o65;
+        @Parameter(names = "--o66")
+        public String o66;
+        @Parameter(names = "--o67")
+        public String o67;
+        @Parameter(names = "--o68")
+        public String o68;
+        @Parameter(names = "--o69", required = true)
+        public String o69;
+    }
+
+    private static final String[] BASE = {"fetch", "--timeout", "1", "--out", "x"};
+
+    private static FetchCmd fetch(String... args) {
+        String[] full = new String[BASE.length + args.length];
+        System.arraycopy(BASE, 0, full, 0, BASE.length);
+        System.arraycopy(args, 0, full, BASE.length, args.length);
+        return QCmd.of(full).parse(FetchCmd.class).value();
+    }
+
+    private static OptionGroupViolationException violation(String... args) {
+        return assertThrows(OptionGroupViolationException.class, () -> fetch(args));
+    }
+
+    @Test
+    public void testSatisfiedGroups() {
+        FetchCmd cmd = fetch("-f", "a.txt", "-u", "me", "--password", "p", "--realm", "r", "-v",
+                "--cert", "c", "--key", "k");
+        assertEquals("a.txt", cmd.file());
+        assertTrue(cmd.verbose());
+        assertTrue(fetch("--stdin").stdin());
+    }
+
+    @Test
+    public void testExactlyOne() {
+        OptionGroupViolationException none = violation();
+        assertEquals(EXACTLY_ONE, none.getKind());
+        assertEquals(List.of("--file", "--url", "--stdin"), none.getOptions());
+        assertEquals(List.of(), none.getPresentOptions());
+
+        // 以别名提供的选项按组内声明的名称报告
+        OptionGroupViolationException two = violation("-f", "a", "--url", "u");
+        assertEquals(List.of("--file", "--url"), two.getPresentOptions());
+        assertTrue(two.getMessage().contains("实际提供了 2 个"), two.getMessage());
+    }
+
+    @Test
+    public void testRequiresExclusiveAllOrNoneAtLeastOne() {
+        OptionGroupViolationException requires = violation("--url", "u", "-u", "me", "--realm", "r");
+        assertEquals(REQUIRES, requires.getKind());
+        assertTrue(requires.getMessage().endsWith("需要同时提供: --password"), requires.getMessage());
+        // 依赖方向是单向的：只提供被依赖的选项不违反约束
+        assertEquals("p", fetch("--url", "u", "--password", "p").password());
+
+        assertEquals(MUTUALLY_EXCLUSIVE, violation("--url", "u", "-q", "-v").getKind());
+        assertEquals(List.of("--key"), violation("--url", "u", "--key", "k").getPresentOptions());
+
+        OptionGroupViolationException atLeastOne = assertThrows(OptionGroupViolationException.class,
+                () -> QCmd.of(new String[]{"fetch", "--timeout", "1", "--url", "u"}).parse(FetchCmd.class));
+        assertEquals(AT_LEAST_ONE, atLeastOne.getKind());
+    }
+
+    @Test
+    public void testRequiredOptionsStillReportedFirst() {
+        MissingParameterException missing = assertThrows(MissingParameterException.class,
+                () -> QCmd.of(new String[]{"fetch", "--url", "u", "-q", "-v"}).parse(FetchCmd.class));
+        assertEquals(List.of("--timeout"), missing.getMissingParameters());
+    }
+
+    @Test
+    public void testGroupsSpanningMultipleWords() {
+        assertThrows(OptionGroupViolationException.class,
+                () -> QCmd.of(new String[]{"wide", "--o0", "a", "--o69", "b"}).parse(WideCmd.class));
+        assertThrows(OptionGroupViolationException.class,
+                () -> QCmd.of(new String[]{"wide", "--o65", "a", "--o69", "b"}).parse(WideCmd.class));
+        assertThrows(MissingParameterException.class,
+                () -> QCmd.of(new String[]{"wide", "--o0", "a"}).parse(WideCmd.class));
+        assertEquals("c", QCmd.of(new String[]{"wide", "--o65", "a", "--o3", "c", "--o69", "b"})
+                .parse(WideCmd.class).value().o3);
+    }
+
+    @Test
+    public void testInvalidGroupsFailAtDescriptorBuild() {
+        QCmdException unknown = assertThrows(QCmdException.class, () -> new CommandDescriptor(UnknownMemberCmd.class));
+        assertTrue(unknown.getMessage().contains("[--b]"), unknown.getMessage());
+        assertThrows(QCmdException.class, () -> new CommandDescriptor(SingleMemberCmd.class));
+        QCmdException dup = assertThrows(QCmdException.class, () -> new CommandDescriptor(DuplicateMemberCmd.class));
+        assertTrue(dup.getMessage().contains("[--alpha]"), dup.getMessage());
+    }
+}
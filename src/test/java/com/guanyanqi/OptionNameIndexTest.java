@@ -0,0 +1,123 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.OptionNameIndex;
+import com.guanyanqi.exception.AmbiguousOptionException;
+import com.guanyanqi.exception.MissingOptionValueException;
+import com.guanyanqi.exception.UnknownOptionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 选项名前缀树索引与 GNU 风格长选项缩写测试。
+ *
+ * @author guanyanqi
+ */
+public class OptionNameIndexTest {
+
+    @Cmd(names = "srv", abbreviations = true)
+    public record ServerCmd(
+            @Parameter(names = {"-v", "--verbose", "--verbosity"}) boolean verbose,
+            @Parameter(names = "--version-file") String versionFile,
+            @Parameter(names = {"-p", "--port"}) int port,
+            @Parameter(names = "--po") String po,
+            @Parameter(names = "--host") String host,
+            @Vars List<String> rest
+    ) {}
+
+    @Cmd(names = "strict")
+    public record StrictCmd(
+            @Parameter(names = "--verbose") boolean verbose,
+            @Parameter(names = "--host") String host
+    ) {}
+
+    private static ParsedCommand<ServerCmd> srv(String... args) {
+        return QCmd.of(args).parse(ServerCmd.class);
+    }
+
+    @Test
+    public void testFindMatchesRegion() {
+        OptionNameIndex index = CommandDescriptor.forClass(ServerCmd.class).getOptionNameIndex();
+        String token = "x--port=8080";
+        String name = index.find(token, 1, token.indexOf('='));
+        assertEquals("--port", name);
+        // 返回的是已声明的名称实例，而非新截取的子串
+        assertSame(CommandDescriptor.forClass(ServerCmd.class).getOptionByTargetName("port").names()[1], name);
+        assertEquals("--po", index.find("--po", 0, 4));
+        assertEquals("-p", index.find("-p", 0, 2));
+        assertNull(index.find("--por", 0, 5));
+        assertNull(index.find("--ports", 0, 7));
+        assertNull(index.find("--x", 0, 3));
+        assertNull(index.find("-", 0, 1));
+    }
+
+    @Test
+    public void testCompleteGroupsNamesByOption() {
+        OptionNameIndex index = CommandDescriptor.forClass(ServerCmd.class).getOptionNameIndex();
+        assertEquals(List.of("--verbose"), index.complete("--verb", 0, 6));
+        assertEquals(List.of("--verbose", "--version-file"), index.complete("--ver", 0, 5));
+        assertEquals(List.of("--po", "--port"), index.complete("--po", 0, 4));
+        assertEquals(List.of("--host"), index.complete("--h", 0, 3));
+        assertEquals(List.of(), index.complete("--z", 0, 3));
+        assertEquals(5, index.complete("-", 0, 1).size());
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        OptionNameIndex index = OptionNameIndex.of(Map.of());
+        assertNull(index.find("--a", 0, 3));
+        assertEquals(List.of(), index.complete("--a", 0, 3));
+        assertEquals(List.of(), index.complete("", 0, 0));
+    }
+
+    @Test
+    public void testUniqueAbbreviations() {
+        ServerCmd cmd = srv("srv", "--verb", "--ho", "example.org", "--version-f=v.txt", "--port", "80", "a").value();
+        assertTrue(cmd.verbose());
+        assertEquals("example.org", cmd.host());
+        assertEquals("v.txt", cmd.versionFile());
+        assertEquals(80, cmd.port());
+        assertEquals(List.of("a"), cmd.rest());
+
+        assertFalse(srv("srv", "--verbos", "false").value().verbose());
+        assertEquals("h", srv("srv", "--h=h").value().host());
+        // 精确匹配优先于把 --po 视为 --port 的缩写
+        assertEquals("x", srv("srv", "--po", "x").value().po());
+    }
+
+    @Test
+    public void testAmbiguousAbbreviation() {
+        AmbiguousOptionException e = assertThrows(AmbiguousOptionException.class, () -> srv("srv", "--ver"));
+        assertEquals("--ver", e.getOptionName());
+        assertEquals(List.of("--verbose", "--version-file"), e.getCandidates());
+        assertTrue(e.getMessage().contains("--ver"));
+
+        AmbiguousOptionException equals = assertThrows(AmbiguousOptionException.class, () -> srv("srv", "--ve=1"));
+        assertEquals("--ve", equals.getOptionName());
+    }
+
+    @Test
+    public void testAbbreviationErrors() {
+        MissingOptionValueException missing = assertThrows(MissingOptionValueException.class, () -> srv("srv", "--ho"));
+        assertEquals("--host", missing.getOptionName());
+        assertThrows(UnknownOptionException.class, () -> srv("srv", "--zz", "1"));
+        // 单横线 token 不做缩写
+        assertThrows(UnknownOptionException.class, () -> srv("srv", "-ver"));
+    }
+
+    @Test
+    public void testAbbreviationsDisabledByDefault() {
+        assertFalse(CommandDescriptor.forClass(StrictCmd.class).allowsAbbreviations());
+        assertThrows(UnknownOptionException.class, () -> QCmd.of(new String[]{"strict", "--verb"}).parse(StrictCmd.class));
+        assertThrows(UnknownOptionException.class,
+                () -> QCmd.of(new String[]{"strict", "--ho=x"}).parse(StrictCmd.class));
+        assertEquals("x", QCmd.of(new String[]{"strict", "--host=x"}).parse(StrictCmd.class).value().host());
+    }
+}
@@ -0,0 +1,153 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.CommandLineParser;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.core.parser.TokenResult;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 推测式并行切分测试：结果与异常必须与顺序处理器链完全一致。
+ *
+ * @author guanyanqi
+ */
+public class ParallelTokenizationTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @Cmd(names = "load", version = "1.0")
+    public record LoadCmd(
+            @Parameter(names = {"-p", "--path"}) String path,
+            @Parameter(names = "-n") String count,
+            @Parameter(names = "-v") boolean verbose,
+            @Vars List<String> files
+    ) {}
+
+    private static final CommandDescriptor DESCRIPTOR = CommandDescriptor.forClass(LoadCmd.class);
+
+    @AfterAll
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    private static List<String> randomTokens(Random random, int size, double errorRate, double terminatorRate) {
+        List<String> tokens = new ArrayList<>(size);
+        tokens.add("load");
+        while (tokens.size() < size) {
+            double roll = random.nextDouble();
+            if (roll < terminatorRate) {
+                tokens.add("--");
+            } else if (roll < 0.2) {
+                tokens.add(random.nextBoolean() ? "-p" : "--path");
+                tokens.add(random.nextDouble() < errorRate ? "-v" : "dir" + tokens.size());
+            } else if (roll < 0.3) {
+                tokens.add("-n");
+                tokens.add(Integer.toString(-random.nextInt(100)));
+            } else if (roll < 0.4) {
+                tokens.add("--path=eq" + tokens.size());
+            } else if (roll < 0.5) {
+                tokens.add("-v");
+                if (random.nextBoolean()) {
+                    tokens.add(random.nextBoolean() ? "true" : "false");
+                }
+            } else if (roll < 0.55) {
+                tokens.add("-" + random.nextInt(1000) + ".5");
+            } else {
+                tokens.add("file" + tokens.size());
+            }
+        }
+        return tokens;
+    }
+
+    private static void assertSameOutcome(TokenHandlerChain chain, List<String> tokens) {
+        CommandLineParser.ParseResult expected;
+        try {
+            expected = chain.execute(tokens, DESCRIPTOR);
+        } catch (QCmdException e) {
+            QCmdException actual = assertThrows(QCmdException.class, () -> chain.execute(tokens, DESCRIPTOR, POOL));
+            assertSame(e.getClass(), actual.getClass());
+            assertEquals(e.getMessage(), actual.getMessage());
+            return;
+        }
+        CommandLineParser.ParseResult actual = chain.execute(tokens, DESCRIPTOR, POOL);
+        assertEquals(expected, actual);
+        assertEquals(List.copyOf(expected.optionValues().keySet()), List.copyOf(actual.optionValues().keySet()));
+    }
+
+    @Test
+    public void testRandomArgvMatchesSequentialChain() {
+        Random random = new Random(7);
+        TokenHandlerChain chain = TokenHandlerChain.defaults();
+        assertTrue(chain.isSpeculationSafe());
+        for (int round = 0; round < 12; round++) {
+            double errorRate = round % 3 == 0 ? 0.0005 : 0;
+            double terminatorRate = round % 4 == 1 ? 0.00002 : 0;
+            assertSameOutcome(chain, randomTokens(random, 60_000 + random.nextInt(20_000), errorRate, terminatorRate));
+        }
+    }
+
+    @Test
+    public void testTerminatorAndActionsAcrossChunks() {
+        TokenHandlerChain chain = TokenHandlerChain.defaults();
+        List<String> early = randomTokens(new Random(1), 80_000, 0, 0);
+        early.add(3, "--");
+        early.add(50_000, "--");
+        early.add(70_000, "-p");
+        assertSameOutcome(chain, early);
+
+        List<String> late = randomTokens(new Random(2), 80_000, 0, 0);
+        late.add(79_000, "--");
+        assertSameOutcome(chain, late);
+
+        List<String> help = randomTokens(new Random(3), 80_000, 0, 0);
+        help.add(60_000, "--help");
+        assertEquals(ParseAction.SHOW_HELP, chain.execute(help, DESCRIPTOR, POOL).action());
+        assertSameOutcome(chain, help);
+
+        List<String> unknown = randomTokens(new Random(4), 80_000, 0, 0);
+        unknown.set(unknown.size() - 1, "-n");
+        assertSameOutcome(chain, unknown);
+    }
+
+    @Test
+    public void testCustomChainAndSmallInputFallBackToSequential() {
+        TokenHandlerChain custom = TokenHandlerChain.builder().defaults()
+                .prepend((context, state) -> context.currentToken().equals("@skip")
+                        ? TokenResult.skip(context.currentIndex() + 1) : null)
+                .build();
+        assertFalse(custom.isSpeculationSafe());
+        List<String> tokens = randomTokens(new Random(5), 40_000, 0, 0);
+        tokens.add(20_000, "@skip");
+        assertSameOutcome(custom, tokens);
+        assertSameOutcome(TokenHandlerChain.defaults(), List.of("load", "-p", "x", "a"));
+        assertThrows(QCmdException.class, () -> TokenHandlerChain.defaults().execute(List.of(), DESCRIPTOR, POOL));
+        assertThrows(NullPointerException.class,
+                () -> TokenHandlerChain.defaults().execute(List.of("load"), DESCRIPTOR, (ForkJoinPool) null));
+
+        List<String> wrongCommand = randomTokens(new Random(6), 40_000, 0, 0);
+        wrongCommand.set(0, "other");
+        assertThrows(QCmdException.class, () -> TokenHandlerChain.defaults().execute(wrongCommand, DESCRIPTOR, POOL));
+    }
+
+    @Test
+    public void testParserParseParallelBindsLikeParse() {
+        String[] args = randomTokens(new Random(8), 70_000, 0, 0).toArray(new String[0]);
+        QCmdParser<LoadCmd> parser = QCmdParser.compile(LoadCmd.class);
+        assertEquals(parser.parse(args).value(), parser.parseParallel(args, POOL).value());
+        assertEquals(parser.parse(args).value(), parser.parseParallel(args).value());
+        assertThrows(QCmdException.class, () -> parser.parseParallel(new String[0]));
+        assertThrows(QCmdException.class, () -> parser.parseParallel(null, POOL));
+    }
+}
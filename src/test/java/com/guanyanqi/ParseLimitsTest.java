@@ -0,0 +1,176 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.core.parser.ParseLimits;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.exception.ParseLimitExceededException;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.pipe.QCmdPipe;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 解析资源上限测试：超限输入抛出结构化异常，未超限输入的结果不受影响。
+ *
+ * @author guanyanqi
+ */
+public class ParseLimitsTest {
+
+    @Cmd(names = "load")
+    public record LoadCmd(
+            @Parameter(names = "--name") String name,
+            @Parameter(names = "--ids") List<Integer> ids,
+            @Parameter(names = "--tags") Set<String> tags,
+            @Parameter(names = "--labels") Map<String, String> labels,
+            @Parameter(names = "--raw") String raw,
+            @Parameter(names = "-v") boolean verbose,
+            @Vars List<String> files
+    ) {}
+
+    private static ParsedCommand<LoadCmd> load(ParseLimits limits, String... args) {
+        return QCmd.of(args).withLimits(limits).parse(LoadCmd.class);
+    }
+
+    private static ParseLimitExceededException exceeded(ParseLimits limits, String... args) {
+        return assertThrows(ParseLimitExceededException.class, () -> load(limits, args));
+    }
+
+    @Test
+    public void testTokenCountAndTotalChars() {
+        ParseLimits tokens = ParseLimits.builder().maxTokens(3).build();
+        assertEquals("a", load(tokens, "load", "--name", "a").value().name());
+        ParseLimitExceededException e = exceeded(tokens, "load", "--name", "a", "b");
+        assertEquals("maxTokens", e.getLimitName());
+        assertEquals(3, e.getLimit());
+        assertEquals(4, e.getActual());
+        assertTrue(e.getMessage().contains("maxTokens"));
+
+        ParseLimits chars = ParseLimits.builder().maxTotalChars(12).build();
+        assertEquals("ab", load(chars, "load", "--name", "ab").value().name());
+        ParseLimitExceededException total = exceeded(chars, "load", "--name", "abc", "x");
+        assertEquals("maxTotalChars", total.getLimitName());
+        // 检查在越界的 token 处停止，不再累加之后的 token
+        assertEquals(13, total.getActual());
+    }
+
+    @Test
+    public void testValueLengthAndPositionals() {
+        ParseLimits length = ParseLimits.builder().maxValueLength(4).build();
+        assertEquals("abcd", load(length, "load", "--name=abcd").value().name());
+        assertEquals("maxValueLength", exceeded(length, "load", "--name", "abcde").getLimitName());
+        assertEquals("maxValueLength", exceeded(length, "load", "--raw=abcde").getLimitName());
+        assertEquals("maxValueLength", exceeded(length, "load", "fileXX").getLimitName());
+
+        ParseLimits positionals = ParseLimits.builder().maxPositionals(2).build();
+        assertEquals(List.of("a", "b"), load(positionals, "load", "a", "-v", "b").value().files());
+        ParseLimitExceededException e = exceeded(positionals, "load", "a", "b", "--", "c");
+        assertEquals("maxPositionals", e.getLimitName());
+        assertEquals(3, e.getActual());
+    }
+
+    @Test
+    public void testCollectionAndMapElements() {
+        ParseLimits limits = ParseLimits.builder().maxElements(3).build();
+        LoadCmd cmd = load(limits, "load", "--ids", "1,2,3", "--tags=a,b", "--labels", "k=v,x=y,z=w").value();
+        assertEquals(List.of(1, 2, 3), cmd.ids());
+        assertEquals(3, cmd.labels().size());
+        assertEquals("maxElements", exceeded(limits, "load", "--ids", "1,2,3,4").getLimitName());
+        assertEquals("maxElements", exceeded(limits, "load", "--tags=a,b,c,d,e").getLimitName());
+        assertEquals(4, exceeded(limits, "load", "--labels", "a=1,b=2,c=3,d=4,e=5").getActual());
+        // 非集合类型的值不按逗号计数
+        assertEquals("a,b,c,d", load(limits, "load", "--raw", "a,b,c,d").value().raw());
+    }
+
+    @Test
+    public void testUnlimitedByDefault() {
+        String[] args = new String[2000];
+        Arrays.fill(args, "f");
+        args[0] = "load";
+        assertEquals(1999, QCmd.of(args).parse(LoadCmd.class).value().files().size());
+        assertSame(ParseLimits.NONE, QCmdParser.compile(LoadCmd.class).limits());
+        assertEquals(Integer.MAX_VALUE, ParseLimits.NONE.maxTokens());
+        assertEquals(Long.MAX_VALUE, ParseLimits.NONE.maxTotalChars());
+        assertEquals(Integer.MAX_VALUE, ParseLimits.NONE.maxValueLength());
+        assertEquals(Integer.MAX_VALUE, ParseLimits.NONE.maxPositionals());
+        assertEquals(Integer.MAX_VALUE, ParseLimits.NONE.maxElements());
+    }
+
+    @Test
+    public void testParserRegistryAndBatchHonourLimits() {
+        ParseLimits limits = ParseLimits.builder().maxTokens(2).build();
+        QCmdParser<LoadCmd> parser = QCmdParser.compile(LoadCmd.class).withLimits(limits);
+        assertSame(limits, parser.limits());
+        assertThrows(ParseLimitExceededException.class, () -> parser.parse(new String[]{"load", "a", "b"}));
+        assertThrows(ParseLimitExceededException.class, () -> parser.parseParallel(new String[]{"load", "a", "b"}));
+        assertThrows(QCmdException.class, () -> parser.parse(new String[0]));
+        assertThrows(QCmdException.class, () -> parser.parse(null));
+
+        List<String[]> batch = List.of(new String[]{"load", "a"}, new String[]{"load", "a", "b"});
+        assertInstanceOf(ParseLimitExceededException.class,
+                assertThrows(QCmdException.class, () -> parser.parseAll(batch)).getCause());
+
+        CommandRegistry registry = CommandRegistry.builder().register(LoadCmd.class).withLimits(limits).build();
+        assertEquals(List.of("a"), ((LoadCmd) registry.dispatch(new String[]{"load", "a"}).value()).files());
+        assertThrows(ParseLimitExceededException.class, () -> registry.dispatch(new String[]{"load", "a", "b"}));
+    }
+
+    @Test
+    public void testParallelPathChecksBeforeSpeculating() {
+        List<String> tokens = new ArrayList<>();
+        tokens.add("load");
+        for (int i = 1; i < TokenHandlerChain.PARALLEL_THRESHOLD + 10; i++) {
+            tokens.add("f" + i);
+        }
+        String[] args = tokens.toArray(new String[0]);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            QCmdParser<LoadCmd> parser = QCmdParser.compile(LoadCmd.class);
+            assertEquals(args.length - 1, parser.parseParallel(args, pool).value().files().size());
+            ParseLimits limits = ParseLimits.builder().maxPositionals(100).build();
+            ParseLimitExceededException e = assertThrows(ParseLimitExceededException.class,
+                    () -> parser.withLimits(limits).parseParallel(args, pool));
+            assertEquals("maxPositionals", e.getLimitName());
+            assertThrows(ParseLimitExceededException.class,
+                    () -> parser.withLimits(ParseLimits.builder().maxTokens(1000).build()).parseParallel(args, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPipeReportsLimitPerRecord() throws Exception {
+        QCmdParser<LoadCmd> parser = QCmdParser.compile(LoadCmd.class)
+                .withLimits(ParseLimits.builder().maxPositionals(1).build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QCmdPipe.of(parser).run(new ByteArrayInputStream("load\0a\nload\0a\0b\n".getBytes(StandardCharsets.UTF_8)), out);
+        String report = out.toString(StandardCharsets.UTF_8);
+        assertTrue(report.startsWith("1\tOK"), report);
+        assertTrue(report.contains("ParseLimitExceededException"), report);
+    }
+
+    @Test
+    public void testBuilderRejectsNonPositiveLimits() {
+        ParseLimits.Builder builder = ParseLimits.builder();
+        assertThrows(QCmdException.class, () -> builder.maxTokens(0));
+        assertThrows(QCmdException.class, () -> builder.maxTotalChars(0));
+        assertThrows(QCmdException.class, () -> builder.maxValueLength(-1));
+        assertThrows(QCmdException.class, () -> builder.maxPositionals(0));
+        assertThrows(QCmdException.class, () -> builder.maxElements(0));
+        assertThrows(QCmdException.class, () -> QCmd.of(new String[]{"load"}).withLimits(null));
+        assertThrows(QCmdException.class, () -> QCmdParser.compile(LoadCmd.class).withLimits(null));
+        assertThrows(QCmdException.class, () -> CommandRegistry.builder().withLimits(null));
+    }
+}
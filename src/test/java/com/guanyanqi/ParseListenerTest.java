@@ -0,0 +1,128 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.TerminalHelpFormatter;
+import com.guanyanqi.core.parser.ParseLimits;
+import com.guanyanqi.core.parser.ParseListener;
+import com.guanyanqi.core.parser.ParseState;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.core.parser.TokenKind;
+import com.guanyanqi.core.parser.impl.BooleanFlagHandler;
+import com.guanyanqi.core.parser.impl.NegativeNumberHandler;
+import com.guanyanqi.core.parser.impl.PositionalHandler;
+import com.guanyanqi.core.parser.impl.StandardOptionHandler;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.metrics.CostAttribution;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 解析监听器测试：逐 token 的处理器决策回调、按解析器与按次安装。
+ *
+ * @author guanyanqi
+ */
+public class ParseListenerTest {
+
+    @Cmd(names = "trace")
+    public record TraceCmd(
+            @Parameter(names = "--flag") boolean flag,
+            @Parameter(names = "--name") String name,
+            @Vars List<String> rest
+    ) {}
+
+    private record Decision(String token, Class<?> handler, TokenKind kind, int nextIndex) {}
+
+    private static ParseListener into(List<Decision> decisions) {
+        return (context, handler, result) ->
+                decisions.add(new Decision(context.currentToken(), handler.getClass(), result.kind(), result.nextIndex()));
+    }
+
+    @Test
+    public void testDecisionsPerToken() {
+        List<Decision> decisions = new ArrayList<>();
+        QCmdParser<TraceCmd> parser = QCmdParser.compile(TraceCmd.class).withListener(into(decisions));
+        TraceCmd cmd = parser.parse(new String[]{"trace", "--flag", "false", "-5", "--name", "-1", "x"}).value();
+        assertFalse(cmd.flag());
+        assertEquals("-1", cmd.name());
+        assertEquals(List.of("-5", "x"), cmd.rest());
+        assertEquals(List.of(
+                // --flag false 消费了下一个 token
+                new Decision("--flag", BooleanFlagHandler.class, TokenKind.BOOL_FLAG, 3),
+                // -5 不是已声明的选项，由负数处理器作为位置变量接受
+                new Decision("-5", NegativeNumberHandler.class, TokenKind.POSITIONAL, 4),
+                new Decision("--name", StandardOptionHandler.class, TokenKind.OPTION, 6),
+                new Decision("x", PositionalHandler.class, TokenKind.POSITIONAL, 7)), decisions);
+    }
+
+    @Test
+    public void testPerCallAndPerParserInstallation() {
+        QCmdParser<TraceCmd> parser = QCmdParser.compile(TraceCmd.class);
+        assertSame(ParseListener.NONE, parser.listener());
+        // 批量解析在多个工作线程上回调同一个监听器
+        List<Decision> decisions = Collections.synchronizedList(new ArrayList<>());
+        parser.parse(new String[]{"trace", "a", "b"}, into(decisions));
+        assertEquals(2, decisions.size());
+        // 按次安装不影响解析器本身
+        parser.parse(new String[]{"trace", "c"});
+        assertEquals(2, decisions.size());
+
+        QCmdParser<TraceCmd> listening = parser.withLimits(ParseLimits.builder().maxTokens(10).build())
+                .withListener(into(decisions));
+        listening.withMetrics((commandClass, phase, nanos, failed) -> { }).parse(new String[]{"trace", "--flag"});
+        listening.parseAll(List.of(new String[]{"trace", "d"}, new String[]{"trace", "e"}));
+        assertEquals(5, decisions.size());
+
+        assertThrows(QCmdException.class, () -> parser.withListener(null));
+        assertThrows(NullPointerException.class, () -> new ParseState(ParseLimits.NONE, null));
+    }
+
+    @Test
+    public void testUnrecognizedTokenWithListenerReportsNothing() {
+        TokenHandlerChain chain = TokenHandlerChain.builder().append(new StandardOptionHandler()).build();
+        List<Decision> decisions = new ArrayList<>();
+        QCmdException e = assertThrows(QCmdException.class, () -> chain.execute(List.of("trace", "x"),
+                new CommandDescriptor(TraceCmd.class), new ParseState(ParseLimits.NONE, into(decisions))));
+        assertTrue(e.getMessage().contains("x"));
+        assertTrue(decisions.isEmpty());
+    }
+
+    @Test
+    public void testListenerForcesSequentialSpeculation() {
+        String[] args = new String[TokenHandlerChain.PARALLEL_THRESHOLD + 1];
+        args[0] = "trace";
+        for (int i = 1; i < args.length; i++) {
+            args[i] = "v" + i;
+        }
+        List<Decision> decisions = new ArrayList<>();
+        QCmdParser<TraceCmd> parser = QCmdParser.compile(TraceCmd.class).withListener(into(decisions));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parser.parseParallel(args, pool);
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(args.length - 1, decisions.size());
+        for (int i = 0; i < decisions.size(); i++) {
+            assertEquals(i + 2, decisions.get(i).nextIndex());
+        }
+    }
+
+    @Test
+    public void testAttributedChainReportsWrappedHandler() {
+        List<Decision> decisions = new ArrayList<>();
+        TokenHandlerChain chain = TokenHandlerChain.defaults().attributed(new CostAttribution());
+        QCmdParser.compile(TraceCmd.class, chain, new TerminalHelpFormatter())
+                .parse(new String[]{"trace", "--name", "n"}, into(decisions));
+        assertEquals(StandardOptionHandler.class, decisions.get(0).handler());
+        ParseListener.NONE.onToken(null, null, null);
+    }
+}
@@ -0,0 +1,166 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.core.TerminalHelpFormatter;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.exception.MissingParameterException;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.exception.UnknownOptionException;
+import com.guanyanqi.metrics.ParseMetrics;
+import com.guanyanqi.metrics.ParsePhase;
+import com.guanyanqi.metrics.PhaseMetrics;
+import com.guanyanqi.metrics.PhaseStats;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 解析阶段指标测试：阶段边界的耗时记录、失败计数、内置直方图与平台 MBean。
+ *
+ * @author guanyanqi
+ */
+public class ParseMetricsTest {
+
+    @Cmd(names = "metered")
+    public record MeteredCmd(
+            @Parameter(names = "--count", required = true) int count,
+            @Parameter(names = "--name") String name
+    ) {}
+
+    private record Event(Class<?> commandClass, ParsePhase phase, boolean failed) {}
+
+    @Test
+    public void testPhasesRecordedInOrder() {
+        List<Event> events = new ArrayList<>();
+        ParseMetrics metrics = (commandClass, phase, nanos, failed) -> {
+            assertTrue(nanos >= 0);
+            events.add(new Event(commandClass, phase, failed));
+        };
+        QCmdParser<MeteredCmd> parser = QCmdParser.compile(MeteredCmd.class, TokenHandlerChain.defaults(),
+                new TerminalHelpFormatter(), metrics);
+        assertEquals(List.of(new Event(MeteredCmd.class, ParsePhase.DESCRIPTOR, false),
+                new Event(MeteredCmd.class, ParsePhase.HELP, false)), events);
+        assertSame(metrics, parser.metrics());
+
+        events.clear();
+        assertEquals(3, parser.parse(new String[]{"metered", "--count", "3"}).value().count());
+        assertEquals(List.of(new Event(MeteredCmd.class, ParsePhase.TOKENIZE, false),
+                new Event(MeteredCmd.class, ParsePhase.VALIDATE, false),
+                new Event(MeteredCmd.class, ParsePhase.BIND, false)), events);
+
+        // 失败的阶段标记 failed，之后的阶段不再记录
+        events.clear();
+        assertThrows(MissingParameterException.class, () -> parser.parse(new String[]{"metered"}));
+        assertEquals(List.of(new Event(MeteredCmd.class, ParsePhase.TOKENIZE, false),
+                new Event(MeteredCmd.class, ParsePhase.VALIDATE, true)), events);
+        events.clear();
+        assertThrows(QCmdException.class, () -> parser.parse(new String[]{"metered", "--count", "x"}));
+        assertEquals(new Event(MeteredCmd.class, ParsePhase.BIND, true), events.get(2));
+        events.clear();
+        assertThrows(QCmdException.class, () -> parser.parse(new String[]{"other"}));
+        assertEquals(List.of(new Event(MeteredCmd.class, ParsePhase.TOKENIZE, true)), events);
+
+        // --help 只经过 Token 处理
+        events.clear();
+        parser.parse(new String[]{"metered", "--help"});
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void testPhaseMetricsAggregatesAcrossEntryPoints() {
+        PhaseMetrics metrics = new PhaseMetrics();
+        for (int i = 0; i < 10; i++) {
+            QCmd.of(new String[]{"metered", "--count", String.valueOf(i)}).withMetrics(metrics).parse(MeteredCmd.class);
+        }
+        assertThrows(UnknownOptionException.class, () -> QCmd.of(new String[]{"metered", "--bogus", "1"})
+                .withMetrics(metrics).parse(MeteredCmd.class));
+
+        PhaseStats validate = metrics.stats(MeteredCmd.class, ParsePhase.VALIDATE);
+        assertEquals(11, validate.count());
+        assertEquals(1, validate.failures());
+        assertTrue(validate.maxNanos() >= validate.p99Nanos());
+        assertTrue(validate.p99Nanos() >= validate.p50Nanos());
+        assertTrue(validate.totalNanos() >= validate.maxNanos());
+        assertEquals(validate.totalNanos() / 11, validate.averageNanos());
+        assertEquals(11, metrics.stats(MeteredCmd.class, ParsePhase.DESCRIPTOR).count());
+        assertEquals(10, metrics.stats(MeteredCmd.class, ParsePhase.BIND).count());
+
+        QCmdParser<MeteredCmd> parser = QCmdParser.compile(MeteredCmd.class).withMetrics(metrics);
+        parser.parseAll(List.of(new String[]{"metered", "--count", "1"}, new String[]{"metered", "--count", "2"}));
+        parser.parseParallel(new String[]{"metered", "--count", "3"});
+        assertEquals(13, metrics.stats(MeteredCmd.class, ParsePhase.BIND).count());
+        assertEquals(14, metrics.stats(MeteredCmd.class, ParsePhase.TOKENIZE).count());
+
+        CommandRegistry registry = CommandRegistry.builder().register(MeteredCmd.class).withMetrics(metrics).build();
+        registry.parser("metered").parse(new String[]{"metered", "--count", "4"});
+        assertEquals(12, metrics.stats(MeteredCmd.class, ParsePhase.DESCRIPTOR).count());
+
+        assertEquals(Set.of(MeteredCmd.class), metrics.commandClasses());
+        assertSame(PhaseStats.EMPTY, metrics.stats(String.class, ParsePhase.BIND));
+        assertEquals(0, PhaseStats.EMPTY.averageNanos());
+        metrics.reset();
+        assertTrue(metrics.getCounts().isEmpty());
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        PhaseMetrics metrics = new PhaseMetrics();
+        for (int i = 0; i < 98; i++) {
+            metrics.record(MeteredCmd.class, ParsePhase.BIND, 100, false);
+        }
+        metrics.record(MeteredCmd.class, ParsePhase.BIND, 5_000, false);
+        metrics.record(MeteredCmd.class, ParsePhase.BIND, 1_000_000, true);
+        metrics.record(MeteredCmd.class, ParsePhase.HELP, 0, false);
+        PhaseStats bind = metrics.stats(MeteredCmd.class, ParsePhase.BIND);
+        // 100 落在 [64, 128) 桶，报告上界 127；5000 落在 [4096, 8192) 桶
+        assertEquals(127, bind.p50Nanos());
+        assertEquals(8191, bind.p99Nanos());
+        assertEquals(1_000_000, bind.maxNanos());
+        assertEquals(0, metrics.stats(MeteredCmd.class, ParsePhase.HELP).p99Nanos());
+    }
+
+    @Test
+    public void testPlatformMBean() throws Exception {
+        PhaseMetrics metrics = new PhaseMetrics();
+        QCmd.of(new String[]{"metered", "--count", "1"}).withMetrics(metrics).parse(MeteredCmd.class);
+        ObjectName name = metrics.registerMBean("metrics-test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertEquals(PhaseMetrics.JMX_DOMAIN, name.getDomain());
+            TabularData counts = (TabularData) server.getAttribute(name, "Counts");
+            assertEquals(5, counts.size());
+            String key = MeteredCmd.class.getName() + "#" + ParsePhase.BIND;
+            assertEquals(1L, counts.get(new Object[]{key}).get("value"));
+            for (String attribute : List.of("Failures", "TotalNanos", "MaxNanos", "P50Nanos", "P99Nanos")) {
+                assertEquals(5, ((TabularData) server.getAttribute(name, attribute)).size(), attribute);
+            }
+            server.invoke(name, "reset", null, null);
+            assertEquals(Map.of(), metrics.getCounts());
+            assertThrows(QCmdException.class, () -> metrics.registerMBean("metrics-test"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    @Test
+    public void testNullMetricsRejected() {
+        QCmdParser<MeteredCmd> parser = QCmdParser.compile(MeteredCmd.class);
+        assertSame(ParseMetrics.NONE, parser.metrics());
+        assertThrows(QCmdException.class, () -> parser.withMetrics(null));
+        assertThrows(QCmdException.class, () -> QCmd.of(new String[]{"metered"}).withMetrics(null));
+        assertThrows(QCmdException.class, () -> CommandRegistry.builder().withMetrics(null));
+        assertThrows(QCmdException.class, () -> QCmdParser.compile(MeteredCmd.class, TokenHandlerChain.defaults(),
+                new TerminalHelpFormatter(), null));
+        ParseMetrics.NONE.record(MeteredCmd.class, ParsePhase.BIND, 1, false);
+    }
+}
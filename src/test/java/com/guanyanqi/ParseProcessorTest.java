@@ -0,0 +1,344 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.core.TerminalHelpFormatter;
+import com.guanyanqi.core.parser.CommandLineTokenizer;
+import com.guanyanqi.core.parser.TokenHandlerChain;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.flow.ParseProcessor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParseProcessor Flow 管道集成与 CommandLineTokenizer 测试。
+ *
+ * @author guanyanqi
+ */
+public class ParseProcessorTest {
+
+    @Cmd(names = "ingest")
+    public record IngestCmd(
+            @Parameter(names = "--id", required = true) int id,
+            @Vars List<String> payload
+    ) {}
+
+    private static final QCmdParser<IngestCmd> PARSER = QCmdParser.compile(IngestCmd.class);
+
+    /**
+     * 在 request 内同步发出元素的发布者，记录在途元素的最大值。
+     */
+    private static final class ListPublisher<I> implements Flow.Publisher<I> {
+        private final List<I> items;
+        private final AtomicLong delivered;
+        private long requested;
+        private long totalRequested;
+        private long maxInFlight;
+        private int index;
+        private boolean emitting;
+        private boolean cancelled;
+        private Throwable failure;
+
+        private ListPublisher(List<I> items, AtomicLong delivered) {
+            this.items = items;
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super I> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public synchronized void request(long n) {
+                    requested += n;
+                    totalRequested += n;
+                    maxInFlight = Math.max(maxInFlight, totalRequested - delivered.get());
+                    if (emitting) {
+                        return;
+                    }
+                    emitting = true;
+                    while (requested > 0 && index < items.size() && !cancelled) {
+                        requested--;
+                        subscriber.onNext(items.get(index++));
+                    }
+                    emitting = false;
+                    if (index == items.size() && !cancelled) {
+                        cancelled = true;
+                        if (failure != null) {
+                            subscriber.onError(failure);
+                        } else {
+                            subscriber.onComplete();
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+
+    /**
+     * 每次只请求一个元素的收集订阅者。
+     */
+    private static class Collector<T> implements Flow.Subscriber<T> {
+        private final List<T> items = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<List<T>> done = new CompletableFuture<>();
+        private final AtomicLong delivered;
+        private final long initialRequest;
+        private Flow.Subscription subscription;
+
+        private Collector(AtomicLong delivered, long initialRequest) {
+            this.delivered = delivered;
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+            delivered.incrementAndGet();
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(items);
+        }
+    }
+
+    private static List<String[]> argvs(int count) {
+        List<String[]> argvs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            argvs.add(new String[]{"ingest", "--id", Integer.toString(i), "p" + i});
+        }
+        return argvs;
+    }
+
+    @Test
+    public void testSynchronousPipelineRespectsDemandWithoutRecursion() throws Exception {
+        AtomicLong delivered = new AtomicLong();
+        int count = 100_000;
+        ListPublisher<String[]> publisher = new ListPublisher<>(argvs(count), delivered);
+        ParseProcessor<String[], IngestCmd> processor = ParseProcessor.of(PARSER);
+        Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(delivered, 1);
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+
+        List<ParsedCommand<IngestCmd>> results = collector.done.get(10, TimeUnit.SECONDS);
+        assertEquals(count, results.size());
+        assertEquals(new IngestCmd(count - 1, List.of("p" + (count - 1))), results.get(count - 1).value());
+        assertEquals(1, publisher.maxInFlight);
+    }
+
+    @Test
+    public void testParallelPipelineKeepsOrderAndBoundsInFlight() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AtomicLong delivered = new AtomicLong();
+            int count = 20_000;
+            ListPublisher<String[]> publisher = new ListPublisher<>(argvs(count), delivered);
+            ParseProcessor<String[], IngestCmd> processor = ParseProcessor.of(PARSER).withParallelism(8, executor);
+            Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(delivered, 64);
+            publisher.subscribe(processor);
+            processor.subscribe(collector);
+
+            List<ParsedCommand<IngestCmd>> results = collector.done.get(30, TimeUnit.SECONDS);
+            assertEquals(count, results.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, results.get(i).value().id());
+            }
+            assertTrue(publisher.maxInFlight <= 8, "in flight " + publisher.maxInFlight);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLineInputWithSubmissionPublisher() throws Exception {
+        ParseProcessor<String, IngestCmd> processor = ParseProcessor.ofLines(PARSER);
+        Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(new AtomicLong(), 1);
+        processor.subscribe(collector);
+        try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            publisher.submit("ingest --id 1 'hello world' \"a \\\"b\\\"\"");
+            publisher.submit("ingest --id=2 plain\\ text ''");
+        }
+        List<ParsedCommand<IngestCmd>> results = collector.done.get(10, TimeUnit.SECONDS);
+        assertEquals(new IngestCmd(1, List.of("hello world", "a \"b\"")), results.get(0).value());
+        assertEquals(new IngestCmd(2, List.of("plain text", "")), results.get(1).value());
+    }
+
+    @Test
+    public void testParseFailureTerminatesAndCancelsUpstream() {
+        AtomicLong delivered = new AtomicLong();
+        List<String[]> argvs = argvs(10);
+        argvs.set(4, new String[]{"ingest", "--id", "x"});
+        ListPublisher<String[]> publisher = new ListPublisher<>(argvs, delivered);
+        Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(delivered, 1);
+        ParseProcessor<String[], IngestCmd> processor = ParseProcessor.of(PARSER);
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+
+        Exception e = assertThrows(Exception.class, () -> collector.done.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(QCmdException.class, e.getCause());
+        assertEquals(4, collector.items.size());
+        assertTrue(publisher.cancelled);
+        assertTrue(publisher.index < argvs.size());
+    }
+
+    @Test
+    public void testErrorHandlerSkipsFailedItems() throws Exception {
+        AtomicLong delivered = new AtomicLong();
+        List<String> lines = List.of("ingest --id 1", "ingest --id 'open", "other", "ingest --id 4");
+        ListPublisher<String> publisher = new ListPublisher<>(lines, delivered);
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        ParseProcessor<String, IngestCmd> processor = ParseProcessor.ofLines(PARSER)
+                .withErrorHandler((line, error) -> failed.add(line));
+        Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(delivered, 1);
+        publisher.subscribe(processor);
+        processor.subscribe(collector);
+
+        List<ParsedCommand<IngestCmd>> results = collector.done.get(10, TimeUnit.SECONDS);
+        assertEquals(List.of(1, 4), results.stream().map(p -> p.value().id()).toList());
+        assertEquals(List.of("ingest --id 'open", "other"), failed);
+    }
+
+    @Test
+    public void testUnexpectedExceptionTerminatesInOrder() throws Exception {
+        // 自定义处理器抛出的非 QCmdException 不交给错误回调，也不能让有序下游停滞
+        TokenHandlerChain chain = TokenHandlerChain.builder().defaults()
+                .prepend((context, state) -> {
+                    if (context.currentToken().equals("boom")) {
+                        throw new IllegalStateException("boom");
+                    }
+                    return null;
+                })
+                .build();
+        QCmdParser<IngestCmd> parser = QCmdParser.compile(IngestCmd.class, chain, new TerminalHelpFormatter());
+        List<String[]> argvs = argvs(8);
+        argvs.set(3, new String[]{"ingest", "--id", "3", "boom"});
+        AtomicLong delivered = new AtomicLong();
+        ListPublisher<String[]> publisher = new ListPublisher<>(argvs, delivered);
+        List<String[]> handled = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ParseProcessor<String[], IngestCmd> processor = ParseProcessor.of(parser)
+                    .withParallelism(4, executor)
+                    .withErrorHandler((argv, error) -> handled.add(argv));
+            Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(delivered, 8);
+            processor.subscribe(collector);
+            publisher.subscribe(processor);
+
+            Exception e = assertThrows(Exception.class, () -> collector.done.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+            assertEquals(List.of(0, 1, 2), collector.items.stream().map(p -> p.value().id()).toList());
+            assertTrue(handled.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testUpstreamErrorAndProtocolViolations() {
+        AtomicLong delivered = new AtomicLong();
+        ListPublisher<String[]> publisher = new ListPublisher<>(argvs(2), delivered);
+        publisher.failure = new IllegalStateException("queue closed");
+        ParseProcessor<String[], IngestCmd> processor = ParseProcessor.of(PARSER);
+        Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(delivered, 1);
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+        Exception upstream = assertThrows(Exception.class, () -> collector.done.get(10, TimeUnit.SECONDS));
+        assertEquals("queue closed", upstream.getCause().getMessage());
+        assertEquals(2, collector.items.size());
+
+        // 第二个下游与非法请求数
+        Collector<ParsedCommand<IngestCmd>> second = new Collector<>(new AtomicLong(), 1);
+        processor.subscribe(second);
+        assertInstanceOf(IllegalStateException.class,
+                assertThrows(Exception.class, () -> second.done.get(1, TimeUnit.SECONDS)).getCause());
+
+        ParseProcessor<String[], IngestCmd> fresh = ParseProcessor.of(PARSER);
+        ListPublisher<String[]> idle = new ListPublisher<>(argvs(3), new AtomicLong());
+        idle.subscribe(fresh);
+        Collector<ParsedCommand<IngestCmd>> invalid = new Collector<>(new AtomicLong(), 0);
+        fresh.subscribe(invalid);
+        assertInstanceOf(IllegalArgumentException.class,
+                assertThrows(Exception.class, () -> invalid.done.get(1, TimeUnit.SECONDS)).getCause());
+        assertTrue(idle.cancelled);
+        invalid.subscription.request(0);
+        ListPublisher<String[]> late = new ListPublisher<>(argvs(1), new AtomicLong());
+        late.subscribe(fresh);
+        assertTrue(late.cancelled);
+    }
+
+    @Test
+    public void testCancelAndRejectedExecution() throws Exception {
+        AtomicLong delivered = new AtomicLong();
+        ListPublisher<String[]> publisher = new ListPublisher<>(argvs(5), delivered);
+        ParseProcessor<String[], IngestCmd> processor = ParseProcessor.of(PARSER);
+        Collector<ParsedCommand<IngestCmd>> collector = new Collector<>(delivered, 0) {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.cancel();
+                subscription.cancel();
+            }
+        };
+        processor.subscribe(collector);
+        publisher.subscribe(processor);
+        assertTrue(publisher.cancelled);
+        assertFalse(collector.done.isDone());
+
+        ParseProcessor<String[], IngestCmd> rejecting = ParseProcessor.of(PARSER).withParallelism(2, task -> {
+            throw new RejectedExecutionException("full");
+        });
+        Collector<ParsedCommand<IngestCmd>> failing = new Collector<>(new AtomicLong(), 1);
+        rejecting.subscribe(failing);
+        new ListPublisher<>(argvs(1), new AtomicLong()).subscribe(rejecting);
+        Exception e = assertThrows(Exception.class, () -> failing.done.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause().getMessage().contains("提交失败"));
+
+        assertThrows(QCmdException.class, () -> ParseProcessor.of(PARSER).withParallelism(0, Runnable::run));
+        assertThrows(NullPointerException.class, () -> ParseProcessor.of(PARSER).withParallelism(2, null));
+        assertThrows(NullPointerException.class, () -> ParseProcessor.of(PARSER).withErrorHandler(null));
+        assertThrows(NullPointerException.class, () -> ParseProcessor.of(null));
+        assertThrows(NullPointerException.class, () -> ParseProcessor.ofLines(null));
+    }
+
+    @Test
+    public void testTokenizer() {
+        assertArrayEquals(new String[]{"a", "b c", "d\"e", "f\\g", "", "h i", "j'k"},
+                CommandLineTokenizer.tokenize("  a 'b c'  \"d\\\"e\" \"f\\g\" '' h\\ i \"j'k\" "));
+        assertArrayEquals(new String[0], CommandLineTokenizer.tokenize(" \t "));
+        assertArrayEquals(new String[]{"x\\y", "mix'ed'"}, CommandLineTokenizer.tokenize("\"x\\\\y\" mix\\''ed'\\'"));
+        assertThrows(QCmdException.class, () -> CommandLineTokenizer.tokenize("'open"));
+        assertThrows(QCmdException.class, () -> CommandLineTokenizer.tokenize("\"open"));
+        assertThrows(QCmdException.class, () -> CommandLineTokenizer.tokenize("end\\"));
+        assertThrows(QCmdException.class, () -> CommandLineTokenizer.tokenize(null));
+    }
+}
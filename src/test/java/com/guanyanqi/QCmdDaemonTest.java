@@ -0,0 +1,248 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.daemon.DaemonProtocol;
+import com.guanyanqi.daemon.QCmdDaemon;
+import com.guanyanqi.daemon.QCmdDaemonClient;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.utils.QCmdExecutors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QCmdDaemon 常驻守护进程、线路协议与参考客户端测试。
+ *
+ * @author guanyanqi
+ */
+public class QCmdDaemonTest {
+
+    @Cmd(names = "greet")
+    public record GreetCmd(
+            @Parameter(names = "--name", required = true) String name,
+            @Parameter(names = "--repeat") int repeat,
+            @Parameter(names = "--fail") boolean fail
+    ) {}
+
+    private static CommandRegistry registry() {
+        return CommandRegistry.builder().register(GreetCmd.class).build();
+    }
+
+    private static QCmdDaemon start(Path dir) throws IOException {
+        return QCmdDaemon.start(dir.resolve("qcmd.sock"), registry(), (parsed, out, err) -> {
+            GreetCmd cmd = (GreetCmd) parsed.value();
+            if (cmd.fail()) {
+                throw new IllegalStateException("boom");
+            }
+            for (int i = 0; i < Math.max(1, cmd.repeat()); i++) {
+                out.print("hello " + cmd.name() + "\n");
+            }
+            out.write('!');
+            err.print("done");
+            return 3;
+        });
+    }
+
+    private record Response(int exitCode, String out, String err) {}
+
+    private static Response call(Path socket, String... args) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int exitCode = QCmdDaemonClient.call(socket, args, out, err);
+        return new Response(exitCode, out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testExecutesCommandsAndStreamsOutput(@TempDir Path dir) throws Exception {
+        try (QCmdDaemon daemon = start(dir)) {
+            Response ok = call(daemon.socketPath(), "greet", "--name", "世界");
+            assertEquals(new Response(3, "hello 世界\n!", "done"), ok);
+
+            // 超过缓冲区的输出会被拆成多帧
+            Response large = call(daemon.socketPath(), "greet", "--name", "x", "--repeat", "5000");
+            assertEquals(5000 * "hello x\n".length() + 1, large.out().length());
+
+            Response help = call(daemon.socketPath(), "greet", "--help");
+            assertEquals(0, help.exitCode());
+            assertTrue(help.out().contains("greet"));
+
+            Response usage = call(daemon.socketPath(), "greet");
+            assertEquals(DaemonProtocol.EXIT_USAGE, usage.exitCode());
+            assertTrue(usage.err().contains("--name"));
+
+            Response unknown = call(daemon.socketPath(), "wave");
+            assertEquals(DaemonProtocol.EXIT_USAGE, unknown.exitCode());
+            assertTrue(unknown.err().contains("[wave]"));
+
+            Response failed = call(daemon.socketPath(), "greet", "--name", "x", "--fail");
+            assertEquals(DaemonProtocol.EXIT_FAILURE, failed.exitCode());
+            assertTrue(failed.err().contains("boom"));
+        }
+    }
+
+    @Test
+    public void testMalformedRequestIsReportedAsUsageError(@TempDir Path dir) throws Exception {
+        try (QCmdDaemon daemon = start(dir);
+             SocketChannel channel = SocketChannel.open(
+                     StandardProtocolFamily.UNIX)) {
+            channel.connect(UnixDomainSocketAddress.of(daemon.socketPath()));
+            channel.write(ByteBuffer.wrap(bytes(1)));
+            channel.shutdownOutput();
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+            int exitCode = DaemonProtocol.readResponse(Channels.newInputStream(channel),
+                    new ByteArrayOutputStream(), err);
+            assertEquals(DaemonProtocol.EXIT_USAGE, exitCode);
+            assertTrue(err.toString(StandardCharsets.UTF_8).contains("不完整"));
+        }
+    }
+
+    @Test
+    public void testIdleClientIsDisconnectedAtDeadline(@TempDir Path dir) throws Exception {
+        // 单线程执行器：只连接不发送的客户端在期限内独占唯一的处理线程
+        try (QCmdDaemon daemon = QCmdDaemon.start(dir.resolve("qcmd.sock"), registry(),
+                (parsed, out, err) -> 0, Executors.newFixedThreadPool(1), Duration.ofMillis(200));
+             SocketChannel idle = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            idle.connect(UnixDomainSocketAddress.of(daemon.socketPath()));
+            long start = System.nanoTime();
+            // 期限到达后连接被关闭，客户端读到流结束
+            assertEquals(-1, Channels.newInputStream(idle).read());
+            assertTrue(System.nanoTime() - start >= Duration.ofMillis(150).toNanos());
+            assertEquals(0, call(daemon.socketPath(), "greet", "--name", "x").exitCode());
+        }
+        assertThrows(QCmdException.class, () -> QCmdDaemon.start(dir.resolve("zero.sock"), registry(),
+                (p, o, e) -> 0, Executors.newFixedThreadPool(1), Duration.ZERO));
+        assertThrows(NullPointerException.class, () -> QCmdDaemon.start(dir.resolve("null.sock"), registry(),
+                (p, o, e) -> 0, Executors.newFixedThreadPool(1), null));
+    }
+
+    @Test
+    public void testConcurrentRequests(@TempDir Path dir) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try (QCmdDaemon daemon = start(dir)) {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String name = "n" + i;
+                futures.add(clients.submit(() -> call(daemon.socketPath(), "greet", "--name", name)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("hello n" + i + "\n!", futures.get(i).get().out());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCloseStopsAcceptingAndRemovesSocket(@TempDir Path dir) throws Exception {
+        QCmdDaemon daemon = start(dir);
+        Path socket = daemon.socketPath();
+        assertTrue(Files.exists(socket));
+        // 套接字仅属主可读写，其他本地用户无法连接
+        assertEquals(PosixFilePermissions.fromString("rw-------"), Files.getPosixFilePermissions(socket));
+        daemon.close();
+        daemon.awaitTermination();
+        assertFalse(Files.exists(socket));
+        assertThrows(IOException.class, () -> call(socket, "greet", "--name", "x"));
+
+        assertThrows(NullPointerException.class, () -> QCmdDaemon.start(null, registry(), (p, o, e) -> 0));
+        assertThrows(NullPointerException.class, () -> QCmdDaemon.start(socket, registry(), null));
+        assertThrows(IOException.class, () -> QCmdDaemon.start(dir.resolve("missing/dir/qcmd.sock"),
+                registry(), (p, o, e) -> 0));
+    }
+
+    @Test
+    public void testClientMainRequiresSocketAndCommand() throws IOException {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(err, true, StandardCharsets.UTF_8);
+        assertEquals(DaemonProtocol.EXIT_USAGE, runClient(new String[]{"/tmp/x.sock"}, stream));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("用法"));
+    }
+
+    private static int runClient(String[] args, PrintStream err) throws IOException {
+        try {
+            Method run = QCmdDaemonClient.class.getDeclaredMethod("run",
+                    String[].class, PrintStream.class, PrintStream.class);
+            run.setAccessible(true);
+            return (int) run.invoke(null, args, System.out, err);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testProtocolRoundTripAndMalformedFrames() throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        DaemonProtocol.writeRequest(request, new String[]{"greet", "", "--name=ü"});
+        assertArrayEquals(new String[]{"greet", "", "--name=ü"},
+                DaemonProtocol.readRequest(new ByteArrayInputStream(request.toByteArray())));
+        byte[] truncated = Arrays.copyOf(request.toByteArray(), request.size() - 1);
+        assertThrows(QCmdException.class, () -> DaemonProtocol.readRequest(new ByteArrayInputStream(truncated)));
+        assertThrows(QCmdException.class, () -> DaemonProtocol.readRequest(new ByteArrayInputStream(bytes(-1))));
+
+        assertThrows(QCmdException.class, () -> readResponse(frame('?', 0)));
+        assertThrows(QCmdException.class, () -> readResponse(frame(DaemonProtocol.FRAME_EXIT, 2)));
+        assertThrows(QCmdException.class, () -> readResponse(frame(DaemonProtocol.FRAME_STDOUT, -5)));
+        assertThrows(QCmdException.class, () -> readResponse(frame(DaemonProtocol.FRAME_STDOUT, 3)));
+        assertThrows(QCmdException.class, () -> readResponse(new byte[0]));
+    }
+
+    private static byte[] bytes(int value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        new DataOutputStream(buffer).writeInt(value);
+        return buffer.toByteArray();
+    }
+
+    private static byte[] frame(int type, int length) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(buffer);
+        data.writeByte(type);
+        data.writeInt(length);
+        return buffer.toByteArray();
+    }
+
+    private static int readResponse(byte[] response) throws IOException {
+        return DaemonProtocol.readResponse(new ByteArrayInputStream(response),
+                new ByteArrayOutputStream(), new ByteArrayOutputStream());
+    }
+
+    @Test
+    public void testExecutorsFallBackToDaemonPlatformThreads() throws Exception {
+        ExecutorService executor = QCmdExecutors.newPerTaskExecutor("qcmd-test", 2);
+        try {
+            Thread worker = executor.submit(Thread::currentThread).get();
+            if (QCmdExecutors.isVirtualThreadAvailable()) {
+                assertNotNull(worker);
+            } else {
+                assertTrue(worker.isDaemon());
+                assertTrue(worker.getName().startsWith("qcmd-test-"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
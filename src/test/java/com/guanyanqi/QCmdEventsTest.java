@@ -0,0 +1,144 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.exception.MissingParameterException;
+import com.guanyanqi.jfr.QCmdEvents;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JFR 事件测试：在进程内录制，再读取录制文件校验事件字段。
+ *
+ * @author guanyanqi
+ */
+public class QCmdEventsTest {
+
+    @Cmd(names = "recorded")
+    public record RecordedCmd(
+            @Parameter(names = "--count", required = true) int count,
+            @Vars List<String> files
+    ) {}
+
+    @Cmd(names = "described")
+    public record DescribedCmd(@Parameter(names = "--a") String a, @Parameter(names = "--b") String b) {}
+
+    /**
+     * 子进程入口：未创建任何录制时执行一次解析。
+     */
+    public static final class FirstParse {
+        public static void main(String[] args) {
+            QCmdParser.compile(RecordedCmd.class).parse(new String[]{"recorded", "--count", "1", "a"});
+        }
+    }
+
+    private static List<RecordedEvent> record(Runnable action) throws Exception {
+        Path file = Files.createTempFile("qcmd", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.guanyanqi.qcmd.Parse").withoutThreshold();
+            recording.enable("com.guanyanqi.qcmd.Conversion").withoutThreshold();
+            recording.enable("com.guanyanqi.qcmd.DescriptorCompilation").withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** 录制文件中的事件按线程缓冲区分组，需按开始时间重新排序。 */
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testParseConversionAndDescriptorEvents() throws Exception {
+        assertTrue(QCmdEvents.isAvailable());
+        QCmdParser<RecordedCmd> parser = QCmdParser.compile(RecordedCmd.class);
+        List<RecordedEvent> events = record(() -> {
+            CommandDescriptor.forClass(DescribedCmd.class);
+            parser.parse(new String[]{"recorded", "--count", "3", "a", "bc"});
+            parser.parse(new String[]{"recorded", "--help"});
+            assertThrows(MissingParameterException.class, () -> parser.parse(new String[]{"recorded"}));
+            parser.parseParallel(new String[]{"recorded", "--count", "4"});
+            parser.parseAll(List.<String[]>of(new String[]{"recorded", "--count", "5"}));
+        });
+
+        List<RecordedEvent> parses = named(events, "com.guanyanqi.qcmd.Parse").stream()
+                .filter(e -> e.getClass("commandClass").getName().equals(RecordedCmd.class.getName()))
+                .collect(Collectors.toList());
+        assertEquals(List.of("EXECUTE", "SHOW_HELP", "FAILED", "EXECUTE", "EXECUTE"),
+                parses.stream().map(e -> e.getString("outcome")).collect(Collectors.toList()));
+        assertEquals(5, parses.get(0).getInt("tokenCount"));
+        assertEquals(RecordedCmd.class.getName(), parses.get(0).getClass("commandClass").getName());
+        assertNull(parses.get(0).getString("failure"));
+        assertEquals(MissingParameterException.class.getName(), parses.get(2).getString("failure"));
+
+        long thread = Thread.currentThread().getId();
+        List<RecordedEvent> conversions = named(events, "com.guanyanqi.qcmd.Conversion").stream()
+                .filter(e -> e.getThread().getJavaThreadId() == thread).collect(Collectors.toList());
+        RecordedEvent count = conversions.get(0);
+        assertEquals("int", count.getClass("targetType").getName());
+        assertEquals(1, count.getInt("valueLength"));
+        RecordedEvent vars = conversions.get(1);
+        assertEquals(List.class.getName(), vars.getClass("targetType").getName());
+        assertEquals(3, vars.getInt("valueLength"));
+
+        List<RecordedEvent> descriptors = named(events, "com.guanyanqi.qcmd.DescriptorCompilation").stream()
+                .filter(e -> e.getClass("commandClass").getName().equals(DescribedCmd.class.getName()))
+                .collect(Collectors.toList());
+        assertEquals(1, descriptors.size());
+        assertEquals(DescribedCmd.class.getName(), descriptors.get(0).getClass("commandClass").getName());
+        assertEquals(2, descriptors.get(0).getInt("optionCount"));
+        assertFalse(descriptors.get(0).getBoolean("fromSnapshot"));
+    }
+
+    @Test
+    public void testParseWithoutRecordingLoadsNoEventClasses() throws Exception {
+        // 同一测试进程中其他用例已创建过录制，需在全新的子进程中观察类加载
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-Xlog:class+load=info", "-cp",
+                System.getProperty("java.class.path"), FirstParse.class.getName())
+                .redirectErrorStream(true).start();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream in = process.getInputStream()) {
+            in.transferTo(output);
+        }
+        assertEquals(0, process.waitFor());
+        String log = output.toString(StandardCharsets.UTF_8);
+        assertTrue(log.contains(" " + FirstParse.class.getName() + " "), log);
+        assertFalse(log.contains(" jdk.jfr.Event "));
+        assertFalse(log.contains(" com.guanyanqi.jfr.ParseEvent "));
+    }
+
+    @Test
+    public void testDisabledEventsAreSkipped() {
+        // 没有录制时不创建事件，结束调用为空操作
+        assertNull(QCmdEvents.beginParse());
+        assertNull(QCmdEvents.beginConversion());
+        assertNull(QCmdEvents.beginDescriptor());
+        QCmdEvents.endParse(null, RecordedCmd.class, 1, "EXECUTE", null);
+        QCmdEvents.endConversion(null, null, int.class, 1);
+        QCmdEvents.endDescriptor(null, RecordedCmd.class, 1, false);
+        assertEquals(3, QCmdParser.compile(RecordedCmd.class)
+                .parse(new String[]{"recorded", "--count", "3"}).value().count());
+    }
+}
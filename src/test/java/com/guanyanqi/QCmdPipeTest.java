@@ -0,0 +1,134 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.annotation.Vars;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.pipe.QCmdPipe;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * QCmdPipe 管道模式测试。
+ *
+ * @author guanyanqi
+ */
+public class QCmdPipeTest {
+
+    @Cmd(names = {"job", "j"}, version = "1.0")
+    public record JobCmd(
+            @Parameter(names = {"-q", "--queue"}, required = true) String queue,
+            @Parameter(names = {"-r", "--retries"}) int retries,
+            @Parameter(names = "--dry-run") boolean dryRun,
+            @Vars List<String> inputs
+    ) {}
+
+    private static String pipe(QCmdPipe<?> pipe, String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pipe.run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testValidatesAndNormalizesRecords() throws IOException {
+        QCmdPipe<JobCmd> pipe = QCmdPipe.of(QCmdParser.compile(JobCmd.class));
+        String input = "j\0-r\0003\0-q\0high\0a.txt\0b.txt\0\n"
+                + "\n"
+                + "job\0--queue=low\0--dry-run\r\n"
+                + "job\0-r\0x\0-q\0low\n"
+                + "job\0--help\n"
+                + "job\0-q\0a\tb\0--unknown\n"
+                + "job\0-q\0\0last";
+        String[] lines = pipe(pipe, input).split("\n");
+        assertEquals("1\tOK\tjob\0-q=high\0-r=3\0--\0a.txt\0b.txt", lines[0]);
+        assertEquals("3\tOK\tjob\0-q=low\0--dry-run=true", lines[1]);
+        assertTrue(lines[2].startsWith("4\tERR\tQCmdException\t"), lines[2]);
+        assertEquals("5\tACTION\tSHOW_HELP", lines[3]);
+        assertTrue(lines[4].startsWith("6\tERR\tUnknownOptionException\t"), lines[4]);
+        assertEquals("7\tOK\tjob\0-q=\0--\0last", lines[5]);
+        assertEquals(6, lines.length);
+    }
+
+    @Test
+    public void testNormalizedOutputCanBeFedBack() throws IOException {
+        QCmdPipe<JobCmd> pipe = QCmdPipe.of(QCmdParser.compile(JobCmd.class));
+        String first = pipe(pipe, "job\0--retries\0002\0--queue\0q\0x\n");
+        String canonical = first.substring(first.indexOf("OK\t") + 3);
+        assertEquals(first, pipe(pipe, canonical));
+    }
+
+    @Test
+    public void testSummaryEscapingAndRecordLimit() throws IOException {
+        QCmdPipe<JobCmd> pipe = QCmdPipe.of(QCmdParser.compile(JobCmd.class)).withMaxRecordBytes(16);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String input = "job\0-q\0ok\n"
+                + "job\0-q\0" + "x".repeat(40) + "\0more\n"
+                + "other\0-q\0a\\b\n";
+        QCmdPipe.Summary summary = pipe.run(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+        assertEquals(new QCmdPipe.Summary(3, 2), summary);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("1\tOK\tjob\0-q=ok", lines[0]);
+        assertEquals("2\tERR\tQCmdException\t记录超过 16 字节上限", lines[1]);
+        assertTrue(lines[2].startsWith("3\tERR\tUnknownCommandException\t"), lines[2]);
+
+        assertThrows(QCmdException.class, () -> pipe.withMaxRecordBytes(0));
+        assertThrows(NullPointerException.class, () -> QCmdPipe.of(null));
+        assertThrows(NullPointerException.class, () -> pipe.run(null, out));
+    }
+
+    @Test
+    public void testLargeInputCrossesBufferBoundaries() throws IOException {
+        StringBuilder input = new StringBuilder();
+        int records = 20_000;
+        for (int i = 0; i < records; i++) {
+            input.append("job\0-q\0queue-").append(i).append("\0-r\0").append(i % 7).append('\n');
+        }
+        QCmdPipe<JobCmd> pipe = QCmdPipe.of(QCmdParser.compile(JobCmd.class));
+        String[] lines = pipe(pipe, input.toString()).split("\n");
+        assertEquals(records, lines.length);
+        assertEquals("12345\tOK\tjob\0-q=queue-12344\0-r=3", lines[12344]);
+    }
+
+    @Test
+    public void testReadFailureIsPropagated() {
+        QCmdPipe<JobCmd> pipe = QCmdPipe.of(QCmdParser.compile(JobCmd.class));
+        InputStream broken = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("disk");
+            }
+        };
+        IOException e = assertThrows(IOException.class, () -> pipe.run(broken, new ByteArrayOutputStream()));
+        assertEquals("disk", e.getMessage());
+    }
+
+    @Test
+    public void testMainEntryPoint() throws Exception {
+        Method run = QCmdPipe.class.getDeclaredMethod("run", String[].class, InputStream.class,
+                PrintStream.class, PrintStream.class);
+        run.setAccessible(true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream outStream = new PrintStream(out, true, StandardCharsets.UTF_8);
+        PrintStream errStream = new PrintStream(err, true, StandardCharsets.UTF_8);
+
+        assertEquals(0, run.invoke(null, new String[]{JobCmd.class.getName()},
+                new ByteArrayInputStream("job\0-q\0a\n".getBytes(StandardCharsets.UTF_8)), outStream, errStream));
+        assertEquals(1, run.invoke(null, new String[]{JobCmd.class.getName()},
+                new ByteArrayInputStream("job\n".getBytes(StandardCharsets.UTF_8)), outStream, errStream));
+        assertEquals(2, run.invoke(null, new String[0], InputStream.nullInputStream(), outStream, errStream));
+        assertEquals(2, run.invoke(null, new String[]{"com.acme.Missing"}, InputStream.nullInputStream(),
+                outStream, errStream));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("不存在"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.exception.QCmdException;
+import com.guanyanqi.exception.UnknownCommandException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 密封接口命令层级的路由与绑定测试。
+ *
+ * @author guanyanqi
+ */
+public class SealedCommandTest {
+
+    sealed interface AdminCmd permits CreateUser, DeleteUser, GroupCmd {}
+
+    @Cmd(names = {"create-user", "cu"})
+    record CreateUser(@Parameter(names = "--name", required = true) String name) implements AdminCmd {}
+
+    @Cmd(names = "delete-user", version = "1.0")
+    record DeleteUser(@Parameter(names = "--force") boolean force) implements AdminCmd {}
+
+    /** 密封子接口会被递归展开。 */
+    sealed interface GroupCmd extends AdminCmd permits CreateGroup {}
+
+    @Cmd(names = "create-group")
+    static final class CreateGroup implements GroupCmd {
+        @Parameter(names = "--id")
+        int id;
+    }
+
+    sealed interface Conflicting permits First, Second {}
+
+    @Cmd(names = "same")
+    record First() implements Conflicting {}
+
+    @Cmd(names = "same")
+    record Second() implements Conflicting {}
+
+    sealed interface Incomplete permits Annotated, Plain {}
+
+    @Cmd(names = "annotated")
+    record Annotated() implements Incomplete {}
+
+    record Plain() implements Incomplete {}
+
+    @Test
+    public void testParseRoutesToPermittedRecord() {
+        ParsedCommand<AdminCmd> created = QCmd.of(new String[]{"cu", "--name", "alice"}).parse(AdminCmd.class);
+        assertEquals(new CreateUser("alice"), created.value());
+
+        AdminCmd deleted = QCmd.of(new String[]{"delete-user", "--force"}).parse(AdminCmd.class).value();
+        assertInstanceOf(DeleteUser.class, deleted);
+        assertTrue(((DeleteUser) deleted).force());
+
+        AdminCmd group = QCmd.of(new String[]{"create-group", "--id", "7"}).parse(AdminCmd.class).value();
+        assertEquals(7, ((CreateGroup) group).id);
+
+        ParsedCommand<AdminCmd> version = QCmd.of(new String[]{"delete-user", "-V"}).parse(AdminCmd.class);
+        assertEquals("delete-user 1.0", version.outputText());
+    }
+
+    @Test
+    public void testRoutingTableIsBuiltOnce() {
+        assertSame(SealedCommandRoutes.routes(AdminCmd.class), SealedCommandRoutes.routes(AdminCmd.class));
+        assertEquals(Set.of("create-user", "cu", "delete-user", "create-group"),
+                SealedCommandRoutes.routes(AdminCmd.class).keySet());
+        assertSame(CreateGroup.class, SealedCommandRoutes.routes(GroupCmd.class).get("create-group"));
+    }
+
+    @Test
+    public void testRoutingErrors() {
+        UnknownCommandException unknown = assertThrows(UnknownCommandException.class,
+                () -> QCmd.of(new String[]{"drop"}).parse(AdminCmd.class));
+        assertEquals("drop", unknown.getCommandName());
+        assertThrows(QCmdException.class, () -> QCmd.of(new String[0]).parse(AdminCmd.class));
+        assertThrows(QCmdException.class, () -> QCmd.of(null).parse(AdminCmd.class));
+
+        QCmdException conflict = assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"same"}).parse(Conflicting.class));
+        assertTrue(conflict.getMessage().contains("[same]"));
+        QCmdException incomplete = assertThrows(QCmdException.class,
+                () -> QCmd.of(new String[]{"annotated"}).parse(Incomplete.class));
+        assertTrue(incomplete.getMessage().contains(Plain.class.getName()));
+        assertThrows(QCmdException.class, () -> SealedCommandRoutes.routes(CreateUser.class));
+    }
+
+    @Test
+    public void testRegistryRegistersSealedHierarchy() {
+        CommandRegistry registry = CommandRegistry.builder().registerSealed(AdminCmd.class).build();
+        assertEquals(new CreateUser("bob"), registry.dispatch(new String[]{"create-user", "--name", "bob"}).value());
+        assertSame(registry.parser("cu"), registry.parser("create-user"));
+        assertTrue(registry.contains("create-group"));
+
+        assertThrows(QCmdException.class, () -> CommandRegistry.builder().registerSealed(DeleteUser.class));
+        assertThrows(NullPointerException.class, () -> CommandRegistry.builder().registerSealed(null));
+    }
+}
@@ -0,0 +1,152 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.core.SuggestionIndex;
+import com.guanyanqi.exception.UnknownCommandException;
+import com.guanyanqi.exception.UnknownOptionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * "是否想输入"候选索引测试：BK 树查询必须与逐个计算编辑距离的结果一致，并附加到结构化异常上。
+ *
+ * @author guanyanqi
+ */
+public class SuggestionIndexTest {
+
+    @Cmd(names = {"deploy", "dep"})
+    public record DeployCmd(
+            @Parameter(names = {"-e", "--env"}) String env,
+            @Parameter(names = "--verbose") boolean verbose,
+            @Parameter(names = "--version-file") String versionFile
+    ) {}
+
+    @Cmd(names = "status")
+    public record StatusCmd(@Parameter(names = "--all") boolean all) {}
+
+    sealed interface Ops permits Start, Stop {}
+
+    @Cmd(names = "start")
+    record Start() implements Ops {}
+
+    @Cmd(names = "stop")
+    record Stop() implements Ops {}
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j], d[i][j - 1]) + 1, d[i - 1][j - 1] + cost);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static List<String> bruteForce(List<String> names, String input) {
+        int tolerance = input.length() <= 3 ? 1 : input.length() <= 8 ? 2 : 3;
+        return names.stream().distinct()
+                .filter(name -> levenshtein(input, name) <= tolerance)
+                .sorted(Comparator.comparingInt((String name) -> levenshtein(input, name))
+                        .thenComparing(Comparator.naturalOrder()))
+                .limit(SuggestionIndex.MAX_SUGGESTIONS)
+                .toList();
+    }
+
+    private static String randomName(Random random) {
+        String alphabet = "abcdeflmnrst-";
+        int length = 2 + random.nextInt(10);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            name.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return name.toString();
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            names.add(randomName(random));
+        }
+        SuggestionIndex index = SuggestionIndex.of(names);
+        for (int round = 0; round < 2000; round++) {
+            String input = random.nextBoolean() ? randomName(random) : mutate(names.get(random.nextInt(300)), random);
+            assertEquals(bruteForce(names, input), index.suggest(input), input);
+        }
+    }
+
+    private static String mutate(String name, Random random) {
+        StringBuilder mutated = new StringBuilder(name);
+        int position = random.nextInt(mutated.length());
+        switch (random.nextInt(3)) {
+            case 0 -> mutated.deleteCharAt(position);
+            case 1 -> mutated.insert(position, 'x');
+            default -> mutated.setCharAt(position, 'z');
+        }
+        return mutated.toString();
+    }
+
+    @Test
+    public void testToleranceAndEdgeCases() {
+        SuggestionIndex index = SuggestionIndex.of(Set.of("push", "pull", "status", "stash", "commit"));
+        assertEquals(List.of("pull", "push"), index.suggest("pusl"));
+        assertEquals(List.of("status"), index.suggest("stauts"));
+        assertEquals(List.of(), index.suggest("xyz"));
+        assertEquals(List.of(), index.suggest(""));
+        assertEquals(List.of(), index.suggest(null));
+        assertEquals(List.of(), SuggestionIndex.of(List.of()).suggest("push"));
+        assertEquals(List.of("commit"), SuggestionIndex.of(List.of("commit", "commit")).suggest("comit"));
+        assertThrows(NullPointerException.class, () -> SuggestionIndex.of(null));
+    }
+
+    @Test
+    public void testUnknownOptionCarriesSuggestions() {
+        UnknownOptionException e = assertThrows(UnknownOptionException.class,
+                () -> QCmd.of(new String[]{"deploy", "--verbos"}).parse(DeployCmd.class));
+        assertEquals(List.of("--verbose"), e.getSuggestions());
+        assertTrue(e.getMessage().contains("--verbose"));
+
+        UnknownOptionException far = assertThrows(UnknownOptionException.class,
+                () -> QCmd.of(new String[]{"deploy", "--qqqqqqq"}).parse(DeployCmd.class));
+        assertEquals(List.of(), far.getSuggestions());
+        assertEquals(List.of(), new UnknownOptionException("deploy", "--x").getSuggestions());
+    }
+
+    @Test
+    public void testUnknownCommandCarriesSuggestions() {
+        CommandRegistry registry = CommandRegistry.builder()
+                .register(DeployCmd.class)
+                .register(StatusCmd.class)
+                .build();
+        UnknownCommandException routed = assertThrows(UnknownCommandException.class,
+                () -> registry.dispatch(new String[]{"statsu"}));
+        assertEquals(List.of("status"), routed.getSuggestions());
+
+        UnknownCommandException mismatched = assertThrows(UnknownCommandException.class,
+                () -> QCmdParser.compile(DeployCmd.class).parse(new String[]{"deplyo"}));
+        assertEquals("deplyo", mismatched.getCommandName());
+        assertEquals(List.of("deploy"), mismatched.getSuggestions());
+        assertTrue(mismatched.getMessage().contains("不匹配"));
+
+        UnknownCommandException sealed = assertThrows(UnknownCommandException.class,
+                () -> QCmd.of(new String[]{"stp"}).parse(Ops.class));
+        assertEquals(List.of("stop"), sealed.getSuggestions());
+        assertEquals(List.of(), new UnknownCommandException("x").getSuggestions());
+    }
+}
@@ -7,6 +7,7 @@ import com.guanyanqi.core.parser.*;
 import com.guanyanqi.core.parser.impl.*;
 import com.guanyanqi.core.CommandDescriptor;
 import com.guanyanqi.core.CommandLineParser;
+import com.guanyanqi.core.TerminalHelpFormatter;
 import com.guanyanqi.exception.QCmdException;
 import org.junit.jupiter.api.Test;
 
@@ -259,4 +260,113 @@ public class TokenHandlerChainTest {
         assertEquals(1, result.value().files().size());
         assertEquals("file.txt", result.value().files().get(0));
     }
+
+    // ---- 按描述符特化 ----
+
+    @Cmd(names = "own", version = "1.0")
+    public record OwnHelpCmd(
+            @Parameter(names = {"-h", "--host"})
+            String host,
+            @Parameter(names = "-d")
+            boolean debug,
+            @Vars
+            List<String> rest
+    ) {}
+
+    @Test
+    public void testSpecializedChainMatchesUnspecialized() {
+        CommandDescriptor own = CommandDescriptor.forClass(OwnHelpCmd.class);
+        CommandDescriptor test = CommandDescriptor.forClass(TestCmd.class);
+        TokenHandlerChain chain = TokenHandlerChain.defaults();
+        List<List<String>> lines = List.of(
+                List.of("own", "-h", "db", "-d", "false", "-5", "--", "-d"),
+                List.of("own", "--version"),
+                List.of("own", "--help", "-h", "x"),
+                List.of("own", "-x", "-1.5e3"));
+        for (List<String> line : lines) {
+            assertEquals(chain.execute(line, own), chain.specialize(own).execute(line, own));
+        }
+        assertEquals(ParseAction.SHOW_HELP, chain.specialize(test).execute(List.of("test", "-h"), test).action());
+        // TestCmd 未配置版本号，-V 不是内置动作
+        assertEquals(ParseAction.EXECUTE, chain.specialize(test).execute(List.of("test", "-V"), test).action());
+    }
+
+    @Test
+    public void testSpecializeBindsDescriptor() {
+        CommandDescriptor own = CommandDescriptor.forClass(OwnHelpCmd.class);
+        CommandDescriptor test = CommandDescriptor.forClass(TestCmd.class);
+        TokenHandlerChain chain = TokenHandlerChain.defaults();
+        TokenHandlerChain bound = chain.specialize(own);
+
+        assertFalse(chain.isSpecialized());
+        assertTrue(bound.isSpecialized());
+        assertTrue(bound.isSpeculationSafe());
+        assertSame(bound, bound.specialize(own));
+        assertThrows(QCmdException.class, () -> bound.execute(List.of("test"), test));
+
+        TokenHandlerChain rebound = bound.specialize(test);
+        assertEquals("x", rebound.execute(List.of("test", "-n", "x"), test).optionValues().get("-n"));
+        assertThrows(NullPointerException.class, () -> chain.specialize(null));
+    }
+
+    @Test
+    public void testParserSpecializesCustomHandlerOnce() {
+        AtomicInteger specializations = new AtomicInteger();
+        AtomicReference<CommandDescriptor> seen = new AtomicReference<>();
+        TokenHandler counting = new TokenHandler() {
+            @Override
+            public TokenResult handle(TokenContext context, ParseState state) {
+                assertSame(seen.get(), context.descriptor());
+                return null;
+            }
+
+            @Override
+            public TokenHandler specialize(CommandDescriptor descriptor) {
+                specializations.incrementAndGet();
+                seen.set(descriptor);
+                return this;
+            }
+        };
+        TokenHandlerChain chain = TokenHandlerChain.builder().defaults().prepend(counting).build();
+        QCmdParser<TestCmd> parser = QCmdParser.compile(TestCmd.class, chain, new TerminalHelpFormatter());
+
+        parser.parse(new String[]{"test", "-n", "a"});
+        parser.parse(new String[]{"test", "-v", "b"});
+        assertEquals(1, specializations.get());
+        assertSame(parser.descriptor(), seen.get());
+        assertTrue(parser.chain().isSpecialized());
+    }
+
+    @Test
+    public void testBuiltInSubclassIsNotSpecialized() {
+        CommandDescriptor test = CommandDescriptor.forClass(TestCmd.class);
+        StandardOptionHandler upper = new StandardOptionHandler() {
+            @Override
+            public TokenResult handle(TokenContext context, ParseState state) {
+                TokenResult result = super.handle(context, state);
+                return result == null || result.optionValue() == null ? result
+                        : TokenResult.option(result.optionName(), result.optionValue().toUpperCase(), result.nextIndex());
+            }
+        };
+        assertSame(upper, upper.specialize(test));
+        TokenHandlerChain chain = TokenHandlerChain.builder().defaults()
+                .replace(StandardOptionHandler.class, upper).build().specialize(test);
+        assertEquals("ABC", chain.execute(List.of("test", "-n", "abc"), test).optionValues().get("-n"));
+    }
+
+    @Test
+    public void testNullSpecializationRejected() {
+        TokenHandlerChain chain = TokenHandlerChain.builder().append(new TokenHandler() {
+            @Override
+            public TokenResult handle(TokenContext context, ParseState state) {
+                return null;
+            }
+
+            @Override
+            public TokenHandler specialize(CommandDescriptor descriptor) {
+                return null;
+            }
+        }).build();
+        assertThrows(QCmdException.class, () -> chain.specialize(CommandDescriptor.forClass(TestCmd.class)));
+    }
 }
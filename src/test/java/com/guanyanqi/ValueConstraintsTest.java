@@ -0,0 +1,151 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.converter.QStringConverter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.model.ValueConstraints;
+import com.guanyanqi.exception.InvalidParameterValueException;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@code @Parameter} 取值约束测试：约束在描述符冻结时按类型编译，并在转换后的值上校验。
+ *
+ * @author guanyanqi
+ */
+public class ValueConstraintsTest {
+
+    @Cmd(names = "serve")
+    public record ServeCmd(
+            @Parameter(names = {"-p", "--port"}, min = 1, max = 65535) int port,
+            @Parameter(names = "--ratio", min = 0, max = 1) Double ratio,
+            @Parameter(names = "--offset", max = 0) long offset,
+            @Parameter(names = "--big", min = -5) BigInteger big,
+            @Parameter(names = "--amount", max = 100) BigDecimal amount,
+            @Parameter(names = "--name", minLength = 2, maxLength = 8) String name,
+            @Parameter(names = "--tags", maxLength = 2) List<String> tags,
+            @Parameter(names = "--env", allowed = {"dev", "prod"}) String env,
+            @Parameter(names = "--labels", minLength = 1) Map<String, String> labels,
+            @Parameter(names = "--plain") String plain
+    ) {}
+
+    public static class Options {
+        @Parameter(names = "--level", min = 0, max = 9)
+        public byte level;
+
+        @Parameter(names = "--codes", minLength = 1, maxLength = 3, converter = SplitConverter.class)
+        public String[] codes;
+    }
+
+    public static class SplitConverter implements QStringConverter<String[]> {
+        @Override
+        public String[] convert(String value) {
+            return value.split(",");
+        }
+    }
+
+    @Cmd(names = "pojo")
+    public static class PojoCmd extends Options {
+    }
+
+    @Cmd(names = "bad-range")
+    public record RangeOnStringCmd(@Parameter(names = "--x", min = 1) String x) {}
+
+    @Cmd(names = "bad-order")
+    public record InvertedRangeCmd(@Parameter(names = "--x", min = 5, max = 1) int x) {}
+
+    @Cmd(names = "bad-length")
+    public record LengthOnNumberCmd(@Parameter(names = "--x", maxLength = 3) int x) {}
+
+    @Cmd(names = "bad-min-length")
+    public record InvertedLengthCmd(@Parameter(names = "--x", minLength = 4, maxLength = 2) String x) {}
+
+    @Cmd(names = "bad-allowed")
+    public record AllowedOnNumberCmd(@Parameter(names = "--x", allowed = "1") int x) {}
+
+    private static ServeCmd serve(String... args) {
+        String[] full = new String[args.length + 1];
+        full[0] = "serve";
+        System.arraycopy(args, 0, full, 1, args.length);
+        return QCmd.of(full).parse(ServeCmd.class).value();
+    }
+
+    private static InvalidParameterValueException rejected(String... args) {
+        return assertThrows(InvalidParameterValueException.class, () -> serve(args));
+    }
+
+    @Test
+    public void testValuesWithinBoundsAreAccepted() {
+        ServeCmd cmd = serve("--port", "65535", "--ratio", "0.5", "--offset", "-3", "--big", "123456789012345678901234",
+                "--amount", "99.99", "--name", "ab", "--tags", "a,b", "--env", "prod", "--labels", "k=v", "--plain", "x");
+        assertEquals(65535, cmd.port());
+        assertEquals(0.5, cmd.ratio());
+        assertEquals(-3, cmd.offset());
+        assertEquals(new BigInteger("123456789012345678901234"), cmd.big());
+        assertEquals("prod", cmd.env());
+        assertEquals(List.of("a", "b"), cmd.tags());
+        assertEquals(1, serve("-p", "1").port());
+    }
+
+    @Test
+    public void testNumericRanges() {
+        InvalidParameterValueException port = rejected("-p", "0");
+        assertEquals("-p", port.getOptionName());
+        assertEquals("0", port.getValue());
+        assertEquals("取值范围 [1, 65535]", port.getRuleDesc());
+        rejected("--port", "70000");
+        rejected("--ratio", "1.01");
+        rejected("--ratio", "NaN");
+        assertEquals("取值不大于 0", rejected("--offset", "1").getRuleDesc());
+        assertEquals("取值不小于 -5", rejected("--big", "-6").getRuleDesc());
+        rejected("--amount", "100.0001");
+        // 单侧边界的大数不受 long 范围限制
+        assertEquals(new BigDecimal("-1E+40"), serve("--amount", "-1E+40").amount());
+    }
+
+    @Test
+    public void testLengthAndAllowedValues() {
+        assertEquals("长度范围 [2, 8]", rejected("--name", "a").getRuleDesc());
+        rejected("--name", "abcdefghi");
+        assertEquals("长度不大于 2", rejected("--tags", "a,b,c").getRuleDesc());
+        assertEquals("可选值 [dev, prod]", rejected("--env", "Dev").getRuleDesc());
+        assertEquals("dev", serve("--env", "dev").env());
+    }
+
+    @Test
+    public void testPojoFieldsAndArrays() {
+        PojoCmd cmd = QCmd.of(new String[]{"pojo", "--level", "9", "--codes", "a,b"}).parse(PojoCmd.class).value();
+        assertEquals(9, cmd.level);
+        assertThrows(InvalidParameterValueException.class,
+                () -> QCmd.of(new String[]{"pojo", "--level", "10"}).parse(PojoCmd.class));
+        assertThrows(InvalidParameterValueException.class,
+                () -> QCmd.of(new String[]{"pojo", "--codes", "a,b,c,d"}).parse(PojoCmd.class));
+    }
+
+    @Test
+    public void testDescriptorExposesRulesAndHelp() {
+        CommandDescriptor descriptor = CommandDescriptor.forClass(ServeCmd.class);
+        assertEquals("取值范围 [1, 65535]", descriptor.getConstraintRule(descriptor.getOptionByTargetName("port")));
+        assertNull(descriptor.getConstraintRule(descriptor.getOptionByTargetName("plain")));
+        assertSame(ValueConstraints.NONE, descriptor.getOptionByTargetName("plain").constraints());
+        assertEquals(List.of("dev", "prod"), descriptor.getOptionByTargetName("env").constraints().allowed());
+        assertTrue(QCmd.help(ServeCmd.class).contains("取值约束：长度范围 [2, 8]"));
+    }
+
+    @Test
+    public void testInvalidDeclarationsFailAtDescriptorBuild() {
+        for (Class<?> type : List.of(RangeOnStringCmd.class, InvertedRangeCmd.class, LengthOnNumberCmd.class,
+                InvertedLengthCmd.class, AllowedOnNumberCmd.class)) {
+            QCmdException e = assertThrows(QCmdException.class, () -> new CommandDescriptor(type));
+            assertTrue(e.getMessage().contains("参数 [x]"), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.guanyanqi;
+
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.regex.ValueMatcher;
+import com.guanyanqi.exception.InvalidParameterValueException;
+import com.guanyanqi.exception.QCmdException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * valueValidRegex 匹配器测试：子集内的表达式走线性时间 NFA，结果必须与 {@link Pattern#matches} 一致；
+ * 子集以外的表达式回退到 java.util.regex 并受步数预算约束。
+ *
+ * @author guanyanqi
+ */
+public class ValueMatcherTest {
+
+    @Cmd(names = "guard", regexStepBudget = 10_000)
+    public record GuardCmd(
+            @Parameter(names = "--id", valueValidRegex = "(a|aa){1,40}b") String id,
+            @Parameter(names = "--tag", valueValidRegex = "(a|aa)+(?=c)c") String tag,
+            @Parameter(names = "--name") String name
+    ) {}
+
+    @Cmd(names = "broken")
+    public record BrokenCmd(@Parameter(names = "--x", valueValidRegex = "(") String x) {}
+
+    @Cmd(names = "budget", regexStepBudget = 0)
+    public record ZeroBudgetCmd(@Parameter(names = "--x", valueValidRegex = "a") String x) {}
+
+    private static final String[] LINEAR = {
+            "^[0-9]+(\\.[0-9]{1,2})?$", "^(dev|test|prod)$", "\\w+", "[A-Z]+", "a|b|", "(?:ab)*c?", "x{0}",
+            "[^\\d\\s]{2,}", "[-a-c_]+", "[a-]", "[\\]\\-]", ".*", "\\.\\*\\$", "(a*)*b", "a{2,}?", "a??b",
+            "\\t\\n\\r\\f\\e\\a", "[\\D][\\W][\\S]", "^a|b$", "😀.", "()"
+    };
+
+    private static final String[] FALLBACK = {
+            "(a)\\1", "a(?=b)b", "(?i)abc", "a++", "\\bword\\b", "\\p{L}+", "[a-z&&[^x]]", "[a[b]]",
+            "a$b", "(a$)", "x^", "\\Qa\\E", "\\x41", "]", "a{1001}", "[a-c-e]", "[--a]",
+            "(?<n>a)", "a{2}{3}", "^*a", "[\\d-z]", "(?:a{100}){100}"
+    };
+
+    @Test
+    public void testSubsetCompilesToLinearMatcher() {
+        for (String regex : LINEAR) {
+            assertTrue(ValueMatcher.compile(regex, 100).isLinear(), regex);
+        }
+        for (String regex : FALLBACK) {
+            assertFalse(ValueMatcher.compile(regex, 100_000).isLinear(), regex);
+        }
+    }
+
+    @Test
+    public void testMatchesJavaRegexOnFixedCases() {
+        String[] inputs = {"", "a", "b", "ab", "aab", "12", "12.5", "12.345", "dev", "prod", "x", "a-b", "\n",
+                "\r\n", " ", "😀x", "😀", "_-", "]-", ".*$", "\t\n\r\f\u001b\u0007",
+                "ab12", "aaaa", "word", "A", "Z", "aa", "c", "dev\n", "b\n"};
+        for (String regex : LINEAR) {
+            ValueMatcher matcher = ValueMatcher.compile(regex, 100);
+            for (String input : inputs) {
+                assertEquals(Pattern.matches(regex, input), matcher.matches(input), regex + " / " + input);
+            }
+        }
+        for (String regex : FALLBACK) {
+            ValueMatcher matcher = ValueMatcher.compile(regex, 100_000);
+            for (String input : inputs) {
+                assertEquals(Pattern.matches(regex, input), matcher.matches(input), regex + " / " + input);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesJavaRegexOnRandomPatterns() {
+        Random random = new Random(11);
+        int linear = 0;
+        for (int round = 0; round < 3000; round++) {
+            String regex = randomRegex(random, 3);
+            ValueMatcher matcher = ValueMatcher.compile(regex, Long.MAX_VALUE);
+            if (matcher.isLinear()) {
+                linear++;
+            }
+            Pattern pattern = Pattern.compile(regex);
+            for (int k = 0; k < 10; k++) {
+                String input = randomInput(random);
+                assertEquals(pattern.matcher(input).matches(), matcher.matches(input), regex + " / " + input);
+            }
+        }
+        assertTrue(linear > 2500, "linear=" + linear);
+    }
+
+    private static String randomRegex(Random random, int depth) {
+        StringBuilder regex = new StringBuilder();
+        int items = 1 + random.nextInt(3);
+        for (int i = 0; i < items; i++) {
+            int kind = random.nextInt(depth > 0 ? 9 : 6);
+            switch (kind) {
+                case 0, 1 -> regex.append("abc".charAt(random.nextInt(3)));
+                case 2 -> regex.append(".");
+                case 3 -> regex.append(List.of("[ab]", "[^a]", "[a-c]", "[-b]", "\\d", "\\w", "\\s", "\\W")
+                        .get(random.nextInt(8)));
+                case 4 -> regex.append("\\.");
+                case 5 -> regex.append("[\\n1]");
+                case 6 -> regex.append('(').append(randomRegex(random, depth - 1)).append(')');
+                case 7 -> regex.append("(?:").append(randomRegex(random, depth - 1))
+                        .append('|').append(randomRegex(random, depth - 1)).append(')');
+                default -> regex.append('(').append(randomRegex(random, depth - 1)).append("|)");
+            }
+            switch (random.nextInt(8)) {
+                case 0 -> regex.append('*');
+                case 1 -> regex.append('+');
+                case 2 -> regex.append('?');
+                case 3 -> regex.append("{").append(random.nextInt(3)).append(",").append(2 + random.nextInt(2)).append('}');
+                case 4 -> regex.append("*?");
+                default -> {
+                }
+            }
+        }
+        return regex.toString();
+    }
+
+    private static String randomInput(Random random) {
+        String alphabet = "abc1.\n é";
+        StringBuilder input = new StringBuilder();
+        int length = random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return input.toString();
+    }
+
+    @Test
+    public void testCatastrophicPatternStaysLinear() {
+        // java.util.regex 在 28 个 a 上已需约 1 秒，且每多 4 个 a 增长数倍
+        ValueMatcher matcher = ValueMatcher.compile("(a|aa){1,40}b", 1);
+        assertTrue(matcher.isLinear());
+        long start = System.nanoTime();
+        for (int length = 20; length <= 40; length++) {
+            assertFalse(matcher.matches("a".repeat(length) + "c"));
+        }
+        assertTrue(matcher.matches("a".repeat(40) + "b"));
+        assertFalse(ValueMatcher.compile("(a|aa)+b", 1).matches("a".repeat(100_000) + "c"));
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+
+    @Test
+    public void testFallbackHonoursStepBudget() {
+        ValueMatcher matcher = ValueMatcher.compile("(?i)a*c", 10_000);
+        assertFalse(matcher.isLinear());
+        assertTrue(matcher.matches("A".repeat(100) + "c"));
+        // 本应匹配的值读取字符次数超过预算，视为不匹配
+        assertFalse(matcher.matches("a".repeat(20_000) + "c"));
+
+        // 分组重复逐字符递归，超长输入耗尽线程栈时同样视为不匹配
+        ValueMatcher recursive = ValueMatcher.compile("(a|aa)+(?=c)c", Long.MAX_VALUE);
+        assertTrue(recursive.matches("aaac"));
+        assertFalse(recursive.matches("a".repeat(200_000) + "c"));
+    }
+
+    @Test
+    public void testValidatorUsesDescriptorMatchers() {
+        CommandDescriptor descriptor = CommandDescriptor.forClass(GuardCmd.class);
+        assertTrue(descriptor.getValueMatcher(descriptor.getOptionByTargetName("id")).isLinear());
+        assertFalse(descriptor.getValueMatcher(descriptor.getOptionByTargetName("tag")).isLinear());
+        assertNull(descriptor.getValueMatcher(descriptor.getOptionByTargetName("name")));
+
+        assertEquals("aab", QCmd.of(new String[]{"guard", "--id", "aab"}).parse(GuardCmd.class).value().id());
+        assertThrows(InvalidParameterValueException.class,
+                () -> QCmd.of(new String[]{"guard", "--id", "a".repeat(5000) + "c"}).parse(GuardCmd.class));
+        assertEquals("ac", QCmd.of(new String[]{"guard", "--tag", "ac"}).parse(GuardCmd.class).value().tag());
+        assertThrows(InvalidParameterValueException.class,
+                () -> QCmd.of(new String[]{"guard", "--tag", "a".repeat(20_000) + "c"}).parse(GuardCmd.class));
+    }
+
+    @Test
+    public void testInvalidRegexAndBudgetFailAtDescriptorBuild() {
+        QCmdException syntax = assertThrows(QCmdException.class, () -> new CommandDescriptor(BrokenCmd.class));
+        assertTrue(syntax.getMessage().contains("x"), syntax.getMessage());
+        assertThrows(QCmdException.class, () -> new CommandDescriptor(ZeroBudgetCmd.class));
+        assertThrows(NullPointerException.class, () -> ValueMatcher.compile(null, 1));
+    }
+}
@@ -0,0 +1,66 @@
+package com.guanyanqi.example;
+
+import com.guanyanqi.QCmdParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 批量解析吞吐量随并行度变化的基准。
+ * <p>
+ * 用同一个 {@link QCmdParser} 分别在 1、2、4…直到 CPU 核数个工作线程的 ForkJoinPool 上
+ * 解析同一批命令行，输出每秒解析条数与相对单线程的加速比。
+ * </p>
+ *
+ * <pre>
+ *     mvn -q test-compile
+ *     java -cp target/classes:target/test-classes com.guanyanqi.example.BatchParseBenchmark 1000000
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class BatchParseBenchmark {
+
+    /**
+     * 创建基准实例。
+     */
+    public BatchParseBenchmark() {
+    }
+
+    /**
+     * 基准入口。
+     *
+     * @param args 可选的命令行条数，默认 500000
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        List<String[]> argvs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            argvs.add(new String[]{"deploy", "-s", "10.0.0." + (i % 250) + ":8080", "-e", "prod",
+                    "-t", Integer.toString(i % 120), "-d", "app-" + i + ".jar"});
+        }
+        QCmdParser<CliAppExample.DeployCommand> parser = QCmdParser.compile(CliAppExample.DeployCommand.class);
+        // 预热，让 JIT 完成编译
+        parser.parseAll(argvs.subList(0, Math.min(count, 100_000)));
+
+        double baseline = 0;
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int parallelism = 1; parallelism <= cores; parallelism = parallelism == cores ? cores + 1
+                : Math.min(cores, parallelism * 2)) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                long start = System.nanoTime();
+                parser.parseAll(argvs, pool);
+                double perSecond = count / ((System.nanoTime() - start) / 1e9);
+                if (parallelism == 1) {
+                    baseline = perSecond;
+                }
+                System.out.printf("threads %2d: %,12.0f parses/s  speedup %.2fx%n",
+                        parallelism, perSecond, perSecond / baseline);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
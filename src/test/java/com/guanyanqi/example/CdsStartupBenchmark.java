@@ -0,0 +1,139 @@
+package com.guanyanqi.example;
+
+import com.guanyanqi.QCmd;
+import com.guanyanqi.cds.CdsTraining;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * 动态 CDS 归档启动耗时对比基准。
+ * <p>
+ * 先以 {@code -XX:ArchiveClassesAtExit} 运行 {@link CdsTraining} 生成归档，
+ * 再分别以默认参数和 {@code -XX:SharedArchiveFile} 反复启动子 JVM 执行一次解析后立即退出，
+ * 对比从进程启动到首次解析完成的墙钟耗时。
+ * </p>
+ *
+ * <pre>
+ *     mvn -q test-compile
+ *     java -cp target/classes:target/test-classes com.guanyanqi.example.CdsStartupBenchmark 20
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class CdsStartupBenchmark {
+
+    private static final String[] FIRST_PARSE_ARGS = {
+            "deploy", "-s", "10.0.0.1:8080", "-e", "prod", "-t", "30", "-d", "app.jar"
+    };
+
+    /**
+     * 创建基准实例。
+     */
+    public CdsStartupBenchmark() {
+    }
+
+    /**
+     * 子进程入口：执行一次解析后退出。
+     */
+    public static final class FirstParse {
+
+        /**
+         * 创建子进程入口实例。
+         */
+        public FirstParse() {
+        }
+
+        /**
+         * 执行一次解析。
+         *
+         * @param args 忽略
+         */
+        public static void main(String[] args) {
+            QCmd.of(FIRST_PARSE_ARGS).parse(CliAppExample.DeployCommand.class);
+        }
+    }
+
+    /**
+     * 基准入口。
+     *
+     * @param args 可选的每组启动次数，默认 10
+     * @throws Exception 子进程启动失败时抛出
+     */
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path workDir = Files.createTempDirectory("qcmd-cds");
+        // CDS 只接受 jar 形式的 classpath，目录条目需要先打包
+        String classpath = jarClasspath(System.getProperty("java.class.path"), workDir);
+        Path archive = workDir.resolve("qcmd.jsa");
+
+        run(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-cp", classpath,
+                CdsTraining.class.getName(), CliAppExample.DeployCommand.class.getName()));
+
+        long[] baseline = new long[runs];
+        long[] archived = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            // 交替执行，削弱文件缓存与 CPU 频率漂移带来的偏差
+            baseline[i] = run(List.of(java, "-cp", classpath, FirstParse.class.getName()));
+            archived[i] = run(List.of(java, "-XX:SharedArchiveFile=" + archive, "-cp", classpath,
+                    FirstParse.class.getName()));
+        }
+        System.out.println("runs per group      : " + runs);
+        System.out.println("without archive (ms): median " + median(baseline) + ", min " + min(baseline));
+        System.out.println("with archive    (ms): median " + median(archived) + ", min " + min(archived));
+    }
+
+    private static long run(List<String> command) throws IOException, InterruptedException {
+        List<String> full = new ArrayList<>(command);
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(full).inheritIO().start();
+        int exit = process.waitFor();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        if (exit != 0) {
+            throw new IllegalStateException("子进程退出码 " + exit + ": " + full);
+        }
+        return elapsedMillis;
+    }
+
+    private static String jarClasspath(String classpath, Path workDir) throws IOException {
+        List<String> entries = new ArrayList<>();
+        int index = 0;
+        for (String entry : classpath.split(File.pathSeparator)) {
+            Path path = Path.of(entry);
+            if (!Files.isDirectory(path)) {
+                entries.add(entry);
+                continue;
+            }
+            Path jar = workDir.resolve("classpath-" + index++ + ".jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+                 Stream<Path> files = Files.walk(path)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    out.putNextEntry(new JarEntry(path.relativize(file).toString().replace(File.separatorChar, '/')));
+                    Files.copy(file, out);
+                    out.closeEntry();
+                }
+            }
+            entries.add(jar.toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long min(long[] values) {
+        return Arrays.stream(values).min().orElse(0);
+    }
+}
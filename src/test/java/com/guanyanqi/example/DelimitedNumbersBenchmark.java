@@ -0,0 +1,80 @@
+package com.guanyanqi.example;
+
+import com.guanyanqi.QCmdParser;
+import com.guanyanqi.annotation.Cmd;
+import com.guanyanqi.annotation.Parameter;
+import com.guanyanqi.converter.DelimitedNumbers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * 大型整数列表选项（{@code --ids=1,2,3,...}）的解析基准。
+ * <p>
+ * 对同一个逗号分隔字符串分别运行通用路径（{@link String#split(String)} 加逐个 {@link Long#valueOf(String)}）
+ * 与 {@link DelimitedNumbers} 的 SWAR 快速路径，并给出经由 {@link QCmdParser} 绑定 {@code List<Long>} 的端到端耗时。
+ * </p>
+ *
+ * <pre>
+ *     mvn -q test-compile
+ *     java -cp target/classes:target/test-classes com.guanyanqi.example.DelimitedNumbersBenchmark 10000000
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class DelimitedNumbersBenchmark {
+
+    /**
+     * 基准使用的命令。
+     *
+     * @param ids 整数列表
+     */
+    @Cmd(names = "load")
+    public record LoadCmd(@Parameter(names = "--ids") List<Long> ids) {}
+
+    /**
+     * 创建基准实例。
+     */
+    public DelimitedNumbersBenchmark() {
+    }
+
+    /**
+     * 基准入口。
+     *
+     * @param args 可选的元素个数，默认 1000000
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < count; i++) {
+            joiner.add(Long.toString(1_000_000_000L + i * 7919L));
+        }
+        String value = joiner.toString();
+        QCmdParser<LoadCmd> parser = QCmdParser.compile(LoadCmd.class);
+        String[] argv = {"load", "--ids=" + value};
+
+        long checksum = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            List<Long> generic = new ArrayList<>(count);
+            for (String part : value.split(",")) {
+                generic.add(Long.valueOf(part));
+            }
+            long genericNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long[] fast = DelimitedNumbers.parseLongs(value);
+            long fastNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Long> bound = parser.parse(argv).value().ids();
+            long bindNanos = System.nanoTime() - start;
+
+            checksum += generic.size() + fast.length + bound.size();
+            System.out.printf("round %d: split+valueOf %,8.1f ms  swar %,8.1f ms (%.1fx)  bind List<Long> %,8.1f ms%n",
+                    round, genericNanos / 1e6, fastNanos / 1e6, (double) genericNanos / fastNanos, bindNanos / 1e6);
+        }
+        System.out.println("checksum " + checksum);
+    }
+}
@@ -0,0 +1,62 @@
+package com.guanyanqi.example;
+
+import com.guanyanqi.core.CommandDescriptor;
+import com.guanyanqi.core.snapshot.DescriptorSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * 描述符快照回放基准。
+ * <p>
+ * 对比反射构建 {@link CommandDescriptor} 与 {@link DescriptorSnapshot#descriptorFor} 回放的单次耗时。
+ * 首轮包含各自的首次调用（注解解析、类加载与字节码指纹计算），之后的轮次为稳态耗时。
+ * </p>
+ *
+ * <pre>
+ *     mvn -q test-compile
+ *     java -cp target/classes:target/test-classes com.guanyanqi.example.DescriptorSnapshotBenchmark
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class DescriptorSnapshotBenchmark {
+
+    /**
+     * 创建基准实例。
+     */
+    public DescriptorSnapshotBenchmark() {
+    }
+
+    /**
+     * 运行基准。
+     *
+     * @param args 未使用
+     * @throws Exception 快照写入失败时抛出
+     */
+    public static void main(String[] args) throws Exception {
+        Class<?> commandClass = CliAppExample.DeployCommand.class;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DescriptorSnapshot.write(List.of(new CommandDescriptor(commandClass)), bytes);
+        DescriptorSnapshot snapshot = DescriptorSnapshot.read(ByteBuffer.wrap(bytes.toByteArray()));
+
+        long sink = 0;
+        for (int round = 0; round < 5; round++) {
+            int iterations = round == 0 ? 1 : 100_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += new CommandDescriptor(commandClass).getOptions().size();
+            }
+            long reflective = (System.nanoTime() - start) / iterations;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += snapshot.descriptorFor(commandClass).getOptions().size();
+            }
+            long replayed = (System.nanoTime() - start) / iterations;
+            System.out.printf("round %d (%d iterations)  reflective=%d ns  snapshot=%d ns%n",
+                    round, iterations, reflective, replayed);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+}
@@ -0,0 +1,61 @@
+package com.guanyanqi.example;
+
+import com.guanyanqi.QCmdParser;
+import com.guanyanqi.metrics.ParsePhase;
+import com.guanyanqi.metrics.PhaseMetrics;
+
+/**
+ * 解析阶段指标开销基准。
+ * <p>
+ * 对比未配置指标（{@link com.guanyanqi.metrics.ParseMetrics#NONE}）与配置 {@link PhaseMetrics} 时的单次解析耗时，
+ * 并输出各阶段的平均耗时与 99 分位。
+ * </p>
+ *
+ * <pre>
+ *     mvn -q test-compile
+ *     java -cp target/classes:target/test-classes com.guanyanqi.example.ParseMetricsBenchmark
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class ParseMetricsBenchmark {
+
+    /**
+     * 创建基准实例。
+     */
+    public ParseMetricsBenchmark() {
+    }
+
+    /**
+     * 运行基准。
+     *
+     * @param args 未使用
+     */
+    public static void main(String[] args) {
+        String[] argv = {"deploy", "-s", "10.0.0.1:8080", "-e", "prod", "-t", "30", "-d", "app.jar"};
+        QCmdParser<CliAppExample.DeployCommand> plain = QCmdParser.compile(CliAppExample.DeployCommand.class);
+        PhaseMetrics metrics = new PhaseMetrics();
+        QCmdParser<CliAppExample.DeployCommand> metered = plain.withMetrics(metrics);
+        long sink = 0;
+        for (int round = 0; round < 5; round++) {
+            int iterations = 500_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += plain.parse(argv).helpText().length();
+            }
+            long none = (System.nanoTime() - start) / iterations;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += metered.parse(argv).helpText().length();
+            }
+            long phased = (System.nanoTime() - start) / iterations;
+            System.out.printf("round %d  none=%d ns  phase-metrics=%d ns%n", round, none, phased);
+        }
+        for (ParsePhase phase : new ParsePhase[]{ParsePhase.TOKENIZE, ParsePhase.VALIDATE, ParsePhase.BIND}) {
+            System.out.printf("%-9s avg=%d ns  p99<=%d ns%n", phase,
+                    metrics.stats(CliAppExample.DeployCommand.class, phase).averageNanos(),
+                    metrics.stats(CliAppExample.DeployCommand.class, phase).p99Nanos());
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+}
@@ -0,0 +1,104 @@
+package com.guanyanqi.example;
+
+import com.guanyanqi.core.SuggestionIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * "是否想输入"候选查询基准。
+ * <p>
+ * 以 300 个形如 {@code service-restart} 的命令名构建 {@link SuggestionIndex}，
+ * 对比索引查询与逐个计算完整编辑距离的朴素扫描。
+ * </p>
+ *
+ * <pre>
+ *     mvn -q test-compile
+ *     java -cp target/classes:target/test-classes com.guanyanqi.example.SuggestionIndexBenchmark 300
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class SuggestionIndexBenchmark {
+
+    private static final String[] NOUNS = {"service", "node", "volume", "secret", "config", "image", "network",
+            "user", "group", "policy", "cluster", "backup", "job", "queue", "route"};
+    private static final String[] VERBS = {"create", "delete", "list", "describe", "update", "restart", "scale",
+            "inspect", "prune", "rotate", "export", "import", "attach", "detach", "label", "watch", "logs",
+            "tag", "pause", "resume"};
+
+    /**
+     * 创建基准实例。
+     */
+    public SuggestionIndexBenchmark() {
+    }
+
+    /**
+     * 运行基准。
+     *
+     * @param args 可选的命令名数量，默认 300
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        List<String> names = new ArrayList<>();
+        for (int i = 0; names.size() < count; i++) {
+            names.add(NOUNS[i % NOUNS.length] + "-" + VERBS[(i / NOUNS.length) % VERBS.length]
+                    + (i >= NOUNS.length * VERBS.length ? "-" + i : ""));
+        }
+        SuggestionIndex index = SuggestionIndex.of(names);
+        Random random = new Random(1);
+        String[] queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            StringBuilder typo = new StringBuilder(names.get(random.nextInt(names.size())));
+            typo.setCharAt(random.nextInt(typo.length()), 'x');
+            queries[i] = typo.toString();
+        }
+
+        long sink = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            int iterations = 200_000;
+            for (int i = 0; i < iterations; i++) {
+                sink += index.suggest(queries[i & 1023]).size();
+            }
+            long indexed = (System.nanoTime() - start) / iterations;
+
+            start = System.nanoTime();
+            int naiveIterations = 20_000;
+            for (int i = 0; i < naiveIterations; i++) {
+                sink += naive(names, queries[i & 1023]);
+            }
+            long scanned = (System.nanoTime() - start) / naiveIterations;
+            System.out.printf("names=%d  index=%d ns/query  naive=%d ns/query%n", count, indexed, scanned);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    private static int naive(List<String> names, String input) {
+        int best = Integer.MAX_VALUE;
+        for (String name : names) {
+            best = Math.min(best, levenshtein(input, name));
+        }
+        return best;
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1], previous[j]) + 1, previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
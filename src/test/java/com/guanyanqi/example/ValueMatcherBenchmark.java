@@ -0,0 +1,70 @@
+package com.guanyanqi.example;
+
+import com.guanyanqi.core.regex.ValueMatcher;
+
+import java.util.regex.Pattern;
+
+/**
+ * valueValidRegex 匹配基准。
+ * <p>
+ * 对比线性时间 NFA 与 {@link Pattern#matches} 在常见表达式上的单次耗时，
+ * 以及在 {@code (a|aa){1,40}b} 这类会触发指数级回溯的表达式上随输入长度的增长。
+ * </p>
+ *
+ * <pre>
+ *     mvn -q test-compile
+ *     java -cp target/classes:target/test-classes com.guanyanqi.example.ValueMatcherBenchmark
+ * </pre>
+ *
+ * @author guanyanqi
+ */
+public class ValueMatcherBenchmark {
+
+    /**
+     * 创建基准实例。
+     */
+    public ValueMatcherBenchmark() {
+    }
+
+    /**
+     * 运行基准。
+     *
+     * @param args 未使用
+     */
+    public static void main(String[] args) {
+        String regex = "^[0-9]+(\\.[0-9]{1,2})?$";
+        ValueMatcher matcher = ValueMatcher.compile(regex, ValueMatcher.DEFAULT_STEP_BUDGET);
+        Pattern pattern = Pattern.compile(regex);
+        String[] values = {"12", "12345.67", "1.234", "abc", "99.9"};
+        long sink = 0;
+        for (int round = 0; round < 5; round++) {
+            int iterations = 1_000_000;
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += matcher.matches(values[i % values.length]) ? 1 : 0;
+            }
+            long nfa = (System.nanoTime() - start) / iterations;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += pattern.matcher(values[i % values.length]).matches() ? 1 : 0;
+            }
+            long backtracking = (System.nanoTime() - start) / iterations;
+            System.out.printf("%s  nfa=%d ns  java.util.regex=%d ns%n", regex, nfa, backtracking);
+        }
+
+        ValueMatcher hostile = ValueMatcher.compile("(a|aa){1,40}b", ValueMatcher.DEFAULT_STEP_BUDGET);
+        Pattern hostilePattern = Pattern.compile("(a|aa){1,40}b");
+        for (int length = 16; length <= 28; length += 4) {
+            String value = "a".repeat(length) + "c";
+            long start = System.nanoTime();
+            sink += hostile.matches(value) ? 1 : 0;
+            long nfa = System.nanoTime() - start;
+            start = System.nanoTime();
+            sink += hostilePattern.matcher(value).matches() ? 1 : 0;
+            long backtracking = System.nanoTime() - start;
+            System.out.printf("(a|aa){1,40}b  length=%d  nfa=%d us  java.util.regex=%d us%n",
+                    length, nfa / 1000, backtracking / 1000);
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+}